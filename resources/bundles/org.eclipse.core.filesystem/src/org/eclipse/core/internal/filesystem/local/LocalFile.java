@@ -20,6 +20,7 @@ package org.eclipse.core.internal.filesystem.local;
 
 import java.io.*;
 import java.net.URI;
+import java.nio.channels.FileChannel;
 import java.nio.file.*;
 import org.eclipse.core.filesystem.*;
 import org.eclipse.core.filesystem.URIUtil;
@@ -98,6 +99,17 @@ public class LocalFile extends FileStore {
 		}
 	}
 
+	/**
+	 * Lists the directory and reads the attributes of its children in a single
+	 * pass, rather than creating a child store and fetching its info separately
+	 * for every entry.
+	 */
+	@Override
+	public IFileInfo[] childInfos(int options, IProgressMonitor monitor) {
+		FileInfo[] infos = LocalFileNativesManager.fetchChildInfos(filePath);
+		return (infos == null ? EMPTY_FILE_INFO_ARRAY : infos);
+	}
+
 	@Override
 	public String[] childNames(int options, IProgressMonitor monitor) {
 		String[] names = file.list();
@@ -126,6 +138,51 @@ public class LocalFile extends FileStore {
 		super.copy(destFile, options, monitor);
 	}
 
+	/**
+	 * Copies between two local files without moving the content through the Java
+	 * heap, so the operating system can use its most efficient copy mechanism.
+	 * An existing destination is written in place, like the stream based copy
+	 * does, so that links, ownership and permissions of the destination are kept.
+	 * Falls back to the stream based copy for other destinations, and for all
+	 * cases where the streams would fail and report a more specific error.
+	 */
+	@Override
+	protected void copyFile(IFileInfo sourceInfo, IFileStore destFile, int options, IProgressMonitor monitor) throws CoreException {
+		if (!(destFile instanceof LocalFile)) {
+			super.copyFile(sourceInfo, destFile, options, monitor);
+			return;
+		}
+		File destination = ((LocalFile) destFile).file;
+		boolean existed = destination.exists();
+		if (existed && (options & EFS.OVERWRITE) == 0) {
+			String message = NLS.bind(Messages.fileExists, destFile);
+			Policy.error(EFS.ERROR_EXISTS, message);
+		}
+		SubMonitor subMonitor = SubMonitor.convert(monitor, NLS.bind(Messages.copying, toString()), 2);
+		try (FileChannel in = FileChannel.open(file.toPath(), StandardOpenOption.READ); //
+				FileChannel out = FileChannel.open(destination.toPath(), StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			long position = 0;
+			//the source may shrink while it is copied, so check its size on every step
+			while (position < in.size()) {
+				long transferred = in.transferTo(position, in.size() - position, out);
+				if (transferred <= 0) {
+					if (position < in.size())
+						throw new IOException("No progress copying " + file); //$NON-NLS-1$
+					break;
+				}
+				position += transferred;
+			}
+		} catch (IOException | UnsupportedOperationException e) {
+			//don't leave a half written file behind and let the streams report the problem
+			if (!existed)
+				destination.delete();
+			super.copyFile(sourceInfo, destFile, options, subMonitor.newChild(2));
+			return;
+		}
+		subMonitor.worked(1);
+		destFile.putInfo(sourceInfo, EFS.SET_ATTRIBUTES | EFS.SET_LAST_MODIFIED, subMonitor.newChild(1));
+	}
+
 	@Override
 	public void delete(int options, IProgressMonitor monitor) throws CoreException {
 		if (monitor == null)
@@ -13,6 +13,7 @@
  *******************************************************************************/
 package org.eclipse.core.internal.filesystem.local;
 
+import java.io.File;
 import org.eclipse.core.filesystem.IFileInfo;
 import org.eclipse.core.filesystem.provider.FileInfo;
 
@@ -25,4 +26,30 @@ public abstract class NativeHandler {
 	public abstract FileInfo fetchFileInfo(String fileName);
 
 	public abstract boolean putFileInfo(String fileName, IFileInfo info, int options);
+
+	/**
+	 * Returns the file information for all children of the given directory, or
+	 * <code>null</code> if the directory could not be listed. Every returned info
+	 * has its name set to the name of the directory entry.
+	 * <p>
+	 * The default implementation lists the directory and then fetches the info
+	 * of each child by name. Subclasses able to read the attributes while
+	 * iterating the directory should override.
+	 * </p>
+	 */
+	public FileInfo[] fetchChildInfos(String directory) {
+		String[] names = new File(directory).list();
+		if (names == null)
+			return null;
+		String prefix = directory.endsWith(File.separator) ? directory : directory + File.separator;
+		FileInfo[] infos = new FileInfo[names.length];
+		for (int i = 0; i < names.length; i++) {
+			FileInfo info = fetchFileInfo(prefix + names[i]);
+			//natives don't set the file name on all platforms
+			if (info.getName().isEmpty())
+				info.setName(names[i]);
+			infos[i] = info;
+		}
+		return infos;
+	}
 }
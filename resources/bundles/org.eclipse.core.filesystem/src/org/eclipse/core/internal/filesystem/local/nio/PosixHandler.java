@@ -18,8 +18,7 @@ package org.eclipse.core.internal.filesystem.local.nio;
 import java.io.IOException;
 import java.nio.file.*;
 import java.nio.file.attribute.*;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.*;
 import org.eclipse.core.filesystem.EFS;
 import org.eclipse.core.filesystem.IFileInfo;
 import org.eclipse.core.filesystem.provider.FileInfo;
@@ -38,7 +37,25 @@ public class PosixHandler extends NativeHandler {
 
 	@Override
 	public FileInfo fetchFileInfo(String fileName) {
-		Path path = Paths.get(fileName);
+		return fetchFileInfo(Paths.get(fileName));
+	}
+
+	@Override
+	public FileInfo[] fetchChildInfos(String directory) {
+		// The entries returned by the directory stream carry their real names,
+		// so there is no need to go through the string based lookup per child.
+		List<FileInfo> infos = new ArrayList<>();
+		try (DirectoryStream<Path> children = Files.newDirectoryStream(Paths.get(directory))) {
+			for (Path child : children) {
+				infos.add(fetchFileInfo(child));
+			}
+		} catch (IOException | DirectoryIteratorException e) {
+			return null;
+		}
+		return infos.toArray(new FileInfo[infos.size()]);
+	}
+
+	private FileInfo fetchFileInfo(Path path) {
 		FileInfo info = new FileInfo();
 
 		// Fill in the name of the file.
@@ -341,15 +341,6 @@ public class DataTreeNode extends AbstractDataTreeNode {
 		return parentsNode.forwardDeltaWith(this, comparer);
 	}
 
-	@Override
-	public void storeStrings(StringPool set) {
-		super.storeStrings(set);
-		//copy data for thread safety
-		Object o = data;
-		if (o instanceof IStringPoolParticipant)
-			((IStringPoolParticipant) o).shareStrings(set);
-	}
-
 	@Override
 	int type() {
 		return T_COMPLETE_NODE;
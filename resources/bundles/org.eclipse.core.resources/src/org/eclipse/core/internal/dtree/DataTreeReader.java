@@ -17,6 +17,7 @@ package org.eclipse.core.internal.dtree;
 import java.io.DataInput;
 import java.io.IOException;
 import org.eclipse.core.internal.utils.Messages;
+import org.eclipse.core.internal.utils.StringPool;
 import org.eclipse.core.runtime.*;
 
 /**
@@ -33,6 +34,13 @@ public class DataTreeReader {
 	 */
 	protected DataInput input;
 
+	/**
+	 * Shares the names of the nodes of the tree being read, which repeat a lot
+	 * across projects. Only kept while reading, so that the names of a workspace
+	 * do not have to go through a long-lived pool.
+	 */
+	private StringPool names;
+
 	/**
 	 * Creates a new DeltaTreeReader.
 	 */
@@ -63,7 +71,7 @@ public class DataTreeReader {
 	 */
 	protected AbstractDataTreeNode readNode(IPath parentPath, String newProjectName) throws IOException {
 		/* read the node name */
-		String name = input.readUTF();
+		String name = names.add(input.readUTF());
 
 		/* read the node type */
 		int nodeType = readNumber();
@@ -146,7 +154,12 @@ public class DataTreeReader {
 	 */
 	public DeltaDataTree readTree(DeltaDataTree parent, DataInput input, String newProjectName) throws IOException {
 		this.input = input;
-		AbstractDataTreeNode root = readNode(Path.ROOT, newProjectName);
-		return new DeltaDataTree(root, parent);
+		names = new StringPool();
+		try {
+			AbstractDataTreeNode root = readNode(Path.ROOT, newProjectName);
+			return new DeltaDataTree(root, parent);
+		} finally {
+			names = null;
+		}
 	}
 }
@@ -113,6 +113,12 @@ public class BuildManager implements ICoreConstants, IManager, ILifecycleListene
 	final AutoBuildJob autoBuildJob;
 	private final Set<IProject> builtProjects = Collections.synchronizedSet(new HashSet<>());
 
+	/**
+	 * How long the last build of each project config took in a parallel build, in
+	 * milliseconds. Used to start the configs on the longest chain first.
+	 */
+	private final Map<IBuildConfiguration, Long> buildDurations = new ConcurrentHashMap<>();
+
 	//the following four fields only apply for the lifetime of a single builder invocation.
 	protected final Set<InternalBuilder> currentBuilders;
 	private ElementTree currentLastBuiltTree;
@@ -584,6 +590,7 @@ public class BuildManager implements ICoreConstants, IManager, ILifecycleListene
 		builtProjects.clear();
 		final GraphProcessor<IBuildConfiguration> graphProcessor = new GraphProcessor<>(configs, IBuildConfiguration.class, (config, graphCrawler) -> {
 			IBuildContext context = new BuildContext(config, requestedConfigs, graphCrawler.getSequentialOrder()); // TODO consider passing Digraph to BuildConfig?
+			long start = System.currentTimeMillis();
 			try {
 				workspace.prepareOperation(null, monitor);
 				workspace.beginOperation(false);
@@ -593,7 +600,8 @@ public class BuildManager implements ICoreConstants, IManager, ILifecycleListene
 			} catch (CoreException ex) {
 				status.add(new Status(IStatus.ERROR, ResourcesPlugin.PI_RESOURCES, ex.getMessage(), ex));
 			}
-		}, config -> getRule(config, trigger, null, Collections.emptyMap()), buildJobGroup);
+			buildDurations.put(config, System.currentTimeMillis() - start);
+		}, config -> getRule(config, trigger, null, Collections.emptyMap()), config -> buildDurations.getOrDefault(config, 0L), buildJobGroup);
 		graphProcessor.processGraphWithParallelJobs();
 		try {
 			Job.getJobManager().join(graphProcessor, monitor);
@@ -1056,6 +1064,7 @@ public class BuildManager implements ICoreConstants, IManager, ILifecycleListene
 				//make sure the builder persistent info is deleted for the project move case
 				if (project.isAccessible())
 					setBuildersPersistentInfo(project, null);
+				buildDurations.keySet().removeIf(config -> event.resource.equals(config.getProject()));
 		}
 	}
 
@@ -14,8 +14,7 @@
 package org.eclipse.core.internal.events;
 
 import java.util.*;
-import java.util.function.BiConsumer;
-import java.util.function.Function;
+import java.util.function.*;
 import org.eclipse.core.internal.resources.ComputeProjectOrder;
 import org.eclipse.core.internal.resources.ComputeProjectOrder.Digraph;
 import org.eclipse.core.internal.resources.ComputeProjectOrder.Digraph.Edge;
@@ -24,7 +23,15 @@ import org.eclipse.core.runtime.*;
 import org.eclipse.core.runtime.jobs.*;
 
 /**
- *
+ * Processes the vertexes of a graph in parallel jobs, each vertex once all the
+ * vertexes it has incoming edges from have been processed.
+ * <p>
+ * The number of unprocessed predecessors of every vertex is counted down as
+ * vertexes complete, so finding the vertexes that became ready does not rescan
+ * the graph. Vertexes that become ready together are started longest remaining
+ * chain first, so that the vertexes on the critical path of the graph do not
+ * wait behind others.
+ * </p>
  */
 class GraphProcessor<T> {
 
@@ -32,12 +39,27 @@ class GraphProcessor<T> {
 	final private Set<T> toProcess;
 	final private Set<T> processing;
 	final private Set<T> processed;
+	/** The vertexes that have no unprocessed predecessors and have not been started yet */
+	final private Set<T> ready;
+	/** The number of unprocessed predecessors of each vertex */
+	final private Map<T, Integer> pendingPredecessors;
+	final private Map<T, List<T>> successors;
+	/** The estimated time to process a vertex and the longest chain of vertexes after it */
+	final private Map<T, Long> remainingCost;
 	final private VertexOrder<T> sequentialOrder;
 	final private JobGroup buildJobGroup;
 	final private BiConsumer<T, GraphProcessor<T>> processor;
 	final private Function<T, ISchedulingRule> ruleFactory;
 
 	GraphProcessor(Digraph<T> graph1, Class<T> clazz, final BiConsumer<T, GraphProcessor<T>> processor, Function<T, ISchedulingRule> ruleFactory, JobGroup buildJobGroup) {
+		this(graph1, clazz, processor, ruleFactory, null, buildJobGroup);
+	}
+
+	/**
+	 * @param costEstimate estimates the time needed to process a vertex, or
+	 * <code>null</code> to treat all vertexes alike
+	 */
+	GraphProcessor(Digraph<T> graph1, Class<T> clazz, final BiConsumer<T, GraphProcessor<T>> processor, Function<T, ISchedulingRule> ruleFactory, ToLongFunction<T> costEstimate, JobGroup buildJobGroup) {
 		this.graph = graph1;
 		this.processor = processor;
 		this.ruleFactory = ruleFactory;
@@ -46,6 +68,44 @@ class GraphProcessor<T> {
 		processing = new HashSet<>();
 		processed = new HashSet<>();
 		sequentialOrder = ComputeProjectOrder.computeVertexOrder(graph, clazz);
+		pendingPredecessors = new HashMap<>();
+		successors = new HashMap<>();
+		for (T item : toProcess) {
+			pendingPredecessors.put(item, 0);
+			successors.put(item, new ArrayList<>(2));
+		}
+		for (Edge<T> edge : graph.getEdges()) {
+			successors.get(edge.from).add(edge.to);
+			pendingPredecessors.merge(edge.to, 1, Integer::sum);
+		}
+		ready = new HashSet<>();
+		pendingPredecessors.forEach((item, count) -> {
+			if (count == 0)
+				ready.add(item);
+		});
+		remainingCost = computeRemainingCost(costEstimate);
+	}
+
+	/**
+	 * Computes the cost of the longest chain of vertexes starting at each vertex.
+	 * Vertexes are visited in reverse processing order so that the successors of
+	 * a vertex are done before it; successors on a cycle that have not been done
+	 * yet are ignored.
+	 */
+	private Map<T, Long> computeRemainingCost(ToLongFunction<T> costEstimate) {
+		Map<T, Long> result = new HashMap<>();
+		T[] order = sequentialOrder.vertexes;
+		for (int i = order.length - 1; i >= 0; i--) {
+			T item = order[i];
+			long longestSuccessor = 0;
+			for (T successor : successors.get(item)) {
+				longestSuccessor = Math.max(longestSuccessor, result.getOrDefault(successor, 0L));
+			}
+			// every vertex costs something, so that longer chains win when nothing is known
+			long cost = costEstimate == null ? 1 : Math.max(1, costEstimate.applyAsLong(item));
+			result.put(item, cost + longestSuccessor);
+		}
+		return result;
 	}
 
 	private boolean complete() {
@@ -68,24 +128,28 @@ class GraphProcessor<T> {
 			throw new IllegalArgumentException();
 		}
 		processed.add(item);
-	}
-
-	private Set<T> computeReadyVertexes() {
-		Set<T> res = new HashSet<>(toProcess);
-		for (T item : toProcess) {
-			for (Edge<T> edge : graph.getEdges()) {
-				if (edge.to == item && !processed.contains(edge.from)) {
-					res.remove(item);
-				}
+		for (T successor : successors.get(item)) {
+			if (pendingPredecessors.merge(successor, -1, Integer::sum) == 0 && toProcess.contains(successor)) {
+				ready.add(successor);
 			}
 		}
-		if (res.isEmpty() && !isProcessing()) { // nothing ready, nothing running: a cycle!
+	}
+
+	/**
+	 * Returns the vertexes that can be started now, the ones with the longest
+	 * remaining chain first.
+	 */
+	private List<T> computeReadyVertexes() {
+		if (ready.isEmpty() && !isProcessing()) { // nothing ready, nothing running: a cycle!
 			for (T id : sequentialOrder.vertexes) {
 				if (!isProcessed(id)) {
-					return Collections.singleton(id);
+					return Collections.singletonList(id);
 				}
 			}
 		}
+		List<T> res = new ArrayList<>(ready);
+		ready.clear();
+		res.sort(Comparator.comparing(remainingCost::get, Comparator.reverseOrder()));
 		return res;
 	}
 
@@ -104,7 +168,7 @@ class GraphProcessor<T> {
 	public synchronized void processGraphWithParallelJobs() {
 		if (!complete()) {
 			if (!allTriggered()) {
-				Set<T> readyToBuild = computeReadyVertexes();
+				List<T> readyToBuild = computeReadyVertexes();
 				readyToBuild.forEach(this::triggerJob);
 			}
 		}
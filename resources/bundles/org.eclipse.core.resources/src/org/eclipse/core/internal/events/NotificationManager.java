@@ -116,7 +116,11 @@ public class NotificationManager implements IManager, ILifecycleListener {
 	}
 
 	public void addListener(IResourceChangeListener listener, int eventMask) {
-		listeners.add(listener, eventMask);
+		addListener(listener, eventMask, null);
+	}
+
+	public void addListener(IResourceChangeListener listener, int eventMask, IPath[] scope) {
+		listeners.add(listener, eventMask, scope);
 		if (ResourceStats.TRACE_LISTENERS)
 			ResourceStats.listenerAdded(listener);
 	}
@@ -291,6 +295,9 @@ public class NotificationManager implements IManager, ILifecycleListener {
 		try {
 			for (ListenerEntry resourceListener : resourceListeners) {
 				if ((type & resourceListener.eventMask) != 0) {
+					final ResourceChangeEvent listenerEvent = scopedEvent(resourceListener, event);
+					if (listenerEvent == null)
+						continue;
 					final IResourceChangeListener listener = resourceListener.listener;
 					if (ResourceStats.TRACE_LISTENERS)
 						ResourceStats.startNotify(listener);
@@ -303,8 +310,8 @@ public class NotificationManager implements IManager, ILifecycleListener {
 						@Override
 						public void run() throws Exception {
 							if (Policy.DEBUG_NOTIFICATIONS)
-								Policy.debug("Notifying " + listener.getClass().getName() + " about resource change event" + event.toDebugString()); //$NON-NLS-1$ //$NON-NLS-2$
-							listener.resourceChanged(event);
+								Policy.debug("Notifying " + listener.getClass().getName() + " about resource change event" + listenerEvent.toDebugString()); //$NON-NLS-1$ //$NON-NLS-2$
+							listener.resourceChanged(listenerEvent);
 						}
 					});
 					if (ResourceStats.TRACE_LISTENERS)
@@ -317,6 +324,28 @@ public class NotificationManager implements IManager, ILifecycleListener {
 		}
 	}
 
+	/**
+	 * Returns the event to send to the given listener, restricted to the scope of
+	 * the listener, or <code>null</code> if the listener is not interested in it.
+	 */
+	private ResourceChangeEvent scopedEvent(ListenerEntry entry, ResourceChangeEvent event) {
+		if (entry.scope == null)
+			return event;
+		IResourceDelta delta = event.getDelta();
+		if (delta == null) {
+			IResource resource = event.getResource();
+			return resource == null || entry.overlaps(resource.getFullPath()) ? event : null;
+		}
+		ResourceDelta scopedDelta = ((ResourceDelta) delta).scopedTo(entry.scope);
+		// like broadcastChanges, only build events are sent without changes
+		int trigger = event.getBuildKind();
+		if (scopedDelta.getKind() == 0 && (trigger == IncrementalProjectBuilder.AUTO_BUILD || trigger == 0))
+			return null;
+		ResourceChangeEvent result = new ResourceChangeEvent(event.getSource(), event.getType(), trigger, scopedDelta);
+		result.setScope(entry.scope);
+		return result;
+	}
+
 	public void removeListener(IResourceChangeListener listener) {
 		listeners.remove(listener);
 		if (ResourceStats.TRACE_LISTENERS)
@@ -31,6 +31,11 @@ public class ResourceChangeEvent extends EventObject implements IResourceChangeE
 	 */
 	private int trigger = 0;
 	int type;
+	/**
+	 * The paths of the subtrees the event is restricted to, or <code>null</code>
+	 * if it is about the whole workspace.
+	 */
+	private IPath[] scope;
 
 	protected ResourceChangeEvent(Object source, int type, IResource resource) {
 		super(source);
@@ -60,9 +65,10 @@ public class ResourceChangeEvent extends EventObject implements IResourceChangeE
 		if (markerDeltas == null || markerDeltas.isEmpty())
 			return NO_MARKER_DELTAS;
 		ArrayList<IMarkerDelta> matching = new ArrayList<>();
-		Iterator<MarkerSet> deltaSets = markerDeltas.values().iterator();
-		while (deltaSets.hasNext()) {
-			MarkerSet deltas = deltaSets.next();
+		for (Map.Entry<IPath, MarkerSet> entry : markerDeltas.entrySet()) {
+			if (scope != null && !isInScope(entry.getKey()))
+				continue;
+			MarkerSet deltas = entry.getValue();
 			IMarkerSetElement[] elements = deltas.elements();
 			for (IMarkerSetElement element : elements) {
 				MarkerDelta markerDelta = (MarkerDelta) element;
@@ -74,6 +80,14 @@ public class ResourceChangeEvent extends EventObject implements IResourceChangeE
 		return matching.toArray(new IMarkerDelta[matching.size()]);
 	}
 
+	private boolean isInScope(IPath path) {
+		for (IPath element : scope) {
+			if (element.isPrefixOf(path))
+				return true;
+		}
+		return false;
+	}
+
 	/**
 	 * @see IResourceChangeEvent#getBuildKind()
 	 */
@@ -110,6 +124,14 @@ public class ResourceChangeEvent extends EventObject implements IResourceChangeE
 		delta = value;
 	}
 
+	/**
+	 * Restricts the marker deltas reported by this event to the resources in
+	 * the subtrees rooted at the given paths.
+	 */
+	void setScope(IPath[] value) {
+		scope = value;
+	}
+
 	public String toDebugString() {
 		StringBuilder output = new StringBuilder();
 		output.append("\nType: ");//$NON-NLS-1$
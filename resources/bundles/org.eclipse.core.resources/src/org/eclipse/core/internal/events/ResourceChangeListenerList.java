@@ -13,9 +13,11 @@
  *******************************************************************************/
 package org.eclipse.core.internal.events;
 
+import java.util.Arrays;
 import java.util.Objects;
 import java.util.concurrent.CopyOnWriteArrayList;
 import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.runtime.IPath;
 
 /**
  * This class is used to maintain a list of listeners. It is a fairly lightweight object,
@@ -36,10 +38,31 @@ public class ResourceChangeListenerList {
 	static final class ListenerEntry {
 		final int eventMask;
 		final IResourceChangeListener listener;
+		/** The paths of the subtrees the listener is interested in, or <code>null</code> for the whole workspace */
+		final IPath[] scope;
 
 		ListenerEntry(IResourceChangeListener listener, int eventMask) {
+			this(listener, eventMask, null);
+		}
+
+		ListenerEntry(IResourceChangeListener listener, int eventMask, IPath[] scope) {
 			this.listener = listener;
 			this.eventMask = eventMask;
+			this.scope = scope;
+		}
+
+		/**
+		 * Returns whether a change of the resource at the given path, or of its
+		 * descendants, may be of interest to the listener.
+		 */
+		boolean overlaps(IPath path) {
+			if (scope == null)
+				return true;
+			for (IPath element : scope) {
+				if (element.isPrefixOf(path) || path.isPrefixOf(element))
+					return true;
+			}
+			return false;
 		}
 
 		@Override
@@ -47,6 +70,10 @@ public class ResourceChangeListenerList {
 			StringBuilder sb = new StringBuilder();
 			sb.append("Listener [eventMask="); //$NON-NLS-1$
 			sb.append(eventMask);
+			if (scope != null) {
+				sb.append(", scope="); //$NON-NLS-1$
+				sb.append(Arrays.toString(scope));
+			}
 			sb.append(", "); //$NON-NLS-1$
 			sb.append(listener);
 			sb.append("]"); //$NON-NLS-1$
@@ -73,13 +100,27 @@ public class ResourceChangeListenerList {
 	 * @param listener the listener
 	 * @param mask     event types
 	 */
-	public synchronized void add(IResourceChangeListener listener, int mask) {
+	public void add(IResourceChangeListener listener, int mask) {
+		add(listener, mask, null);
+	}
+
+	/**
+	 * Adds the given listener to this list, interested only in changes of the
+	 * resources in the subtrees rooted at the given paths. If an identical
+	 * listener is already registered the mask and scope are updated.
+	 *
+	 * @param listener the listener
+	 * @param mask     event types
+	 * @param scope    the paths of the subtrees of interest, or <code>null</code>
+	 *                 for the whole workspace
+	 */
+	public synchronized void add(IResourceChangeListener listener, int mask, IPath[] scope) {
 		Objects.requireNonNull(listener);
 		if (mask == 0) {
 			remove(listener);
 			return;
 		}
-		ResourceChangeListenerList.ListenerEntry entry = new ResourceChangeListenerList.ListenerEntry(listener, mask);
+		ResourceChangeListenerList.ListenerEntry entry = new ResourceChangeListenerList.ListenerEntry(listener, mask, scope);
 		final int oldSize = listeners.size();
 		// check for duplicates using identity
 		for (int i = 0; i < oldSize; ++i) {
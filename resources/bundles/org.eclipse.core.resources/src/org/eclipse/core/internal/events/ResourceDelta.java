@@ -33,7 +33,10 @@ public class ResourceDelta extends PlatformObject implements IResourceDelta {
 	protected int status;
 	protected ResourceInfo oldInfo;
 	protected ResourceInfo newInfo;
-	protected ResourceDelta[] children;
+	/** The children of this delta, or <code>null</code> if they have not been created yet */
+	protected volatile ResourceDelta[] children;
+	/** The path of this delta in the delta data tree it is created from */
+	protected IPath pathInDelta;
 	// don't aggressively set this, but cache it if called once
 	protected IResource cachedResource;
 
@@ -66,7 +69,7 @@ public class ResourceDelta extends PlatformObject implements IResourceDelta {
 			return;
 		if (!visitor.visit(this))
 			return;
-		for (ResourceDelta childDelta : children) {
+		for (ResourceDelta childDelta : getChildren()) {
 			// quietly exclude team-private, hidden and phantom members unless explicitly included
 			if (!includeTeamPrivate && childDelta.isTeamPrivate())
 				continue;
@@ -108,7 +111,7 @@ public class ResourceDelta extends PlatformObject implements IResourceDelta {
 		//iterate over the path and find matching child delta
 		ResourceDelta current = this;
 		segments: for (int i = 0; i < segmentCount; i++) {
-			for (IResourceDelta element : current.children) {
+			for (IResourceDelta element : current.getChildren()) {
 				if (element.getFullPath().lastSegment().equals(path.segment(i))) {
 					current = (ResourceDelta) element;
 					continue segments;
@@ -122,9 +125,10 @@ public class ResourceDelta extends PlatformObject implements IResourceDelta {
 
 	/**
 	 * Delta information on moves and on marker deltas can only be computed after
-	 * the delta has been built.  This method fixes up the delta to accurately
-	 * reflect moves (setting MOVED_FROM and MOVED_TO), and marker changes on
-	 * added and removed resources.
+	 * the node IDs of the whole delta are known.  This method fixes up this delta
+	 * node to accurately reflect moves (setting MOVED_FROM and MOVED_TO), and
+	 * marker changes on added and removed resources.  Children are fixed up
+	 * when they are created.
 	 */
 	protected void fixMovesAndMarkers(ElementTree oldTree) {
 		NodeIDMap nodeIDMap = deltaInfo.getNodeIDMap();
@@ -166,10 +170,6 @@ public class ResourceDelta extends PlatformObject implements IResourceDelta {
 		//check for marker deltas -- this is affected by move computation
 		//so must happen afterwards
 		checkForMarkerDeltas();
-
-		//recurse on children
-		for (ResourceDelta element : children)
-			element.fixMovesAndMarkers(oldTree);
 	}
 
 	@Override
@@ -184,6 +184,7 @@ public class ResourceDelta extends PlatformObject implements IResourceDelta {
 
 	@Override
 	public IResourceDelta[] getAffectedChildren(int kindMask, int memberFlags) {
+		ResourceDelta[] children = getChildren();
 		int numChildren = children.length;
 		//if there are no children, they all match
 		if (numChildren == 0)
@@ -231,6 +232,22 @@ public class ResourceDelta extends PlatformObject implements IResourceDelta {
 		return result;
 	}
 
+	/**
+	 * Returns the children of this delta, creating them from the delta data
+	 * tree the first time they are asked for.
+	 */
+	protected ResourceDelta[] getChildren() {
+		ResourceDelta[] result = children;
+		if (result == null) {
+			synchronized (this) {
+				result = children;
+				if (result == null)
+					children = result = ResourceDeltaFactory.createChildren(this, pathInDelta);
+			}
+		}
+		return result;
+	}
+
 	protected ResourceDeltaInfo getDeltaInfo() {
 		return deltaInfo;
 	}
@@ -352,6 +369,10 @@ public class ResourceDelta extends PlatformObject implements IResourceDelta {
 		this.children = children;
 	}
 
+	protected void setPathInDelta(IPath pathInDelta) {
+		this.pathInDelta = pathInDelta;
+	}
+
 	protected void setNewInfo(ResourceInfo newInfo) {
 		this.newInfo = newInfo;
 	}
@@ -381,7 +402,7 @@ public class ResourceDelta extends PlatformObject implements IResourceDelta {
 	public String toDeepDebugString() {
 		final StringBuilder buffer = new StringBuilder("\n"); //$NON-NLS-1$
 		writeDebugString(buffer);
-		for (ResourceDelta element : children)
+		for (ResourceDelta element : getChildren())
 			buffer.append(element.toDeepDebugString());
 		return buffer.toString();
 	}
@@ -394,6 +415,60 @@ public class ResourceDelta extends PlatformObject implements IResourceDelta {
 		return "ResourceDelta(" + path + ')'; //$NON-NLS-1$
 	}
 
+	/**
+	 * Returns a delta with the same root as this one that only contains the
+	 * changes of the resources in the subtrees rooted at the given paths. If
+	 * none of them has changed, the returned delta has no children and no
+	 * changes. The deltas of those subtrees are shared with this delta, only
+	 * their ancestors are copied. The copied ancestors are plain
+	 * {@link IResourceDelta#CHANGED} deltas without flags.
+	 */
+	public ResourceDelta scopedTo(IPath[] scope) {
+		ResourceDelta result = scopedDelta(scope);
+		if (result == null) {
+			result = new ResourceDelta(path, deltaInfo);
+			result.oldInfo = oldInfo;
+			result.newInfo = newInfo;
+			result.children = ResourceDeltaFactory.NO_CHILDREN;
+		}
+		return result;
+	}
+
+	private ResourceDelta scopedDelta(IPath[] scope) {
+		for (IPath element : scope) {
+			if (element.isPrefixOf(path))
+				return this;
+		}
+		ResourceDelta[] allChildren = getChildren();
+		ResourceDelta[] scopedChildren = new ResourceDelta[allChildren.length];
+		int count = 0;
+		for (ResourceDelta child : allChildren) {
+			for (IPath element : scope) {
+				if (child.path.isPrefixOf(element)) {
+					ResourceDelta scoped = child.scopedDelta(scope);
+					if (scoped != null)
+						scopedChildren[count++] = scoped;
+					break;
+				}
+			}
+		}
+		if (count == 0)
+			return null;
+		ResourceDelta result = new ResourceDelta(path, deltaInfo);
+		// only kept as the path to the changes in scope, so its own changes are not reported
+		result.status = CHANGED;
+		result.oldInfo = oldInfo;
+		result.newInfo = newInfo;
+		result.pathInDelta = pathInDelta;
+		if (count < scopedChildren.length) {
+			ResourceDelta[] trimmed = new ResourceDelta[count];
+			System.arraycopy(scopedChildren, 0, trimmed, 0, count);
+			scopedChildren = trimmed;
+		}
+		result.children = scopedChildren;
+		return result;
+	}
+
 	/**
 	 * Provides a new set of markers for the delta.  This is used
 	 * when the delta is reused in cases where the only changes
@@ -27,6 +27,13 @@ import org.eclipse.core.runtime.Path;
 /**
  * This class is used for calculating and building resource delta trees for notification
  * and build purposes.
+ * <p>
+ * Only the root of a resource delta is created up front. The children of a
+ * delta are created from the underlying delta data tree the first time they
+ * are asked for, so listeners and builders that only look at part of a large
+ * delta do not pay for the rest of it. Created children are kept, so all
+ * listeners share them.
+ * </p>
  */
 public class ResourceDeltaFactory {
 	/**
@@ -59,116 +66,130 @@ public class ResourceDeltaFactory {
 		if (markerGeneration >= 0)
 			allMarkerDeltas = workspace.getMarkerManager().getMarkerDeltas(markerGeneration);
 
-		//recursively walk the delta and create a tree of ResourceDelta objects.
 		ResourceDeltaInfo deltaInfo = new ResourceDeltaInfo(workspace, allMarkerDeltas, comparator);
-		ResourceDelta result = createDelta(workspace, delta, deltaInfo, pathInTree, pathInDelta);
+		deltaInfo.setTrees(delta, oldTree, newTree);
 
-		//compute node ID map and fix up moves
-		deltaInfo.setNodeIDMap(computeNodeIDMap(result, new NodeIDMap()));
-		result.fixMovesAndMarkers(oldTree);
+		//compute node ID map up front, because moves may connect any two parts of the delta
+		NodeIDMap nodeIDMap = new NodeIDMap();
+		for (IPath childInDelta : delta.getChildren(pathInDelta))
+			computeNodeIDMap(delta, treePathFor(pathInTree, pathInDelta, childInDelta), childInDelta, nodeIDMap);
+		deltaInfo.setNodeIDMap(nodeIDMap);
 
-		// check all the projects and if they were added and opened then tweek the flags
-		// so the delta reports both.
-		int segmentCount = result.getFullPath().segmentCount();
-		if (segmentCount <= 1)
-			checkForOpen(result, segmentCount);
-		return result;
+		//the children of the result are created on demand
+		return createDelta(deltaInfo, pathInTree, pathInDelta);
+	}
+
+	/**
+	 * Returns the path in the element tree of the given child of a delta node.
+	 */
+	private static IPath treePathFor(IPath pathInTree, IPath pathInDelta, IPath childInDelta) {
+		//reuse the delta path if tree-relative and delta-relative are the same
+		return pathInTree == pathInDelta ? childInDelta : pathInTree.append(childInDelta.lastSegment());
 	}
 
 	/**
-	 * Checks to see if added projects were also opens and tweaks the flags
-	 * accordingly. Should only be called for root and projects. Pass the segment count
-	 * in since we've already calculated it before.
+	 * Checks to see if an added project was also opened and tweaks the flags
+	 * accordingly. Should only be called for the root and projects.
 	 */
-	protected static void checkForOpen(ResourceDelta delta, int segmentCount) {
+	protected static void checkForOpen(ResourceDelta delta) {
 		if (delta.getKind() == IResourceDelta.ADDED)
 			if (delta.newInfo.isSet(ICoreConstants.M_OPEN))
 				delta.status |= IResourceDelta.OPEN;
-		// return for PROJECT
-		if (segmentCount == 1)
-			return;
-		// recurse for ROOT
-		IResourceDelta[] children = delta.children;
-		for (IResourceDelta element : children)
-			checkForOpen((ResourceDelta) element, 1);
 	}
 
 	/**
-	 * Creates the map from node id to element id for the old and new states.
-	 * Used for recognizing moves.  Returns the map.
+	 * Adds the node ids of the old and new states of the given delta node and
+	 * its descendants to the map. Used for recognizing moves.
 	 */
-	protected static NodeIDMap computeNodeIDMap(ResourceDelta delta, NodeIDMap nodeIDMap) {
-		IResourceDelta[] children = delta.children;
-		for (IResourceDelta element : children) {
-			ResourceDelta child = (ResourceDelta) element;
-			IPath path = child.getFullPath();
-			switch (child.getKind()) {
-				case IResourceDelta.ADDED :
-					nodeIDMap.putNewPath(child.newInfo.getNodeId(), path);
-					break;
-				case IResourceDelta.REMOVED :
-					nodeIDMap.putOldPath(child.oldInfo.getNodeId(), path);
-					break;
-				case IResourceDelta.CHANGED :
-					long oldID = child.oldInfo.getNodeId();
-					long newID = child.newInfo.getNodeId();
-					//don't add entries to the map if nothing has changed.
-					if (oldID != newID) {
-						nodeIDMap.putOldPath(oldID, path);
-						nodeIDMap.putNewPath(newID, path);
-					}
-					break;
-			}
-			//recurse
-			computeNodeIDMap(child, nodeIDMap);
+	protected static void computeNodeIDMap(DeltaDataTree delta, IPath pathInTree, IPath pathInDelta, NodeIDMap nodeIDMap) {
+		NodeComparison compare = (NodeComparison) delta.getData(pathInDelta);
+		switch (compare.getUserComparison() & ResourceDelta.KIND_MASK) {
+			case IResourceDelta.ADDED :
+				nodeIDMap.putNewPath(((ResourceInfo) compare.getNewData()).getNodeId(), pathInTree);
+				break;
+			case IResourceDelta.REMOVED :
+				nodeIDMap.putOldPath(((ResourceInfo) compare.getOldData()).getNodeId(), pathInTree);
+				break;
+			case IResourceDelta.CHANGED :
+				long oldID = ((ResourceInfo) compare.getOldData()).getNodeId();
+				long newID = ((ResourceInfo) compare.getNewData()).getNodeId();
+				//don't add entries to the map if nothing has changed.
+				if (oldID != newID) {
+					nodeIDMap.putOldPath(oldID, pathInTree);
+					nodeIDMap.putNewPath(newID, pathInTree);
+				}
+				break;
 		}
-		return nodeIDMap;
+		//recurse
+		for (IPath childInDelta : delta.getChildren(pathInDelta))
+			computeNodeIDMap(delta, treePathFor(pathInTree, pathInDelta, childInDelta), childInDelta, nodeIDMap);
 	}
 
 	/**
-	 * Recursively creates the tree of ResourceDelta objects rooted at
-	 * the given path.
+	 * Creates the ResourceDelta object for the node at the given path, without
+	 * its children.
 	 */
-	protected static ResourceDelta createDelta(Workspace workspace, DeltaDataTree delta, ResourceDeltaInfo deltaInfo, IPath pathInTree, IPath pathInDelta) {
+	protected static ResourceDelta createDelta(ResourceDeltaInfo deltaInfo, IPath pathInTree, IPath pathInDelta) {
 		// create the delta and fill it with information
+		DeltaDataTree delta = deltaInfo.getDeltaTree();
 		ResourceDelta result = new ResourceDelta(pathInTree, deltaInfo);
+		result.setPathInDelta(pathInDelta);
 
 		// fill the result with information
 		NodeComparison compare = (NodeComparison) delta.getData(pathInDelta);
 		int comparison = compare.getUserComparison();
 		result.setStatus(comparison);
 		if (comparison == IResourceDelta.NO_CHANGE || Path.ROOT.equals(pathInTree)) {
-			ResourceInfo info = workspace.getResourceInfo(pathInTree, true, false);
+			ResourceInfo info = getResourceInfo(deltaInfo.getNewTree(), pathInTree);
 			result.setOldInfo(info);
 			result.setNewInfo(info);
 		} else {
 			result.setOldInfo((ResourceInfo) compare.getOldData());
 			result.setNewInfo((ResourceInfo) compare.getNewData());
 		}
-		// recurse over the children
-		IPath[] childKeys = delta.getChildren(pathInDelta);
-		int numChildren = childKeys.length;
-		if (numChildren == 0) {
-			result.setChildren(NO_CHILDREN);
-		} else {
-			ResourceDelta[] children = new ResourceDelta[numChildren];
-			for (int i = 0; i < numChildren; i++) {
-				//reuse the delta path if tree-relative and delta-relative are the same
-				IPath newTreePath = pathInTree == pathInDelta ? childKeys[i] : pathInTree.append(childKeys[i].lastSegment());
-				children[i] = createDelta(workspace, delta, deltaInfo, newTreePath, childKeys[i]);
-			}
-			result.setChildren(children);
-		}
 
 		// if this delta has children but no other changes, mark it as changed
 		int status = result.status;
-		if ((status & IResourceDelta.ALL_WITH_PHANTOMS) == 0 && numChildren != 0)
+		if ((status & IResourceDelta.ALL_WITH_PHANTOMS) == 0 && delta.getChildren(pathInDelta).length != 0)
 			result.setStatus(status |= IResourceDelta.CHANGED);
 
-		// return the delta
+		result.fixMovesAndMarkers(deltaInfo.getOldTree());
+
+		// check the projects and if they were added and opened then tweak the flags
+		// so the delta reports both.
+		if (pathInTree.segmentCount() <= 1)
+			checkForOpen(result);
 		return result;
 	}
 
+	/**
+	 * Creates the children of the given delta.
+	 */
+	protected static ResourceDelta[] createChildren(ResourceDelta parent, IPath pathInDelta) {
+		ResourceDeltaInfo deltaInfo = parent.getDeltaInfo();
+		IPath[] childKeys = deltaInfo.getDeltaTree().getChildren(pathInDelta);
+		int numChildren = childKeys.length;
+		if (numChildren == 0)
+			return NO_CHILDREN;
+		IPath pathInTree = parent.getFullPath();
+		ResourceDelta[] children = new ResourceDelta[numChildren];
+		for (int i = 0; i < numChildren; i++)
+			children[i] = createDelta(deltaInfo, treePathFor(pathInTree, pathInDelta, childKeys[i]), childKeys[i]);
+		return children;
+	}
+
+	/**
+	 * Returns the info of the resource at the given path in the given tree,
+	 * including phantoms.
+	 */
+	private static ResourceInfo getResourceInfo(ElementTree tree, IPath path) {
+		if (path.segmentCount() == 0)
+			return (ResourceInfo) tree.getTreeData();
+		if (!tree.includes(path))
+			return null;
+		return (ResourceInfo) tree.getElementData(path);
+	}
+
 	/**
 	 * Returns an empty build delta describing the fact that no
 	 * changes occurred in the given project.  The returned delta
@@ -16,8 +16,10 @@ package org.eclipse.core.internal.events;
 
 import java.util.Map;
 import java.util.stream.Collectors;
+import org.eclipse.core.internal.dtree.DeltaDataTree;
 import org.eclipse.core.internal.resources.MarkerSet;
 import org.eclipse.core.internal.resources.Workspace;
+import org.eclipse.core.internal.watson.ElementTree;
 import org.eclipse.core.runtime.IPath;
 
 public class ResourceDeltaInfo {
@@ -25,6 +27,10 @@ public class ResourceDeltaInfo {
 	protected Map<IPath, MarkerSet> allMarkerDeltas;
 	protected NodeIDMap nodeIDMap;
 	protected ResourceComparator comparator;
+	/** The comparison tree the children of deltas are created from */
+	protected DeltaDataTree deltaTree;
+	protected ElementTree oldTree;
+	protected ElementTree newTree;
 
 	public ResourceDeltaInfo(Workspace workspace, Map<IPath, MarkerSet> markerDeltas, ResourceComparator comparator) {
 		super();
@@ -40,6 +46,10 @@ public class ResourceDeltaInfo {
 	/**
 	 * Table of all marker deltas, IPath -&gt; MarkerSet
 	 */
+	public DeltaDataTree getDeltaTree() {
+		return deltaTree;
+	}
+
 	public Map<IPath, MarkerSet> getMarkerDeltas() {
 		return allMarkerDeltas;
 	}
@@ -48,6 +58,14 @@ public class ResourceDeltaInfo {
 		return nodeIDMap;
 	}
 
+	public ElementTree getNewTree() {
+		return newTree;
+	}
+
+	public ElementTree getOldTree() {
+		return oldTree;
+	}
+
 	public Workspace getWorkspace() {
 		return workspace;
 	}
@@ -60,6 +78,16 @@ public class ResourceDeltaInfo {
 		nodeIDMap = map;
 	}
 
+	/**
+	 * Sets the comparison tree between the given old and new trees that the
+	 * children of deltas are created from.
+	 */
+	public void setTrees(DeltaDataTree delta, ElementTree oldState, ElementTree newState) {
+		deltaTree = delta;
+		oldTree = oldState;
+		newTree = newState;
+	}
+
 	/** for debugging only **/
 	@Override
 	public String toString() {
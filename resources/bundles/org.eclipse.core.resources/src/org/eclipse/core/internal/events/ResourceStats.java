@@ -30,12 +30,14 @@ public class ResourceStats {
 	public static final String EVENT_LISTENERS = ResourcesPlugin.PI_RESOURCES + "/perf/listeners"; //$NON-NLS-1$
 	public static final String EVENT_SAVE_PARTICIPANTS = ResourcesPlugin.PI_RESOURCES + "/perf/save.participants"; //$NON-NLS-1$
 	public static final String EVENT_SNAPSHOT = ResourcesPlugin.PI_RESOURCES + "/perf/snapshot"; //$NON-NLS-1$
+	public static final String EVENT_RESTORE = ResourcesPlugin.PI_RESOURCES + "/perf/restore"; //$NON-NLS-1$
 
 	//performance event enablement
 	public static boolean TRACE_BUILDERS = PerformanceStats.isEnabled(ResourceStats.EVENT_BUILDERS);
 	public static boolean TRACE_LISTENERS = PerformanceStats.isEnabled(ResourceStats.EVENT_LISTENERS);
 	public static boolean TRACE_SAVE_PARTICIPANTS = PerformanceStats.isEnabled(ResourceStats.EVENT_SAVE_PARTICIPANTS);
 	public static boolean TRACE_SNAPSHOT = PerformanceStats.isEnabled(ResourceStats.EVENT_SNAPSHOT);
+	public static boolean TRACE_RESTORE = PerformanceStats.isEnabled(ResourceStats.EVENT_RESTORE);
 
 	public static void endBuild() {
 		if (currentStats != null)
@@ -61,6 +63,12 @@ public class ResourceStats {
 		currentStats = null;
 	}
 
+	public static void endRestore() {
+		if (currentStats != null)
+			currentStats.endRun();
+		currentStats = null;
+	}
+
 	/**
 	 * Notifies the stats tool that a resource change listener has been added.
 	 */
@@ -92,6 +100,15 @@ public class ResourceStats {
 		currentStats.startRun();
 	}
 
+	/**
+	 * Starts timing the restore of the given workspace on startup. The workspace
+	 * is passed in because it is not available from the plug-in yet.
+	 */
+	public static void startRestore(IWorkspace workspace) {
+		currentStats = PerformanceStats.getStats(EVENT_RESTORE, workspace);
+		currentStats.startRun();
+	}
+
 	public static void startSave(ISaveParticipant participant) {
 		currentStats = PerformanceStats.getStats(EVENT_SAVE_PARTICIPANTS, participant);
 		currentStats.startRun();
@@ -15,6 +15,7 @@ package org.eclipse.core.internal.localstore;
 
 import java.io.InputStream;
 import java.util.Set;
+import java.util.zip.InflaterInputStream;
 import org.eclipse.core.filesystem.EFS;
 import org.eclipse.core.filesystem.IFileStore;
 import org.eclipse.core.internal.utils.UniversalUniqueIdentifier;
@@ -25,8 +26,18 @@ import org.eclipse.core.runtime.CoreException;
  * Blob store which maps UUIDs to blobs on disk. The UUID is mapped
  * to a file in the file-system and the blob is the file contents. For scalability,
  * the blobs are split among 255 directories with the names 00 to FF.
+ * <p>
+ * Blobs added by a {@link ContentAddressedBlobStore} may be stored deflated,
+ * which their key tells. They are inflated when read, so every store can read
+ * every blob, whichever store added it.
+ * </p>
  */
 public class BlobStore {
+	/** Marks keys of blobs stored as they are. */
+	protected static final int VERSION_CONTENT = 0xC;
+	/** Marks keys of blobs stored deflated. */
+	protected static final int VERSION_DEFLATED_CONTENT = 0xD;
+
 	protected IFileStore localStore;
 
 	/** Limits the range of directories' names. */
@@ -124,7 +135,14 @@ public class BlobStore {
 
 	public InputStream getBlob(UniversalUniqueIdentifier uuid) throws CoreException {
 		IFileStore blobFile = fileFor(uuid);
-		return blobFile.openInputStream(EFS.NONE, null);
+		InputStream contents = blobFile.openInputStream(EFS.NONE, null);
+		if (getVersion(uuid) == VERSION_DEFLATED_CONTENT)
+			return new InflaterInputStream(contents);
+		return contents;
+	}
+
+	private static int getVersion(UniversalUniqueIdentifier uuid) {
+		return (uuid.toBytes()[UniversalUniqueIdentifier.TIME_HIGH_AND_VERSION] & UniversalUniqueIdentifier.HIGH_NIBBLE_MASK) >>> UniversalUniqueIdentifier.SHIFT_NIBBLE;
 	}
 
 	/**
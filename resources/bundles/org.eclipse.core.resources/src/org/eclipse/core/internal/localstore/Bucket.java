@@ -18,10 +18,17 @@ package org.eclipse.core.internal.localstore;
 
 import java.io.*;
 import java.lang.ref.SoftReference;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
 import org.eclipse.core.internal.resources.ResourceException;
 import org.eclipse.core.internal.resources.ResourceStatus;
 import org.eclipse.core.internal.utils.Messages;
+import org.eclipse.core.internal.utils.Policy;
 import org.eclipse.core.resources.IResourceStatus;
 import org.eclipse.core.runtime.*;
 import org.eclipse.osgi.util.NLS;
@@ -29,6 +36,26 @@ import org.eclipse.osgi.util.NLS;
 /**
  * A bucket is a persistent dictionary having paths as keys. Values are determined
  * by subclasses.
+ * <p>
+ * Index files are written sorted by path, with a table of entry offsets up front:
+ * </p>
+ * <pre>
+ * FILE ::= VERSION_ID ENTRY_COUNT OFFSET* ENTRY*
+ * VERSION_ID ::= byte (see subclasses)
+ * ENTRY_COUNT ::= int
+ * OFFSET ::= int (position of the entry in the file)
+ * ENTRY ::= PATH VALUE
+ * PATH ::= string (does not include project name)
+ * VALUE ::= see subclasses, must not depend on other entries
+ * </pre>
+ * <p>
+ * A loaded index file is kept as a buffer (memory-mapped if large enough) and
+ * looked up by binary search. Its entries are only materialized into a map once
+ * the bucket is modified. Subclasses bumped their version with the sorted format,
+ * so older readers reject the new files as having an unknown version. Index files
+ * in the previous, unsorted format are still read and rewritten in the sorted
+ * format the next time the bucket is saved.
+ * </p>
  *
  *  @since 3.1
  */
@@ -151,6 +178,59 @@ public abstract class Bucket {
 	 */
 	static final String INDEXES_DIR_NAME = ".indexes"; //$NON-NLS-1$
 
+	/**
+	 * Length of the header of index files in the sorted format, preceding the offsets.
+	 */
+	private static final int HEADER_LENGTH = 5;
+
+	/**
+	 * Index files at least this large are memory-mapped instead of read into the heap.
+	 */
+	private static final int MAP_THRESHOLD = 64 * 1024;
+
+	/**
+	 * Whether index files may be memory-mapped. Not on Windows, where a mapped
+	 * file cannot be replaced or deleted until the mapping is garbage collected.
+	 */
+	private static final boolean MAP_INDEXES = !System.getProperty("os.name", "").startsWith("Windows"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+
+	/**
+	 * An input stream reading from an index file buffer.
+	 */
+	private static final class IndexInputStream extends InputStream {
+		private final ByteBuffer buffer;
+
+		IndexInputStream(ByteBuffer buffer) {
+			// independent position, so concurrent readers don't interfere
+			this.buffer = buffer.duplicate();
+		}
+
+		@Override
+		public int available() {
+			return buffer.remaining();
+		}
+
+		@Override
+		public int read() {
+			return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) {
+			if (len == 0)
+				return 0;
+			if (!buffer.hasRemaining())
+				return -1;
+			int count = Math.min(len, buffer.remaining());
+			buffer.get(b, off, count);
+			return count;
+		}
+
+		void seek(int position) {
+			buffer.position(position);
+		}
+	}
+
 	/**
 	 * Map of the history entries in this bucket. Maps (String -&gt; byte[][] or String[][]),
 	 * where the key is the path of the object we are storing history for, and
@@ -159,6 +239,22 @@ public abstract class Bucket {
 	private final Map<String, Object> entries;
 	private SoftReference<Map<Object, Map<String, Object>>> entriesCache;
 
+	/**
+	 * The contents of the loaded index file as long as they have not been
+	 * materialized into {@link #entries}, <code>null</code> otherwise.
+	 */
+	private ByteBuffer index;
+	/**
+	 * The number of entries in {@link #index}.
+	 */
+	private int indexEntryCount;
+	/**
+	 * Why the loaded index file could not be materialized, <code>null</code> if
+	 * it could. Such a bucket is not saved, so that the index file is not
+	 * replaced by the entries that could be read.
+	 */
+	private Exception materializeFailure;
+
 	/**
 	 * The file system location of this bucket index file.
 	 */
@@ -194,9 +290,11 @@ public abstract class Bucket {
 	 * @exception CoreException thrown by the visitor or from a failed save
 	 */
 	public final int accept(Visitor visitor, IPath filter, int depth) throws CoreException {
-		if (entries.isEmpty())
+		if (getEntryCount() == 0)
 			return Visitor.CONTINUE;
 		try {
+			if (index != null)
+				return acceptIndex(visitor, filter, depth);
 			for (Iterator<Map.Entry<String, Object>> i = entries.entrySet().iterator(); i.hasNext();) {
 				Map.Entry<String, Object> mapEntry = i.next();
 				IPath path = new Path(mapEntry.getKey());
@@ -228,6 +326,49 @@ public abstract class Bucket {
 		}
 	}
 
+	/**
+	 * Applies the given visitor to the entries of the loaded index file. Entries are
+	 * only materialized once the visitor changes one of them.
+	 */
+	private int acceptIndex(Visitor visitor, IPath filter, int depth) throws CoreException {
+		ByteBuffer buffer = index;
+		int entryCount = indexEntryCount;
+		IndexInputStream input = new IndexInputStream(buffer);
+		DataInputStream source = new DataInputStream(input);
+		try {
+			for (int i = 0; i < entryCount; i++) {
+				input.seek(buffer.getInt(HEADER_LENGTH + i * 4));
+				String key = readEntryKey(source);
+				IPath path = new Path(key);
+				// check whether the filter applies
+				int matchingSegments = filter.matchingFirstSegments(path);
+				if (!filter.isPrefixOf(path) || path.segmentCount() - matchingSegments > depth)
+					continue;
+				resetEntryState();
+				// apply visitor
+				Entry bucketEntry = createEntry(path, readEntryValue(source));
+				int outcome = visitor.visit(bucketEntry);
+				// notify the entry it has been visited
+				bucketEntry.visited();
+				if (bucketEntry.isDeleted()) {
+					materialize();
+					needSaving = true;
+					entries.remove(key);
+				} else if (bucketEntry.isDirty()) {
+					materialize();
+					needSaving = true;
+					entries.put(key, bucketEntry.getValue());
+				}
+				if (outcome != Visitor.CONTINUE)
+					return outcome;
+			}
+			return Visitor.CONTINUE;
+		} catch (IOException e) {
+			String message = NLS.bind(Messages.resources_readMeta, location.getAbsolutePath());
+			throw new ResourceException(IResourceStatus.FAILED_READ_METADATA, null, message, e);
+		}
+	}
+
 	/**
 	 * Tries to delete as many empty levels as possible.
 	 */
@@ -258,6 +399,8 @@ public abstract class Bucket {
 		projectName = null;
 		location = null;
 		entries.clear();
+		index = null;
+		materializeFailure = null;
 		needSaving = false;
 	}
 
@@ -265,14 +408,46 @@ public abstract class Bucket {
 	 * Returns how many entries there are in this bucket.
 	 */
 	public final int getEntryCount() {
-		return entries.size();
+		return index == null ? entries.size() : indexEntryCount;
 	}
 
 	/**
 	 * Returns the value for entry corresponding to the given path (null if none found).
 	 */
 	public final Object getEntryValue(String path) {
-		return entries.get(path);
+		ByteBuffer buffer = index;
+		if (buffer == null)
+			return entries.get(path);
+		String key = toEntryKey(path);
+		if (key == null)
+			return null;
+		// binary search over the sorted entries
+		IndexInputStream input = new IndexInputStream(buffer);
+		DataInputStream source = new DataInputStream(input);
+		try {
+			int low = 0;
+			int high = indexEntryCount - 1;
+			while (low <= high) {
+				int middle = (low + high) >>> 1;
+				input.seek(buffer.getInt(HEADER_LENGTH + middle * 4));
+				int comparison = source.readUTF().compareTo(key);
+				if (comparison < 0)
+					low = middle + 1;
+				else if (comparison > 0)
+					high = middle - 1;
+				else {
+					// decoding may use per-entry state, and read-only buckets are shared between threads
+					synchronized (this) {
+						resetEntryState();
+						return readEntryValue(source);
+					}
+				}
+			}
+		} catch (IOException | CoreException e) {
+			String message = NLS.bind(Messages.resources_readMeta, location.getAbsolutePath());
+			Policy.log(new ResourceStatus(IResourceStatus.FAILED_READ_METADATA, null, message, e));
+		}
+		return null;
 	}
 
 	/**
@@ -285,6 +460,14 @@ public abstract class Bucket {
 	 */
 	protected abstract byte getVersion();
 
+	/**
+	 * Returns the version number of the unsorted file format this bucket was
+	 * persisted in before, or -1 if there is none. Such files are still read.
+	 */
+	protected byte getUnsortedVersion() {
+		return -1;
+	}
+
 	/**
 	 * Returns the file name to be used to store bucket version information
 	 */
@@ -315,22 +498,20 @@ public abstract class Bucket {
 			this.location = new File(baseLocation, getIndexFileName());
 			Map<String, Object> loadedEntries = null;
 			this.entries.clear();
-			if (force) {
-				loadedEntries = loadEntries(this.location);
-			} else {
-				if (isCachingEnabled()) {
-					Map<Object, Map<String, Object>> cache = entriesCache.get();
-					if (cache != null) {
-						loadedEntries = cache.get(createBucketKey());
-					}
-				}
-				// errors are not cached, so
-				// loadedEntries == null means cached value is not present:
-				if (loadedEntries == null) {
-					loadedEntries = loadEntries(this.location);
+			this.index = null;
+			if (!force && isCachingEnabled()) {
+				Map<Object, Map<String, Object>> cache = entriesCache.get();
+				if (cache != null) {
+					loadedEntries = cache.get(createBucketKey());
 				}
 			}
-			this.entries.putAll(loadedEntries);
+			// errors are not cached, so
+			// loadedEntries == null means cached value is not present:
+			if (loadedEntries == null) {
+				loadEntries(this.location);
+			} else {
+				this.entries.putAll(loadedEntries);
+			}
 		} catch (IOException ioe) {
 			String message = NLS.bind(Messages.resources_readMeta, location.getAbsolutePath());
 			ResourceStatus status = new ResourceStatus(IResourceStatus.FAILED_READ_METADATA, null, message, ioe);
@@ -342,29 +523,92 @@ public abstract class Bucket {
 		return entriesCache != null;
 	}
 
+	/**
+	 * Returns the index file this bucket was loaded from, or <code>null</code> if none.
+	 */
+	File getLocation() {
+		return location;
+	}
+
+	/**
+	 * Returns whether this bucket has changes that have not been saved yet.
+	 */
+	boolean isDirty() {
+		return needSaving;
+	}
+
 	private Object createBucketKey() {
 		return this.location == null ? null : this.location.getAbsolutePath();
 	}
 
-	private Map<String, Object> loadEntries(File indexFile) throws CoreException, IOException {
+	private void loadEntries(File indexFile) throws CoreException, IOException {
 		if (!indexFile.isFile()) {
-			return Collections.EMPTY_MAP; // remember file does not exist
-		}
-		Map<String, Object> resultEntries = new HashMap<>();
-		try (DataInputStream source = new DataInputStream(
-				new BufferedInputStream(new FileInputStream(indexFile), 8192))) {
-			int version = source.readByte();
-			if (version != getVersion()) {
-				// unknown version
-				String message = NLS.bind(Messages.resources_readMetaWrongVersion, location.getAbsolutePath(), Integer.toString(version));
-				ResourceStatus status = new ResourceStatus(IResourceStatus.FAILED_READ_METADATA, message);
-				throw new ResourceException(status);
-			}
-			int entryCount = source.readInt();
-			for (int i = 0; i < entryCount; i++) {
-				resultEntries.put(readEntryKey(source), readEntryValue(source));
+			return; // file does not exist
+		}
+		ByteBuffer buffer = readIndexFile(indexFile);
+		byte version = buffer.get(0);
+		if (version == getVersion()) {
+			indexEntryCount = buffer.getInt(1);
+			index = buffer;
+			return;
+		}
+		if (version < 0 || version != getUnsortedVersion()) {
+			// unknown version
+			String message = NLS.bind(Messages.resources_readMetaWrongVersion, location.getAbsolutePath(), Integer.toString(version));
+			ResourceStatus status = new ResourceStatus(IResourceStatus.FAILED_READ_METADATA, message);
+			throw new ResourceException(status);
+		}
+		// the unsorted format, read it in full and convert it on the next save
+		IndexInputStream input = new IndexInputStream(buffer);
+		input.seek(1);
+		DataInputStream source = new DataInputStream(input);
+		int entryCount = source.readInt();
+		for (int i = 0; i < entryCount; i++) {
+			entries.put(readEntryKey(source), readEntryValue(source));
+		}
+		needSaving = entryCount > 0;
+	}
+
+	/**
+	 * Returns the contents of the given index file, memory-mapped if it is large enough.
+	 */
+	private static ByteBuffer readIndexFile(File indexFile) throws IOException {
+		try (FileChannel channel = FileChannel.open(indexFile.toPath(), StandardOpenOption.READ)) {
+			long size = channel.size();
+			if (size == 0)
+				throw new EOFException();
+			if (MAP_INDEXES && size >= MAP_THRESHOLD)
+				return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+			ByteBuffer buffer = ByteBuffer.allocate((int) size);
+			while (buffer.hasRemaining())
+				if (channel.read(buffer) < 0)
+					throw new EOFException();
+			buffer.flip();
+			return buffer;
+		}
+	}
+
+	/**
+	 * Reads all entries of the loaded index file into {@link #entries}, so they can
+	 * be modified. If the index file turns out to be corrupt, the next save fails
+	 * instead of dropping the entries that could not be read.
+	 */
+	private void materialize() {
+		ByteBuffer buffer = index;
+		if (buffer == null)
+			return;
+		index = null;
+		IndexInputStream input = new IndexInputStream(buffer);
+		input.seek(HEADER_LENGTH + indexEntryCount * 4);
+		DataInputStream source = new DataInputStream(input);
+		try {
+			for (int i = 0; i < indexEntryCount; i++) {
+				String key = readEntryKey(source);
+				resetEntryState();
+				entries.put(key, readEntryValue(source));
 			}
-			return resultEntries;
+		} catch (IOException | CoreException e) {
+			materializeFailure = e;
 		}
 	}
 
@@ -374,6 +618,16 @@ public abstract class Bucket {
 		return IPath.SEPARATOR + projectName + source.readUTF();
 	}
 
+	/**
+	 * Called before each entry value is read or written in the sorted format, where
+	 * each entry must be readable on its own. Subclasses that carry state from one
+	 * entry to the next in {@link #readEntryValue(DataInputStream)} and
+	 * {@link #writeEntryValue(DataOutputStream, Object)} must reset it here.
+	 */
+	protected void resetEntryState() {
+		// no state by default
+	}
+
 	/**
 	 * Defines how data for a given entry is to be read from a bucket file. To be implemented by subclasses.
 	 */
@@ -383,13 +637,25 @@ public abstract class Bucket {
 	 * Saves this bucket's contents back to its location.
 	 */
 	public void save() throws CoreException {
+		if (materializeFailure != null) {
+			// keep the index file, and forget the entries that could be read
+			String message = NLS.bind(Messages.resources_readMeta, location.getAbsolutePath());
+			Exception cause = materializeFailure;
+			flush();
+			throw new ResourceException(IResourceStatus.FAILED_READ_METADATA, null, message, cause);
+		}
 		if (isCachingEnabled()) {
 			Object key = createBucketKey();
-			if (key != null) {
+			if (key != null && index != null) {
+				// the entries are still in the index file, which is cheap to load again
+				Map<Object, Map<String, Object>> cache = entriesCache.get();
+				if (cache != null)
+					cache.remove(key);
+			} else if (key != null) {
 				// we do need to make a copy from this.entries because that instance is reused
 				@SuppressWarnings("unchecked")
-				java.util.Map.Entry<String, Object>[] a = new java.util.Map.Entry[0];
-				java.util.Map<String, Object> denseCopy = java.util.Map.ofEntries(this.entries.entrySet().toArray(a));
+				Map.Entry<String, Object>[] a = new Map.Entry[0];
+				Map<String, Object> denseCopy = Map.ofEntries(this.entries.entrySet().toArray(a));
 				Map<Object, Map<String, Object>> cache = entriesCache.get();
 				if (cache == null) {
 					cache = new WeakHashMap<>();
@@ -411,14 +677,29 @@ public abstract class Bucket {
 			if (parent == null)
 				throw new IOException();//caught and rethrown below
 			parent.mkdirs();
-			try (DataOutputStream destination = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(location), 8192))) {
-				destination.write(getVersion());
-				destination.writeInt(entries.size());
-				for (java.util.Map.Entry<String, Object> entry : entries.entrySet()) {
-					writeEntryKey(destination, entry.getKey());
-					writeEntryValue(destination, entry.getValue());
-				}
+			// all keys share the project prefix, so this is also the order of the written keys
+			String[] keys = entries.keySet().toArray(new String[entries.size()]);
+			Arrays.sort(keys);
+			int[] offsets = new int[keys.length];
+			ByteArrayOutputStream entryBytes = new ByteArrayOutputStream(keys.length * 64);
+			DataOutputStream entryData = new DataOutputStream(entryBytes);
+			int entriesStart = HEADER_LENGTH + keys.length * 4;
+			for (int i = 0; i < keys.length; i++) {
+				offsets[i] = entriesStart + entryData.size();
+				writeEntryKey(entryData, keys[i]);
+				resetEntryState();
+				writeEntryValue(entryData, entries.get(keys[i]));
 			}
+			// write aside and replace, so that a mapping of the previous file stays valid
+			File newLocation = new File(parent, location.getName() + ".new"); //$NON-NLS-1$
+			try (DataOutputStream destination = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(newLocation), 8192))) {
+				destination.writeByte(getVersion());
+				destination.writeInt(keys.length);
+				for (int offset : offsets)
+					destination.writeInt(offset);
+				entryBytes.writeTo(destination);
+			}
+			replace(newLocation.toPath(), location.toPath());
 			needSaving = false;
 		} catch (IOException ioe) {
 			String message = NLS.bind(Messages.resources_writeMeta, location.getAbsolutePath());
@@ -427,11 +708,20 @@ public abstract class Bucket {
 		}
 	}
 
+	private static void replace(java.nio.file.Path source, java.nio.file.Path target) throws IOException {
+		try {
+			Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
 	/**
 	 * Sets the value for the entry with the given path. If <code>value</code> is <code>null</code>,
 	 * removes the entry.
 	 */
 	public final void setEntryValue(String path, Object value) {
+		materialize();
 		if (value == null)
 			entries.remove(path);
 		else
@@ -439,6 +729,23 @@ public abstract class Bucket {
 		needSaving = true;
 	}
 
+	/**
+	 * Returns the key as written to the index file for the given path, or
+	 * <code>null</code> if the path cannot be in this bucket.
+	 */
+	private String toEntryKey(String path) {
+		if (projectName == null)
+			return path;
+		int projectLength = projectName.length();
+		if (path.length() <= projectLength || path.charAt(0) != IPath.SEPARATOR || !path.startsWith(projectName, 1))
+			return null;
+		if (path.length() == projectLength + 1)
+			return ""; //$NON-NLS-1$
+		if (path.charAt(projectLength + 1) != IPath.SEPARATOR)
+			return null;
+		return path.substring(projectLength + 1);
+	}
+
 	private void writeEntryKey(DataOutputStream destination, String path) throws IOException {
 		if (projectName == null) {
 			destination.writeUTF(path);
@@ -123,7 +123,10 @@ public class BucketTree {
 		current.load(Path.ROOT.equals(path) ? null : path.segment(0), locationFor(path));
 	}
 
-	private File locationFor(IPath resourcePath) {
+	/**
+	 * Returns the directory of the bucket for the given resource path.
+	 */
+	public File locationFor(IPath resourcePath) {
 		//optimized to avoid string and path creations
 		IPath baseLocation = workspace.getMetaArea().locationFor(resourcePath).removeTrailingSeparator();
 		int segmentCount = resourcePath.segmentCount();
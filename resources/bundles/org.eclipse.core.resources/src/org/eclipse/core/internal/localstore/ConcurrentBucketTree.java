@@ -0,0 +1,191 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.localstore;
+
+import java.io.File;
+import java.lang.ref.SoftReference;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import org.eclipse.core.runtime.*;
+
+/**
+ * Guards a {@link BucketTree} so that lookups can run concurrently with each
+ * other and with changes to other projects.
+ * <p>
+ * Changes go through the tree, which has a single current bucket, and are
+ * serialized. Lookups do not use the tree: they are answered by read-only
+ * buckets loaded from the bucket files on disk, which are kept until the
+ * project they belong to is changed again. Changes that have not been saved
+ * yet are looked up in the current bucket of the tree instead.
+ * </p><p>
+ * Each project (and the workspace root) has its own read/write lock, so a
+ * lookup only waits for changes to the same project. Changes that span
+ * several projects lock the whole tree.
+ * </p>
+ *
+ * @param <B> the type of buckets in the tree
+ */
+public class ConcurrentBucketTree<B extends Bucket> {
+
+	/**
+	 * Reads from a bucket.
+	 */
+	@FunctionalInterface
+	public interface Lookup<B extends Bucket, T> {
+		T lookup(B bucket) throws CoreException;
+	}
+
+	/**
+	 * Changes the tree.
+	 */
+	@FunctionalInterface
+	public interface Change<T> {
+		T run() throws CoreException;
+	}
+
+	/** The key for the lock and snapshots of the workspace root. */
+	private static final String ROOT_KEY = ""; //$NON-NLS-1$
+
+	private final BucketTree tree;
+	private final Supplier<B> bucketFactory;
+	/** Held shared by operations on a single project, and exclusively by operations on the whole tree. */
+	private final ReadWriteLock treeLock = new ReentrantReadWriteLock();
+	private final Map<String, ReadWriteLock> projectLocks = new ConcurrentHashMap<>();
+	/** Read-only buckets by project and bucket directory. */
+	private final Map<String, Map<File, SoftReference<B>>> snapshots = new ConcurrentHashMap<>();
+	/** The directory of the current bucket of the tree if it has unsaved changes, <code>null</code> otherwise. */
+	private volatile File unsavedLocation;
+
+	public ConcurrentBucketTree(BucketTree tree, Supplier<B> bucketFactory) {
+		this.tree = tree;
+		this.bucketFactory = bucketFactory;
+	}
+
+	public BucketTree getTree() {
+		return tree;
+	}
+
+	private static String keyFor(IPath path) {
+		return path.segmentCount() == 0 ? ROOT_KEY : path.segment(0);
+	}
+
+	private ReadWriteLock lockFor(String key) {
+		return projectLocks.computeIfAbsent(key, k -> new ReentrantReadWriteLock());
+	}
+
+	/**
+	 * Looks up the bucket for the given path. Runs concurrently with other lookups
+	 * and with changes to other projects.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T read(IPath path, Lookup<B, T> lookup) throws CoreException {
+		String key = keyFor(path);
+		ReadWriteLock projectLock = lockFor(key);
+		treeLock.readLock().lock();
+		try {
+			projectLock.readLock().lock();
+			try {
+				File location = tree.locationFor(path);
+				if (location.equals(unsavedLocation)) {
+					synchronized (tree) {
+						Bucket current = tree.getCurrent();
+						// the bucket may have been saved by a change to another project meanwhile
+						if (current.isDirty() && location.equals(current.getLocation().getParentFile()))
+							return lookup.lookup((B) current);
+					}
+				}
+				return lookup.lookup(snapshotFor(key, location));
+			} finally {
+				projectLock.readLock().unlock();
+			}
+		} finally {
+			treeLock.readLock().unlock();
+		}
+	}
+
+	private B snapshotFor(String key, File location) throws CoreException {
+		Map<File, SoftReference<B>> projectSnapshots = snapshots.computeIfAbsent(key, k -> new ConcurrentHashMap<>());
+		SoftReference<B> reference = projectSnapshots.get(location);
+		B snapshot = reference == null ? null : reference.get();
+		if (snapshot == null) {
+			// concurrent lookups may both load the bucket, either copy will do
+			snapshot = bucketFactory.get();
+			snapshot.load(ROOT_KEY.equals(key) ? null : key, location);
+			projectSnapshots.put(location, new SoftReference<>(snapshot));
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Changes the part of the tree for the project of the given path. Locks the
+	 * whole tree if the path is the workspace root.
+	 */
+	public <T> T modify(IPath path, Change<T> change) throws CoreException {
+		if (path.segmentCount() == 0)
+			return modifyAll(change);
+		String key = keyFor(path);
+		ReadWriteLock projectLock = lockFor(key);
+		treeLock.readLock().lock();
+		try {
+			projectLock.writeLock().lock();
+			try {
+				synchronized (tree) {
+					try {
+						return change.run();
+					} finally {
+						changed(key);
+					}
+				}
+			} finally {
+				projectLock.writeLock().unlock();
+			}
+		} finally {
+			treeLock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Changes any part of the tree. Waits for all other operations to complete.
+	 */
+	public <T> T modifyAll(Change<T> change) throws CoreException {
+		treeLock.writeLock().lock();
+		try {
+			synchronized (tree) {
+				try {
+					return change.run();
+				} finally {
+					changed(null);
+				}
+			}
+		} finally {
+			treeLock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Discards the snapshots of the given project, or of all projects if
+	 * <code>null</code>, and remembers whether the tree has unsaved changes.
+	 */
+	private void changed(String key) {
+		if (key == null)
+			snapshots.clear();
+		else
+			snapshots.remove(key);
+		Bucket current = tree.getCurrent();
+		unsavedLocation = current.isDirty() ? current.getLocation().getParentFile() : null;
+	}
+}
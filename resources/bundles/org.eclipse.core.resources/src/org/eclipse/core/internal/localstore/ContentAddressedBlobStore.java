@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.localstore;
+
+import java.io.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.zip.DeflaterOutputStream;
+import org.eclipse.core.filesystem.EFS;
+import org.eclipse.core.filesystem.IFileStore;
+import org.eclipse.core.internal.resources.ResourceException;
+import org.eclipse.core.internal.utils.*;
+import org.eclipse.core.resources.IResourceStatus;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.osgi.util.NLS;
+
+/**
+ * Blob store which keys blobs by a hash of their contents, so adding the same
+ * contents twice stores them only once. Keys have the same size as the UUIDs
+ * used by {@link BlobStore} and are mapped to files the same way, so blobs
+ * added by either store can be read back by this one.
+ * <p>
+ * A key is the first 16 bytes of the SHA-256 digest of the contents, with the
+ * version nibble of the UUID layout replaced by a marker that tells whether the
+ * blob is stored deflated. Generated UUIDs always carry version 1, so the two
+ * kinds of keys never collide.
+ * </p><p>
+ * Because a blob may be shared by any number of history states, a blob must
+ * only be deleted once no state refers to it anymore. The history store takes
+ * care of this by marking all referenced keys before sweeping.
+ * </p>
+ */
+public class ContentAddressedBlobStore extends BlobStore {
+	private static final String DIGEST_ALGORITHM = "SHA-256"; //$NON-NLS-1$
+
+	private final boolean compress;
+
+	public ContentAddressedBlobStore(IFileStore store, int limit, boolean compress) {
+		super(store, limit);
+		this.compress = compress;
+	}
+
+	@Override
+	public UniversalUniqueIdentifier addBlob(IFileStore target, boolean moveContents) throws CoreException {
+		UniversalUniqueIdentifier key = computeKey(target);
+		IFileStore destination = fileFor(key);
+		if (destination.fetchInfo().exists()) {
+			// same contents already stored, nothing to write
+			if (moveContents)
+				target.delete(EFS.NONE, null);
+			return key;
+		}
+		folderFor(key).mkdir(EFS.NONE, null);
+		// write under a unique name first so that a blob is never visible under its key
+		// before it is complete; if we crash, the leftover is an ordinary unreferenced blob
+		UniversalUniqueIdentifier tempId = new UniversalUniqueIdentifier();
+		folderFor(tempId).mkdir(EFS.NONE, null);
+		IFileStore temp = fileFor(tempId);
+		if (compress) {
+			deflate(target, temp);
+			if (moveContents)
+				target.delete(EFS.NONE, null);
+		} else if (moveContents) {
+			target.move(temp, EFS.NONE, null);
+		} else {
+			target.copy(temp, EFS.NONE, null);
+		}
+		temp.move(destination, EFS.OVERWRITE, null);
+		return key;
+	}
+
+	private UniversalUniqueIdentifier computeKey(IFileStore target) throws CoreException {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+		} catch (NoSuchAlgorithmException e) {
+			// every Java platform is required to support SHA-256
+			throw new IllegalStateException(e);
+		}
+		byte[] buffer = new byte[8192];
+		try (InputStream in = target.openInputStream(EFS.NONE, null)) {
+			int read;
+			while ((read = in.read(buffer)) != -1)
+				digest.update(buffer, 0, read);
+		} catch (IOException e) {
+			String message = NLS.bind(Messages.localstore_couldNotRead, target);
+			throw new ResourceException(IResourceStatus.FAILED_READ_LOCAL, null, message, e);
+		}
+		byte[] key = new byte[UniversalUniqueIdentifier.BYTES_SIZE];
+		System.arraycopy(digest.digest(), 0, key, 0, key.length);
+		int version = compress ? VERSION_DEFLATED_CONTENT : VERSION_CONTENT;
+		key[UniversalUniqueIdentifier.TIME_HIGH_AND_VERSION] = (byte) ((key[UniversalUniqueIdentifier.TIME_HIGH_AND_VERSION] & UniversalUniqueIdentifier.LOW_NIBBLE_MASK) | (version << UniversalUniqueIdentifier.SHIFT_NIBBLE));
+		return new UniversalUniqueIdentifier(key);
+	}
+
+	private void deflate(IFileStore source, IFileStore destination) throws CoreException {
+		byte[] buffer = new byte[8192];
+		try (InputStream in = source.openInputStream(EFS.NONE, null); OutputStream out = new DeflaterOutputStream(destination.openOutputStream(EFS.NONE, null))) {
+			int read;
+			while ((read = in.read(buffer)) != -1)
+				out.write(buffer, 0, read);
+		} catch (IOException e) {
+			destination.delete(EFS.NONE, null);
+			String message = NLS.bind(Messages.localstore_couldNotWrite, destination);
+			throw new ResourceException(IResourceStatus.FAILED_WRITE_LOCAL, null, message, e);
+		}
+	}
+}
@@ -856,6 +856,40 @@ public class FileSystemResourceManager implements ICoreConstants, IManager, Pref
 		}
 	}
 
+	/**
+	 * Reads the description of a project that is being restored. Unlike
+	 * {@link #read(IProject, boolean)} this does not touch the workspace tree,
+	 * so the descriptions of several projects can be read concurrently. The
+	 * result must then be passed to {@link #read(IProject, boolean, ProjectDescription)}.
+	 *
+	 * @return the description, or <code>null</code> if it could not be read this
+	 * way; reading it again with {@link #read(IProject, boolean)} reports the problem
+	 */
+	public ProjectDescription readDescription(IProject target) {
+		ProjectDescription privateDescription = new ProjectDescription();
+		getWorkspace().getMetaArea().readPrivateDescription(target, privateDescription);
+		URI projectLocation = privateDescription.getLocationURI();
+		final boolean isDefaultLocation = projectLocation == null;
+		if (isDefaultLocation) {
+			projectLocation = URIUtil.toURI(getProjectDefaultLocation(target));
+		}
+		try {
+			IFileStore descriptionStore = EFS.getStore(projectLocation).getChild(IProjectDescription.DESCRIPTION_FILE_NAME);
+			try (InputStream in = new BufferedInputStream(descriptionStore.openInputStream(EFS.NONE, null))) {
+				ProjectDescription description = new ProjectDescriptionReader(target).read(new InputSource(in));
+				if (description == null)
+					return null;
+				if (!isDefaultLocation)
+					description.setLocationURI(projectLocation);
+				// Bring dynamic state back to life
+				description.updateDynamicState(privateDescription);
+				return description;
+			}
+		} catch (CoreException | IOException | RuntimeException e) {
+			return null;
+		}
+	}
+
 	/**
 	 * Reads and returns the project description for the given project.
 	 * Never returns null.
@@ -867,11 +901,26 @@ public class FileSystemResourceManager implements ICoreConstants, IManager, Pref
 	 * description, or if the description was missing.
 	 */
 	public ProjectDescription read(IProject target, boolean creation) throws CoreException {
+		return read(target, creation, null);
+	}
+
+	/**
+	 * Reads and returns the project description for the given project, like
+	 * {@link #read(IProject, boolean)}. If a description that was already read by
+	 * {@link #readDescription(IProject)} is given, the description file is not
+	 * parsed again, but the workspace tree is updated as if it had been.
+	 *
+	 * @param parsed the description returned by {@link #readDescription(IProject)},
+	 * or <code>null</code> to read the description file
+	 */
+	public ProjectDescription read(IProject target, boolean creation, ProjectDescription parsed) throws CoreException {
 
 		//read the project location if this project is being created
 		URI projectLocation = null;
 		ProjectDescription privateDescription = null;
-		if (creation) {
+		if (parsed != null) {
+			projectLocation = parsed.getLocationURI();
+		} else if (creation) {
 			privateDescription = new ProjectDescription();
 			getWorkspace().getMetaArea().readPrivateDescription(target, privateDescription);
 			projectLocation = privateDescription.getLocationURI();
@@ -887,36 +936,38 @@ public class FileSystemResourceManager implements ICoreConstants, IManager, Pref
 		}
 		IFileStore projectStore = initializeStore(target, projectLocation);
 		IFileStore descriptionStore = projectStore.getChild(IProjectDescription.DESCRIPTION_FILE_NAME);
-		ProjectDescription description = null;
+		ProjectDescription description = parsed;
 		//hold onto any exceptions until after sync info is updated, then throw it
 		ResourceException error = null;
-		try (
-			InputStream in = new BufferedInputStream(descriptionStore.openInputStream(EFS.NONE, SubMonitor.convert(null)));
-		) {
-			// IFileStore#openInputStream may cancel the monitor, thus the monitor state is checked
-			description = new ProjectDescriptionReader(target).read(new InputSource(in));
-		} catch (OperationCanceledException e) {
-			String msg = NLS.bind(Messages.resources_missingProjectMeta, target.getName());
-			throw new ResourceException(IResourceStatus.FAILED_READ_METADATA, target.getFullPath(), msg, e);
-		} catch (CoreException e) {
-			//try the legacy location in the meta area
-			description = getWorkspace().getMetaArea().readOldDescription(target);
-			if (description != null)
-				return description;
-			if (!descriptionStore.fetchInfo().exists()) {
+		if (parsed == null) {
+			try (
+				InputStream in = new BufferedInputStream(descriptionStore.openInputStream(EFS.NONE, SubMonitor.convert(null)));
+			) {
+				// IFileStore#openInputStream may cancel the monitor, thus the monitor state is checked
+				description = new ProjectDescriptionReader(target).read(new InputSource(in));
+			} catch (OperationCanceledException e) {
 				String msg = NLS.bind(Messages.resources_missingProjectMeta, target.getName());
-				throw new ResourceException(IResourceStatus.FAILED_READ_METADATA, target.getFullPath(), msg, null);
+				throw new ResourceException(IResourceStatus.FAILED_READ_METADATA, target.getFullPath(), msg, e);
+			} catch (CoreException e) {
+				//try the legacy location in the meta area
+				description = getWorkspace().getMetaArea().readOldDescription(target);
+				if (description != null)
+					return description;
+				if (!descriptionStore.fetchInfo().exists()) {
+					String msg = NLS.bind(Messages.resources_missingProjectMeta, target.getName());
+					throw new ResourceException(IResourceStatus.FAILED_READ_METADATA, target.getFullPath(), msg, null);
+				}
+				String msg = NLS.bind(Messages.resources_readProjectMeta, target.getName());
+				error = new ResourceException(IResourceStatus.FAILED_READ_METADATA, target.getFullPath(), msg, e);
+			} catch (IOException ex) {
+				// ignore
 			}
-			String msg = NLS.bind(Messages.resources_readProjectMeta, target.getName());
-			error = new ResourceException(IResourceStatus.FAILED_READ_METADATA, target.getFullPath(), msg, e);
-		} catch (IOException ex) {
-			// ignore
 		}
 		if (error == null && description == null) {
 			String msg = NLS.bind(Messages.resources_readProjectMeta, target.getName());
 			error = new ResourceException(IResourceStatus.FAILED_READ_METADATA, target.getFullPath(), msg, null);
 		}
-		if (description != null) {
+		if (description != null && parsed == null) {
 			if (!isDefaultLocation)
 				description.setLocationURI(projectLocation);
 			if (creation && privateDescription != null)
@@ -973,6 +1024,7 @@ public class FileSystemResourceManager implements ICoreConstants, IManager, Pref
 			fileTree = fileStore.getFileSystem().fetchFileTree(fileStore, subMonitor.newChild(2));
 		}
 		UnifiedTree tree = fileTree == null ? new UnifiedTree(target) : new UnifiedTree(target, fileTree);
+		tree.setPrefetch(true);
 		SubMonitor refreshMonitor = subMonitor.newChild(98);
 		RefreshLocalVisitor visitor = updateAliases ? new RefreshLocalAliasVisitor(refreshMonitor) : new RefreshLocalVisitor(refreshMonitor);
 		tree.accept(visitor, depth);
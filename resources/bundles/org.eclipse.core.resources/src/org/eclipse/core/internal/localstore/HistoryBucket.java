@@ -34,8 +34,6 @@ public class HistoryBucket extends Bucket {
 	 */
 	public static final class HistoryEntry extends Bucket.Entry {
 
-		final static Comparator<byte[]> COMPARATOR = HistoryEntry::compareStates;
-
 		// the length of each component of the data array
 		private final static byte[][] EMPTY_DATA = new byte[0][];
 		// the length of a long in bytes
@@ -51,7 +49,10 @@ public class HistoryBucket extends Bucket {
 		private byte[][] data;
 
 		/**
-		 * Comparison logic for states in byte[] form.
+		 * Comparison logic for states in byte[] form. States are ordered by descending
+		 * timestamp only. States with the same timestamp are kept in the order they were
+		 * added, the most recently added first, because their keys may be derived from
+		 * the contents and carry no time information.
 		 *
 		 * @see Comparator#compare(java.lang.Object, java.lang.Object)
 		 */
@@ -59,10 +60,29 @@ public class HistoryBucket extends Bucket {
 			long timestamp1 = getTimestamp(state1);
 			long timestamp2 = getTimestamp(state2);
 			if (timestamp1 == timestamp2)
-				return -UniversalUniqueIdentifier.compareTime(state1, state2);
+				return 0;
 			return timestamp1 < timestamp2 ? +1 : -1;
 		}
 
+		/**
+		 * Returns whether the given states refer to the same blob.
+		 */
+		private static boolean isSameBlob(byte[] state1, byte[] state2) {
+			return Arrays.equals(state1, 0, UUID_LENGTH, state2, 0, UUID_LENGTH);
+		}
+
+		/**
+		 * Returns whether the given states contain a state with the same timestamp and
+		 * blob as the given one, looking at the states with its timestamp starting at
+		 * the given position.
+		 */
+		private static boolean containsState(byte[][] states, int start, byte[] state) {
+			for (int i = start; i < states.length && compareStates(states[i], state) == 0; i++)
+				if (isSameBlob(states[i], state))
+					return true;
+			return false;
+		}
+
 		/**
 		 * Returns the byte array representation of a (UUID, timestamp) pair.
 		 */
@@ -89,13 +109,11 @@ public class HistoryBucket extends Bucket {
 		 * Returns the resulting array. Returns null if the item already exists.
 		 */
 		static byte[][] insert(byte[][] existing, byte[] toAdd) {
-			// look for the right spot where to insert the new guy
-			int index = search(existing, toAdd);
-			if (index >= 0)
+			// look for the right spot where to insert the new guy, ahead of states with the same timestamp
+			int insertPosition = search(existing, toAdd);
+			if (containsState(existing, insertPosition, toAdd))
 				// already there - nothing else to be done
 				return null;
-			// not found - insert
-			int insertPosition = -index - 1;
 			byte[][] newValue = new byte[existing.length + 1][];
 			if (insertPosition > 0)
 				System.arraycopy(existing, 0, newValue, 0, insertPosition);
@@ -106,7 +124,9 @@ public class HistoryBucket extends Bucket {
 		}
 
 		/**
-		 * Merges two entries (are always sorted). Duplicates are discarded.
+		 * Merges two entries (are always sorted). Duplicates are discarded. States
+		 * with the same timestamp are taken from the additions first, as they are
+		 * added after the base states.
 		 */
 		static byte[][] merge(byte[][] base, byte[][] additions) {
 			int additionPointer = 0;
@@ -116,9 +136,10 @@ public class HistoryBucket extends Bucket {
 			while (basePointer < base.length && additionPointer < additions.length) {
 				int comparison = compareStates(base[basePointer], additions[additionPointer]);
 				if (comparison == 0) {
-					result[added++] = base[basePointer++];
+					byte[] addition = additions[additionPointer++];
 					// duplicate, ignore
-					additionPointer++;
+					if (!containsState(base, basePointer, addition))
+						result[added++] = addition;
 				} else if (comparison < 0)
 					result[added++] = base[basePointer++];
 				else
@@ -139,8 +160,20 @@ public class HistoryBucket extends Bucket {
 			return finalResult;
 		}
 
+		/**
+		 * Returns the position of the first state that is not newer than the given one.
+		 */
 		private static int search(byte[][] existing, byte[] element) {
-			return Arrays.binarySearch(existing, element, COMPARATOR);
+			int low = 0;
+			int high = existing.length;
+			while (low < high) {
+				int middle = (low + high) >>> 1;
+				if (compareStates(existing[middle], element) < 0)
+					low = middle + 1;
+				else
+					high = middle;
+			}
+			return low;
 		}
 
 		public HistoryEntry(IPath path, byte[][] data) {
@@ -203,6 +236,14 @@ public class HistoryBucket extends Bucket {
 			return new UniversalUniqueIdentifier(data[i]);
 		}
 
+		/**
+		 * Returns whether the given occurrence has been deleted but the entry
+		 * has not been compacted yet.
+		 */
+		public boolean isDeletedOccurrence(int i) {
+			return data[i] == null;
+		}
+
 		@Override
 		public Object getValue() {
 			return data;
@@ -223,7 +264,21 @@ public class HistoryBucket extends Bucket {
 	/**
 	 * Version number for the current implementation file's format.
 	 * <p>
-	 * Version 2 (3.1 M5):
+	 * Version 3, the sorted format of {@link Bucket}:
+	 * </p>
+	 * <pre>
+	 * FILE ::= VERSION_ID ENTRY_COUNT OFFSET* ENTRY*
+	 * ENTRY_COUNT ::= int
+	 * OFFSET ::= int
+	 * ENTRY ::= PATH STATE_COUNT STATE+
+	 * PATH ::= string (does not include project name)
+	 * STATE_COUNT ::= int
+	 * STATE ::= UUID LAST_MODIFIED
+	 * UUID	 ::= byte[16]
+	 * LAST_MODIFIED ::= byte[8]
+	 * </pre>
+	 * <p>
+	 * Version 2 (3.1 M5), still read:
 	 * </p>
 	 * <pre>
 	 * FILE ::= VERSION_ID ENTRY+
@@ -247,7 +302,12 @@ public class HistoryBucket extends Bucket {
 	 * LAST_MODIFIED ::= byte[8]
 	 * </pre>
 	 */
-	public final static byte VERSION = 2;
+	public final static byte VERSION = 3;
+
+	/**
+	 * Version number of the unsorted file format, which is still read.
+	 */
+	public final static byte UNSORTED_VERSION = 2;
 
 	public HistoryBucket() {
 		super(false); // history is fire and forget
@@ -302,6 +362,11 @@ public class HistoryBucket extends Bucket {
 		return VERSION;
 	}
 
+	@Override
+	protected byte getUnsortedVersion() {
+		return UNSORTED_VERSION;
+	}
+
 	@Override
 	protected String getVersionFileName() {
 		return "history.version"; //$NON-NLS-1$
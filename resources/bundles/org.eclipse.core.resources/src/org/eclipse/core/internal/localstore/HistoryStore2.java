@@ -18,12 +18,17 @@ import java.io.InputStream;
 import java.util.*;
 import org.eclipse.core.filesystem.*;
 import org.eclipse.core.internal.localstore.Bucket.Entry;
+import org.eclipse.core.internal.localstore.ConcurrentBucketTree.Change;
 import org.eclipse.core.internal.localstore.HistoryBucket.HistoryEntry;
 import org.eclipse.core.internal.resources.*;
 import org.eclipse.core.internal.utils.*;
 import org.eclipse.core.resources.*;
 import org.eclipse.core.runtime.*;
 
+/**
+ * Looking up states runs concurrently with other lookups and with changes to
+ * the history of other projects, see {@link ConcurrentBucketTree}.
+ */
 public class HistoryStore2 implements IHistoryStore {
 
 	class HistoryCopyVisitor extends Bucket.Visitor {
@@ -67,12 +72,33 @@ public class HistoryStore2 implements IHistoryStore {
 		}
 	}
 
+	/**
+	 * Whether states are stored in a {@link ContentAddressedBlobStore}, so states with
+	 * identical contents share the same blob. Enabled unless explicitly turned off.
+	 */
+	private static final boolean DEDUPLICATE = Boolean.parseBoolean(System.getProperty("org.eclipse.core.resources.history.deduplicate", "true")); //$NON-NLS-1$ //$NON-NLS-2$
+
+	/**
+	 * Whether newly added contents are stored deflated. Only applies when states are deduplicated.
+	 */
+	private static final boolean COMPRESS = Boolean.getBoolean("org.eclipse.core.resources.history.compress"); //$NON-NLS-1$
+
 	private BlobStore blobStore;
 	private Set<UniversalUniqueIdentifier> blobsToRemove = new HashSet<>();
+	/**
+	 * Whether a blob may be referenced by more than one state. If so, blobs of removed
+	 * states can only be deleted after all remaining references have been marked.
+	 */
+	private final boolean sharedBlobs;
 	final BucketTree tree;
+	private final ConcurrentBucketTree<HistoryBucket> access;
 	private Workspace workspace;
 
 	public HistoryStore2(Workspace workspace, IFileStore store, int limit) {
+		this(workspace, store, limit, DEDUPLICATE, COMPRESS);
+	}
+
+	public HistoryStore2(Workspace workspace, IFileStore store, int limit, boolean deduplicate, boolean compress) {
 		this.workspace = workspace;
 		try {
 			store.mkdir(EFS.NONE, null);
@@ -80,44 +106,53 @@ public class HistoryStore2 implements IHistoryStore {
 			//ignore the failure here because there is no way to surface it.
 			//any attempt to write to the store will throw an appropriate exception
 		}
-		this.blobStore = new BlobStore(store, limit);
+		this.blobStore = deduplicate ? new ContentAddressedBlobStore(store, limit, compress) : new BlobStore(store, limit);
+		this.sharedBlobs = deduplicate;
 		this.tree = new BucketTree(workspace, new HistoryBucket());
+		this.access = new ConcurrentBucketTree<>(tree, HistoryBucket::new);
 	}
 
 	/**
 	 * @see IHistoryStore#addState(IPath, IFileStore, IFileInfo, boolean)
 	 */
 	@Override
-	public synchronized IFileState addState(IPath key, IFileStore localFile, IFileInfo info, boolean moveContents) {
+	public IFileState addState(IPath key, IFileStore localFile, IFileInfo info, boolean moveContents) {
 		long lastModified = info.getLastModified();
 		if (Policy.DEBUG_HISTORY)
 			Policy.debug("History: Adding state for key: " + key + ", file: " + localFile + ", timestamp: " + lastModified + ", size: " + localFile.fetchInfo().getLength()); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
 		if (!isValid(localFile, info))
 			return null;
-		UniversalUniqueIdentifier uuid = null;
+		final UniversalUniqueIdentifier[] uuid = new UniversalUniqueIdentifier[1];
 		try {
-			uuid = blobStore.addBlob(localFile, moveContents);
-			tree.loadBucketFor(key);
-			HistoryBucket currentBucket = (HistoryBucket) tree.getCurrent();
-			currentBucket.addBlob(key, uuid, lastModified);
-			//			currentBucket.save();
+			// blobs are added under the lock so that they cannot be swept by a concurrent clean-up
+			access.modify(key, () -> {
+				uuid[0] = blobStore.addBlob(localFile, moveContents);
+				tree.loadBucketFor(key);
+				HistoryBucket currentBucket = (HistoryBucket) tree.getCurrent();
+				currentBucket.addBlob(key, uuid[0], lastModified);
+				//			currentBucket.save();
+				return null;
+			});
 		} catch (CoreException e) {
 			log(e);
 		}
-		return new FileState(this, key, lastModified, uuid);
+		return new FileState(this, key, lastModified, uuid[0]);
 	}
 
 	@Override
-	public synchronized Set<IPath> allFiles(IPath root, int depth, IProgressMonitor monitor) {
+	public Set<IPath> allFiles(IPath root, int depth, IProgressMonitor monitor) {
 		final Set<IPath> allFiles = new HashSet<>();
 		try {
-			tree.accept(new Bucket.Visitor() {
-				@Override
-				public int visit(Entry fileEntry) {
-					allFiles.add(fileEntry.getPath());
-					return CONTINUE;
-				}
-			}, root, depth == IResource.DEPTH_INFINITE ? BucketTree.DEPTH_INFINITE : depth);
+			access.modify(root, () -> {
+				tree.accept(new Bucket.Visitor() {
+					@Override
+					public int visit(Entry fileEntry) {
+						allFiles.add(fileEntry.getPath());
+						return CONTINUE;
+					}
+				}, root, depth == IResource.DEPTH_INFINITE ? BucketTree.DEPTH_INFINITE : depth);
+				return null;
+			});
 		} catch (CoreException e) {
 			log(e);
 		}
@@ -156,34 +191,51 @@ public class HistoryStore2 implements IHistoryStore {
 	}
 
 	@Override
-	public synchronized void clean(final IProgressMonitor monitor) {
+	public void clean(final IProgressMonitor monitor) {
 		long start = System.currentTimeMillis();
 		try {
-			monitor.beginTask(Messages.resources_pruningHistory, IProgressMonitor.UNKNOWN);
-			IWorkspaceDescription description = workspace.internalGetDescription();
-			final long minimumTimestamp = System.currentTimeMillis() - description.getFileStateLongevity();
-			final int maxStates = description.getMaxFileStates();
-			final int[] entryCount = new int[1];
-			if (description.isApplyFileStatePolicy()) {
-				tree.accept(new Bucket.Visitor() {
-					@Override
-					public int visit(Entry fileEntry) {
-						if (monitor.isCanceled())
-							return STOP;
-						entryCount[0] += fileEntry.getOccurrences();
-						applyPolicy((HistoryEntry) fileEntry, maxStates, minimumTimestamp);
-						// remove unreferenced blobs, when blobsToRemove size is greater than 100
-						removeUnreferencedBlobs(100);
-						return monitor.isCanceled() ? STOP : CONTINUE;
-					}
-				}, Path.ROOT, BucketTree.DEPTH_INFINITE);
-			}
-			if (Policy.DEBUG_HISTORY) {
-				Policy.debug("Time to apply history store policies: " + (System.currentTimeMillis() - start) + "ms."); //$NON-NLS-1$ //$NON-NLS-2$
-				Policy.debug("Total number of history store entries: " + entryCount[0]); //$NON-NLS-1$
-			}
-			// remove all remaining unreferenced blobs
-			removeUnreferencedBlobs(0);
+			access.modifyAll(() -> {
+				monitor.beginTask(Messages.resources_pruningHistory, IProgressMonitor.UNKNOWN);
+				IWorkspaceDescription description = workspace.internalGetDescription();
+				final long minimumTimestamp = System.currentTimeMillis() - description.getFileStateLongevity();
+				final int maxStates = description.getMaxFileStates();
+				final int[] entryCount = new int[1];
+				// with shared blobs, references are marked while applying the policy and swept at the end
+				final Set<UniversalUniqueIdentifier> referenced = sharedBlobs ? new HashSet<>() : null;
+				if (description.isApplyFileStatePolicy()) {
+					tree.accept(new Bucket.Visitor() {
+						@Override
+						public int visit(Entry fileEntry) {
+							if (monitor.isCanceled())
+								return STOP;
+							entryCount[0] += fileEntry.getOccurrences();
+							applyPolicy((HistoryEntry) fileEntry, maxStates, minimumTimestamp);
+							if (referenced == null)
+								// remove unreferenced blobs, when blobsToRemove size is greater than 100
+								removeUnreferencedBlobs(100);
+							else
+								markReferenced((HistoryEntry) fileEntry, referenced);
+							return monitor.isCanceled() ? STOP : CONTINUE;
+						}
+					}, Path.ROOT, BucketTree.DEPTH_INFINITE);
+				}
+				if (Policy.DEBUG_HISTORY) {
+					Policy.debug("Time to apply history store policies: " + (System.currentTimeMillis() - start) + "ms."); //$NON-NLS-1$ //$NON-NLS-2$
+					Policy.debug("Total number of history store entries: " + entryCount[0]); //$NON-NLS-1$
+				}
+				// remove all remaining unreferenced blobs
+				if (referenced == null) {
+					removeUnreferencedBlobs(0);
+				} else if (!description.isApplyFileStatePolicy()) {
+					// nothing has been marked yet
+					removeGarbage();
+				} else if (!monitor.isCanceled()) {
+					// the mark is only complete if all entries have been visited
+					blobsToRemove.removeAll(referenced);
+					removeUnreferencedBlobs(0);
+				}
+				return null;
+			});
 		} catch (Exception e) {
 			String message = Messages.history_problemsCleaning;
 			ResourceStatus status = new ResourceStatus(IResourceStatus.FAILED_DELETE_LOCAL, null, message, e);
@@ -193,6 +245,16 @@ public class HistoryStore2 implements IHistoryStore {
 		}
 	}
 
+	/**
+	 * Adds the blobs of all states of the given entry that have not been deleted
+	 * to the given set.
+	 */
+	private static void markReferenced(HistoryEntry fileEntry, Set<UniversalUniqueIdentifier> referenced) {
+		for (int i = 0; i < fileEntry.getOccurrences(); i++)
+			if (!fileEntry.isDeletedOccurrence(i))
+				referenced.add(fileEntry.getUUID(i));
+	}
+
 	/*
 	 * Remove blobs from the blobStore. When the size of blobsToRemove exceeds the limit,
 	 * remove the given blobs from blobStore. If the limit is zero or negative, remove blobs
@@ -212,15 +274,18 @@ public class HistoryStore2 implements IHistoryStore {
 	@Override
 	public void closeHistoryStore(IResource resource) {
 		try {
-			tree.getCurrent().save();
-			tree.getCurrent().flush();
+			access.modify(resource.getFullPath(), () -> {
+				tree.getCurrent().save();
+				tree.getCurrent().flush();
+				return null;
+			});
 		} catch (CoreException e) {
 			log(e);
 		}
 	}
 
 	@Override
-	public synchronized void copyHistory(IResource sourceResource, IResource destinationResource, boolean moving) {
+	public void copyHistory(IResource sourceResource, IResource destinationResource, boolean moving) {
 		// return early if either of the paths are null or if the source and
 		// destination are the same.
 		if (sourceResource == null || destinationResource == null) {
@@ -243,19 +308,26 @@ public class HistoryStore2 implements IHistoryStore {
 		Assert.isLegal(source.segmentCount() > 1 || destination.segmentCount() == 1);
 
 		try {
-			// special case: we are moving a project
-			if (moving && sourceResource.getType() == IResource.PROJECT) {
-				// flush the tree to avoid confusion if another project is created with the same name
-				final Bucket bucket = tree.getCurrent();
-				bucket.save();
-				bucket.flush();
-				return;
-			}
-			// copy history by visiting the source tree
-			HistoryCopyVisitor copyVisitor = new HistoryCopyVisitor(source, destination);
-			tree.accept(copyVisitor, source, BucketTree.DEPTH_INFINITE);
-			// apply clean-up policy to the destination tree
-			applyPolicy(destinationResource.getFullPath());
+			Change<Object> change = () -> {
+				// special case: we are moving a project
+				if (moving && sourceResource.getType() == IResource.PROJECT) {
+					// flush the tree to avoid confusion if another project is created with the same name
+					final Bucket bucket = tree.getCurrent();
+					bucket.save();
+					bucket.flush();
+					return null;
+				}
+				// copy history by visiting the source tree
+				HistoryCopyVisitor copyVisitor = new HistoryCopyVisitor(source, destination);
+				tree.accept(copyVisitor, source, BucketTree.DEPTH_INFINITE);
+				// apply clean-up policy to the destination tree
+				applyPolicy(destinationResource.getFullPath());
+				return null;
+			};
+			if (source.segment(0).equals(destination.segment(0)))
+				access.modify(destination, change);
+			else
+				access.modifyAll(change);
 		} catch (CoreException e) {
 			log(e);
 		}
@@ -276,11 +348,9 @@ public class HistoryStore2 implements IHistoryStore {
 	}
 
 	@Override
-	public synchronized IFileState[] getStates(IPath filePath, IProgressMonitor monitor) {
+	public IFileState[] getStates(IPath filePath, IProgressMonitor monitor) {
 		try {
-			tree.loadBucketFor(filePath);
-			HistoryBucket currentBucket = (HistoryBucket) tree.getCurrent();
-			HistoryEntry fileEntry = currentBucket.getEntry(filePath);
+			HistoryEntry fileEntry = access.read(filePath, bucket -> bucket.getEntry(filePath));
 			if (fileEntry == null || fileEntry.isEmpty())
 				return new IFileState[0];
 			IFileState[] states = new IFileState[fileEntry.getOccurrences()];
@@ -331,19 +401,22 @@ public class HistoryStore2 implements IHistoryStore {
 	}
 
 	@Override
-	public synchronized void remove(IPath root, IProgressMonitor monitor) {
+	public void remove(IPath root, IProgressMonitor monitor) {
 		try {
-			final Set<UniversalUniqueIdentifier> tmpBlobsToRemove = blobsToRemove;
-			tree.accept(new Bucket.Visitor() {
-				@Override
-				public int visit(Entry fileEntry) {
-					for (int i = 0; i < fileEntry.getOccurrences(); i++)
-						// remember we need to delete the files later
-						tmpBlobsToRemove.add(((HistoryEntry) fileEntry).getUUID(i));
-					fileEntry.delete();
-					return CONTINUE;
-				}
-			}, root, BucketTree.DEPTH_INFINITE);
+			access.modify(root, () -> {
+				final Set<UniversalUniqueIdentifier> tmpBlobsToRemove = blobsToRemove;
+				tree.accept(new Bucket.Visitor() {
+					@Override
+					public int visit(Entry fileEntry) {
+						for (int i = 0; i < fileEntry.getOccurrences(); i++)
+							// remember we need to delete the files later
+							tmpBlobsToRemove.add(((HistoryEntry) fileEntry).getUUID(i));
+						fileEntry.delete();
+						return CONTINUE;
+					}
+				}, root, BucketTree.DEPTH_INFINITE);
+				return null;
+			});
 		} catch (CoreException ce) {
 			log(ce);
 		}
@@ -353,20 +426,23 @@ public class HistoryStore2 implements IHistoryStore {
 	 * @see IHistoryStore#removeGarbage()
 	 */
 	@Override
-	public synchronized void removeGarbage() {
+	public void removeGarbage() {
 		try {
-			final Set<UniversalUniqueIdentifier> tmpBlobsToRemove = blobsToRemove;
-			tree.accept(new Bucket.Visitor() {
-				@Override
-				public int visit(Entry fileEntry) {
-					for (int i = 0; i < fileEntry.getOccurrences(); i++)
-						// remember we need to delete the files later
-						tmpBlobsToRemove.remove(((HistoryEntry) fileEntry).getUUID(i));
-					return CONTINUE;
-				}
-			}, Path.ROOT, BucketTree.DEPTH_INFINITE);
-			blobStore.deleteBlobs(blobsToRemove);
-			blobsToRemove = new HashSet<>();
+			access.modifyAll(() -> {
+				final Set<UniversalUniqueIdentifier> tmpBlobsToRemove = blobsToRemove;
+				tree.accept(new Bucket.Visitor() {
+					@Override
+					public int visit(Entry fileEntry) {
+						for (int i = 0; i < fileEntry.getOccurrences(); i++)
+							// remember we need to delete the files later
+							tmpBlobsToRemove.remove(((HistoryEntry) fileEntry).getUUID(i));
+						return CONTINUE;
+					}
+				}, Path.ROOT, BucketTree.DEPTH_INFINITE);
+				blobStore.deleteBlobs(blobsToRemove);
+				blobsToRemove = new HashSet<>();
+				return null;
+			});
 		} catch (Exception e) {
 			String message = Messages.history_problemsCleaning;
 			ResourceStatus status = new ResourceStatus(IResourceStatus.FAILED_DELETE_LOCAL, null, message, e);
@@ -375,8 +451,11 @@ public class HistoryStore2 implements IHistoryStore {
 	}
 
 	@Override
-	public synchronized void shutdown(IProgressMonitor monitor) throws CoreException {
-		tree.close();
+	public void shutdown(IProgressMonitor monitor) throws CoreException {
+		access.modifyAll(() -> {
+			tree.close();
+			return null;
+		});
 	}
 
 	@Override
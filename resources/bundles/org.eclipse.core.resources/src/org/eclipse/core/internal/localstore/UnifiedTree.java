@@ -23,6 +23,7 @@ package org.eclipse.core.internal.localstore;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.regex.Pattern;
 import org.eclipse.core.filesystem.*;
 import org.eclipse.core.internal.refresh.RefreshJob;
@@ -40,6 +41,49 @@ public class UnifiedTree {
 	/** Skip advanced link checking, see bug 537449 */
 	private static boolean disable_advanced_recursive_link_checks = System.getProperty("org.eclipse.core.resources.disable_advanced_recursive_link_checks") != null; //$NON-NLS-1$
 
+	/**
+	 * System property holding the number of threads used to fetch directory
+	 * listings ahead of the visitor, see {@link #setPrefetch(boolean)}.
+	 * Prefetching is disabled if the property is not set or not positive.
+	 */
+	private static final String PROP_PREFETCH_THREADS = "org.eclipse.core.resources.refresh.prefetchThreads"; //$NON-NLS-1$
+
+	/** The maximum number of listings fetched ahead per worker thread */
+	private static final int PREFETCH_PER_THREAD = 8;
+
+	/**
+	 * The coarsest resolution of directory timestamps in milliseconds. A
+	 * listing fetched ahead is only used if its directory was last modified
+	 * longer than this before the listing was started, because a later change
+	 * could have the same timestamp.
+	 */
+	private static final long TIMESTAMP_RESOLUTION = 2000;
+
+	/**
+	 * A directory listing fetched ahead of the visitor, together with the
+	 * timestamp of the directory it was taken from.
+	 */
+	private static final class Listing {
+		final long started = System.currentTimeMillis();
+		final long lastModified;
+		final IFileInfo[] children;
+
+		Listing(IFileStore store) throws CoreException {
+			lastModified = store.fetchInfo().getLastModified();
+			children = store.childInfos(EFS.NONE, null);
+		}
+
+		/**
+		 * Returns whether no member has been added to or removed from the
+		 * directory since the listing was taken, as far as its timestamp tells.
+		 * Changes of the contents of existing members are not detected, just as
+		 * for members changed between listing and visiting a directory.
+		 */
+		boolean isCurrent(IFileStore store) {
+			return lastModified < started - TIMESTAMP_RESOLUTION && store.fetchInfo().getLastModified() == lastModified;
+		}
+	}
+
 	/** special node to mark the separation of a node's children */
 	protected static final UnifiedTreeNode childrenMarker = new UnifiedTreeNode(null, null, null, null, false);
 
@@ -75,6 +119,45 @@ public class UnifiedTree {
 	/** tree's root */
 	protected IResource root;
 
+	/** whether directory listings should be fetched ahead of the visitor */
+	private boolean prefetch;
+
+	/** the maximum number of listings that may be fetched ahead at any time */
+	private int prefetchLimit;
+
+	/** the pool fetching listings ahead of the visitor */
+	private ForkJoinPool prefetchExecutor;
+
+	/** folder nodes in the queue whose listing has not been requested yet, in queue order */
+	private LinkedHashSet<UnifiedTreeNode> prefetchCandidates;
+
+	/** listings requested ahead of the visitor, keyed by node identity */
+	private Map<UnifiedTreeNode, Future<Listing>> prefetched;
+
+	/** the pool fetching listings ahead, created when prefetching is first used */
+	private static ForkJoinPool prefetchPool;
+
+	/**
+	 * Returns the pool used to fetch listings ahead with the given number of
+	 * threads. The pool is replaced when the number of threads has changed
+	 * since it was created. A replaced pool is not shut down, as traversals
+	 * running concurrently may still use it; its idle threads terminate on
+	 * their own.
+	 */
+	private static synchronized ForkJoinPool getPrefetchPool(int threads) {
+		if (prefetchPool == null || prefetchPool.getParallelism() != threads) {
+			// Never use a shared ForkJoinPool.commonPool() as it may be busy with other tasks, which might deadlock.
+			// Also use a custom ForkJoinWorkerThreadFactory, to prevent issues with a
+			// potential SecurityManager, since the threads created by it get no permissions.
+			// See https://github.com/eclipse-platform/eclipse.platform/issues/294
+			prefetchPool = new ForkJoinPool(threads, //
+					pool -> new ForkJoinWorkerThread(pool) {
+						// anonymous subclass to access protected constructor
+					}, null, false);
+		}
+		return prefetchPool;
+	}
+
 	/**
 	 * The root must only be a file or a folder.
 	 */
@@ -105,32 +188,143 @@ public class UnifiedTree {
 	 */
 	public void accept(IUnifiedTreeVisitor visitor, int depth) throws CoreException {
 		Assert.isNotNull(root);
-		initializeQueue();
-		setLevel(0, depth);
-		while (!queue.isEmpty()) {
-			UnifiedTreeNode node = queue.remove();
-			if (isChildrenMarker(node))
-				continue;
-			if (isLevelMarker(node)) {
-				if (!setLevel(getLevel() + 1, depth))
-					break;
-				continue;
-			}
-			if (visitor.visit(node))
-				addNodeChildrenToQueue(node);
-			else
-				removeNodeChildrenFromQueue(node);
-			//allow reuse of the node, but don't let the freeNodes list grow infinitely
-			if (freeNodes.size() < 32767) {
-				//free memory-consuming elements of the node for garbage collection
-				node.releaseForGc();
-				freeNodes.add(node);
+		initializePrefetch(depth);
+		try {
+			initializeQueue();
+			setLevel(0, depth);
+			while (!queue.isEmpty()) {
+				UnifiedTreeNode node = queue.remove();
+				if (isChildrenMarker(node))
+					continue;
+				if (isLevelMarker(node)) {
+					if (!setLevel(getLevel() + 1, depth))
+						break;
+					continue;
+				}
+				if (visitor.visit(node))
+					addNodeChildrenToQueue(node);
+				else
+					removeNodeChildrenFromQueue(node);
+				//the node may be reused, so forget about any listing fetched for it
+				discardPrefetch(node);
+				//allow reuse of the node, but don't let the freeNodes list grow infinitely
+				if (freeNodes.size() < 32767) {
+					//free memory-consuming elements of the node for garbage collection
+					node.releaseForGc();
+					freeNodes.add(node);
+				}
+				//else, the whole node will be garbage collected since there is no
+				//reference to it any more.
 			}
-			//else, the whole node will be garbage collected since there is no
-			//reference to it any more.
+		} finally {
+			cancelPrefetch();
 		}
 	}
 
+	/**
+	 * Sets whether the listings of directories in the queue should be fetched
+	 * on a worker pool ahead of the visitor. The visitor still sees the nodes in
+	 * the same order. Prefetching only takes effect for traversals to infinite
+	 * depth, when the tree is not built from an {@link IFileTree}, and when the
+	 * system property <code>org.eclipse.core.resources.refresh.prefetchThreads</code>
+	 * is set to a positive number of threads.
+	 */
+	public void setPrefetch(boolean prefetch) {
+		this.prefetch = prefetch;
+	}
+
+	private void initializePrefetch(int depth) {
+		prefetchCandidates = null;
+		prefetched = null;
+		if (!prefetch || fileTree != null || depth != IResource.DEPTH_INFINITE)
+			return;
+		int threads = Integer.getInteger(PROP_PREFETCH_THREADS, 0);
+		if (threads <= 0)
+			return;
+		prefetchLimit = threads * PREFETCH_PER_THREAD;
+		prefetchExecutor = getPrefetchPool(threads);
+		prefetchCandidates = new LinkedHashSet<>();
+		prefetched = new IdentityHashMap<>();
+	}
+
+	/**
+	 * Remembers the given node so that its listing can be fetched ahead of the visitor.
+	 */
+	private void addPrefetchCandidate(UnifiedTreeNode node) {
+		if (prefetchCandidates == null || !node.existsInFileSystem() || !node.isFolder())
+			return;
+		prefetchCandidates.add(node);
+		schedulePrefetch();
+	}
+
+	/**
+	 * Requests the listings of queued folders, as long as the limit of
+	 * listings fetched ahead allows it.
+	 */
+	private void schedulePrefetch() {
+		while (prefetched.size() < prefetchLimit && !prefetchCandidates.isEmpty()) {
+			Iterator<UnifiedTreeNode> first = prefetchCandidates.iterator();
+			UnifiedTreeNode node = first.next();
+			first.remove();
+			final IFileStore store = node.getStore();
+			prefetched.put(node, prefetchExecutor.submit(() -> new Listing(store)));
+		}
+	}
+
+	/**
+	 * Returns the children of the given store, using the listing fetched
+	 * ahead for the given node if there is one and its directory has not
+	 * changed since. A directory that has changed is listed again, so that the
+	 * result is the same as without prefetching.
+	 */
+	private IFileInfo[] fetchChildInfos(UnifiedTreeNode node, IFileStore store) throws CoreException {
+		if (prefetched == null)
+			return store.childInfos(EFS.NONE, null);
+		Future<Listing> future = prefetched.remove(node);
+		if (future == null) {
+			prefetchCandidates.remove(node);
+			schedulePrefetch();
+			return store.childInfos(EFS.NONE, null);
+		}
+		schedulePrefetch();
+		try {
+			Listing listing = future.get();
+			return listing.isCurrent(store) ? listing.children : store.childInfos(EFS.NONE, null);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof CoreException)
+				throw (CoreException) e.getCause();
+			throw new CoreException(Status.error(e.getMessage(), e.getCause()));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return store.childInfos(EFS.NONE, null);
+		}
+	}
+
+	/**
+	 * Forgets the listing requested ahead for the given node, if any.
+	 */
+	private void discardPrefetch(UnifiedTreeNode node) {
+		if (prefetched == null)
+			return;
+		Future<Listing> future = prefetched.remove(node);
+		if (future != null) {
+			future.cancel(false);
+			schedulePrefetch();
+		} else {
+			prefetchCandidates.remove(node);
+		}
+	}
+
+	private void cancelPrefetch() {
+		if (prefetched == null)
+			return;
+		for (Future<Listing> future : prefetched.values())
+			future.cancel(false);
+		prefetched = null;
+		prefetchCandidates = null;
+		prefetchExecutor = null;
+	}
+
 	protected void addChildren(UnifiedTreeNode node) {
 		Resource parent = (Resource) node.getResource();
 
@@ -240,6 +434,7 @@ public class UnifiedTree {
 		if (node.getFirstChild() == null)
 			node.setFirstChild(child);
 		addElementToQueue(child);
+		addPrefetchCandidate(child);
 	}
 
 	protected void addElementToQueue(UnifiedTreeNode target) {
@@ -357,7 +552,7 @@ public class UnifiedTree {
 			if (fileTree != null && (fileTree.getTreeRoot().equals(store) || fileTree.getTreeRoot().isParentOf(store)))
 				list = fileTree.getChildInfos(store);
 			else
-				list = store.childInfos(EFS.NONE, null);
+				list = fetchChildInfos(node, store);
 
 			if (list == null || list.length == 0)
 				return NO_CHILDREN;
@@ -590,7 +785,9 @@ public class UnifiedTree {
 		if (first == null)
 			return;
 		while (true) {
-			if (first.equals(queue.pollLast()))
+			UnifiedTreeNode last = queue.pollLast();
+			discardPrefetch(last);
+			if (first.equals(last))
 				break;
 		}
 		node.setFirstChild(null);
@@ -68,6 +68,17 @@ public interface IPropertyManager extends IManager {
 	 */
 	void setProperty(IResource target, QualifiedName name, String value) throws CoreException;
 
+	/**
+	 * Sets the values of the identified properties on the given resources, as if
+	 * by calling {@link #setProperty(IResource, QualifiedName, String)} for each of
+	 * them, but writing each affected property store file only once.
+	 *
+	 * @param properties the properties to set by resource, where a
+	 *                   <code>null</code> value removes a property; the
+	 *                   properties of a resource must not be <code>null</code>
+	 */
+	void setProperties(Map<? extends IResource, Map<QualifiedName, String>> properties) throws CoreException;
+
 	/**
 	 * Returns a map {@literal (<propertyKey: QualifiedName -> value: String>)}
 	 * containing all properties defined for the given resource. In case no
@@ -202,7 +202,26 @@ public class PropertyBucket extends Bucket {
 
 	/** Version number for the current implementation file's format.
 	 * <p>
-	 * Version 1:
+	 * Version 2, the sorted format of {@link Bucket}:
+	 * </p>
+	 * <pre> {@code
+	 * FILE ::= VERSION_ID ENTRY_COUNT OFFSET* ENTRY*
+	 * ENTRY_COUNT ::= int
+	 * OFFSET ::= int
+	 * ENTRY ::= PATH PROPERTY_COUNT PROPERTY+
+	 * PATH ::= string (does not contain project name)
+	 * PROPERTY_COUNT ::= int
+	 * PROPERTY ::= QUALIFIER LOCAL_NAME VALUE
+	 * QUALIFIER ::= INDEX | QNAME
+	 * INDEX -> byte int
+	 * QNAME -> byte string
+	 * }</pre>
+	 * <p>
+	 * The index of a qualifier only refers to qualifiers written before within
+	 * the same entry.
+	 * </p>
+	 * <p>
+	 * Version 1, still read:
 	 * </p>
 	 * <pre> {@code
 	 * FILE ::= VERSION_ID ENTRY+
@@ -217,7 +236,12 @@ public class PropertyBucket extends Bucket {
 	 * LAST_MODIFIED ::= byte[8]
 	 * }</pre>
 	 */
-	private static final byte VERSION = 1;
+	private static final byte VERSION = 2;
+
+	/**
+	 * Version number of the unsorted file format, which is still read.
+	 */
+	private static final byte UNSORTED_VERSION = 1;
 
 	private final List<String> qualifierIndex = new ArrayList<>();
 
@@ -230,7 +254,7 @@ public class PropertyBucket extends Bucket {
 		return new PropertyEntry(path, (String[][]) value);
 	}
 
-	private PropertyEntry getEntry(IPath path) {
+	public PropertyEntry getEntry(IPath path) {
 		String pathAsString = path.toString();
 		String[][] existing = (String[][]) getEntryValue(pathAsString);
 		if (existing == null)
@@ -255,6 +279,11 @@ public class PropertyBucket extends Bucket {
 		return VERSION;
 	}
 
+	@Override
+	protected byte getUnsortedVersion() {
+		return UNSORTED_VERSION;
+	}
+
 	@Override
 	protected String getVersionFileName() {
 		return "properties.version"; //$NON-NLS-1$
@@ -301,6 +330,12 @@ public class PropertyBucket extends Bucket {
 		super.save();
 	}
 
+	@Override
+	protected void resetEntryState() {
+		// in the sorted format qualifiers are only indexed within an entry
+		qualifierIndex.clear();
+	}
+
 	public void setProperties(PropertyEntry entry) {
 		IPath path = entry.getPath();
 		String[][] additions = (String[][]) entry.getValue();
@@ -20,6 +20,7 @@ import java.util.*;
 import org.eclipse.core.internal.localstore.Bucket;
 import org.eclipse.core.internal.localstore.Bucket.Entry;
 import org.eclipse.core.internal.localstore.BucketTree;
+import org.eclipse.core.internal.localstore.ConcurrentBucketTree;
 import org.eclipse.core.internal.properties.PropertyBucket.PropertyEntry;
 import org.eclipse.core.internal.resources.*;
 import org.eclipse.core.internal.utils.Messages;
@@ -29,6 +30,9 @@ import org.eclipse.core.runtime.*;
 import org.eclipse.osgi.util.NLS;
 
 /**
+ * Property lookups run concurrently with each other and with changes to
+ * properties of other projects, see {@link ConcurrentBucketTree}.
+ *
  * @see org.eclipse.core.internal.properties.IPropertyManager
  */
 public class PropertyManager2 implements IPropertyManager {
@@ -74,23 +78,37 @@ public class PropertyManager2 implements IPropertyManager {
 	}
 
 	BucketTree tree;
+	private final ConcurrentBucketTree<PropertyBucket> access;
 
 	public PropertyManager2(Workspace workspace) {
 		this.tree = new BucketTree(workspace, new PropertyBucket());
+		this.access = new ConcurrentBucketTree<>(tree, PropertyBucket::new);
 	}
 
 	@Override
 	public void closePropertyStore(IResource target) throws CoreException {
-		// ensure any uncommitted are written to disk
-		tree.getCurrent().save();
-		// flush in-memory state to avoid confusion if another project is later
-		// created with the same name
-		tree.getCurrent().flush();
+		access.modify(target.getFullPath(), () -> {
+			// ensure any uncommitted are written to disk
+			tree.getCurrent().save();
+			// flush in-memory state to avoid confusion if another project is later
+			// created with the same name
+			tree.getCurrent().flush();
+			return null;
+		});
 	}
 
 	@Override
-	public synchronized void copy(IResource source, IResource destination, int depth) throws CoreException {
-		copyProperties(source.getFullPath(), destination.getFullPath());
+	public void copy(IResource source, IResource destination, int depth) throws CoreException {
+		IPath sourcePath = source.getFullPath();
+		IPath destinationPath = destination.getFullPath();
+		ConcurrentBucketTree.Change<Object> change = () -> {
+			copyProperties(sourcePath, destinationPath);
+			return null;
+		};
+		if (sourcePath.segment(0).equals(destinationPath.segment(0)))
+			access.modify(destinationPath, change);
+		else
+			access.modifyAll(change);
 	}
 
 	/**
@@ -107,14 +125,18 @@ public class PropertyManager2 implements IPropertyManager {
 	}
 
 	@Override
-	public synchronized void deleteProperties(IResource target, int depth) throws CoreException {
-		tree.accept(new PropertyBucket.Visitor() {
-			@Override
-			public int visit(Entry entry) {
-				entry.delete();
-				return CONTINUE;
-			}
-		}, target.getFullPath(), depth == IResource.DEPTH_INFINITE ? BucketTree.DEPTH_INFINITE : depth);
+	public void deleteProperties(IResource target, int depth) throws CoreException {
+		IPath targetPath = target.getFullPath();
+		access.modify(targetPath, () -> {
+			tree.accept(new PropertyBucket.Visitor() {
+				@Override
+				public int visit(Entry entry) {
+					entry.delete();
+					return CONTINUE;
+				}
+			}, targetPath, depth == IResource.DEPTH_INFINITE ? BucketTree.DEPTH_INFINITE : depth);
+			return null;
+		});
 	}
 
 	@Override
@@ -123,31 +145,26 @@ public class PropertyManager2 implements IPropertyManager {
 	}
 
 	@Override
-	public synchronized Map<QualifiedName, String> getProperties(IResource target) throws CoreException {
+	public Map<QualifiedName, String> getProperties(IResource target) throws CoreException {
+		IPath resourcePath = target.getFullPath();
+		PropertyEntry propertyEntry = access.read(resourcePath, bucket -> bucket.getEntry(resourcePath));
 		final Map<QualifiedName, String> result = new HashMap<>();
-		tree.accept(new PropertyBucket.Visitor() {
-			@Override
-			public int visit(Entry entry) {
-				PropertyEntry propertyEntry = (PropertyEntry) entry;
-				int propertyCount = propertyEntry.getOccurrences();
-				for (int i = 0; i < propertyCount; i++)
-					result.put(propertyEntry.getPropertyName(i), propertyEntry.getPropertyValue(i));
-				return CONTINUE;
-			}
-		}, target.getFullPath(), BucketTree.DEPTH_ZERO);
+		if (propertyEntry == null)
+			return result;
+		int propertyCount = propertyEntry.getOccurrences();
+		for (int i = 0; i < propertyCount; i++)
+			result.put(propertyEntry.getPropertyName(i), propertyEntry.getPropertyValue(i));
 		return result;
 	}
 
 	@Override
-	public synchronized String getProperty(IResource target, QualifiedName name) throws CoreException {
+	public String getProperty(IResource target, QualifiedName name) throws CoreException {
 		if (name.getQualifier() == null) {
 			String message = Messages.properties_qualifierIsNull;
 			throw new ResourceException(IResourceStatus.FAILED_READ_METADATA, target.getFullPath(), message, null);
 		}
 		IPath resourcePath = target.getFullPath();
-		PropertyBucket current = (PropertyBucket) tree.getCurrent();
-		tree.loadBucketFor(resourcePath);
-		return current.getProperty(resourcePath, name);
+		return access.read(resourcePath, bucket -> bucket.getProperty(resourcePath, name));
 	}
 
 	public BucketTree getTree() {
@@ -159,9 +176,60 @@ public class PropertyManager2 implements IPropertyManager {
 	}
 
 	@Override
-	public synchronized void setProperty(IResource target, QualifiedName name, String value) throws CoreException {
-		//resource may have been deleted concurrently
-		//must check for existence within synchronized method
+	public void setProperty(IResource target, QualifiedName name, String value) throws CoreException {
+		IPath resourcePath = target.getFullPath();
+		access.modify(resourcePath, () -> {
+			checkProperty(target, name, value);
+			tree.loadBucketFor(resourcePath);
+			PropertyBucket current = (PropertyBucket) tree.getCurrent();
+			current.setProperty(resourcePath, name, value);
+			current.save();
+			return null;
+		});
+	}
+
+	@Override
+	public void setProperties(Map<? extends IResource, Map<QualifiedName, String>> properties) throws CoreException {
+		// changes to different projects use different locks
+		Map<String, List<IResource>> byProject = new LinkedHashMap<>();
+		for (Map.Entry<? extends IResource, Map<QualifiedName, String>> entry : properties.entrySet()) {
+			Assert.isNotNull(entry.getValue());
+			IResource target = entry.getKey();
+			IPath path = target.getFullPath();
+			byProject.computeIfAbsent(path.segmentCount() == 0 ? "" : path.segment(0), p -> new ArrayList<>()).add(target); //$NON-NLS-1$
+		}
+		for (List<IResource> targets : byProject.values()) {
+			access.modify(targets.get(0).getFullPath(), () -> {
+				// check everything first so that invalid properties do not leave the project half done
+				Map<File, List<IResource>> byBucket = new LinkedHashMap<>();
+				for (IResource target : targets) {
+					for (Map.Entry<QualifiedName, String> property : properties.get(target).entrySet())
+						checkProperty(target, property.getKey(), property.getValue());
+					byBucket.computeIfAbsent(tree.locationFor(target.getFullPath()), l -> new ArrayList<>()).add(target);
+				}
+				// loading the next bucket saves the previous one
+				for (List<IResource> bucketTargets : byBucket.values()) {
+					tree.loadBucketFor(bucketTargets.get(0).getFullPath());
+					PropertyBucket current = (PropertyBucket) tree.getCurrent();
+					for (IResource target : bucketTargets) {
+						IPath resourcePath = target.getFullPath();
+						for (Map.Entry<QualifiedName, String> property : properties.get(target).entrySet())
+							current.setProperty(resourcePath, property.getKey(), property.getValue());
+					}
+				}
+				tree.getCurrent().save();
+				return null;
+			});
+		}
+	}
+
+	/**
+	 * Checks that the given property can be set on the given resource. Must be
+	 * called while holding the lock, because the resource may have been deleted
+	 * concurrently.
+	 */
+	private void checkProperty(IResource target, QualifiedName name, String value) throws CoreException {
+		IPath resourcePath = target.getFullPath();
 		Resource resource = (Resource) target;
 		ResourceInfo info = resource.getResourceInfo(false, false);
 		int flags = resource.getFlags(info);
@@ -169,23 +237,20 @@ public class PropertyManager2 implements IPropertyManager {
 		// enforce the limit stated by the spec
 		if (value != null && value.length() > MAX_VALUE_SIZE) {
 			String message = NLS.bind(Messages.properties_valueTooLong, new Object[] {name.getQualifier(), name.getLocalName(), Integer.toString(MAX_VALUE_SIZE)});
-			throw new ResourceException(IResourceStatus.FAILED_WRITE_METADATA, target.getFullPath(), message, null);
+			throw new ResourceException(IResourceStatus.FAILED_WRITE_METADATA, resourcePath, message, null);
 		}
 		if (name.getQualifier() == null) {
 			String message = Messages.properties_qualifierIsNull;
-			throw new ResourceException(IResourceStatus.FAILED_WRITE_METADATA, target.getFullPath(), message, null);
+			throw new ResourceException(IResourceStatus.FAILED_WRITE_METADATA, resourcePath, message, null);
 		}
-
-		IPath resourcePath = target.getFullPath();
-		tree.loadBucketFor(resourcePath);
-		PropertyBucket current = (PropertyBucket) tree.getCurrent();
-		current.setProperty(resourcePath, name, value);
-		current.save();
 	}
 
 	@Override
 	public void shutdown(IProgressMonitor monitor) throws CoreException {
-		tree.close();
+		access.modifyAll(() -> {
+			tree.close();
+			return null;
+		});
 	}
 
 	@Override
@@ -20,7 +20,6 @@ package org.eclipse.core.internal.resources;
 
 import java.net.URI;
 import java.util.*;
-import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import org.eclipse.core.filesystem.EFS;
@@ -109,37 +108,115 @@ public class AliasManager implements IManager, ILifecycleListener, IResourceChan
 	/**
 	 * Maintains a mapping of FileStore-&gt;IResource, such that multiple resources
 	 * mapped from the same location are tolerated.
+	 * <p>
+	 * The locations are kept in a trie with one node per location segment, so
+	 * finding the resources at or below a location only walks the segments of the
+	 * location and the matching subtree, instead of scanning a sorted map.
+	 * </p>
 	 */
 	class LocationMap {
 		/**
-		 * Map of FileStore-&gt;IResource OR FileStore-&gt;ArrayList of (IResource)
+		 * A location in the trie.
 		 */
-		private final SortedMap<IFileStore, Object> map = new TreeMap<>(IFileStore::compareTo);
+		private final class Node {
+			final Node parent;
+			final IFileStore location;
+			/**
+			 * Map of child FileStore-&gt;Node, or null if there are no children
+			 */
+			Map<IFileStore, Node> children;
+			/**
+			 * The IResource OR ArrayList of (IResource) at this location, or null
+			 */
+			Object value;
+
+			Node(Node parent, IFileStore location) {
+				this.parent = parent;
+				this.location = location;
+			}
+
+			/**
+			 * Removes this node and any ancestors that no longer hold anything.
+			 */
+			void prune() {
+				for (Node node = this; node != null && node.value == null && (node.children == null || node.children.isEmpty()); node = node.parent) {
+					Map<IFileStore, Node> siblings = node.parent == null ? roots : node.parent.children;
+					siblings.remove(node.location);
+				}
+			}
+		}
+
+		/**
+		 * Map of root FileStore-&gt;Node
+		 */
+		private final Map<IFileStore, Node> roots = new HashMap<>();
+
+		/**
+		 * Map of IProject-&gt;Set of (Node), the nodes holding resources of each project
+		 */
+		private final Map<IProject, Set<Node>> projectNodes = new HashMap<>();
+
+		/**
+		 * Returns the segments of the given location, starting at its root.
+		 */
+		private List<IFileStore> segments(IFileStore location) {
+			ArrayList<IFileStore> segments = new ArrayList<>();
+			for (IFileStore store = location; store != null; store = store.getParent())
+				segments.add(store);
+			Collections.reverse(segments);
+			return segments;
+		}
+
+		/**
+		 * Returns the node for the given location, creating it if requested.
+		 * Returns null if the node does not exist and was not created.
+		 */
+		private Node find(IFileStore location, boolean create) {
+			Node node = null;
+			Map<IFileStore, Node> siblings = roots;
+			for (IFileStore segment : segments(location)) {
+				if (siblings == null) {
+					if (!create)
+						return null;
+					siblings = node.children = new HashMap<>(4);
+				}
+				Node child = siblings.get(segment);
+				if (child == null) {
+					if (!create)
+						return null;
+					child = new Node(node, segment);
+					siblings.put(segment, child);
+				}
+				node = child;
+				siblings = node.children;
+			}
+			return node;
+		}
 
 		/**
 		 * Adds the given resource to the map, keyed by the given location.
 		 * Returns true if a new entry was added, and false otherwise.
 		 */
 		public boolean add(IFileStore location, IResource resource) {
-			Object oldValue = map.get(location);
+			Node node = find(location, true);
+			Object oldValue = node.value;
 			if (oldValue == null) {
-				map.put(location, resource);
-				return true;
-			}
-			if (oldValue instanceof IResource) {
+				node.value = resource;
+			} else if (oldValue instanceof IResource) {
 				if (resource.equals(oldValue))
 					return false;//duplicate
 				ArrayList<Object> newValue = new ArrayList<>(2);
 				newValue.add(oldValue);
 				newValue.add(resource);
-				map.put(location, newValue);
-				return true;
+				node.value = newValue;
+			} else {
+				@SuppressWarnings("unchecked")
+				ArrayList<IResource> list = (ArrayList<IResource>) oldValue;
+				if (list.contains(resource))
+					return false;//duplicate
+				list.add(resource);
 			}
-			@SuppressWarnings("unchecked")
-			ArrayList<IResource> list = (ArrayList<IResource>) oldValue;
-			if (list.contains(resource))
-				return false;//duplicate
-			list.add(resource);
+			projectNodes.computeIfAbsent(resource.getProject(), p -> new HashSet<>()).add(node);
 			return true;
 		}
 
@@ -147,45 +224,14 @@ public class AliasManager implements IManager, ILifecycleListener, IResourceChan
 		 * Method clear.
 		 */
 		public void clear() {
-			map.clear();
+			roots.clear();
+			projectNodes.clear();
 		}
 
 		/**
-		 * Invoke the given doit for every resource whose location has the
-		 * given location as a prefix.
+		 * Invoke the given doit for every resource in the given node value.
 		 */
-		public void matchingPrefixDo(IFileStore prefix, Consumer<IResource> doit) {
-			SortedMap<IFileStore, Object> matching;
-			IFileStore prefixParent = prefix.getParent();
-			if (prefixParent != null) {
-				//endPoint is the smallest possible path greater than the prefix that doesn't
-				//match the prefix
-				IFileStore endPoint = prefixParent.getChild(prefix.getName() + "\0"); //$NON-NLS-1$
-				matching = map.subMap(prefix, endPoint);
-			} else {
-				matching = map;
-			}
-			for (Object value : matching.values()) {
-				if (value == null)
-					return;
-				if (value instanceof List) {
-					for (Object element : ((List<?>) value)) {
-						if (element instanceof IResource) {
-							doit.accept((IResource) element);
-						}
-					}
-				} else {
-					doit.accept((IResource) value);
-				}
-			}
-		}
-
-		/**
-		 * Invoke the given doit for every resource that matches the given
-		 * location.
-		 */
-		public void matchingResourcesDo(IFileStore location, Consumer<IResource> doit) {
-			Object value = map.get(location);
+		private void valueDo(Object value, Consumer<IResource> doit) {
 			if (value == null)
 				return;
 			if (value instanceof List) {
@@ -199,48 +245,70 @@ public class AliasManager implements IManager, ILifecycleListener, IResourceChan
 			}
 		}
 
+		/**
+		 * Invoke the given doit for every resource in the subtree rooted at the
+		 * given node.
+		 */
+		private void subtreeDo(Node node, Consumer<IResource> doit) {
+			valueDo(node.value, doit);
+			if (node.children != null)
+				for (Node child : node.children.values())
+					subtreeDo(child, doit);
+		}
+
+		/**
+		 * Invoke the given doit for every resource whose location has the
+		 * given location as a prefix.
+		 */
+		public void matchingPrefixDo(IFileStore prefix, Consumer<IResource> doit) {
+			Node node = find(prefix, false);
+			if (node != null)
+				subtreeDo(node, doit);
+		}
+
+		/**
+		 * Invoke the given doit for every resource that matches the given
+		 * location.
+		 */
+		public void matchingResourcesDo(IFileStore location, Consumer<IResource> doit) {
+			Node node = find(location, false);
+			if (node != null)
+				valueDo(node.value, doit);
+		}
+
 		/**
 		 * Calls the given doit with the project of every resource in the map
 		 * whose location overlaps another resource in the map.
 		 */
 		public void overLappingResourcesDo(Consumer<IResource> doit) {
-			IFileStore previousStore = null;
-			IResource previousResource = null;
-			for (Entry<IFileStore, Object> current : map.entrySet()) {
-				//value is either single resource or List of resources
-				IFileStore currentStore = current.getKey();
-				IResource currentResource = null;
-				Object value = current.getValue();
-				if (value instanceof List) {
-					for (Object element : ((List<?>) value)) {
-						if (element instanceof IResource) {
-							doit.accept(((IResource) element).getProject());
-						}
-					}
-				} else {
-					//value is a single resource
-					currentResource = (IResource) value;
-				}
-				if (previousStore != null) {
-					//check for overlap with previous
-					//Note: previous is always shorter due to map sorting rules
-					if (previousStore.isParentOf(currentStore)) {
-						//resources will be null if they were in a list, in which case
-						//they've already been passed to the doit
-						if (previousResource != null) {
-							doit.accept(previousResource.getProject());
-							//null out previous resource so we don't call doit twice with same resource
-							previousResource = null;
-						}
-						if (currentResource != null)
-							doit.accept(currentResource.getProject());
-						//keep iterating with the same previous store because there may be more overlaps
-						continue;
-					}
+			for (Node root : roots.values())
+				overLappingResourcesDo(root, new ArrayList<>(), doit);
+		}
+
+		/**
+		 * Visits the subtree rooted at the given node. The given list holds the
+		 * ancestors of the node that hold resources.
+		 */
+		private void overLappingResourcesDo(Node node, List<Node> holders, Consumer<IResource> doit) {
+			boolean holds = node.value != null;
+			if (holds) {
+				Consumer<IResource> projectDoit = resource -> doit.accept(resource.getProject());
+				//several resources at the same location overlap each other
+				if (node.value instanceof List)
+					valueDo(node.value, projectDoit);
+				//resources below the location of other resources overlap them
+				if (!holders.isEmpty()) {
+					valueDo(node.value, projectDoit);
+					for (Node holder : holders)
+						valueDo(holder.value, projectDoit);
 				}
-				previousStore = currentStore;
-				previousResource = currentResource;
+				holders.add(node);
 			}
+			if (node.children != null)
+				for (Node child : node.children.values())
+					overLappingResourcesDo(child, holders, doit);
+			if (holds)
+				holders.remove(holders.size() - 1);
 		}
 
 		/**
@@ -248,22 +316,68 @@ public class AliasManager implements IManager, ILifecycleListener, IResourceChan
 		 * was actually removed, and false otherwise.
 		 */
 		public boolean remove(IFileStore location, IResource resource) {
-			Object oldValue = map.get(location);
-			if (oldValue == null)
+			Node node = find(location, false);
+			if (node == null || node.value == null)
 				return false;
+			Object oldValue = node.value;
 			if (oldValue instanceof IResource) {
-				if (resource.equals(oldValue)) {
-					map.remove(location);
-					return true;
+				if (!resource.equals(oldValue))
+					return false;
+				node.value = null;
+			} else {
+				@SuppressWarnings("unchecked")
+				ArrayList<IResource> list = (ArrayList<IResource>) oldValue;
+				if (!list.remove(resource))
+					return false;
+				if (list.isEmpty())
+					node.value = null;
+			}
+			IProject project = resource.getProject();
+			boolean[] holdsProject = new boolean[1];
+			valueDo(node.value, other -> holdsProject[0] |= project.equals(other.getProject()));
+			if (!holdsProject[0]) {
+				Set<Node> nodes = projectNodes.get(project);
+				if (nodes != null && nodes.remove(node) && nodes.isEmpty())
+					projectNodes.remove(project);
+			}
+			node.prune();
+			return true;
+		}
+
+		/**
+		 * Removes the given project and all resources of the project from the map.
+		 * Returns the number of removed resources other than the project itself.
+		 */
+		public int removeProject(IProject project) {
+			Set<Node> nodes = projectNodes.remove(project);
+			if (nodes == null)
+				return 0;
+			int removed = 0;
+			for (Node node : nodes) {
+				if (node.value == null)
+					continue;
+				if (node.value instanceof IResource) {
+					IResource resource = (IResource) node.value;
+					if (resource.getType() != IResource.PROJECT)
+						removed++;
+					node.value = null;
+				} else {
+					@SuppressWarnings("unchecked")
+					ArrayList<IResource> list = (ArrayList<IResource>) node.value;
+					for (Iterator<IResource> it = list.iterator(); it.hasNext();) {
+						IResource resource = it.next();
+						if (project.equals(resource.getProject())) {
+							if (resource.getType() != IResource.PROJECT)
+								removed++;
+							it.remove();
+						}
+					}
+					if (list.isEmpty())
+						node.value = null;
 				}
-				return false;
+				node.prune();
 			}
-			@SuppressWarnings("unchecked")
-			ArrayList<IResource> list = (ArrayList<IResource>) oldValue;
-			boolean wasRemoved = list.remove(resource);
-			if (list.isEmpty())
-				map.remove(location);
-			return wasRemoved;
+			return removed;
 		}
 	}
 
@@ -286,10 +400,11 @@ public class AliasManager implements IManager, ILifecycleListener, IResourceChan
 	private final Set<IResource> changedLinks = ConcurrentHashMap.newKeySet();
 
 	/**
-	 * This flag is true when projects have been created or deleted and the
-	 * location map has not been updated accordingly.
+	 * The projects that have been created, deleted, opened, closed or had their
+	 * description changed since the location map was last updated.  These will
+	 * be updated incrementally on the next alias request.
 	 */
-	private volatile boolean changedProjects = false;
+	private final Set<IProject> changedProjects = ConcurrentHashMap.newKeySet();
 
 	/**
 	 * This maps IFileStore -&gt; IResource, associating a file system location with
@@ -297,15 +412,18 @@ public class AliasManager implements IManager, ILifecycleListener, IResourceChan
 	 */
 	protected final LocationMap locationsMap = new LocationMap();
 	/**
-	 * The total number of resources in the workspace that are not in the default
-	 * location. This includes all linked resources, including linked resources
-	 * that don't currently have valid locations due to an undefined path variable.
-	 * This also includes projects that are not in their default location.
-	 * This value is used as a quick optimization, because a workspace with
-	 * all resources in their default locations cannot have any aliases.
+	 * The total number of linked resources in the workspace that are not in the
+	 * default location. Together with the projects that are not in their default
+	 * location, this value is used as a quick optimization, because a workspace
+	 * with all resources in their default locations cannot have any aliases.
 	 */
 	private int nonDefaultResourceCount = 0;
 
+	/**
+	 * The accessible projects that are not in their default location.
+	 */
+	private final Set<IProject> nonDefaultProjects = new HashSet<>();
+
 	/**
 	 * The suffix object is also used only during the computeAliases method.
 	 * In this case it is a field because it is referenced from an inner class
@@ -329,7 +447,7 @@ public class AliasManager implements IManager, ILifecycleListener, IResourceChan
 		if (description == null)
 			return;
 		if (description.getLocationURI() != null)
-			nonDefaultResourceCount++;
+			nonDefaultProjects.add(project);
 		HashMap<IPath, LinkDescription> links = description.getLinks();
 		if (links == null)
 			return;
@@ -360,7 +478,7 @@ public class AliasManager implements IManager, ILifecycleListener, IResourceChan
 	private void buildAliasedProjectsSet() {
 		aliasedProjects.clear();
 		//if there are no resources in non-default locations then there can't be any aliased projects
-		if (nonDefaultResourceCount <= 0)
+		if (!hasNonDefaultResources())
 			return;
 		//for every resource that overlaps another, marked its project as aliased
 		locationsMap.overLappingResourcesDo(aliasedProjects::add);
@@ -373,6 +491,7 @@ public class AliasManager implements IManager, ILifecycleListener, IResourceChan
 	private void buildLocationsMap() {
 		locationsMap.clear();
 		nonDefaultResourceCount = 0;
+		nonDefaultProjects.clear();
 		//build table of IPath (file system location) -> IResource (project or linked resource)
 		IProject[] projects = workspace.getRoot().getProjects(IContainer.INCLUDE_HIDDEN);
 		for (IProject project : projects)
@@ -502,11 +621,15 @@ public class AliasManager implements IManager, ILifecycleListener, IResourceChan
 
 		//now update any structure changes and check again if an update is needed
 		if (checkStructuralChanges()) {
-			noAliases &= nonDefaultResourceCount <= 0 || !aliasedProjects.contains(project);
+			noAliases &= !hasNonDefaultResources() || !aliasedProjects.contains(project);
 		}
 		return noAliases;
 	}
 
+	private boolean hasNonDefaultResources() {
+		return nonDefaultResourceCount > 0 || !nonDefaultProjects.isEmpty();
+	}
+
 	/**
 	 * Computes the aliases of the given resource at the given location, and
 	 * adds them to the "aliases" collection.
@@ -539,31 +662,26 @@ public class AliasManager implements IManager, ILifecycleListener, IResourceChan
 				nonDefaultResourceCount--;
 	}
 
+	private void removeFromLocationsMap(IProject project) {
+		nonDefaultResourceCount -= locationsMap.removeProject(project);
+		nonDefaultProjects.remove(project);
+	}
+
 	@Override
 	public void resourceChanged(IResourceChangeEvent event) {
-		if (changedProjects) {
-			// no need to evaluate delta, we already know projects have changed
-			// and recomputation is necessary.
-			return;
-		}
 		final IResourceDelta delta = event.getDelta();
 		if (delta == null)
 			return;
-		//invalidate location map if there are added or removed projects.
-		if (delta.getAffectedChildren(IResourceDelta.ADDED | IResourceDelta.REMOVED,
-				IContainer.INCLUDE_HIDDEN).length > 0) {
-			changedProjects = true;
-			return;
-		}
+		//invalidate the locations of added or removed projects
+		for (IResourceDelta element : delta.getAffectedChildren(IResourceDelta.ADDED | IResourceDelta.REMOVED, IContainer.INCLUDE_HIDDEN))
+			changedProjects.add((IProject) element.getResource());
 
-		// invalidate location map if any project has the description changed
-		// or was closed/opened
+		// invalidate the locations of projects that had the description changed
+		// or were closed/opened
 		IResourceDelta[] changed = delta.getAffectedChildren(IResourceDelta.CHANGED, IContainer.INCLUDE_HIDDEN);
 		for (IResourceDelta element : changed) {
-			if ((element.getFlags() & IResourceDelta.DESCRIPTION) == IResourceDelta.DESCRIPTION || (element.getFlags() & IResourceDelta.OPEN) == IResourceDelta.OPEN) {
-				changedProjects = true;
-				return;
-			}
+			if ((element.getFlags() & (IResourceDelta.DESCRIPTION | IResourceDelta.OPEN | IResourceDelta.REPLACED)) != 0)
+				changedProjects.add((IProject) element.getResource());
 		}
 	}
 
@@ -633,22 +751,22 @@ public class AliasManager implements IManager, ILifecycleListener, IResourceChan
 	 * them at a time.
 	 */
 	private synchronized boolean checkStructuralChanges() {
-		boolean hadChanges = false;
-		if (changedProjects) {
-			//if a project is added or removed, just recompute the whole world
-			changedProjects = false;
-			changedLinks.clear(); // buildLocationMaps will also process links
-			hadChanges = true;
-			buildLocationsMap();
-		} else {
-			// incrementally update location map for changed links
-			Collection<IResource> changedLinksSnapshots = new HashSet<>(changedLinks);
-			changedLinks.removeAll(changedLinksSnapshots);
-			hadChanges = !changedLinksSnapshots.isEmpty();
-			for (IResource resource : changedLinksSnapshots) {
-				if (resource.isAccessible() && resource.isLinked()) {
-					addToLocationsMap(resource, ((Resource) resource).getStore());
-				}
+		// incrementally update location map for changed projects, which also
+		// processes their links
+		Collection<IProject> changedProjectsSnapshot = new HashSet<>(changedProjects);
+		changedProjects.removeAll(changedProjectsSnapshot);
+		for (IProject project : changedProjectsSnapshot) {
+			removeFromLocationsMap(project);
+			if (project.isAccessible())
+				addToLocationsMap(project);
+		}
+		// incrementally update location map for changed links
+		Collection<IResource> changedLinksSnapshots = new HashSet<>(changedLinks);
+		changedLinks.removeAll(changedLinksSnapshots);
+		boolean hadChanges = !changedProjectsSnapshot.isEmpty() || !changedLinksSnapshots.isEmpty();
+		for (IResource resource : changedLinksSnapshots) {
+			if (resource.isAccessible() && resource.isLinked()) {
+				addToLocationsMap(resource, ((Resource) resource).getStore());
 			}
 		}
 		if (hadChanges) {
@@ -0,0 +1,276 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.resources;
+
+import java.util.*;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import org.eclipse.core.filesystem.IFileInfo;
+import org.eclipse.core.resources.IContainer;
+import org.eclipse.core.resources.IResourceFilterDescription;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+
+/**
+ * The resource filters that apply to the children of a container, compiled
+ * once so that filtering the children only runs the matchers.
+ * <p>
+ * The filters of the container and the inheritable filters of its ancestors
+ * are collected and ordered the same way as before, and their matchers are
+ * kept, so they are only initialized once. Regular expression filters of the
+ * same kind are merged: literal names are looked up in a set, and the other
+ * expressions are combined into a single pattern. This does not change which
+ * children are filtered, because a child is included if any include filter
+ * matches it, and excluded if any exclude filter matches it.
+ * </p><p>
+ * Instances are cached by the project description, see
+ * {@link ProjectDescription#getCompiledFilters(Project, IPath)}. Expressions
+ * that cannot be combined into a single pattern are matched one by one.
+ * </p>
+ */
+class CompiledFilters {
+	/** The id of the regular expression filter matcher */
+	private static final String REGEX_MATCHER_ID = "org.eclipse.core.resources.regexFilterMatcher"; //$NON-NLS-1$
+	private static final int APPLIES_TO = IResourceFilterDescription.FILES | IResourceFilterDescription.FOLDERS;
+
+	static final CompiledFilters NONE = new CompiledFilters(new Step[0], new Step[0]);
+
+	/**
+	 * A step of the filter pipeline, either a single filter or merged regular
+	 * expression filters.
+	 */
+	private abstract static class Step {
+		final int type;
+
+		Step(int type) {
+			this.type = type;
+		}
+
+		boolean appliesTo(IFileInfo info) {
+			if (info.isDirectory())
+				return (type & IResourceFilterDescription.FOLDERS) != 0;
+			return (type & IResourceFilterDescription.FILES) != 0;
+		}
+
+		abstract boolean match(IContainer parent, IFileInfo info) throws CoreException;
+	}
+
+	private static final class FilterStep extends Step {
+		private final Filter filter;
+
+		FilterStep(Filter filter) {
+			super(filter.getType());
+			this.filter = filter;
+		}
+
+		@Override
+		boolean match(IContainer parent, IFileInfo info) throws CoreException {
+			return filter.match(parent, info);
+		}
+	}
+
+	private static final class RegexStep extends Step {
+		private final Set<String> names = new HashSet<>();
+		private final List<String> expressions = new ArrayList<>();
+		private Pattern[] patterns;
+
+		RegexStep(int type) {
+			super(type);
+		}
+
+		void add(String expression) {
+			if (isLiteral(expression))
+				names.add(expression);
+			else
+				expressions.add(expression);
+		}
+
+		void compile() {
+			if (expressions.isEmpty())
+				return;
+			if (expressions.size() > 1) {
+				StringBuilder combined = new StringBuilder();
+				for (String expression : expressions) {
+					if (combined.length() > 0)
+						combined.append('|');
+					combined.append("(?:").append(expression).append(')'); //$NON-NLS-1$
+				}
+				try {
+					patterns = new Pattern[] {Pattern.compile(combined.toString())};
+					return;
+				} catch (PatternSyntaxException e) {
+					// valid expressions may not combine, for example if they define the same named group
+				}
+			}
+			patterns = new Pattern[expressions.size()];
+			for (int i = 0; i < patterns.length; i++)
+				patterns[i] = Pattern.compile(expressions.get(i));
+		}
+
+		@Override
+		boolean match(IContainer parent, IFileInfo info) {
+			String name = info.getName();
+			if (names.contains(name))
+				return true;
+			if (patterns != null) {
+				for (Pattern pattern : patterns) {
+					if (pattern.matcher(name).matches())
+						return true;
+				}
+			}
+			return false;
+		}
+	}
+
+	private final Step[] includes;
+	private final Step[] excludes;
+
+	private CompiledFilters(Step[] includes, Step[] excludes) {
+		this.includes = includes;
+		this.excludes = excludes;
+	}
+
+	/**
+	 * Compiles the filters that apply to the children of the container at the
+	 * given project relative path.
+	 */
+	static CompiledFilters compile(Project project, ProjectDescription description, IPath relativePath) {
+		LinkedList<Filter> includeFilters = new LinkedList<>();
+		LinkedList<Filter> excludeFilters = new LinkedList<>();
+		boolean firstSegment = true;
+		do {
+			if (!firstSegment)
+				relativePath = relativePath.removeLastSegments(1);
+			LinkedList<FilterDescription> filters = description.getFilter(relativePath);
+			if (filters != null) {
+				for (FilterDescription desc : filters) {
+					if (firstSegment || desc.isInheritable()) {
+						Filter filter = new Filter(project, desc);
+						LinkedList<Filter> list = filter.isIncludeOnly() ? includeFilters : excludeFilters;
+						if (filter.isFirst())
+							list.addFirst(filter);
+						else
+							list.addLast(filter);
+					}
+				}
+			}
+			firstSegment = false;
+		} while (relativePath.segmentCount() > 0);
+		if (includeFilters.isEmpty() && excludeFilters.isEmpty())
+			return NONE;
+		return new CompiledFilters(compile(includeFilters), compile(excludeFilters));
+	}
+
+	private static Step[] compile(List<Filter> filters) {
+		List<Step> steps = new ArrayList<>(filters.size());
+		// merged regular expressions by the kind of resources they apply to
+		Map<Integer, RegexStep> regexSteps = new LinkedHashMap<>(4);
+		for (Filter filter : filters) {
+			String expression = regexOf(filter);
+			if (expression == null) {
+				steps.add(new FilterStep(filter));
+				continue;
+			}
+			int type = filter.getType() & APPLIES_TO;
+			RegexStep step = regexSteps.get(type);
+			if (step == null) {
+				step = new RegexStep(type);
+				regexSteps.put(type, step);
+				steps.add(step);
+			}
+			step.add(expression);
+		}
+		for (RegexStep step : regexSteps.values())
+			step.compile();
+		return steps.toArray(new Step[steps.size()]);
+	}
+
+	/**
+	 * Returns the regular expression of the given filter if it can be merged
+	 * with others, and <code>null</code> otherwise. Invalid expressions are left
+	 * to the filter, so they are reported as before.
+	 */
+	private static String regexOf(Filter filter) {
+		if (!REGEX_MATCHER_ID.equals(filter.getId()) || !(filter.getArguments() instanceof String))
+			return null;
+		String expression = (String) filter.getArguments();
+		// back references would refer to other groups once expressions are combined
+		for (int i = 0; i < expression.length() - 1; i++) {
+			if (expression.charAt(i) == '\\') {
+				char next = expression.charAt(i + 1);
+				if (Character.isDigit(next) || next == 'k')
+					return null;
+				i++;
+			}
+		}
+		try {
+			Pattern.compile(expression);
+		} catch (PatternSyntaxException e) {
+			return null;
+		}
+		return expression;
+	}
+
+	static boolean isLiteral(String expression) {
+		for (int i = 0; i < expression.length(); i++) {
+			if ("\\^$.|?*+()[]{}".indexOf(expression.charAt(i)) >= 0) //$NON-NLS-1$
+				return false;
+		}
+		return true;
+	}
+
+	boolean isEmpty() {
+		return includes.length == 0 && excludes.length == 0;
+	}
+
+	/**
+	 * Returns the children in the given list that are not filtered.
+	 */
+	IFileInfo[] filter(IContainer parent, IFileInfo[] list) throws CoreException {
+		if (isEmpty())
+			return list;
+		IFileInfo[] result = new IFileInfo[list.length];
+		int outputIndex = 0;
+		for (IFileInfo info : list) {
+			if (isIncluded(parent, info) && !isExcluded(parent, info))
+				result[outputIndex++] = info;
+		}
+		if (outputIndex != result.length) {
+			IFileInfo[] tmp = new IFileInfo[outputIndex];
+			System.arraycopy(result, 0, tmp, 0, outputIndex);
+			result = tmp;
+		}
+		return result;
+	}
+
+	private boolean isIncluded(IContainer parent, IFileInfo info) throws CoreException {
+		boolean filtersWereApplicable = false;
+		for (Step step : includes) {
+			if (step.appliesTo(info)) {
+				filtersWereApplicable = true;
+				if (step.match(parent, info))
+					return true;
+			}
+		}
+		return !filtersWereApplicable;
+	}
+
+	private boolean isExcluded(IContainer parent, IFileInfo info) throws CoreException {
+		for (Step step : excludes) {
+			if (step.appliesTo(info) && step.match(parent, info))
+				return true;
+		}
+		return false;
+	}
+}
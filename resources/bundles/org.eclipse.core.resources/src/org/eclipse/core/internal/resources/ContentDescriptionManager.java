@@ -35,7 +35,9 @@ import org.eclipse.osgi.util.NLS;
 import org.osgi.framework.Bundle;
 
 /**
- * Keeps a cache of recently read content descriptions.
+ * Keeps a cache of recently read content descriptions. The descriptions that
+ * were filled by content describers are also kept in a
+ * {@link ContentDescriptionStore}, which is saved across sessions.
  *
  * @since 3.0
  * @see IFile#getContentDescription()
@@ -47,7 +49,10 @@ public class ContentDescriptionManager implements IManager, IRegistryChangeListe
 	 */
 	private class FlushJob extends InternalWorkspaceJob {
 		private final Set<IPath> toFlush;
+		private final Set<IContentType> contentTypesToFlush;
 		private boolean fullFlush;
+		/** Whether content types have changed and the flags in the tree have not been cleared yet */
+		volatile boolean contentTypesPending;
 
 		public FlushJob(Workspace workspace) {
 			super(Messages.resources_flushingContentDescriptionCache, workspace);
@@ -56,6 +61,7 @@ public class ContentDescriptionManager implements IManager, IRegistryChangeListe
 			setPriority(LONG);
 			setRule(workspace.getRoot());
 			toFlush = new LinkedHashSet<>(5);
+			contentTypesToFlush = new LinkedHashSet<>(5);
 		}
 
 		@Override
@@ -77,8 +83,10 @@ public class ContentDescriptionManager implements IManager, IRegistryChangeListe
 					workspace.beginOperation(true);
 					//don't do anything if the system is shutting down or has been shut down
 					//it is too late to change the workspace at this point anyway
-					if (systemBundle.getState() != Bundle.STOPPING)
+					if (systemBundle.getState() != Bundle.STOPPING) {
 						doFlushCache(monitor, getPathsToFlush());
+						doFlushContentTypes(monitor, getContentTypesToFlush());
+					}
 				} finally {
 					workspace.endOperation(rule, false);
 				}
@@ -106,6 +114,39 @@ public class ContentDescriptionManager implements IManager, IRegistryChangeListe
 			}
 		}
 
+		private Set<IContentType> getContentTypesToFlush() {
+			synchronized (toFlush) {
+				try {
+					return new LinkedHashSet<>(contentTypesToFlush);
+				} finally {
+					contentTypesToFlush.clear();
+				}
+			}
+		}
+
+		/**
+		 * Called once the flags for the given content types have been cleared.
+		 */
+		void contentTypesFlushed() {
+			synchronized (toFlush) {
+				if (contentTypesToFlush.isEmpty())
+					contentTypesPending = false;
+			}
+		}
+
+		/**
+		 * @param contentType the changed content type whose flags must be flushed
+		 */
+		void flush(IContentType contentType) {
+			if (Policy.DEBUG_CONTENT_TYPE_CACHE)
+				Policy.debug("Scheduling flushing of content type cache for " + contentType.getId()); //$NON-NLS-1$
+			synchronized (toFlush) {
+				contentTypesToFlush.add(contentType);
+				contentTypesPending = true;
+			}
+			schedule(1000);
+		}
+
 		/**
 		 * @param project project to flush, or null for a full flush
 		 */
@@ -202,6 +243,7 @@ public class ContentDescriptionManager implements IManager, IRegistryChangeListe
 	private static final String PT_CONTENTTYPES = "contentTypes"; //$NON-NLS-1$
 
 	private Cache cache;
+	private ContentDescriptionStore store;
 
 	private volatile byte cacheState;
 
@@ -222,7 +264,7 @@ public class ContentDescriptionManager implements IManager, IRegistryChangeListe
 	public void contentTypeChanged(ContentTypeChangeEvent event) {
 		if (Policy.DEBUG_CONTENT_TYPE)
 			Policy.debug("Content type settings changed for " + event.getContentType()); //$NON-NLS-1$
-		invalidateCache(true, null);
+		invalidateContentType(event.getContentType());
 	}
 
 	synchronized void doFlushCache(final IProgressMonitor monitor, Set<IPath> toClean) throws CoreException {
@@ -239,12 +281,14 @@ public class ContentDescriptionManager implements IManager, IRegistryChangeListe
 			SubMonitor subMonitor = SubMonitor.convert(monitor);
 			if (toClean.isEmpty()) {
 				// no project was added, must be a global flush
+				store.discardAll();
 				clearContentFlags(Path.ROOT, subMonitor.split(1));
 			} else {
 				subMonitor.setWorkRemaining(toClean.size());
 				// flush a project at a time
 				for (IPath element : toClean) {
 					subMonitor.subTask("Clear content flags for project '" + element.lastSegment() + "'"); //$NON-NLS-1$ //$NON-NLS-2$
+					store.discard(element);
 					clearContentFlags(element, subMonitor.split(1));
 				}
 			}
@@ -283,10 +327,54 @@ public class ContentDescriptionManager implements IManager, IRegistryChangeListe
 			Policy.debug("Content type cache for " + root + " flushed in " + (System.currentTimeMillis() - flushStart) + " ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 	}
 
+	/**
+	 * Clears the content related flags of the files whose description may have
+	 * changed because the given content types have changed. The descriptions in
+	 * the caches have already been discarded by {@link #invalidateContentType(IContentType)}.
+	 */
+	void doFlushContentTypes(final IProgressMonitor monitor, Set<IContentType> contentTypes) {
+		if (contentTypes.isEmpty())
+			return;
+		long flushStart = System.currentTimeMillis();
+		IElementContentVisitor visitor = (tree, requestor, elementContents) -> {
+			if (monitor.isCanceled())
+				throw new OperationCanceledException();
+			if (elementContents == null)
+				return false;
+			ResourceInfo info = (ResourceInfo) elementContents;
+			if (info.getType() != IResource.FILE)
+				return true;
+			if (!info.isSet(ICoreConstants.M_NO_CONTENT_DESCRIPTION)) {
+				// a default description is looked up by name, so only the associations matter
+				if (!info.isSet(ICoreConstants.M_DEFAULT_CONTENT_DESCRIPTION))
+					return true;
+				String name = requestor.requestName();
+				boolean affected = false;
+				for (IContentType contentType : contentTypes)
+					affected |= contentType.isAssociatedWith(name);
+				if (!affected)
+					return true;
+			}
+			info = workspace.getResourceInfo(requestor.requestPath(), false, true);
+			if (info == null)
+				return false;
+			info.clear(ICoreConstants.M_CONTENT_CACHE);
+			return true;
+		};
+		new ElementTreeIterator(workspace.getElementTree(), Path.ROOT).iterate(visitor);
+		flushJob.contentTypesFlushed();
+		if (Policy.DEBUG_CONTENT_TYPE_CACHE)
+			Policy.debug("Content type cache for " + contentTypes + " flushed in " + (System.currentTimeMillis() - flushStart) + " ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	}
+
 	Cache getCache() {
 		return cache;
 	}
 
+	ContentDescriptionStore getStore() {
+		return store;
+	}
+
 	/** Public so tests can examine it. */
 	public byte getCacheState() {
 		if (cacheState != 0) {
@@ -312,6 +400,11 @@ public class ContentDescriptionManager implements IManager, IRegistryChangeListe
 		return cacheState;
 	}
 
+	/** Public so tests can examine it. */
+	public int getStoredDescriptionCount() {
+		return store.size();
+	}
+
 	public long getCacheTimestamp() throws CoreException {
 		try {
 			return Long.parseLong(workspace.getRoot().getPersistentProperty(CACHE_TIMESTAMP));
@@ -343,7 +436,7 @@ public class ContentDescriptionManager implements IManager, IRegistryChangeListe
 			// the cache is not good, flush it
 			flushJob.schedule(1000);
 		}
-		if (inSync && getCacheState() != ABOUT_TO_FLUSH) {
+		if (inSync && getCacheState() != ABOUT_TO_FLUSH && !flushJob.contentTypesPending) {
 			// first look for the flags in the resource info to avoid looking in the cache
 			// don't need to copy the info because the modified bits are not in the deltas
 			if (info == null)
@@ -371,6 +464,19 @@ public class ContentDescriptionManager implements IManager, IRegistryChangeListe
 				if (entry != null && entry.getTimestamp() == getTimestamp(info))
 					// there was a description in the cache, and it was up to date
 					return (IContentDescription) entry.getCached();
+				if (getCacheState() != ABOUT_TO_FLUSH) {
+					// the description may have been described in a previous session
+					IContentDescription stored = store.get(file.getFullPath(), info);
+					if (stored != null) {
+						if (entry == null)
+							cache.addEntry(file.getFullPath(), stored, getTimestamp(info));
+						else {
+							entry.setTimestamp(getTimestamp(info));
+							entry.setCached(stored);
+						}
+						return stored;
+					}
+				}
 			}
 		}
 
@@ -412,6 +518,8 @@ public class ContentDescriptionManager implements IManager, IRegistryChangeListe
 				entry.setTimestamp(getTimestamp(info));
 				entry.setCached(newDescription);
 			}
+			if (getCacheState() != ABOUT_TO_FLUSH)
+				store.put(file.getFullPath(), info, newDescription);
 			return newDescription;
 		}
 	}
@@ -443,6 +551,10 @@ public class ContentDescriptionManager implements IManager, IRegistryChangeListe
 		}
 		if (Policy.DEBUG_CONTENT_TYPE_CACHE)
 			Policy.debug("Invalidated cache for " + (project == null ? Path.ROOT : project.getFullPath())); //$NON-NLS-1$
+		if (project == null)
+			store.discardAll();
+		else
+			store.discard(project.getFullPath());
 		if (flush) {
 			try {
 				// discard the cache, so it can be used before the flush job starts
@@ -456,6 +568,37 @@ public class ContentDescriptionManager implements IManager, IRegistryChangeListe
 		}
 	}
 
+	/**
+	 * Discards the cached information that may have changed because the
+	 * settings of the given content type have changed. Unlike
+	 * {@link #invalidateCache(boolean, IProject)}, descriptions of unrelated
+	 * content types are kept.
+	 *
+	 * @param contentType the changed content type, or <code>null</code> if unknown
+	 */
+	synchronized void invalidateContentType(IContentType contentType) {
+		byte state = getCacheState();
+		if (state == EMPTY_CACHE)
+			// cache has not been touched, nothing to do
+			return;
+		if (contentType == null || state != USED_CACHE) {
+			// unknown change, or the whole cache is being flushed anyway
+			invalidateCache(true, null);
+			return;
+		}
+		if (Policy.DEBUG_CONTENT_TYPE_CACHE)
+			Policy.debug("Invalidated cache for " + contentType.getId()); //$NON-NLS-1$
+		for (Cache.Entry entry = cache.getHead(); entry != null;) {
+			Cache.Entry next = entry.getNext();
+			IPath path = (IPath) entry.getKey();
+			if (ContentDescriptionStore.isAffected(contentType, path.lastSegment(), (IContentDescription) entry.getCached()))
+				entry.discard();
+			entry = next;
+		}
+		store.discard(contentType);
+		flushJob.flush(contentType);
+	}
+
 	/**
 	 * Tries to obtain a content description for the given file.
 	 */
@@ -528,11 +671,21 @@ public class ContentDescriptionManager implements IManager, IRegistryChangeListe
 		IExtensionRegistry registry = Platform.getExtensionRegistry();
 		if (registry != null)
 			registry.removeRegistryChangeListener(this);
-		cache.dispose();
-		cache = null;
-		flushJob.cancel();
-		flushJob = null;
-		projectContentTypes = null;
+		java.io.File storeLocation = workspace.getMetaArea().getContentDescriptionCacheLocation().toFile();
+		try {
+			if (getCacheState() == USED_CACHE)
+				store.save(storeLocation, Platform.getStateStamp());
+			else
+				storeLocation.delete();
+		} finally {
+			// release the cache and the flush job even if the store could not be saved
+			store = null;
+			cache.dispose();
+			cache = null;
+			flushJob.cancel();
+			flushJob = null;
+			projectContentTypes = null;
+		}
 	}
 
 	@Override
@@ -544,9 +697,12 @@ public class ContentDescriptionManager implements IManager, IRegistryChangeListe
 			// in case we died before completing the last flushing
 			setCacheState(INVALID_CACHE);
 		flushJob = new FlushJob(workspace);
+		store = new ContentDescriptionStore();
 		// the cache is stale (plug-ins that might be contributing content types were added/removed)
 		if (getCacheTimestamp() != Platform.getStateStamp())
 			invalidateCache(false, null);
+		else if (cacheState == USED_CACHE)
+			store.load(workspace.getMetaArea().getContentDescriptionCacheLocation().toFile(), Platform.getStateStamp());
 		// register a lifecycle listener
 		workspace.addLifecycleListener(this);
 		// register a content type change listener
@@ -0,0 +1,302 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.resources;
+
+import java.io.*;
+import java.util.*;
+import org.eclipse.core.internal.localstore.SafeFileInputStream;
+import org.eclipse.core.internal.localstore.SafeFileOutputStream;
+import org.eclipse.core.internal.utils.Messages;
+import org.eclipse.core.internal.utils.Policy;
+import org.eclipse.core.resources.IResourceStatus;
+import org.eclipse.core.runtime.*;
+import org.eclipse.core.runtime.content.IContentDescription;
+import org.eclipse.core.runtime.content.IContentType;
+import org.eclipse.core.runtime.content.IContentTypeManager;
+import org.eclipse.osgi.util.NLS;
+
+/**
+ * A size-bounded cache of the content descriptions that were filled by content
+ * describers, which is saved on shutdown so that files do not have to be
+ * described again in the next session.
+ * <p>
+ * Entries are keyed by the path of the file, and remember the node id, content
+ * id and local timestamp of the file, so an entry is only used while the file
+ * and its contents have not changed. The
+ * saved cache is discarded if the platform state has changed since it was
+ * saved, because content types may have been added or removed.
+ * </p><p>
+ * Only the content type, the charset and the byte order mark are kept, which
+ * are the properties defined by {@link IContentDescription}. Other properties
+ * of restored descriptions have the default values of the content type.
+ * </p>
+ */
+class ContentDescriptionStore {
+	/** The maximum number of entries, the least recently used ones are discarded first */
+	static final int MAX_ENTRIES = 10000;
+
+	private static final byte VERSION = 1;
+
+	private static final byte BOM_NONE = 0;
+	private static final byte BOM_UTF_8 = 1;
+	private static final byte BOM_UTF_16BE = 2;
+	private static final byte BOM_UTF_16LE = 3;
+
+	private static final class StoredEntry {
+		final long nodeId;
+		final int contentId;
+		final long localTimestamp;
+		final String contentTypeId;
+		final String charset;
+		final byte bom;
+
+		StoredEntry(long nodeId, int contentId, long localTimestamp, String contentTypeId, String charset, byte bom) {
+			this.nodeId = nodeId;
+			this.contentId = contentId;
+			this.localTimestamp = localTimestamp;
+			this.contentTypeId = contentTypeId;
+			this.charset = charset;
+			this.bom = bom;
+		}
+
+		boolean matches(ResourceInfo info) {
+			return nodeId == info.getNodeId() && contentId == info.getContentId() && localTimestamp == info.getLocalSyncInfo();
+		}
+	}
+
+	/**
+	 * A content description restored from a cache entry.
+	 */
+	private static final class StoredDescription implements IContentDescription {
+		private final IContentType contentType;
+		private final String charset;
+		private final byte[] bom;
+
+		StoredDescription(IContentType contentType, String charset, byte[] bom) {
+			this.contentType = contentType;
+			this.charset = charset;
+			this.bom = bom;
+		}
+
+		@Override
+		public String getCharset() {
+			if (bom == IContentDescription.BOM_UTF_8)
+				return "UTF-8"; //$NON-NLS-1$
+			if (bom == IContentDescription.BOM_UTF_16BE || bom == IContentDescription.BOM_UTF_16LE)
+				// UTF-16 will properly recognize the BOM
+				return "UTF-16"; //$NON-NLS-1$
+			return charset;
+		}
+
+		@Override
+		public IContentType getContentType() {
+			return contentType;
+		}
+
+		@Override
+		public Object getProperty(QualifiedName key) {
+			if (IContentDescription.CHARSET.equals(key))
+				return charset;
+			if (IContentDescription.BYTE_ORDER_MARK.equals(key))
+				return bom;
+			IContentDescription defaultDescription = contentType.getDefaultDescription();
+			return defaultDescription == null ? null : defaultDescription.getProperty(key);
+		}
+
+		@Override
+		public boolean isRequested(QualifiedName key) {
+			return true;
+		}
+
+		@Override
+		public void setProperty(QualifiedName key, Object value) {
+			throw new IllegalStateException("Content description is immutable"); //$NON-NLS-1$
+		}
+
+		@Override
+		public String toString() {
+			return "{StoredDescription : " + contentType + '}'; //$NON-NLS-1$
+		}
+	}
+
+	private final Map<IPath, StoredEntry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<IPath, StoredEntry> eldest) {
+			return size() > MAX_ENTRIES;
+		}
+	};
+
+	/** Whether there are changes that have not been saved */
+	private boolean dirty;
+
+	private static byte bomKind(Object bom) {
+		if (bom == IContentDescription.BOM_UTF_8)
+			return BOM_UTF_8;
+		if (bom == IContentDescription.BOM_UTF_16BE)
+			return BOM_UTF_16BE;
+		if (bom == IContentDescription.BOM_UTF_16LE)
+			return BOM_UTF_16LE;
+		return BOM_NONE;
+	}
+
+	private static byte[] bomFor(byte kind) {
+		switch (kind) {
+			case BOM_UTF_8 :
+				return IContentDescription.BOM_UTF_8;
+			case BOM_UTF_16BE :
+				return IContentDescription.BOM_UTF_16BE;
+			case BOM_UTF_16LE :
+				return IContentDescription.BOM_UTF_16LE;
+			default :
+				return null;
+		}
+	}
+
+	/**
+	 * Returns whether changing the given content type may change the
+	 * description of the file with the given name and cached description.
+	 */
+	static boolean isAffected(IContentType changed, String fileName, IContentDescription description) {
+		if (description == null || description.getContentType() == null)
+			return true;
+		return description.getContentType().isKindOf(changed) || changed.isAssociatedWith(fileName);
+	}
+
+	/**
+	 * Returns the description of the file at the given path if it was stored
+	 * for the file and contents described by the given info, and
+	 * <code>null</code> otherwise.
+	 */
+	synchronized IContentDescription get(IPath path, ResourceInfo info) {
+		StoredEntry entry = entries.get(path);
+		if (entry == null || !entry.matches(info))
+			return null;
+		IContentType contentType = Platform.getContentTypeManager().getContentType(entry.contentTypeId);
+		if (contentType == null) {
+			entries.remove(path);
+			dirty = true;
+			return null;
+		}
+		return new StoredDescription(contentType, entry.charset, bomFor(entry.bom));
+	}
+
+	/**
+	 * Stores the description of the file at the given path.
+	 */
+	synchronized void put(IPath path, ResourceInfo info, IContentDescription description) {
+		if (description == null || description.getContentType() == null)
+			return;
+		Object charset = description.getProperty(IContentDescription.CHARSET);
+		Object bom = description.getProperty(IContentDescription.BYTE_ORDER_MARK);
+		entries.put(path, new StoredEntry(info.getNodeId(), info.getContentId(), info.getLocalSyncInfo(), description.getContentType().getId(), charset instanceof String ? (String) charset : null, bomKind(bom)));
+		dirty = true;
+	}
+
+	synchronized void discardAll() {
+		if (entries.isEmpty())
+			return;
+		entries.clear();
+		dirty = true;
+	}
+
+	/**
+	 * Discards the descriptions of the files under the given path.
+	 */
+	synchronized void discard(IPath root) {
+		if (entries.keySet().removeIf(root::isPrefixOf))
+			dirty = true;
+	}
+
+	/**
+	 * Discards the descriptions that may change because the given content type
+	 * has changed.
+	 */
+	synchronized void discard(IContentType changed) {
+		IContentTypeManager contentTypeManager = Platform.getContentTypeManager();
+		for (Iterator<Map.Entry<IPath, StoredEntry>> it = entries.entrySet().iterator(); it.hasNext();) {
+			Map.Entry<IPath, StoredEntry> entry = it.next();
+			IContentType contentType = contentTypeManager.getContentType(entry.getValue().contentTypeId);
+			if (contentType == null || contentType.isKindOf(changed) || changed.isAssociatedWith(entry.getKey().lastSegment())) {
+				it.remove();
+				dirty = true;
+			}
+		}
+	}
+
+	synchronized int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Reads the cache saved in the given file. Does nothing if the file does
+	 * not exist or was saved for a different platform state.
+	 */
+	synchronized void load(java.io.File file, long stateStamp) {
+		entries.clear();
+		dirty = false;
+		if (!file.exists())
+			return;
+		try (DataInputStream input = new DataInputStream(new SafeFileInputStream(file))) {
+			if (input.readByte() != VERSION || input.readLong() != stateStamp)
+				return;
+			int count = input.readInt();
+			for (int i = 0; i < count; i++) {
+				IPath path = Path.fromPortableString(input.readUTF());
+				long nodeId = input.readLong();
+				int contentId = input.readInt();
+				long localTimestamp = input.readLong();
+				String contentTypeId = input.readUTF();
+				String charset = input.readBoolean() ? input.readUTF() : null;
+				byte bom = input.readByte();
+				entries.put(path, new StoredEntry(nodeId, contentId, localTimestamp, contentTypeId, charset, bom));
+			}
+		} catch (IOException e) {
+			entries.clear();
+			String message = NLS.bind(Messages.resources_readMeta, file);
+			Policy.log(new ResourceStatus(IResourceStatus.FAILED_READ_METADATA, null, message, e));
+		}
+	}
+
+	/**
+	 * Saves the cache in the given file if it has changed since it was loaded
+	 * or last saved.
+	 */
+	synchronized void save(java.io.File file, long stateStamp) throws CoreException {
+		if (!dirty && file.exists())
+			return;
+		try (DataOutputStream output = new DataOutputStream(new SafeFileOutputStream(file))) {
+			output.writeByte(VERSION);
+			output.writeLong(stateStamp);
+			output.writeInt(entries.size());
+			for (Map.Entry<IPath, StoredEntry> entry : entries.entrySet()) {
+				StoredEntry value = entry.getValue();
+				output.writeUTF(entry.getKey().toPortableString());
+				output.writeLong(value.nodeId);
+				output.writeInt(value.contentId);
+				output.writeLong(value.localTimestamp);
+				output.writeUTF(value.contentTypeId);
+				output.writeBoolean(value.charset != null);
+				if (value.charset != null)
+					output.writeUTF(value.charset);
+				output.writeByte(value.bom);
+			}
+		} catch (IOException e) {
+			String message = NLS.bind(Messages.resources_writeMeta, file);
+			throw new ResourceException(IResourceStatus.FAILED_WRITE_METADATA, null, message, e);
+		}
+		dirty = false;
+	}
+}
@@ -16,8 +16,6 @@
  *******************************************************************************/
 package org.eclipse.core.internal.resources;
 
-import java.util.Iterator;
-import java.util.LinkedList;
 import org.eclipse.core.filesystem.IFileInfo;
 import org.eclipse.core.internal.utils.Messages;
 import org.eclipse.core.internal.utils.Policy;
@@ -50,7 +48,7 @@ public class Filter {
 
 	FilterDescription description;
 	IProject project;
-	AbstractFileInfoMatcher provider = null;
+	volatile AbstractFileInfoMatcher provider = null;
 
 	public Filter(IProject project, FilterDescription description) {
 		this.description = description;
@@ -58,6 +56,9 @@ public class Filter {
 	}
 
 	public boolean match(IContainer parent, IFileInfo fileInfo) throws CoreException {
+		// filters are shared by threads that filter children concurrently,
+		// so only publish the provider once it is initialized
+		AbstractFileInfoMatcher provider = this.provider;
 		if (provider == null) {
 			IFilterMatcherDescriptor filterDescriptor = project.getWorkspace().getFilterMatcherDescriptor(getId());
 			if (filterDescriptor != null)
@@ -71,6 +72,7 @@ public class Filter {
 			}
 			try {
 				provider.initialize(project, description.getFileInfoMatcherDescription().getArguments());
+				this.provider = provider;
 			} catch (CoreException e) {
 				Policy.log(e.getStatus());
 				provider = null;
@@ -109,70 +111,4 @@ public class Filter {
 			return (getType() & IResourceFilterDescription.FOLDERS) != 0;
 		return (getType() & IResourceFilterDescription.FILES) != 0;
 	}
-
-	public static IFileInfo[] filter(IProject project, LinkedList<Filter> includeFilters, LinkedList<Filter> excludeFilters, IContainer parent, IFileInfo[] list) throws CoreException {
-		IFileInfo[] result = filterIncludes(project, includeFilters, parent, list);
-		return filterExcludes(project, excludeFilters, parent, result);
-	}
-
-	public static IFileInfo[] filterIncludes(IProject project, LinkedList<Filter> filters, IContainer parent, IFileInfo[] list) throws CoreException {
-		if (filters.size() > 0) {
-			IFileInfo[] result = new IFileInfo[list.length];
-			int outputIndex = 0;
-
-			for (IFileInfo info : list) {
-				Iterator<Filter> objIt = filters.iterator();
-				boolean filtersWereApplicable = false;
-				while (objIt.hasNext()) {
-					Filter filter = objIt.next();
-					if (filter.appliesTo(info)) {
-						filtersWereApplicable = true;
-						if (filter.match(parent, info)) {
-							result[outputIndex++] = info;
-							break;
-						}
-					}
-				}
-				if (!filtersWereApplicable)
-					result[outputIndex++] = info;
-			}
-			if (outputIndex != result.length) {
-				IFileInfo[] tmp = new IFileInfo[outputIndex];
-				System.arraycopy(result, 0, tmp, 0, outputIndex);
-				result = tmp;
-			}
-			return result;
-		}
-		return list;
-	}
-
-	public static IFileInfo[] filterExcludes(IProject project, LinkedList<Filter> filters, IContainer parent, IFileInfo[] list) throws CoreException {
-		if (filters.size() > 0) {
-			IFileInfo[] result = new IFileInfo[list.length];
-			int outputIndex = 0;
-
-			for (IFileInfo info : list) {
-				Iterator<Filter> objIt = filters.iterator();
-				boolean shouldBeExcluded = false;
-				while (objIt.hasNext()) {
-					Filter filter = objIt.next();
-					if (filter.appliesTo(info)) {
-						if (filter.match(parent, info)) {
-							shouldBeExcluded = true;
-							break;
-						}
-					}
-				}
-				if (!shouldBeExcluded)
-					result[outputIndex++] = info;
-			}
-			if (outputIndex != result.length) {
-				IFileInfo[] tmp = new IFileInfo[outputIndex];
-				System.arraycopy(result, 0, tmp, 0, outputIndex);
-				result = tmp;
-			}
-			return result;
-		}
-		return list;
-	}
 }
@@ -34,6 +34,7 @@ import org.eclipse.osgi.util.NLS;
 
 public class LocalMetaArea implements ICoreConstants {
 	/* package */static final String F_BACKUP_FILE_EXTENSION = ".bak"; //$NON-NLS-1$
+	/* package */static final String F_CONTENT_CACHE = ".contentcache"; //$NON-NLS-1$
 	/* package */static final String F_DESCRIPTION = ".workspace"; //$NON-NLS-1$
 
 	/* package */static final String F_HISTORY_STORE = ".history"; //$NON-NLS-1$
@@ -116,6 +117,14 @@ public class LocalMetaArea implements ICoreConstants {
 		return file.removeLastSegments(1).append(file.lastSegment() + F_BACKUP_FILE_EXTENSION);
 	}
 
+	/**
+	 * Returns the path of the file in which to save the cache of content
+	 * descriptions.
+	 */
+	public IPath getContentDescriptionCacheLocation() {
+		return metaAreaLocation.append(F_CONTENT_CACHE);
+	}
+
 	public IPath getHistoryStoreLocation() {
 		return metaAreaLocation.append(F_HISTORY_STORE);
 	}
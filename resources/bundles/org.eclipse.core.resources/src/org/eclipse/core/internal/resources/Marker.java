@@ -269,6 +269,8 @@ public class Marker extends PlatformObject implements IMarker {
 			if (needDelta) {
 				MarkerDelta delta = new MarkerDelta(IResourceDelta.CHANGED, resource, oldInfo);
 				manager.changedMarkers(resource, new MarkerDelta[] {delta});
+			} else {
+				manager.changedAttributes(resource);
 			}
 		} finally {
 			workspace.endOperation(null, false);
@@ -309,6 +311,8 @@ public class Marker extends PlatformObject implements IMarker {
 			if (needDelta) {
 				MarkerDelta delta = new MarkerDelta(IResourceDelta.CHANGED, resource, oldInfo);
 				manager.changedMarkers(resource, new MarkerDelta[] {delta});
+			} else {
+				manager.changedAttributes(resource);
 			}
 		} finally {
 			workspace.endOperation(null, false);
@@ -339,6 +343,8 @@ public class Marker extends PlatformObject implements IMarker {
 			if (needDelta) {
 				MarkerDelta delta = new MarkerDelta(IResourceDelta.CHANGED, resource, oldInfo);
 				manager.changedMarkers(resource, new MarkerDelta[] {delta});
+			} else {
+				manager.changedAttributes(resource);
 			}
 		} finally {
 			workspace.endOperation(null, false);
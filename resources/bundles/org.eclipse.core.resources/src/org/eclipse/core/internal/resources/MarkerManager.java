@@ -36,6 +36,7 @@ public class MarkerManager implements IManager {
 	private static final MarkerInfo[] NO_MARKER_INFO = new MarkerInfo[0];
 	private static final IMarker[] NO_MARKERS = new IMarker[0];
 	protected MarkerTypeDefinitionCache cache = new MarkerTypeDefinitionCache();
+	private final MarkerTypeIndex index;
 	private final AtomicLong changeId = new AtomicLong();
 	protected volatile Map<IPath, MarkerSet> currentDeltas = null;
 	protected final MarkerDeltaManager deltaManager = new MarkerDeltaManager();
@@ -48,6 +49,7 @@ public class MarkerManager implements IManager {
 	 */
 	public MarkerManager(Workspace workspace) {
 		this.workspace = workspace;
+		this.index = new MarkerTypeIndex(workspace, cache);
 	}
 
 	/**
@@ -71,9 +73,7 @@ public class MarkerManager implements IManager {
 		MarkerSet markers = info.getMarkers(true);
 		if (markers == null)
 			markers = new MarkerSet(1);
-		basicAdd(resource, markers, newMarker);
-		if (!markers.isEmpty())
-			info.setMarkers(markers);
+		basicAdd(resource, info, markers, newMarker);
 	}
 
 	/**
@@ -81,8 +81,11 @@ public class MarkerManager implements IManager {
 	 * associated with the specified resource.IMarkerDeltas for Added markers are
 	 * generated.
 	 */
-	private void basicAdd(IResource resource, MarkerSet markers, MarkerInfo newMarker) {
+	private void basicAdd(IResource resource, ResourceInfo info, MarkerSet markers, MarkerInfo newMarker) {
 		markers.add(newMarker);
+		if (!markers.isEmpty())
+			info.setMarkers(markers);
+		// report the change once the markers are in the tree, so the index sees them
 		IMarkerSetElement[] changes = new IMarkerSetElement[1];
 		changes[0] = new MarkerDelta(IResourceDelta.ADDED, resource, newMarker);
 		changedMarkers(resource, changes);
@@ -217,7 +220,8 @@ public class MarkerManager implements IManager {
 
 	/**
 	 * Markers have changed on the given resource. Remember the changes for
-	 * subsequent notification.
+	 * subsequent notification. Must be called after the changes have been made
+	 * to the resource info in the tree.
 	 */
 	protected void changedMarkers(IResource resource, IMarkerSetElement[] changes) {
 		if (changes == null || changes.length == 0)
@@ -226,6 +230,7 @@ public class MarkerManager implements IManager {
 		if (currentDeltas == null)
 			currentDeltas = deltaManager.newGeneration(change);
 		IPath path = resource.getFullPath();
+		index.changed(path, changes);
 		MarkerSet previousChanges = currentDeltas.get(path);
 		MarkerSet result = MarkerDelta.merge(previousChanges, changes);
 		if (result.size() == 0)
@@ -237,6 +242,15 @@ public class MarkerManager implements IManager {
 			info.incrementMarkerGenerationCount();
 	}
 
+	/**
+	 * The attributes of markers on the given resource have changed, and the
+	 * change has already been reported by {@link #changedMarkers(IResource, IMarkerSetElement[])}
+	 * earlier in the operation.
+	 */
+	void changedAttributes(IResource resource) {
+		index.changedAttributes(resource.getFullPath());
+	}
+
 	/**
 	 * Returns the marker with the given id or <code>null</code> if none is found.
 	 */
@@ -279,9 +293,9 @@ public class MarkerManager implements IManager {
 	 */
 	public void doFindMarkers(IResource target, ArrayList<IMarker> result, final String type,
 			final boolean includeSubtypes, int depth) {
-		// optimize the deep searches with an element tree visitor
+		// optimize the deep searches with the marker type index
 		if (depth == IResource.DEPTH_INFINITE && target.getType() != IResource.FILE)
-			visitorFindMarkers(target.getFullPath(), result, type, includeSubtypes);
+			indexFindMarkers(target.getFullPath(), result, type, includeSubtypes);
 		else
 			recursiveFindMarkers(target.getFullPath(), result, type, includeSubtypes, depth);
 	}
@@ -291,9 +305,9 @@ public class MarkerManager implements IManager {
 	 * option to search the target's children.
 	 */
 	public int findMaxProblemSeverity(IResource target, String type, boolean includeSubtypes, int depth) {
-		// optimize the deep searches with an element tree visitor
+		// optimize the deep searches with the marker type index
 		if (depth == IResource.DEPTH_INFINITE && target.getType() != IResource.FILE)
-			return visitorFindMaxSeverity(target.getFullPath(), type, includeSubtypes);
+			return index.findMaxSeverity(target.getFullPath(), type, includeSubtypes, markers -> basicFindMaxSeverity(markers, type, includeSubtypes));
 		return recursiveFindMaxSeverity(target.getFullPath(), type, includeSubtypes, depth);
 	}
 
@@ -347,6 +361,8 @@ public class MarkerManager implements IManager {
 
 	public void moved(final IResource source, final IResource destination, int depth) throws CoreException {
 		final int count = destination.getFullPath().segmentCount();
+		if (source.getType() != IResource.FILE)
+			index.removedSubtree(source.getFullPath());
 
 		// we removed from the source and added to the destination
 		IResourceVisitor visitor = resource -> {
@@ -506,9 +522,11 @@ public class MarkerManager implements IManager {
 	 * <code>null</code> is a wildcard.
 	 */
 	public void removeMarkers(IResource target, final String type, final boolean includeSubtypes, int depth) {
-		if (depth == IResource.DEPTH_INFINITE && target.getType() != IResource.FILE)
+		if (depth == IResource.DEPTH_INFINITE && target.getType() != IResource.FILE) {
 			visitorRemoveMarkers(target.getFullPath(), type, includeSubtypes);
-		else
+			if (type == null)
+				index.removedSubtree(target.getFullPath());
+		} else
 			recursiveRemoveMarkers(target.getFullPath(), type, includeSubtypes, depth);
 	}
 
@@ -521,6 +539,8 @@ public class MarkerManager implements IManager {
 	}
 
 	public void restore(IResource resource, boolean generateDeltas, IProgressMonitor monitor) throws CoreException {
+		// the readers replace markers without reporting every change
+		index.discard();
 		// first try and load the last saved file, then apply the snapshots
 		restoreFromSave(resource, generateDeltas);
 		restoreFromSnap(resource);
@@ -583,56 +603,21 @@ public class MarkerManager implements IManager {
 	/**
 	 * Adds the markers for a subtree of resources to the list.
 	 */
-	private void visitorFindMarkers(IPath path, final ArrayList<IMarker> list, final String type,
-			final boolean includeSubtypes) {
-		IElementContentVisitor visitor = (tree, requestor, elementContents) -> {
-			ResourceInfo info = (ResourceInfo) elementContents;
+	private void indexFindMarkers(IPath path, ArrayList<IMarker> list, String type, boolean includeSubtypes) {
+		for (IPath candidate : index.findPaths(path, type, includeSubtypes)) {
+			ResourceInfo info = workspace.getResourceInfo(candidate, false, false);
 			if (info == null)
-				return false;
+				continue;
 			MarkerSet markers = info.getMarkers(false);
-
-			// add the matching markers for this resource
-			if (markers != null) {
-				IMarkerSetElement[] matching;
-				if (type == null)
-					matching = markers.elements();
-				else
-					matching = basicFindMatching(markers, type, includeSubtypes);
-				buildMarkers(matching, requestor.requestPath(), info.getType(), list);
-			}
-			return true;
-		};
-		new ElementTreeIterator(workspace.getElementTree(), path).iterate(visitor);
-	}
-
-	/**
-	 * Finds the max severity across problem markers for a subtree of resources.
-	 */
-	private int visitorFindMaxSeverity(IPath path, final String type, final boolean includeSubtypes) {
-		class MaxSeverityVisitor implements IElementContentVisitor {
-			int max = -1;
-
-			@Override
-			public boolean visitElement(ElementTree tree, IPathRequestor requestor, Object elementContents) {
-				// bail if an earlier sibling already hit the max
-				if (max >= IMarker.SEVERITY_ERROR) {
-					return false;
-				}
-				ResourceInfo info = (ResourceInfo) elementContents;
-				if (info == null)
-					return false;
-				MarkerSet markers = info.getMarkers(false);
-
-				// add the matching markers for this resource
-				if (markers != null) {
-					max = Math.max(max, basicFindMaxSeverity(markers, type, includeSubtypes));
-				}
-				return max < IMarker.SEVERITY_ERROR;
-			}
+			if (markers == null)
+				continue;
+			IMarkerSetElement[] matching;
+			if (type == null)
+				matching = markers.elements();
+			else
+				matching = basicFindMatching(markers, type, includeSubtypes);
+			buildMarkers(matching, candidate, info.getType(), list);
 		}
-		MaxSeverityVisitor visitor = new MaxSeverityVisitor();
-		new ElementTreeIterator(workspace.getElementTree(), path).iterate(visitor);
-		return visitor.max;
 	}
 
 	/**
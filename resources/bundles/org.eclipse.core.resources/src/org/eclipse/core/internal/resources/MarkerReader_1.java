@@ -19,6 +19,7 @@ package org.eclipse.core.internal.resources;
 import java.io.*;
 import java.util.*;
 import org.eclipse.core.internal.utils.Messages;
+import org.eclipse.core.internal.utils.StringPool;
 import org.eclipse.core.resources.IResourceDelta;
 import org.eclipse.core.resources.IResourceStatus;
 import org.eclipse.core.runtime.*;
@@ -133,7 +134,7 @@ public class MarkerReader_1 extends MarkerReader {
 		String type = null;
 		switch (constant) {
 			case QNAME :
-				type = input.readUTF();
+				type = StringPool.getShared().add(input.readUTF());
 				readTypes.add(type);
 				break;
 			case INDEX :
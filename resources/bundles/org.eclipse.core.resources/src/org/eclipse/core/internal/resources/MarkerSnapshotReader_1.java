@@ -20,6 +20,7 @@ import java.io.DataInputStream;
 import java.io.IOException;
 import java.util.*;
 import org.eclipse.core.internal.utils.Messages;
+import org.eclipse.core.internal.utils.StringPool;
 import org.eclipse.core.resources.IResourceStatus;
 import org.eclipse.core.runtime.*;
 
@@ -118,7 +119,7 @@ public class MarkerSnapshotReader_1 extends MarkerSnapshotReader {
 		String type = null;
 		switch (constant) {
 			case QNAME :
-				type = input.readUTF();
+				type = StringPool.getShared().add(input.readUTF());
 				readTypes.add(type);
 				break;
 			case INDEX :
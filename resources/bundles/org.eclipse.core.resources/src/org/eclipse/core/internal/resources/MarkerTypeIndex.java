@@ -0,0 +1,266 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.resources;
+
+import java.util.*;
+import org.eclipse.core.internal.watson.ElementTree;
+import org.eclipse.core.internal.watson.ElementTreeIterator;
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+
+/**
+ * Remembers which resources have markers of which type, so that deep marker
+ * searches only look at the resources that have matching markers instead of
+ * visiting the whole subtree. The index is partitioned by project, so searches
+ * within a project don't depend on the number of markers in other projects.
+ * <p>
+ * The index is kept up to date from the marker changes reported to the marker
+ * manager. It may name resources that no longer have markers of a type, so
+ * callers must check the markers they find, but it never misses a resource
+ * that has some. Markers that are restored from disk are not reported one by
+ * one, so restoring them discards the index and it is built again from the
+ * workspace tree when it is next needed.
+ * </p><p>
+ * The index also caches the maximum severity of the markers in the subtrees
+ * that have been searched for it. A cached severity is discarded when the
+ * markers of any resource in the subtree change, and when all markers of an
+ * enclosing subtree are removed, which happens when it is deleted or moved.
+ * </p>
+ */
+class MarkerTypeIndex {
+	/** The key of searches for markers of any type */
+	private static final String ANY_TYPE = "*"; //$NON-NLS-1$
+
+	/**
+	 * Orders paths the way the element tree iterates them, so that searches
+	 * find markers in the same order as when visiting the tree.
+	 */
+	private static final Comparator<IPath> TREE_ORDER = (path1, path2) -> {
+		int count1 = path1.segmentCount();
+		int count2 = path2.segmentCount();
+		for (int i = 0, count = Math.min(count1, count2); i < count; i++) {
+			int compare = path1.segment(i).compareTo(path2.segment(i));
+			if (compare != 0)
+				return compare;
+		}
+		return count1 - count2;
+	};
+
+	private final Workspace workspace;
+	private final MarkerTypeDefinitionCache cache;
+
+	/**
+	 * The paths of the resources with markers, by project name and exact marker
+	 * type. The markers of the workspace root are kept under the empty name.
+	 */
+	private final Map<String, Map<String, Set<IPath>>> pathsByProject = new HashMap<>();
+	/** The maximum severity found in a subtree, by subtree root and search key */
+	private final Map<IPath, Map<String, Integer>> maxSeverities = new HashMap<>();
+	/** Whether the index has to be built from the workspace tree before using it */
+	private boolean stale = true;
+
+	MarkerTypeIndex(Workspace workspace, MarkerTypeDefinitionCache cache) {
+		this.workspace = workspace;
+		this.cache = cache;
+	}
+
+	/**
+	 * Records the given changes of the markers on the resource at the given
+	 * path. Must be called after the changes have been made to the tree.
+	 */
+	synchronized void changed(IPath path, IMarkerSetElement[] changes) {
+		discardMaxSeverities(path);
+		if (stale)
+			return;
+		for (IMarkerSetElement element : changes) {
+			MarkerDelta change = (MarkerDelta) element;
+			String type = change.getType();
+			switch (change.getKind()) {
+				case IResourceDelta.ADDED :
+					addPath(path, type);
+					break;
+				case IResourceDelta.REMOVED :
+					if (!hasMarkersOfType(path, type))
+						removePath(path, type);
+					break;
+			}
+		}
+	}
+
+	/**
+	 * The attributes of the markers on the resource at the given path have
+	 * changed without being reported to {@link #changed(IPath, IMarkerSetElement[])}.
+	 */
+	synchronized void changedAttributes(IPath path) {
+		discardMaxSeverities(path);
+	}
+
+	/**
+	 * All markers in the subtree rooted at the given path have been removed,
+	 * usually because the subtree is deleted or moved away. Discards the
+	 * severities cached for the subtree, including those of containers that
+	 * had no markers.
+	 */
+	synchronized void removedSubtree(IPath root) {
+		if (maxSeverities.isEmpty())
+			return;
+		maxSeverities.keySet().removeIf(root::isPrefixOf);
+		discardMaxSeverities(root);
+	}
+
+	/**
+	 * Discards the whole index, because markers have been set without
+	 * reporting the changes.
+	 */
+	synchronized void discard() {
+		stale = true;
+		pathsByProject.clear();
+		maxSeverities.clear();
+	}
+
+	private static String getProjectName(IPath path) {
+		return path.segmentCount() == 0 ? "" : path.segment(0); //$NON-NLS-1$
+	}
+
+	private void addPath(IPath path, String type) {
+		Map<String, Set<IPath>> pathsByType = pathsByProject.computeIfAbsent(getProjectName(path), p -> new HashMap<>());
+		pathsByType.computeIfAbsent(type, t -> new HashSet<>()).add(path);
+	}
+
+	private void removePath(IPath path, String type) {
+		String projectName = getProjectName(path);
+		Map<String, Set<IPath>> pathsByType = pathsByProject.get(projectName);
+		Set<IPath> paths = pathsByType == null ? null : pathsByType.get(type);
+		if (paths != null && paths.remove(path) && paths.isEmpty()) {
+			pathsByType.remove(type);
+			if (pathsByType.isEmpty())
+				pathsByProject.remove(projectName);
+		}
+	}
+
+	private void discardMaxSeverities(IPath path) {
+		if (maxSeverities.isEmpty())
+			return;
+		for (IPath parent = path;; parent = parent.removeLastSegments(1)) {
+			maxSeverities.remove(parent);
+			if (parent.isRoot())
+				break;
+		}
+	}
+
+	private boolean hasMarkersOfType(IPath path, String type) {
+		ResourceInfo info = workspace.getResourceInfo(path, false, false);
+		MarkerSet markers = info == null ? null : info.getMarkers(false);
+		if (markers == null)
+			return false;
+		for (IMarkerSetElement element : markers.elements()) {
+			if (((MarkerInfo) element).getType().equals(type))
+				return true;
+		}
+		return false;
+	}
+
+	private void build() {
+		ElementTree tree = workspace.getElementTree();
+		new ElementTreeIterator(tree, Path.ROOT).iterate((elementTree, requestor, elementContents) -> {
+			ResourceInfo info = (ResourceInfo) elementContents;
+			if (info == null)
+				return false;
+			MarkerSet markers = info.getMarkers(false);
+			if (markers != null) {
+				IPath path = requestor.requestPath();
+				for (IMarkerSetElement element : markers.elements())
+					addPath(path, ((MarkerInfo) element).getType());
+			}
+			return true;
+		});
+		stale = false;
+	}
+
+	/**
+	 * Returns the paths of the resources in the subtree rooted at the given path
+	 * that may have markers of the given type, in tree order. Passing
+	 * <code>null</code> for the type matches markers of all types.
+	 */
+	synchronized List<IPath> findPaths(IPath root, String type, boolean includeSubtypes) {
+		if (stale)
+			build();
+		// a search below the workspace root only needs to look at one project
+		Collection<Map<String, Set<IPath>>> partitions;
+		if (root.isRoot()) {
+			partitions = pathsByProject.values();
+		} else {
+			Map<String, Set<IPath>> pathsByType = pathsByProject.get(root.segment(0));
+			if (pathsByType == null)
+				return Collections.emptyList();
+			partitions = Collections.singleton(pathsByType);
+		}
+		Set<IPath> result = new HashSet<>();
+		for (Map<String, Set<IPath>> pathsByType : partitions) {
+			for (Map.Entry<String, Set<IPath>> entry : pathsByType.entrySet()) {
+				String markerType = entry.getKey();
+				boolean matches;
+				if (type == null)
+					matches = true;
+				else if (includeSubtypes)
+					matches = cache.isSubtype(markerType, type);
+				else
+					matches = markerType.equals(type);
+				if (!matches)
+					continue;
+				for (IPath path : entry.getValue()) {
+					if (root.isPrefixOf(path))
+						result.add(path);
+				}
+			}
+		}
+		List<IPath> sorted = new ArrayList<>(result);
+		sorted.sort(TREE_ORDER);
+		return sorted;
+	}
+
+	/**
+	 * Returns the maximum severity of the markers of the given type in the
+	 * subtree rooted at the given path, or -1 if there are none. The severity of
+	 * each marker is computed by the given function.
+	 */
+	synchronized int findMaxSeverity(IPath root, String type, boolean includeSubtypes, MaxSeverityFunction function) {
+		String key = type == null ? ANY_TYPE : (includeSubtypes ? type + ANY_TYPE : type);
+		Map<String, Integer> cached = maxSeverities.get(root);
+		Integer result = cached == null ? null : cached.get(key);
+		if (result != null)
+			return result.intValue();
+		int max = -1;
+		for (IPath path : findPaths(root, type, includeSubtypes)) {
+			ResourceInfo info = workspace.getResourceInfo(path, false, false);
+			MarkerSet markers = info == null ? null : info.getMarkers(false);
+			if (markers != null)
+				max = Math.max(max, function.maxSeverity(markers));
+			if (max >= IMarker.SEVERITY_ERROR)
+				break;
+		}
+		maxSeverities.computeIfAbsent(root, p -> new HashMap<>(4)).put(key, max);
+		return max;
+	}
+
+	/**
+	 * Computes the maximum severity of the matching markers in a marker set.
+	 */
+	@FunctionalInterface
+	interface MaxSeverityFunction {
+		int maxSeverity(MarkerSet markers);
+	}
+}
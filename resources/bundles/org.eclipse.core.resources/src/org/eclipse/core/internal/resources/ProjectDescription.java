@@ -92,6 +92,18 @@ public class ProjectDescription extends ModelObject implements IProjectDescripti
 	 */
 	protected HashMap<IPath, LinkedList<FilterDescription>> filterDescriptions = null;
 
+	/** The maximum number of containers whose compiled filters are kept */
+	private static final int MAX_COMPILED_FILTERS = 1024;
+
+	/**
+	 * Map of (IPath -&gt; CompiledFilters) for the containers in this project whose
+	 * children have been filtered most recently, where IPath is the project relative
+	 * path of the container. Discarded whenever the filter descriptions change.
+	 */
+	private Map<IPath, CompiledFilters> compiledFilters = newCompiledFiltersCache();
+	/** The project the compiled filters have been compiled for */
+	private IProject compiledFiltersProject;
+
 	/**
 	 * Map of (String -&gt; VariableDescription) pairs for each variable in this
 	 * project, where String is the name of the variable.
@@ -114,6 +126,8 @@ public class ProjectDescription extends ModelObject implements IProjectDescripti
 		//don't want the clone to have access to our internal link locations table or builders
 		clone.linkDescriptions = null;
 		clone.filterDescriptions = null;
+		clone.compiledFilters = newCompiledFiltersCache();
+		clone.compiledFiltersProject = null;
 		if (variableDescriptions != null)
 			clone.variableDescriptions = (HashMap<String, VariableDescription>) variableDescriptions.clone();
 		clone.buildSpec = getBuildSpec(true);
@@ -379,6 +393,37 @@ public class ProjectDescription extends ModelObject implements IProjectDescripti
 		return filterDescriptions.get(aPath);
 	}
 
+	private static Map<IPath, CompiledFilters> newCompiledFiltersCache() {
+		return new LinkedHashMap<>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<IPath, CompiledFilters> eldest) {
+				return size() > MAX_COMPILED_FILTERS;
+			}
+		};
+	}
+
+	/**
+	 * Returns the compiled filters for the children of the container at the given
+	 * project relative path in the given project, which is the project this
+	 * description belongs to.
+	 */
+	synchronized CompiledFilters getCompiledFilters(Project project, IPath aPath) {
+		if (filterDescriptions == null)
+			return CompiledFilters.NONE;
+		if (!project.equals(compiledFiltersProject)) {
+			compiledFilters.clear();
+			compiledFiltersProject = project;
+		}
+		CompiledFilters result = compiledFilters.get(aPath);
+		if (result == null) {
+			result = CompiledFilters.compile(project, this, aPath);
+			compiledFilters.put(aPath, result);
+		}
+		return result;
+	}
+
 	/**
 	 * Returns the map of link descriptions (IPath (project relative path) -&gt; LinkDescription).
 	 * Since this method is only used internally, it never creates a copy.
@@ -677,8 +722,9 @@ public class ProjectDescription extends ModelObject implements IProjectDescripti
 	 * Since this method is only used internally, it never creates a copy. May
 	 * pass null if this project does not have any filtered resources
 	 */
-	public void setFilterDescriptions(HashMap<IPath, LinkedList<FilterDescription>> filterDescriptions) {
+	synchronized public void setFilterDescriptions(HashMap<IPath, LinkedList<FilterDescription>> filterDescriptions) {
 		this.filterDescriptions = filterDescriptions;
+		compiledFilters.clear();
 	}
 
 	/**
@@ -735,6 +781,7 @@ public class ProjectDescription extends ModelObject implements IProjectDescripti
 	 */
 	synchronized public void addFilter(IPath path, FilterDescription description) {
 		Assert.isNotNull(description);
+		compiledFilters.clear();
 		if (filterDescriptions == null)
 			filterDescriptions = new HashMap<>(10);
 		LinkedList<FilterDescription> descList = filterDescriptions.get(path);
@@ -750,6 +797,7 @@ public class ProjectDescription extends ModelObject implements IProjectDescripti
 	 * remove the filter from the project description.
 	 */
 	synchronized public void removeFilter(IPath path, FilterDescription description) {
+		compiledFilters.clear();
 		if (filterDescriptions != null) {
 			LinkedList<FilterDescription> descList = filterDescriptions.get(path);
 			if (descList != null) {
@@ -809,6 +857,7 @@ public class ProjectDescription extends ModelObject implements IProjectDescripti
 	 *     <code>false</code> otherwise.
 	 */
 	synchronized public boolean setFilters(IPath path, LinkedList<FilterDescription> descriptions) {
+		compiledFilters.clear();
 		if (descriptions != null) {
 			// addition
 			if (filterDescriptions == null)
@@ -23,12 +23,14 @@ import java.io.*;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import javax.xml.parsers.*;
 import org.eclipse.core.filesystem.URIUtil;
 import org.eclipse.core.internal.events.BuildCommand;
 import org.eclipse.core.internal.localstore.SafeFileInputStream;
 import org.eclipse.core.internal.utils.Messages;
 import org.eclipse.core.internal.utils.Policy;
+import org.eclipse.core.internal.utils.StringPool;
 import org.eclipse.core.resources.*;
 import org.eclipse.core.runtime.*;
 import org.eclipse.osgi.util.NLS;
@@ -90,9 +92,15 @@ public class ProjectDescriptionReader extends DefaultHandler implements IModelOb
 	private static SAXParserFactory singletonParserFactory;
 
 	/**
-	 * Singleton sax parser
+	 * Parsers that are not in use. A parser can't be used concurrently, so each
+	 * read takes one from the pool and returns it when done.
 	 */
-	private static SAXParser singletonParser;
+	private static final Queue<SAXParser> parserPool = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * The maximum number of parsers kept in the pool
+	 */
+	private static final int MAX_POOLED_PARSERS = Runtime.getRuntime().availableProcessors();
 
 	protected final StringBuilder charBuffer = new StringBuilder();
 
@@ -110,19 +118,39 @@ public class ProjectDescriptionReader extends DefaultHandler implements IModelOb
 	private Workspace workspace;
 
 	/**
-	 * Returns the SAXParser to use when parsing project description files.
+	 * Returns a SAXParser to use when parsing project description files. The
+	 * parser must be given back with {@link #releaseParser(SAXParser)}.
+	 * @throws ParserConfigurationException
+	 * @throws SAXException
+	 */
+	private static SAXParser acquireParser() throws ParserConfigurationException, SAXException {
+		SAXParser parser = parserPool.poll();
+		return parser != null ? parser : createParser();
+	}
+
+	/**
+	 * Returns a new SAXParser. The factory is not thread-safe, so parsers are
+	 * created while holding the same lock that guards the factory.
 	 * @throws ParserConfigurationException
 	 * @throws SAXException
 	 */
-	private static synchronized SAXParser createParser(Workspace workspace)
-			throws ParserConfigurationException, SAXException {
-		//the parser can't be used concurrently, so only use singleton when workspace is locked
-		if (workspace == null || !isWorkspaceLocked(workspace))
-			return createParserFactory().newSAXParser();
-		if (singletonParser == null) {
-			singletonParser = createParserFactory().newSAXParser();
+	private static synchronized SAXParser createParser() throws ParserConfigurationException, SAXException {
+		return createParserFactory().newSAXParser();
+	}
+
+	/**
+	 * Returns a parser obtained from {@link #acquireParser()} to the pool.
+	 */
+	private static void releaseParser(SAXParser parser) {
+		try {
+			parser.reset();
+		} catch (UnsupportedOperationException e) {
+			// the parser can't be reused
+			return;
 		}
-		return singletonParser;
+		// the size is only approximate, which is good enough to bound the pool
+		if (parserPool.size() < MAX_POOLED_PARSERS)
+			parserPool.offer(parser);
 	}
 
 	/**
@@ -142,14 +170,6 @@ public class ProjectDescriptionReader extends DefaultHandler implements IModelOb
 		return singletonParserFactory;
 	}
 
-	private static boolean isWorkspaceLocked(Workspace workspace) {
-		try {
-			return workspace.getWorkManager().isLockAlreadyAcquired();
-		} catch (CoreException e) {
-			return false;
-		}
-	}
-
 	public ProjectDescriptionReader(IWorkspace workspace) {
 		this.workspace = (Workspace) workspace;
 		this.project = null;
@@ -248,13 +268,22 @@ public class ProjectDescriptionReader extends DefaultHandler implements IModelOb
 		}
 	}
 
+	/**
+	 * Returns a shared copy of the given string. Descriptions of different
+	 * projects typically repeat the same nature ids, builder names and
+	 * arguments.
+	 */
+	private static String share(String string) {
+		return StringPool.getShared().add(string);
+	}
+
 	private void endDictionaryKey(String elementName) {
 		if (elementName.equals(KEY)) {
 			// There is a value place holder on the top of the stack and
 			// a key place holder just below it.
 			String value = (String) objectStack.pop();
 			String oldKey = (String) objectStack.pop();
-			String newKey = charBuffer.toString();
+			String newKey = share(charBuffer.toString());
 			if (oldKey != null && oldKey.length() != 0) {
 				parseProblem(NLS.bind(Messages.projRead_whichKey, oldKey, newKey));
 				objectStack.push(oldKey);
@@ -269,7 +298,7 @@ public class ProjectDescriptionReader extends DefaultHandler implements IModelOb
 
 	private void endDictionaryValue(String elementName) {
 		if (elementName.equals(VALUE)) {
-			String newValue = charBuffer.toString();
+			String newValue = share(charBuffer.toString());
 			// There is a value place holder on the top of the stack
 			String oldValue = (String) objectStack.pop();
 			if (oldValue != null && oldValue.length() != 0) {
@@ -362,7 +391,7 @@ public class ProjectDescriptionReader extends DefaultHandler implements IModelOb
 					// Referenced projects are just project names and, therefore,
 					// are also IResource names and cannot have leading/trailing
 					// whitespace.
-					((ArrayList<String>) objectStack.peek()).add(charBuffer.toString().trim());
+					((ArrayList<String>) objectStack.peek()).add(share(charBuffer.toString().trim()));
 					state = S_PROJECTS;
 				}
 				break;
@@ -371,7 +400,7 @@ public class ProjectDescriptionReader extends DefaultHandler implements IModelOb
 					//top of stack is the build command
 					// A build command name is an extension id and
 					// cannot have leading/trailing whitespace.
-					((BuildCommand) objectStack.peek()).setName(charBuffer.toString().trim());
+					((BuildCommand) objectStack.peek()).setName(share(charBuffer.toString().trim()));
 					state = S_BUILD_COMMAND;
 				}
 				break;
@@ -386,7 +415,7 @@ public class ProjectDescriptionReader extends DefaultHandler implements IModelOb
 					//top of stack is list of nature names
 					// A nature name is an extension id and cannot
 					// have leading/trailing whitespace.
-					((ArrayList<String>) objectStack.peek()).add(charBuffer.toString().trim());
+					((ArrayList<String>) objectStack.peek()).add(share(charBuffer.toString().trim()));
 					state = S_NATURES;
 				}
 				break;
@@ -657,7 +686,7 @@ public class ProjectDescriptionReader extends DefaultHandler implements IModelOb
 	private void endMatcherID(String elementName) {
 		if (elementName.equals(ID)) {
 			// The matcher id is String.
-			String newID = charBuffer.toString().trim();
+			String newID = share(charBuffer.toString().trim());
 			// objectStack has an array (Object[2]) on it for the matcher id and arguments.
 			String oldID = (String) ((Object[]) objectStack.peek())[0];
 			if (oldID != null) {
@@ -931,10 +960,15 @@ public class ProjectDescriptionReader extends DefaultHandler implements IModelOb
 		problems = new MultiStatus(ResourcesPlugin.PI_RESOURCES, IResourceStatus.FAILED_READ_METADATA, Messages.projRead_failureReadingProjectDesc, null);
 		objectStack = new ArrayDeque<>();
 		state = S_INITIAL;
+		SAXParser parser = null;
 		try {
-			createParser(workspace).parse(input, this);
+			parser = acquireParser();
+			parser.parse(input, this);
 		} catch (ParserConfigurationException | IOException | SAXException e) {
 			log(e);
+		} finally {
+			if (parser != null)
+				releaseParser(parser);
 		}
 
 		if (projectDescription != null && projectDescription.getName() == null)
@@ -37,11 +37,10 @@ import org.eclipse.core.internal.watson.*;
 import org.eclipse.core.resources.*;
 import org.eclipse.core.resources.team.IMoveDeleteHook;
 import org.eclipse.core.runtime.*;
-import org.eclipse.core.runtime.jobs.ISchedulingRule;
-import org.eclipse.core.runtime.jobs.MultiRule;
+import org.eclipse.core.runtime.jobs.*;
 import org.eclipse.osgi.util.NLS;
 
-public abstract class Resource extends PlatformObject implements IResource, ICoreConstants, Cloneable, IPathRequestor {
+public abstract class Resource extends PlatformObject implements IResource, IHierarchicalSchedulingRule, ICoreConstants, Cloneable, IPathRequestor {
 	final IPath path;
 	final Workspace workspace;
 
@@ -204,7 +203,7 @@ public abstract class Resource extends PlatformObject implements IResource, ICor
 		checkExists(flags, true);
 	}
 
-	private ResourceInfo checkAccessibleAndLocal(int depth) throws CoreException {
+	ResourceInfo checkAccessibleAndLocal(int depth) throws CoreException {
 		ResourceInfo info = getResourceInfo(false, false);
 		int flags = getFlags(info);
 		checkAccessible(flags);
@@ -1186,6 +1185,19 @@ public abstract class Resource extends PlatformObject implements IResource, ICor
 		return workspace.getResourceInfo(getFullPath(), phantom, mutable);
 	}
 
+	/**
+	 * Resource rules form one hierarchy per workspace.
+	 */
+	@Override
+	public Object getRuleHierarchy() {
+		return workspace;
+	}
+
+	@Override
+	public IPath getRulePath() {
+		return path;
+	}
+
 	@Override
 	public Object getSessionProperty(QualifiedName key) throws CoreException {
 		ResourceInfo info = checkAccessibleAndLocal(DEPTH_ZERO);
@@ -1963,40 +1975,10 @@ public abstract class Resource extends PlatformObject implements IResource, ICor
 	}
 
 	private IFileInfo[] filterChildren(Project project, ProjectDescription description, IFileInfo[] list, boolean throwException) throws CoreException {
-		IPath relativePath = getProjectRelativePath();
-		LinkedList<Filter> currentIncludeFilters = new LinkedList<>();
-		LinkedList<Filter> currentExcludeFilters = new LinkedList<>();
-		LinkedList<FilterDescription> filters = null;
-
-		boolean firstSegment = true;
-		do {
-			if (!firstSegment)
-				relativePath = relativePath.removeLastSegments(1);
-			filters = description.getFilter(relativePath);
-			if (filters != null) {
-				for (FilterDescription desc : filters) {
-					if (firstSegment || desc.isInheritable()) {
-						Filter filter = new Filter(project, desc);
-						if (filter.isIncludeOnly()) {
-							if (filter.isFirst())
-								currentIncludeFilters.addFirst(filter);
-							else
-								currentIncludeFilters.addLast(filter);
-						} else {
-							if (filter.isFirst())
-								currentExcludeFilters.addFirst(filter);
-							else
-								currentExcludeFilters.addLast(filter);
-						}
-					}
-				}
-			}
-			firstSegment = false;
-		} while (relativePath.segmentCount() > 0);
-
-		if ((currentIncludeFilters.size() > 0) || (currentExcludeFilters.size() > 0)) {
+		CompiledFilters filters = description.getCompiledFilters(project, getProjectRelativePath());
+		if (!filters.isEmpty()) {
 			try {
-				list = Filter.filter(project, currentIncludeFilters, currentExcludeFilters, (IContainer) this, list);
+				list = filters.filter((IContainer) this, list);
 			} catch (CoreException e) {
 				if (throwException)
 					throw e;
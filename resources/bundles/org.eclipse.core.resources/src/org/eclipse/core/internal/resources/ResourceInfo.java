@@ -26,22 +26,70 @@ import org.eclipse.core.runtime.QualifiedName;
 
 /**
  * A data structure containing the in-memory state of a resource in the workspace.
+ * <p>
+ * There is one info for every resource in the workspace, so its size matters.
+ * State that most resources do not have (markers, sync info, session properties
+ * and the file system root of projects and linked resources) is kept in a
+ * separate {@link Extras} object that is only allocated once a resource has
+ * any of it.
+ * </p>
  */
-public class ResourceInfo implements IElementTreeData, ICoreConstants, IStringPoolParticipant {
+public class ResourceInfo implements IElementTreeData, ICoreConstants {
 	protected static final int LOWER = 0xFFFF;
 	protected static final int UPPER = 0xFFFF0000;
 
+	/**
+	 * The state of a resource that most resources do not have.
+	 */
+	protected static final class Extras implements Cloneable {
+		/**
+		 * The file system root that this resource is stored in
+		 */
+		FileStoreRoot fileStoreRoot;
+
+		/**
+		 * This field stores the sync info generation in the lower two bytes, and
+		 * the marker generation count in the upper two bytes.
+		 */
+		volatile int markerAndSyncStamp;
+
+		/** The collection of markers for this resource. */
+		MarkerSet markers;
+
+		/**
+		 * The properties which are maintained for the lifecycle of the workspace.
+		 * <p>
+		 * This field is declared as the implementing class rather than the
+		 * interface so we ensure that we get it right since we are making certain
+		 * assumptions about the object type w.r.t. casting.
+		 */
+		ObjectMap<QualifiedName, Object> sessionProperties;
+
+		/**
+		 * The table of sync information.
+		 * <p>
+		 * This field is declared as the implementing class rather than the
+		 * interface so we ensure that we get it right since we are making certain
+		 * assumptions about the object type w.r.t. casting.
+		 */
+		ObjectMap<QualifiedName, Object> syncInfo;
+
+		@Override
+		protected Extras clone() {
+			try {
+				return (Extras) super.clone();
+			} catch (CloneNotSupportedException e) {
+				return null; // never gets here.
+			}
+		}
+	}
+
 	/**
 	 * This field stores the resource modification stamp in the lower two bytes,
 	 * and the character set generation count in the higher two bytes.
 	 */
 	protected volatile int charsetAndContentId;
 
-	/**
-	 * The file system root that this resource is stored in
-	 */
-	protected FileStoreRoot fileStoreRoot;
-
 	/** Set of flags which reflect various states of the info (used, derived, ...). */
 	protected int flags;
 
@@ -49,15 +97,6 @@ public class ResourceInfo implements IElementTreeData, ICoreConstants, IStringPo
 	// thread safety: (Concurrency004)
 	protected volatile long localInfo = I_NULL_SYNC_INFO;
 
-	/**
-	 * This field stores the sync info generation in the lower two bytes, and
-	 * the marker generation count in the upper two bytes.
-	 */
-	protected volatile int markerAndSyncStamp;
-
-	/** The collection of markers for this resource. */
-	protected MarkerSet markers;
-
 	/** Modification stamp */
 	protected long modStamp;
 
@@ -66,22 +105,10 @@ public class ResourceInfo implements IElementTreeData, ICoreConstants, IStringPo
 	protected volatile long nodeId;
 
 	/**
-	 * The properties which are maintained for the lifecycle of the workspace.
-	 * <p>
-	 * This field is declared as the implementing class rather than the
-	 * interface so we ensure that we get it right since we are making certain
-	 * assumptions about the object type w.r.t. casting.
+	 * The state this resource does not share with most other resources,
+	 * <code>null</code> if it has none.
 	 */
-	protected ObjectMap<QualifiedName, Object> sessionProperties;
-
-	/**
-	 * The table of sync information.
-	 * <p>
-	 * This field is declared as the implementing class rather than the
-	 * interface so we ensure that we get it right since we are making certain
-	 * assumptions about the object type w.r.t. casting.
-	 */
-	protected ObjectMap<QualifiedName, Object> syncInfo;
+	private volatile Extras extras;
 
 	/**
 	 * Default constructor (for easier debugging)
@@ -90,6 +117,21 @@ public class ResourceInfo implements IElementTreeData, ICoreConstants, IStringPo
 		super();
 	}
 
+	/**
+	 * Returns the extra state of this info, creating it if there is none yet.
+	 */
+	private Extras extras() {
+		Extras result = extras;
+		if (result == null) {
+			synchronized (this) {
+				result = extras;
+				if (result == null)
+					extras = result = new Extras();
+			}
+		}
+		return result;
+	}
+
 	/**
 	 * Returns the integer value stored in the indicated part of this info's flags.
 	 */
@@ -128,13 +170,20 @@ public class ResourceInfo implements IElementTreeData, ICoreConstants, IStringPo
 	}
 
 	public synchronized void clearSessionProperties() {
-		sessionProperties = null;
+		Extras temp = extras;
+		if (temp != null)
+			temp.sessionProperties = null;
 	}
 
 	@Override
 	public Object clone() {
 		try {
-			return super.clone();
+			ResourceInfo result = (ResourceInfo) super.clone();
+			// the clone must not see changes made to this info, and vice versa
+			Extras temp = extras;
+			if (temp != null)
+				result.extras = temp.clone();
+			return result;
 		} catch (CloneNotSupportedException e) {
 			return null; // never gets here.
 		}
@@ -149,7 +198,8 @@ public class ResourceInfo implements IElementTreeData, ICoreConstants, IStringPo
 	}
 
 	public FileStoreRoot getFileStoreRoot() {
-		return fileStoreRoot;
+		Extras temp = extras;
+		return temp == null ? null : temp.fileStoreRoot;
 	}
 
 	/**
@@ -171,7 +221,8 @@ public class ResourceInfo implements IElementTreeData, ICoreConstants, IStringPo
 	 * The count is incremented whenever markers on the resource change.
 	 */
 	public int getMarkerGenerationCount() {
-		return markerAndSyncStamp >> 16;
+		Extras temp = extras;
+		return temp == null ? 0 : temp.markerAndSyncStamp >> 16;
 	}
 
 	/**
@@ -187,6 +238,8 @@ public class ResourceInfo implements IElementTreeData, ICoreConstants, IStringPo
 	 * <code>null</code> is returned if there are none.
 	 */
 	public MarkerSet getMarkers(boolean makeCopy) {
+		Extras temp = extras;
+		MarkerSet markers = temp == null ? null : temp.markers;
 		if (markers == null)
 			return null;
 		return makeCopy ? (MarkerSet) markers.clone() : markers;
@@ -214,11 +267,12 @@ public class ResourceInfo implements IElementTreeData, ICoreConstants, IStringPo
 	@SuppressWarnings({"unchecked"})
 	public Map<QualifiedName, Object> getSessionProperties() {
 		// thread safety: (Concurrency001)
-		ObjectMap<QualifiedName, Object> temp = sessionProperties;
+		Extras e = extras;
+		ObjectMap<QualifiedName, Object> temp = e == null ? null : e.sessionProperties;
 		if (temp == null)
 			temp = new ObjectMap<>(5);
 		else
-			temp = (ObjectMap<QualifiedName, Object>) sessionProperties.clone();
+			temp = (ObjectMap<QualifiedName, Object>) temp.clone();
 		return temp;
 	}
 
@@ -227,7 +281,8 @@ public class ResourceInfo implements IElementTreeData, ICoreConstants, IStringPo
 	 */
 	public Object getSessionProperty(QualifiedName name) {
 		// thread safety: (Concurrency001)
-		Map<QualifiedName, Object> temp = sessionProperties;
+		Extras e = extras;
+		Map<QualifiedName, Object> temp = e == null ? null : e.sessionProperties;
 		if (temp == null)
 			return null;
 		return temp.get(name);
@@ -240,6 +295,7 @@ public class ResourceInfo implements IElementTreeData, ICoreConstants, IStringPo
 	 */
 	@SuppressWarnings({"unchecked"})
 	public synchronized ObjectMap<QualifiedName, Object> getSyncInfo(boolean makeCopy) {
+		ObjectMap<QualifiedName, Object> syncInfo = extras == null ? null : extras.syncInfo;
 		if (syncInfo == null)
 			return null;
 		return makeCopy ? (ObjectMap<QualifiedName, Object>) syncInfo.clone() : syncInfo;
@@ -248,6 +304,7 @@ public class ResourceInfo implements IElementTreeData, ICoreConstants, IStringPo
 	public synchronized byte[] getSyncInfo(QualifiedName id, boolean makeCopy) {
 		// thread safety: (Concurrency001)
 		byte[] b;
+		ObjectMap<QualifiedName, Object> syncInfo = extras == null ? null : extras.syncInfo;
 		if (syncInfo == null)
 			return null;
 		b = (byte[]) syncInfo.get(id);
@@ -259,7 +316,8 @@ public class ResourceInfo implements IElementTreeData, ICoreConstants, IStringPo
 	 * The count is incremented whenever sync info on the resource changes.
 	 */
 	public int getSyncInfoGenerationCount() {
-		return markerAndSyncStamp & LOWER;
+		Extras temp = extras;
+		return temp == null ? 0 : temp.markerAndSyncStamp & LOWER;
 	}
 
 	/**
@@ -293,7 +351,8 @@ public class ResourceInfo implements IElementTreeData, ICoreConstants, IStringPo
 	 */
 	public void incrementMarkerGenerationCount() {
 		//increment high order bits
-		markerAndSyncStamp = ((markerAndSyncStamp + LOWER + 1) & UPPER) + (markerAndSyncStamp & LOWER);
+		Extras temp = extras();
+		temp.markerAndSyncStamp = ((temp.markerAndSyncStamp + LOWER + 1) & UPPER) + (temp.markerAndSyncStamp & LOWER);
 	}
 
 	/**
@@ -311,7 +370,8 @@ public class ResourceInfo implements IElementTreeData, ICoreConstants, IStringPo
 	 */
 	public void incrementSyncInfoGenerationCount() {
 		//increment low order bits
-		markerAndSyncStamp = (markerAndSyncStamp & UPPER) + ((markerAndSyncStamp + 1) & LOWER);
+		Extras temp = extras();
+		temp.markerAndSyncStamp = (temp.markerAndSyncStamp & UPPER) + ((temp.markerAndSyncStamp + 1) & LOWER);
 	}
 
 	/**
@@ -353,7 +413,8 @@ public class ResourceInfo implements IElementTreeData, ICoreConstants, IStringPo
 	}
 
 	public void setFileStoreRoot(FileStoreRoot fileStoreRoot) {
-		this.fileStoreRoot = fileStoreRoot;
+		if (fileStoreRoot != null || extras != null)
+			extras().fileStoreRoot = fileStoreRoot;
 	}
 
 	/**
@@ -375,7 +436,8 @@ public class ResourceInfo implements IElementTreeData, ICoreConstants, IStringPo
 	 * <code>null</code> is passed in if there are no markers.
 	 */
 	public void setMarkers(MarkerSet value) {
-		markers = value;
+		if (value != null || extras != null)
+			extras().markers = value;
 	}
 
 	/**
@@ -411,22 +473,24 @@ public class ResourceInfo implements IElementTreeData, ICoreConstants, IStringPo
 	public synchronized void setSessionProperty(QualifiedName name, Object value) {
 		// thread safety: (Concurrency001)
 		if (value == null) {
-			if (sessionProperties == null)
+			Extras e = extras;
+			if (e == null || e.sessionProperties == null)
 				return;
-			ObjectMap<QualifiedName, Object> temp = (ObjectMap<QualifiedName, Object>) sessionProperties.clone();
+			ObjectMap<QualifiedName, Object> temp = (ObjectMap<QualifiedName, Object>) e.sessionProperties.clone();
 			temp.remove(name);
 			if (temp.isEmpty())
-				sessionProperties = null;
+				e.sessionProperties = null;
 			else
-				sessionProperties = temp;
+				e.sessionProperties = temp;
 		} else {
-			ObjectMap<QualifiedName, Object> temp = sessionProperties;
+			Extras e = extras();
+			ObjectMap<QualifiedName, Object> temp = e.sessionProperties;
 			if (temp == null)
 				temp = new ObjectMap<>(5);
 			else
-				temp = (ObjectMap<QualifiedName, Object>) sessionProperties.clone();
+				temp = (ObjectMap<QualifiedName, Object>) temp.clone();
 			temp.put(name, value);
-			sessionProperties = temp;
+			e.sessionProperties = temp;
 		}
 	}
 
@@ -436,22 +500,25 @@ public class ResourceInfo implements IElementTreeData, ICoreConstants, IStringPo
 	 * assumptions about the object type w.r.t. casting.
 	 */
 	protected void setSyncInfo(ObjectMap<QualifiedName, Object> syncInfo) {
-		this.syncInfo = syncInfo;
+		if (syncInfo != null || extras != null)
+			extras().syncInfo = syncInfo;
 	}
 
 	public synchronized void setSyncInfo(QualifiedName id, byte[] value) {
 		if (value == null) {
 			//delete sync info
-			if (syncInfo == null)
+			Extras e = extras;
+			if (e == null || e.syncInfo == null)
 				return;
-			syncInfo.remove(id);
-			if (syncInfo.isEmpty())
-				syncInfo = null;
+			e.syncInfo.remove(id);
+			if (e.syncInfo.isEmpty())
+				e.syncInfo = null;
 		} else {
 			//add sync info
-			if (syncInfo == null)
-				syncInfo = new ObjectMap<>(5);
-			syncInfo.put(id, value.clone());
+			Extras e = extras();
+			if (e.syncInfo == null)
+				e.syncInfo = new ObjectMap<>(5);
+			e.syncInfo.put(id, value.clone());
 		}
 	}
 
@@ -463,22 +530,6 @@ public class ResourceInfo implements IElementTreeData, ICoreConstants, IStringPo
 		setBits(M_TYPE, M_TYPE_START, value);
 	}
 
-	/* (non-Javadoc
-	 * Method declared on IStringPoolParticipant
-	 */
-	@Override
-	public void shareStrings(StringPool set) {
-		ObjectMap<QualifiedName, Object> map = syncInfo;
-		if (map != null)
-			map.shareStrings(set);
-		map = sessionProperties;
-		if (map != null)
-			map.shareStrings(set);
-		MarkerSet markerSet = markers;
-		if (markerSet != null)
-			markerSet.shareStrings(set);
-	}
-
 	public void writeTo(DataOutput output) throws IOException {
 		// The flags for this info are written by the visitor (flattener).
 		// See SaveManager.writeElement().  This allows the reader to look ahead
@@ -492,6 +543,6 @@ public class ResourceInfo implements IElementTreeData, ICoreConstants, IStringPo
 	/** for debugging only **/
 	@Override
 	public String toString() {
-		return "" + fileStoreRoot + " modStamp=" + modStamp; //$NON-NLS-1$ //$NON-NLS-2$
+		return "" + getFileStoreRoot() + " modStamp=" + modStamp; //$NON-NLS-1$ //$NON-NLS-2$
 	}
 }
@@ -31,9 +31,11 @@ import java.util.*;
 import java.util.Map.Entry;
 import java.util.concurrent.*;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.zip.*;
 import org.eclipse.core.filesystem.EFS;
 import org.eclipse.core.filesystem.IFileStore;
+import org.eclipse.core.internal.dtree.*;
 import org.eclipse.core.internal.events.*;
 import org.eclipse.core.internal.localstore.*;
 import org.eclipse.core.internal.utils.*;
@@ -44,7 +46,7 @@ import org.eclipse.core.runtime.jobs.ISchedulingRule;
 import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.osgi.util.NLS;
 
-public class SaveManager implements IElementInfoFlattener, IManager, IStringPoolParticipant {
+public class SaveManager implements IElementInfoFlattener, IManager {
 	class MasterTable extends Properties {
 		private static final long serialVersionUID = 1L;
 
@@ -76,6 +78,19 @@ public class SaveManager implements IElementInfoFlattener, IManager, IStringPool
 	 */
 	private static final long MIN_SNAPSHOT_DELAY = 1000 * 30L; //30 seconds
 
+	/**
+	 * The size, in bytes, of the marker and sync info snapshots of a project
+	 * above which they are compacted into the saved markers and sync info
+	 */
+	private static final long SNAPSHOT_COMPACTION_THRESHOLD = 1024 * 1024L; //1MB
+
+	/**
+	 * Tells resource infos apart by identity. Marker and sync info changes always
+	 * replace the info in the tree, so comparing by identity finds all resources
+	 * that may need to be snapped.
+	 */
+	private static final IComparator SNAP_COMPARATOR = (o1, o2) -> o1 == o2 ? 0 : 1;
+
 	/**
 	 * The number of empty operations that are equivalent to a single non-
 	 * trivial operation.
@@ -88,6 +103,18 @@ public class SaveManager implements IElementInfoFlattener, IManager, IStringPool
 	protected static final String SAVE_NUMBER_PREFIX = "saveNumber_"; //$NON-NLS-1$
 	protected static final int SAVING = 2;
 	protected ElementTree lastSnap;
+	/**
+	 * While a snapshot is written, the comparison between the tree of the previous
+	 * snapshot and the tree of this one, so markers and sync info only need to be
+	 * snapped for the resources in it. <code>null</code> if all resources must be
+	 * visited.
+	 */
+	private DeltaDataTree snapChanges;
+	/**
+	 * Whether the previous snapshot wrote out the markers and sync info of all
+	 * resources that had changed. If not, the next snapshot visits all resources.
+	 */
+	private boolean markersSnapped = false;
 	protected final MasterTable masterTable;
 
 	/**
@@ -699,6 +726,8 @@ public class SaveManager implements IElementInfoFlattener, IManager, IStringPool
 		if (Policy.DEBUG_RESTORE)
 			Policy.debug("Restore workspace: starting..."); //$NON-NLS-1$
 		long start = System.currentTimeMillis();
+		if (ResourceStats.TRACE_RESTORE)
+			ResourceStats.startRestore(workspace);
 		monitor = Policy.monitorFor(monitor);
 		try {
 			monitor.beginTask("", 50); //$NON-NLS-1$
@@ -738,6 +767,8 @@ public class SaveManager implements IElementInfoFlattener, IManager, IStringPool
 			}
 		} finally {
 			monitor.done();
+			if (ResourceStats.TRACE_RESTORE)
+				ResourceStats.endRestore();
 		}
 		if (Policy.DEBUG_RESTORE)
 			Policy.debug("Restore workspace: " + (System.currentTimeMillis() - start) + "ms"); //$NON-NLS-1$ //$NON-NLS-2$
@@ -868,10 +899,12 @@ public class SaveManager implements IElementInfoFlattener, IManager, IStringPool
 			Policy.debug("Restore workspace metainfo: starting..."); //$NON-NLS-1$
 		long start = System.currentTimeMillis();
 		IProject[] roots = workspace.getRoot().getProjects(IContainer.INCLUDE_HIDDEN);
-		for (IProject root : roots) {
+		ProjectDescription[] descriptions = readDescriptions(roots);
+		for (int i = 0; i < roots.length; i++) {
+			IProject root = roots[i];
 			//fatal to throw exceptions during startup
 			try {
-				restoreMetaInfo((Project) root, monitor);
+				restoreMetaInfo((Project) root, descriptions[i], monitor);
 			} catch (CoreException e) {
 				String message = NLS.bind(Messages.resources_readMeta, root.getName());
 				problems.merge(new ResourceStatus(IResourceStatus.FAILED_READ_METADATA, root.getFullPath(), message, e));
@@ -886,12 +919,47 @@ public class SaveManager implements IElementInfoFlattener, IManager, IStringPool
 	 * project description could not be restored.
 	 */
 	protected void restoreMetaInfo(Project project, IProgressMonitor monitor) throws CoreException {
+		restoreMetaInfo(project, null, monitor);
+	}
+
+	/**
+	 * Reads the descriptions of the given open projects concurrently. The workspace
+	 * tree is not changed; the descriptions are applied one project at a time by
+	 * {@link #restoreMetaInfo(Project, ProjectDescription, IProgressMonitor)}.
+	 *
+	 * @return the descriptions in the order of the given projects, with
+	 * <code>null</code> for closed projects and descriptions that could not be read
+	 */
+	private ProjectDescription[] readDescriptions(IProject[] projects) {
+		ProjectDescription[] descriptions = new ProjectDescription[projects.length];
+		if (projects.length < 2)
+			return descriptions;
+		FileSystemResourceManager fileSystemManager = workspace.getFileSystemManager();
+		ForkJoinPool forkJoinPool = newForkJoinPool();
+		try {
+			forkJoinPool.submit(() -> IntStream.range(0, projects.length).parallel().forEach(i -> {
+				if (projects[i].isOpen())
+					descriptions[i] = fileSystemManager.readDescription(projects[i]);
+			})).get();
+		} catch (InterruptedException | ExecutionException e) {
+			// the descriptions that are missing are read again one by one
+		} finally {
+			forkJoinPool.shutdown();
+		}
+		return descriptions;
+	}
+
+	/**
+	 * Restores the meta info of the given project, using the given description
+	 * if it has already been read from disk.
+	 */
+	private void restoreMetaInfo(Project project, ProjectDescription parsed, IProgressMonitor monitor) throws CoreException {
 		long start = System.currentTimeMillis();
 		ProjectDescription description = null;
 		CoreException failure = null;
 		try {
 			if (project.isOpen())
-				description = workspace.getFileSystemManager().read(project, true);
+				description = workspace.getFileSystemManager().read(project, true, parsed);
 			else
 				//for closed projects, just try to read the legacy .prj file,
 				//because the project location is stored there.
@@ -1201,11 +1269,20 @@ public class SaveManager implements IElementInfoFlattener, IManager, IStringPool
 							saveMetaInfo(warnings, Policy.subMonitorFor(monitor, 1));
 							break;
 						case ISaveContext.SNAPSHOT :
+							ElementTree previousSnap = lastSnap;
 							snapTree(workspace.getElementTree(), Policy.subMonitorFor(monitor, 1));
 							// snapshot the markers and sync info for the workspace
 							persistMarkers = 0l;
 							persistSyncInfo = 0l;
-							visitAndSnap(workspace.getRoot());
+							if (markersSnapped)
+								snapChanges = lastSnap.getDataTree().compareWith(previousSnap.getDataTree(), SNAP_COMPARATOR);
+							markersSnapped = false;
+							try {
+								visitAndSnap(workspace.getRoot());
+								markersSnapped = true;
+							} finally {
+								snapChanges = null;
+							}
 							monitor.worked(1);
 							if (Policy.DEBUG_SAVE) {
 								Policy.debug("Total Snap Markers: " + persistMarkers + "ms"); //$NON-NLS-1$ //$NON-NLS-2$
@@ -1413,11 +1490,6 @@ public class SaveManager implements IElementInfoFlattener, IManager, IStringPool
 		masterTable.setProperty(SAVE_NUMBER_PREFIX + pluginId, Integer.toString(number));
 	}
 
-	@Override
-	public void shareStrings(StringPool pool) {
-		lastSnap.shareStrings(pool);
-	}
-
 	@Override
 	public void shutdown(final IProgressMonitor monitor) {
 		// do a last snapshot if it was scheduled
@@ -1655,6 +1727,20 @@ public class SaveManager implements IElementInfoFlattener, IManager, IStringPool
 		return messageBuffer.toString();
 	}
 
+	/**
+	 * Returns a new pool for processing projects in parallel. The caller must shut it down.
+	 */
+	static ForkJoinPool newForkJoinPool() {
+		// Never use a shared ForkJoinPool.commonPool() as it may be busy with other tasks, which might deadlock.
+		// Also use a custom ForkJoinWorkerThreadFactory, to prevent issues with a
+		// potential SecurityManager, since the threads created by it get no permissions.
+		// See https://github.com/eclipse-platform/eclipse.platform/issues/294
+		return new ForkJoinPool(ForkJoinPool.getCommonPoolParallelism(),
+				pool -> new ForkJoinWorkerThread(pool) {
+					// anonymous subclass to access protected constructor
+				}, null, false);
+	}
+
 	/**
 	 * Visit the given resource (to depth infinite) and write out extra information
 	 * like markers and sync info. To be called during a full save and project save.
@@ -1761,14 +1847,7 @@ public class SaveManager implements IElementInfoFlattener, IManager, IStringPool
 		if (root.getType() == IResource.PROJECT)
 			return;
 		IProject[] projects = ((IWorkspaceRoot) root).getProjects(IContainer.INCLUDE_HIDDEN);
-		// Never use a shared ForkJoinPool.commonPool() as it may be busy with other tasks, which might deadlock.
-		// Also use a custom ForkJoinWorkerThreadFactory, to prevent issues with a
-		// potential SecurityManager, since the threads created by it get no permissions.
-		// See https://github.com/eclipse-platform/eclipse.platform/issues/294
-		ForkJoinPool forkJoinPool = new ForkJoinPool(ForkJoinPool.getCommonPoolParallelism(),
-				pool -> new ForkJoinWorkerThread(pool) {
-					// anonymous subclass to access protected constructor
-				}, null, false);
+		ForkJoinPool forkJoinPool = newForkJoinPool();
 		IStatus[] stats;
 		try {
 			stats = forkJoinPool.submit(() -> Arrays.stream(projects).parallel().map(project -> {
@@ -1792,7 +1871,9 @@ public class SaveManager implements IElementInfoFlattener, IManager, IStringPool
 
 	/**
 	 * Visit the given resource (to depth infinite) and write out extra information
-	 * like markers and sync info. To be called during a snapshot
+	 * like markers and sync info. To be called during a snapshot. Only the resources
+	 * that changed since the previous snapshot are visited, if those are known.
+	 * Snapshots of a project that have grown too large are compacted afterwards.
 	 *
 	 * FIXME: This method is ugly. Fix it up and look at merging with #visitAndSnap
 	 */
@@ -1869,7 +1950,10 @@ public class SaveManager implements IElementInfoFlattener, IManager, IStringPool
 		try {
 			// Call the visitor
 			try {
-				new ElementTreeIterator(workspace.getElementTree(), root.getFullPath()).iterate(visitor);
+				if (snapChanges == null)
+					new ElementTreeIterator(workspace.getElementTree(), root.getFullPath()).iterate(visitor);
+				else if (snapChanges.includes(root.getFullPath()))
+					visitChanges(root.getFullPath(), visitor, root.getType() != IResource.ROOT);
 			} catch (WrappedRuntimeException e) {
 				throw (IOException) e.getTargetException();
 			}
@@ -1893,13 +1977,58 @@ public class SaveManager implements IElementInfoFlattener, IManager, IStringPool
 		}
 
 		// recurse over the projects in the workspace if we were given the workspace root
-		if (root.getType() == IResource.PROJECT)
+		if (root.getType() == IResource.PROJECT) {
+			compactSnapshots((Project) root, markersLocation, syncInfoLocation);
 			return;
+		}
 		IProject[] projects = ((IWorkspaceRoot) root).getProjects(IContainer.INCLUDE_HIDDEN);
 		for (IProject project : projects)
 			visitAndSnap(project);
 	}
 
+	/**
+	 * Visits the resources whose info changed since the previous snapshot, as
+	 * recorded in {@link #snapChanges}, starting at the given path.
+	 */
+	private void visitChanges(final IPath path, IElementContentVisitor visitor, boolean recurse) {
+		NodeComparison comparison = (NodeComparison) snapChanges.getData(path);
+		Object newData = comparison == null ? null : comparison.getNewData();
+		if (newData != null && newData != comparison.getOldData()) {
+			IPathRequestor requestor = new IPathRequestor() {
+				@Override
+				public String requestName() {
+					return path.lastSegment();
+				}
+
+				@Override
+				public IPath requestPath() {
+					return path;
+				}
+			};
+			visitor.visitElement(null, requestor, newData);
+		}
+		if (recurse)
+			for (IPath child : snapChanges.getChildren(path))
+				visitChanges(child, visitor, true);
+	}
+
+	/**
+	 * Snapshots of markers and sync info are appended to until the next save, so
+	 * they keep growing in long sessions and are slow to restore. Once they are
+	 * large, writes the markers and sync info of the project as if it had been
+	 * saved, which makes its snapshots obsolete.
+	 */
+	private void compactSnapshots(Project project, IPath markersLocation, IPath syncInfoLocation) throws CoreException {
+		long size = markersLocation.toFile().length() + syncInfoLocation.toFile().length();
+		if (size < SNAPSHOT_COMPACTION_THRESHOLD)
+			return;
+		long start = System.currentTimeMillis();
+		visitAndSave(project);
+		resetSnapshots(project);
+		if (Policy.DEBUG_SAVE)
+			Policy.debug("Compact snapshots for " + project.getFullPath() + " (" + size + " bytes): " + (System.currentTimeMillis() - start) + "ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+	}
+
 	/**
 	 * Writes out persistent information about all builders for which a last built
 	 * tree is available. File format is:
@@ -20,6 +20,7 @@ import java.util.ArrayList;
 import java.util.List;
 import org.eclipse.core.internal.utils.Messages;
 import org.eclipse.core.internal.utils.ObjectMap;
+import org.eclipse.core.internal.utils.StringPool;
 import org.eclipse.core.resources.IResourceStatus;
 import org.eclipse.core.runtime.*;
 import org.eclipse.osgi.util.NLS;
@@ -73,8 +74,8 @@ public class SyncInfoReader_3 extends SyncInfoReader {
 			byte type = input.readByte();
 			switch (type) {
 				case QNAME :
-					String qualifier = input.readUTF();
-					String local = input.readUTF();
+					String qualifier = StringPool.getShared().add(input.readUTF());
+					String local = StringPool.getShared().add(input.readUTF());
 					name = new QualifiedName(qualifier, local);
 					readPartners.add(name);
 					break;
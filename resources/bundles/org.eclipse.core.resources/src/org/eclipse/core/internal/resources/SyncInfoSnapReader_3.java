@@ -18,6 +18,7 @@ package org.eclipse.core.internal.resources;
 import java.io.DataInputStream;
 import java.io.IOException;
 import org.eclipse.core.internal.utils.ObjectMap;
+import org.eclipse.core.internal.utils.StringPool;
 import org.eclipse.core.runtime.*;
 
 public class SyncInfoSnapReader_3 extends SyncInfoSnapReader {
@@ -31,8 +32,8 @@ public class SyncInfoSnapReader_3 extends SyncInfoSnapReader {
 		ObjectMap<QualifiedName, Object> map = new ObjectMap<>(size);
 		for (int i = 0; i < size; i++) {
 			// read the qualified name
-			String qualifier = input.readUTF();
-			String local = input.readUTF();
+			String qualifier = StringPool.getShared().add(input.readUTF());
+			String local = StringPool.getShared().add(input.readUTF());
 			QualifiedName name = new QualifiedName(qualifier, local);
 			// read the bytes
 			int length = input.readInt();
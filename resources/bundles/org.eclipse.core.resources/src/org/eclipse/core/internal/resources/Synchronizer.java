@@ -24,6 +24,8 @@ import org.eclipse.core.internal.utils.Policy;
 import org.eclipse.core.internal.watson.IPathRequestor;
 import org.eclipse.core.resources.*;
 import org.eclipse.core.runtime.*;
+import org.eclipse.core.runtime.jobs.ISchedulingRule;
+import org.eclipse.core.runtime.jobs.MultiRule;
 import org.eclipse.osgi.util.NLS;
 
 //
@@ -224,44 +226,77 @@ public class Synchronizer implements ISynchronizer {
 		try {
 			workspace.prepareOperation(resource, null);
 			workspace.beginOperation(true);
-			if (!isRegistered(partner)) {
-				String message = NLS.bind(Messages.synchronizer_partnerNotRegistered, partner);
-				throw new ResourceException(new ResourceStatus(IResourceStatus.PARTNER_NOT_REGISTERED, message));
-			}
-			// we do not store sync info on the workspace root
-			if (resource.getType() == IResource.ROOT)
-				return;
-			// if the resource doesn't yet exist then create a phantom so we can set the
-			// sync info on it
-			Resource target = (Resource) resource;
-			ResourceInfo resourceInfo = workspace.getResourceInfo(target.getFullPath(), true, false);
-			int flags = target.getFlags(resourceInfo);
-			if (!target.exists(flags, false)) {
-				if (info == null)
-					return;
-				// ensure it is possible to create this resource
-				target.checkValidPath(target.getFullPath(), target.getType(), false);
-				Container parent = (Container) target.getParent();
-				parent.checkAccessible(parent.getFlags(parent.getResourceInfo(true, false)));
-				workspace.createResource(target, true);
-			}
-			resourceInfo = target.getResourceInfo(true, true);
-			resourceInfo.setSyncInfo(partner, info);
-			resourceInfo.incrementSyncInfoGenerationCount();
-			resourceInfo.set(ICoreConstants.M_SYNCINFO_SNAP_DIRTY);
-			flags = target.getFlags(resourceInfo);
-			if (target.isPhantom(flags) && resourceInfo.getSyncInfo(false) == null) {
-				MultiStatus status = new MultiStatus(ResourcesPlugin.PI_RESOURCES, IResourceStatus.INTERNAL_ERROR,
-						Messages.resources_deleteProblem, null);
-				((Resource) resource).deleteResource(false, status);
-				if (!status.isOK())
-					throw new ResourceException(status);
-			}
+			checkRegistered(partner);
+			basicSetSyncInfo(partner, resource, info);
 		} finally {
 			workspace.endOperation(resource, false);
 		}
 	}
 
+	/**
+	 * @see ISynchronizer#setSyncInfo(QualifiedName, Map)
+	 */
+	@Override
+	public void setSyncInfo(QualifiedName partner, Map<? extends IResource, byte[]> infos) throws CoreException {
+		Assert.isLegal(partner != null);
+		Assert.isLegal(infos != null);
+		// combining the rules one by one is quadratic in the number of resources
+		ISchedulingRule rule = infos.isEmpty() ? null : new MultiRule(infos.keySet().toArray(new ISchedulingRule[infos.size()]));
+		try {
+			workspace.prepareOperation(rule, null);
+			workspace.beginOperation(true);
+			checkRegistered(partner);
+			for (Map.Entry<? extends IResource, byte[]> entry : infos.entrySet()) {
+				Assert.isLegal(entry.getKey() != null);
+				basicSetSyncInfo(partner, entry.getKey(), entry.getValue());
+			}
+		} finally {
+			workspace.endOperation(rule, false);
+		}
+	}
+
+	private void checkRegistered(QualifiedName partner) throws ResourceException {
+		if (!isRegistered(partner)) {
+			String message = NLS.bind(Messages.synchronizer_partnerNotRegistered, partner);
+			throw new ResourceException(new ResourceStatus(IResourceStatus.PARTNER_NOT_REGISTERED, message));
+		}
+	}
+
+	/**
+	 * Sets the sync info of the given resource. Must be called within an operation.
+	 */
+	private void basicSetSyncInfo(QualifiedName partner, IResource resource, byte[] info) throws CoreException {
+		// we do not store sync info on the workspace root
+		if (resource.getType() == IResource.ROOT)
+			return;
+		// if the resource doesn't yet exist then create a phantom so we can set the
+		// sync info on it
+		Resource target = (Resource) resource;
+		ResourceInfo resourceInfo = workspace.getResourceInfo(target.getFullPath(), true, false);
+		int flags = target.getFlags(resourceInfo);
+		if (!target.exists(flags, false)) {
+			if (info == null)
+				return;
+			// ensure it is possible to create this resource
+			target.checkValidPath(target.getFullPath(), target.getType(), false);
+			Container parent = (Container) target.getParent();
+			parent.checkAccessible(parent.getFlags(parent.getResourceInfo(true, false)));
+			workspace.createResource(target, true);
+		}
+		resourceInfo = target.getResourceInfo(true, true);
+		resourceInfo.setSyncInfo(partner, info);
+		resourceInfo.incrementSyncInfoGenerationCount();
+		resourceInfo.set(ICoreConstants.M_SYNCINFO_SNAP_DIRTY);
+		flags = target.getFlags(resourceInfo);
+		if (target.isPhantom(flags) && resourceInfo.getSyncInfo(false) == null) {
+			MultiStatus status = new MultiStatus(ResourcesPlugin.PI_RESOURCES, IResourceStatus.INTERNAL_ERROR,
+					Messages.resources_deleteProblem, null);
+			target.deleteResource(false, status);
+			if (!status.isOK())
+				throw new ResourceException(status);
+		}
+	}
+
 	public void snapSyncInfo(ResourceInfo info, IPathRequestor requestor, DataOutputStream output) throws IOException {
 		writer.snapSyncInfo(info, requestor, output);
 	}
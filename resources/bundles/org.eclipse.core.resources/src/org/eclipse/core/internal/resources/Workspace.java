@@ -26,9 +26,10 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.text.MessageFormat;
 import java.util.*;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Predicate;
+import java.util.stream.IntStream;
 import org.eclipse.core.filesystem.EFS;
 import org.eclipse.core.filesystem.IFileStore;
 import org.eclipse.core.filesystem.URIUtil;
@@ -150,11 +151,6 @@ public class Workspace extends PlatformObject implements IWorkspace, ICoreConsta
 	 */
 	protected boolean shouldValidate = true;
 
-	/**
-	 * Job that performs periodic string pool canonicalization.
-	 */
-	private StringPoolJob stringPoolJob;
-
 	/**
 	 * The synchronizer
 	 */
@@ -335,6 +331,17 @@ public class Workspace extends PlatformObject implements IWorkspace, ICoreConsta
 		notificationManager.addListener(listener, eventMask);
 	}
 
+	@Override
+	public void addResourceChangeListener(IResourceChangeListener listener, int eventMask, IPath[] scope) {
+		Assert.isNotNull(scope);
+		IPath[] paths = new IPath[scope.length];
+		for (int i = 0; i < scope.length; i++) {
+			Assert.isLegal(scope[i] != null && scope[i].isAbsolute(), "Scope paths must be absolute"); //$NON-NLS-1$
+			paths[i] = scope[i].setDevice(null);
+		}
+		notificationManager.addListener(listener, eventMask, paths);
+	}
+
 	/**
 	 * @deprecated Use {@link #addSaveParticipant(String, ISaveParticipant)} instead
 	 */
@@ -624,7 +631,8 @@ public class Workspace extends PlatformObject implements IWorkspace, ICoreConsta
 		SubMonitor newChild = subMonitor.newChild(1);
 		try {
 			try {
-				stringPoolJob.cancel();
+				if (Policy.DEBUG_STRINGS)
+					Policy.debug("String sharing saved " + StringPool.getShared().getSavedStringCount() + " bytes"); //$NON-NLS-1$ //$NON-NLS-2$
 				// stop accepting refresh tasks & doing refresh
 				refreshManager.shutdown(null);
 				//shutdown save manager now so a last snapshot can be taken before we close
@@ -1070,6 +1078,72 @@ public class Workspace extends PlatformObject implements IWorkspace, ICoreConsta
 		return status.isOK() ? Status.OK_STATUS : (IStatus) status;
 	}
 
+	@Override
+	public IProject[] createProjects(IProjectDescription[] descriptions, IProgressMonitor monitor) throws CoreException {
+		Assert.isLegal(descriptions != null);
+		// to avoid concurrent changes to this array
+		descriptions = descriptions.clone();
+		IProject[] projects = new IProject[descriptions.length];
+		SubMonitor subMonitor = SubMonitor.convert(monitor, Messages.resources_create, descriptions.length);
+		try {
+			prepareOperation(getRoot(), subMonitor);
+			// validate everything first so that a bad description does not leave a partial import
+			MultiStatus status = new MultiStatus(ResourcesPlugin.PI_RESOURCES, IResourceStatus.INTERNAL_ERROR, Messages.resources_createProjectsProblem, null);
+			Set<String> names = new HashSet<>();
+			// explicit locations of the valid descriptions, to detect overlaps within the batch
+			Map<IProject, URI> locations = new LinkedHashMap<>();
+			for (int i = 0; i < descriptions.length; i++) {
+				IProjectDescription description = descriptions[i];
+				Assert.isLegal(description != null);
+				String name = description.getName();
+				if (name == null) {
+					status.add(new ResourceStatus(IResourceStatus.INVALID_VALUE, null, Messages.projRead_missingProjectName));
+					continue;
+				}
+				IStatus result = validateName(name, IResource.PROJECT);
+				if (!result.isOK()) {
+					status.add(result);
+					continue;
+				}
+				projects[i] = getRoot().getProject(name);
+				if (!names.add(name)) {
+					status.add(new ResourceStatus(IResourceStatus.INVALID_VALUE, projects[i].getFullPath(), NLS.bind(Messages.resources_duplicateProjectName, name)));
+				} else if (projects[i].exists()) {
+					status.add(new ResourceStatus(IResourceStatus.RESOURCE_EXISTS, projects[i].getFullPath(), NLS.bind(Messages.resources_mustNotExist, projects[i].getFullPath())));
+				} else {
+					URI location = description.getLocationURI();
+					result = validateProjectLocationURI(projects[i], location);
+					if (!result.isOK()) {
+						status.add(result);
+					} else if (location != null) {
+						// a project cannot have the same location as another project of the batch
+						location = projects[i].getPathVariableManager().resolveURI(location);
+						for (Map.Entry<IProject, URI> entry : locations.entrySet()) {
+							if (URIUtil.equals(entry.getValue(), location)) {
+								String message = NLS.bind(Messages.resources_overlapProject, location, entry.getKey().getName());
+								status.add(new ResourceStatus(IResourceStatus.INVALID_VALUE, projects[i].getFullPath(), message));
+								break;
+							}
+						}
+						locations.put(projects[i], location);
+					}
+				}
+			}
+			if (!status.isOK())
+				throw new ResourceException(status);
+			beginOperation(true);
+			for (int i = 0; i < descriptions.length; i++)
+				projects[i].create(descriptions[i], subMonitor.split(1));
+		} catch (OperationCanceledException e) {
+			getWorkManager().operationCanceled();
+			throw e;
+		} finally {
+			subMonitor.done();
+			endOperation(getRoot(), true);
+		}
+		return projects;
+	}
+
 	protected void copyTree(IResource source, IPath destination, int depth, int updateFlags, boolean keepSyncInfo) throws CoreException {
 		copyTree(source, destination, depth, updateFlags, keepSyncInfo, false, source.getType() == IResource.PROJECT);
 	}
@@ -2000,6 +2074,38 @@ public class Workspace extends PlatformObject implements IWorkspace, ICoreConsta
 		return result;
 	}
 
+	@Override
+	public IProjectDescription[] loadProjectDescriptions(IPath[] paths) throws CoreException {
+		Assert.isLegal(paths != null);
+		IProjectDescription[] descriptions = new IProjectDescription[paths.length];
+		IStatus[] problems = new IStatus[paths.length];
+		ForkJoinPool forkJoinPool = SaveManager.newForkJoinPool();
+		try {
+			forkJoinPool.submit(() -> IntStream.range(0, paths.length).parallel().forEach(i -> {
+				try {
+					descriptions[i] = loadProjectDescription(paths[i]);
+				} catch (CoreException e) {
+					problems[i] = e.getStatus();
+				}
+			})).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new OperationCanceledException();
+		} catch (ExecutionException e) {
+			throw new ResourceException(IResourceStatus.FAILED_READ_METADATA, null, Messages.resources_errorReadProjects, e.getCause());
+		} finally {
+			forkJoinPool.shutdown();
+		}
+		MultiStatus status = new MultiStatus(ResourcesPlugin.PI_RESOURCES, IResourceStatus.FAILED_READ_METADATA, Messages.resources_errorReadProjects, null);
+		for (IStatus problem : problems) {
+			if (problem != null)
+				status.add(problem);
+		}
+		if (!status.isOK())
+			throw new ResourceException(status);
+		return descriptions;
+	}
+
 	@Override
 	public IProjectDescription loadProjectDescription(IPath path) throws CoreException {
 		IProjectDescription result = null;
@@ -2261,9 +2367,6 @@ public class Workspace extends PlatformObject implements IWorkspace, ICoreConsta
 				return new ResourceStatus(IResourceStatus.INTERNAL_ERROR, Path.ROOT, Messages.resources_errorMultiRefresh, e);
 			}
 		}
-		//finally register a string pool participant
-		stringPoolJob = new StringPoolJob();
-		stringPoolJob.addStringPoolParticipant(saveManager, getRoot());
 		return Status.OK_STATUS;
 	}
 
@@ -2450,6 +2553,16 @@ public class Workspace extends PlatformObject implements IWorkspace, ICoreConsta
 		return crashed;
 	}
 
+	@Override
+	public void setPersistentProperties(Map<? extends IResource, Map<QualifiedName, String>> properties) throws CoreException {
+		Assert.isNotNull(properties);
+		for (Map.Entry<? extends IResource, Map<QualifiedName, String>> entry : properties.entrySet()) {
+			Assert.isNotNull(entry.getValue());
+			((Resource) entry.getKey()).checkAccessibleAndLocal(IResource.DEPTH_ZERO);
+		}
+		getPropertyManager().setProperties(properties);
+	}
+
 	@Override
 	public void setDescription(IWorkspaceDescription value) {
 		// if both the old and new description's build orders are null, leave the
@@ -0,0 +1,581 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.resources.refresh.linux;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.core.internal.utils.Messages;
+import org.eclipse.core.internal.utils.Policy;
+import org.eclipse.core.resources.*;
+import org.eclipse.core.resources.refresh.IRefreshMonitor;
+import org.eclipse.core.resources.refresh.IRefreshResult;
+import org.eclipse.core.runtime.*;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.osgi.util.NLS;
+import org.osgi.framework.Bundle;
+
+/**
+ * A monitor that works on Linux platforms. It is built on the JDK
+ * {@link WatchService}, which is backed by inotify on Linux. Since inotify
+ * watches are not recursive, every directory below a monitored root is
+ * registered individually, and directories created later on are registered
+ * as their creation is reported.
+ * <p>
+ * Events are coalesced over short bursts and reported as the narrowest
+ * resources that changed. Subtrees that cannot be watched natively (typically
+ * because the inotify watch limit has been reached) are polled by this
+ * monitor instead, so that only the affected part of a project degrades.
+ * </p>
+ */
+class LinuxMonitor extends Job implements IRefreshMonitor {
+	/**
+	 * The delay between invocations of the monitor job.
+	 */
+	private static final long RESCHEDULE_DELAY = 500;
+	/**
+	 * The time to wait for the first event of a burst.
+	 */
+	private static final long WAIT_TIMEOUT = 1000;
+	/**
+	 * The quiet period that ends a burst of events.
+	 */
+	private static final long COALESCE_DELAY = 100;
+	/**
+	 * The maximum duration of a burst, so that a continuous stream of events
+	 * does not delay the refresh forever.
+	 */
+	private static final long MAX_COALESCE_DURATION = 2000;
+	/**
+	 * The number of changed members of one container above which the container
+	 * itself is refreshed rather than each member.
+	 */
+	private static final int MAX_CHANGES_PER_CONTAINER = 64;
+	/**
+	 * The minimum delay between two polls of the subtrees that are not watched natively.
+	 */
+	private static final long POLL_DELAY = 10000;
+	private static final String DEBUG_PREFIX = "LinuxRefreshMonitor: "; //$NON-NLS-1$
+
+	/**
+	 * The changes collected during one burst of events, grouped by
+	 * the container they were reported for.
+	 */
+	private static class ChangeSet {
+		/**
+		 * Changed members by parent container
+		 */
+		private final Map<IContainer, Set<IResource>> members = new LinkedHashMap<>();
+		/**
+		 * Containers whose whole subtree must be refreshed
+		 */
+		private final Set<IContainer> subtrees = new LinkedHashSet<>();
+
+		void add(IContainer parent, IResource member) {
+			members.computeIfAbsent(parent, p -> new LinkedHashSet<>()).add(member);
+		}
+
+		void addSubtree(IContainer container) {
+			subtrees.add(container);
+		}
+
+		/**
+		 * Returns the narrowest set of resources covering all changes, mapped
+		 * to the depth that is needed to decide whether they are out of sync.
+		 * A depth of <code>null</code> means the resource is known to be out of sync.
+		 */
+		Map<IResource, Integer> getResourcesToRefresh() {
+			Map<IResource, Integer> result = new HashMap<>();
+			for (IContainer container : subtrees)
+				result.put(container, null);
+			for (Map.Entry<IContainer, Set<IResource>> entry : members.entrySet()) {
+				IContainer parent = entry.getKey();
+				if (result.containsKey(parent))
+					continue;
+				Set<IResource> changed = entry.getValue();
+				if (changed.size() > MAX_CHANGES_PER_CONTAINER) {
+					result.put(parent, IResource.DEPTH_ONE);
+				} else {
+					for (IResource member : changed)
+						result.putIfAbsent(member, IResource.DEPTH_ZERO);
+				}
+			}
+			//drop everything that is covered by a subtree refresh
+			for (Iterator<IResource> it = result.keySet().iterator(); it.hasNext();) {
+				IResource resource = it.next();
+				for (IResource parent = resource.getParent(); parent != null; parent = parent.getParent()) {
+					if (result.containsKey(parent) && result.get(parent) == null) {
+						it.remove();
+						break;
+					}
+				}
+			}
+			return result;
+		}
+
+		boolean isEmpty() {
+			return members.isEmpty() && subtrees.isEmpty();
+		}
+	}
+
+	/**
+	 * A watched directory. The path of the directory is kept here rather than
+	 * taken from {@link WatchKey#watchable()}, which keeps the path the key was
+	 * first registered with even after the directory has been renamed.
+	 */
+	private static final class Watch {
+		final WatchKey key;
+		final IContainer container;
+		final Path directory;
+
+		Watch(WatchKey key, IContainer container, Path directory) {
+			this.key = key;
+			this.container = container;
+			this.directory = directory;
+		}
+	}
+
+	/**
+	 * Any errors that have occurred. This field is guarded by <code>this</code>.
+	 */
+	protected MultiStatus errors;
+	protected final IRefreshResult refreshResult;
+	private final WatchService watchService;
+	/**
+	 * The monitored roots. This field is guarded by <code>this</code>.
+	 */
+	private final Set<IResource> roots = new HashSet<>();
+	/**
+	 * The watched directories by their key. This field is guarded by <code>this</code>.
+	 */
+	private final Map<WatchKey, Watch> watches = new HashMap<>();
+	/**
+	 * The watched directories by their current path. This field is guarded by <code>this</code>.
+	 */
+	private final Map<Path, Watch> watchedDirectories = new HashMap<>();
+	/**
+	 * The subtrees that could not be watched natively and are polled instead.
+	 * This field is guarded by <code>this</code>.
+	 */
+	private final Set<IContainer> polledContainers = new LinkedHashSet<>();
+	/**
+	 * Whether the registration of a watch has failed because of a resource limit.
+	 * Cleared whenever watches are released. This field is guarded by <code>this</code>.
+	 */
+	private boolean watchLimitReached;
+	/**
+	 * Whether the watch service has been closed because nothing is monitored
+	 * anymore. This field is guarded by <code>this</code>.
+	 */
+	private boolean closed;
+	/**
+	 * The time the polled subtrees were last checked.
+	 */
+	private long lastPollTime;
+
+	/**
+	 * Creates a new monitor, or returns <code>null</code> if no watch service
+	 * can be created (for example because the inotify instance limit has been
+	 * reached).
+	 *
+	 * @param result A result that will receive refresh callbacks and error notifications
+	 */
+	static LinuxMonitor create(IRefreshResult result) {
+		try {
+			return new LinuxMonitor(result, FileSystems.getDefault().newWatchService());
+		} catch (IOException | UnsupportedOperationException e) {
+			Policy.log(IStatus.WARNING, Messages.LM_errCreateService, e);
+			return null;
+		}
+	}
+
+	private LinuxMonitor(IRefreshResult result, WatchService watchService) {
+		super(Messages.LM_jobName);
+		this.refreshResult = result;
+		this.watchService = watchService;
+		setPriority(Job.DECORATE);
+		setSystem(true);
+	}
+
+	/**
+	 * Logs an exception
+	 */
+	protected synchronized void addException(String message, Throwable exception) {
+		if (errors == null) {
+			String msg = Messages.LM_errors;
+			errors = new MultiStatus(ResourcesPlugin.PI_RESOURCES, 1, msg, null);
+		}
+		errors.add(new Status(IStatus.ERROR, ResourcesPlugin.PI_RESOURCES, 1, message, exception));
+	}
+
+	/**
+	 * Adds a resource to be monitored by this monitor. Returns <code>false</code>
+	 * if not even the root directory of the resource can be watched.
+	 */
+	public boolean monitor(IResource resource, IProgressMonitor progressMonitor) {
+		IPath location = resource.getLocation();
+		if (location == null) {
+			// cannot monitor remotely managed containers
+			return false;
+		}
+		synchronized (this) {
+			if (closed)
+				return false;
+			if (!registerTree((IContainer) resource, location.toFile().toPath(), progressMonitor)) {
+				//ignore errors if we can't even watch the root
+				//it will fall back to polling anyway
+				errors = null;
+				return false;
+			}
+			roots.add(resource);
+		}
+		//make sure the job is running
+		schedule(RESCHEDULE_DELAY);
+		if (Policy.DEBUG_AUTO_REFRESH)
+			Policy.debug(DEBUG_PREFIX + " added monitor for: " + resource); //$NON-NLS-1$
+		return true;
+	}
+
+	/**
+	 * Registers the given directory and all directories below it. Directories
+	 * that cannot be watched are polled instead, together with their subtree.
+	 * Returns <code>false</code> if the given directory itself cannot be watched.
+	 */
+	private synchronized boolean registerTree(final IContainer container, final Path start, final IProgressMonitor progressMonitor) {
+		final boolean[] rootWatched = new boolean[1];
+		try {
+			Files.walkFileTree(start, new SimpleFileVisitor<Path>() {
+				@Override
+				public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+					if (progressMonitor != null && progressMonitor.isCanceled())
+						return FileVisitResult.TERMINATE;
+					boolean isRoot = dir.equals(start);
+					IContainer target = isRoot ? container : container.getFolder(org.eclipse.core.runtime.Path.fromOSString(start.relativize(dir).toString()));
+					if (register(target, dir)) {
+						rootWatched[0] |= isRoot;
+						return FileVisitResult.CONTINUE;
+					}
+					if (isRoot)
+						return FileVisitResult.TERMINATE;
+					//the subtree can't be watched, poll it instead
+					if (Files.isDirectory(dir))
+						polledContainers.add(target);
+					return FileVisitResult.SKIP_SUBTREE;
+				}
+
+				@Override
+				public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+					return FileVisitResult.CONTINUE;
+				}
+
+				@Override
+				public FileVisitResult visitFileFailed(Path file, IOException exc) {
+					return FileVisitResult.CONTINUE;
+				}
+			});
+		} catch (IOException e) {
+			addException(NLS.bind(Messages.LM_errWatch, start), e);
+		}
+		return rootWatched[0];
+	}
+
+	/**
+	 * Registers a single directory with the watch service.
+	 */
+	private boolean register(IContainer container, Path directory) {
+		if (watchLimitReached)
+			return false;
+		try {
+			WatchKey key = directory.register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
+			Watch watch = new Watch(key, container, directory);
+			//the key of a directory that has been moved is returned again for its new path
+			Watch previous = watches.put(key, watch);
+			if (previous != null)
+				watchedDirectories.remove(previous.directory, previous);
+			watchedDirectories.put(directory, watch);
+			return true;
+		} catch (NoSuchFileException | NotDirectoryException e) {
+			//the directory disappeared in the meantime
+			return false;
+		} catch (IOException e) {
+			//most likely the inotify watch limit (fs.inotify.max_user_watches) has been reached
+			watchLimitReached = true;
+			addException(NLS.bind(Messages.LM_errWatch, directory), e);
+			if (Policy.DEBUG_AUTO_REFRESH)
+				Policy.debug(DEBUG_PREFIX + "falling back to polling below: " + container); //$NON-NLS-1$
+			return false;
+		}
+	}
+
+	/**
+	 * Stops watching the given directory and all watched directories below it.
+	 * The watches of a directory that has been moved or deleted must be
+	 * released, so that its events are not reported for its old path.
+	 */
+	private synchronized void unregisterTree(Path directory) {
+		//cheap check first, most deleted entries are files
+		if (!watchedDirectories.containsKey(directory))
+			return;
+		for (Iterator<Watch> it = watches.values().iterator(); it.hasNext();) {
+			Watch watch = it.next();
+			if (watch.directory.startsWith(directory)) {
+				it.remove();
+				watchedDirectories.remove(watch.directory, watch);
+				watch.key.cancel();
+			}
+		}
+		//watches have been released, so registering new ones may succeed again
+		watchLimitReached = false;
+	}
+
+	/**
+	 * Collects the changes reported for the given key.
+	 */
+	private void processKey(WatchKey key, ChangeSet changes) {
+		List<WatchEvent<?>> events = key.pollEvents();
+		for (WatchEvent<?> event : events) {
+			//look the watch up for every event, an earlier one may have moved the directory
+			Watch watch;
+			synchronized (this) {
+				watch = watches.get(key);
+			}
+			if (watch == null)
+				break;
+			if (event.kind() == OVERFLOW) {
+				//events were lost, the whole subtree must be checked
+				changes.addSubtree(watch.container);
+				continue;
+			}
+			processEvent(watch.container, watch.directory, (Path) event.context(), event.kind(), changes);
+		}
+		if (!key.reset()) {
+			//the directory is no longer accessible
+			synchronized (this) {
+				Watch watch = watches.remove(key);
+				if (watch != null)
+					watchedDirectories.remove(watch.directory, watch);
+				//its watch has been released, so registering new ones may succeed again
+				watchLimitReached = false;
+			}
+		}
+	}
+
+	private void processEvent(IContainer container, Path directory, Path name, WatchEvent.Kind<?> kind, ChangeSet changes) {
+		IPath memberPath = org.eclipse.core.runtime.Path.fromOSString(name.toString());
+		IResource member = container.findMember(memberPath);
+		Path child = directory.resolve(name);
+		if (kind == ENTRY_DELETE) {
+			//a directory that was moved away keeps its watches, release them
+			unregisterTree(child);
+			if (member != null)
+				changes.add(container, member);
+			return;
+		}
+		boolean isDirectory = Files.isDirectory(child, LinkOption.NOFOLLOW_LINKS);
+		if (member != null && (member.getType() == IResource.FILE) == isDirectory) {
+			//the kind of the member changed, let the parent sort it out
+			changes.addSubtree(container);
+			return;
+		}
+		if (isDirectory) {
+			IFolder folder = container.getFolder(memberPath);
+			if (kind == ENTRY_CREATE) {
+				registerTree(folder, child, null);
+				//a new directory has to be discovered with all its contents
+				changes.addSubtree(folder);
+			} else {
+				changes.add(container, folder);
+			}
+		} else {
+			changes.add(container, member != null ? member : container.getFile(memberPath));
+		}
+	}
+
+	/**
+	 * Submits refresh requests for all resources of the given change set
+	 * that are out of sync.
+	 */
+	private void postRefreshRequests(ChangeSet changes) {
+		for (Map.Entry<IResource, Integer> entry : changes.getResourcesToRefresh().entrySet()) {
+			IResource resource = entry.getKey();
+			Integer depth = entry.getValue();
+			//notifications occur even if resources were changed within the workspace
+			if (depth == null || !resource.isSynchronized(depth))
+				refreshResult.refresh(resource);
+		}
+	}
+
+	/**
+	 * Tries to watch the polled subtrees natively again. Subtrees that are
+	 * watched again are removed from the polled subtrees, and are returned so
+	 * that changes made before they were watched are not missed.
+	 */
+	private synchronized List<IContainer> watchPolledContainers() {
+		List<IContainer> watched = new ArrayList<>();
+		for (IContainer container : new ArrayList<>(polledContainers)) {
+			if (watchLimitReached)
+				break;
+			IPath location = container.getLocation();
+			polledContainers.remove(container);
+			if (location == null || !container.exists())
+				continue;
+			if (registerTree(container, location.toFile().toPath(), null)) {
+				watched.add(container);
+				if (Policy.DEBUG_AUTO_REFRESH)
+					Policy.debug(DEBUG_PREFIX + "watching again: " + container); //$NON-NLS-1$
+			} else {
+				polledContainers.add(container);
+			}
+		}
+		return watched;
+	}
+
+	/**
+	 * Checks the subtrees that are not watched natively.
+	 */
+	private void pollContainers(IProgressMonitor monitor) {
+		long now = System.currentTimeMillis();
+		if (now - lastPollTime < POLL_DELAY)
+			return;
+		lastPollTime = now;
+		List<IContainer> toPoll;
+		synchronized (this) {
+			toPoll = watchLimitReached ? new ArrayList<>() : watchPolledContainers();
+			toPoll.addAll(polledContainers);
+		}
+		for (IContainer container : toPoll) {
+			if (monitor.isCanceled())
+				return;
+			if (!container.isSynchronized(IResource.DEPTH_INFINITE))
+				refreshResult.refresh(container);
+		}
+	}
+
+	@Override
+	protected IStatus run(IProgressMonitor monitor) {
+		long start = -System.currentTimeMillis();
+		if (Policy.DEBUG_AUTO_REFRESH)
+			Policy.debug(DEBUG_PREFIX + "job started."); //$NON-NLS-1$
+		try {
+			WatchKey key = watchService.poll(WAIT_TIMEOUT, TimeUnit.MILLISECONDS);
+			ChangeSet changes = new ChangeSet();
+			long burstEnd = System.currentTimeMillis() + MAX_COALESCE_DURATION;
+			while (key != null) {
+				processKey(key, changes);
+				if (monitor.isCanceled() || System.currentTimeMillis() > burstEnd)
+					break;
+				key = watchService.poll(COALESCE_DELAY, TimeUnit.MILLISECONDS);
+			}
+			if (!changes.isEmpty())
+				postRefreshRequests(changes);
+			pollContainers(monitor);
+		} catch (InterruptedException e) {
+			return Status.CANCEL_STATUS;
+		} catch (ClosedWatchServiceException e) {
+			synchronized (this) {
+				//the watch service is closed when nothing is monitored anymore
+				if (closed)
+					return Status.OK_STATUS;
+			}
+			refreshResult.monitorFailed(this, null);
+			return Status.OK_STATUS;
+		} finally {
+			start += System.currentTimeMillis();
+			if (Policy.DEBUG_AUTO_REFRESH)
+				Policy.debug(DEBUG_PREFIX + "job finished in: " + start + "ms"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		final Bundle bundle = Platform.getBundle(ResourcesPlugin.PI_RESOURCES);
+		//if the bundle is null then the framework has shutdown - just bail out completely (bug 98219)
+		if (bundle == null)
+			return Status.OK_STATUS;
+		//don't reschedule the job if the resources plugin has been shut down
+		if (bundle.getState() == Bundle.ACTIVE)
+			schedule(RESCHEDULE_DELAY);
+		MultiStatus result;
+		synchronized (this) {
+			result = errors;
+			errors = null;
+		}
+		//just log native refresh failures
+		if (result != null && !result.isOK())
+			ResourcesPlugin.getPlugin().getLog().log(result);
+		return Status.OK_STATUS;
+	}
+
+	@Override
+	public boolean shouldRun() {
+		synchronized (this) {
+			return !roots.isEmpty();
+		}
+	}
+
+	@Override
+	public void unmonitor(IResource resource) {
+		synchronized (this) {
+			if (resource == null) {
+				// resource == null means stop monitoring all resources
+				roots.clear();
+				for (WatchKey key : watches.keySet())
+					key.cancel();
+				watches.clear();
+				watchedDirectories.clear();
+				polledContainers.clear();
+			} else {
+				IPath path = resource.getFullPath();
+				roots.removeIf(root -> path.isPrefixOf(root.getFullPath()));
+				for (Iterator<Watch> it = watches.values().iterator(); it.hasNext();) {
+					Watch watch = it.next();
+					if (path.isPrefixOf(watch.container.getFullPath())) {
+						watch.key.cancel();
+						it.remove();
+						watchedDirectories.remove(watch.directory, watch);
+					}
+				}
+				polledContainers.removeIf(container -> path.isPrefixOf(container.getFullPath()));
+			}
+			//watches have been released, so registering new ones may succeed again
+			watchLimitReached = false;
+			if (!roots.isEmpty())
+				return;
+			//release the inotify instance if there is nothing left to monitor
+			closed = true;
+			watches.clear();
+			watchedDirectories.clear();
+			polledContainers.clear();
+			try {
+				watchService.close();
+			} catch (IOException e) {
+				Policy.log(IStatus.WARNING, Messages.LM_errCloseService, e);
+			}
+		}
+		//stop the job if there is nothing left to monitor
+		cancel();
+	}
+
+	/**
+	 * Returns whether this monitor has released its watch service, after which
+	 * it can no longer monitor resources.
+	 */
+	synchronized boolean isClosed() {
+		return closed;
+	}
+}
@@ -0,0 +1,57 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.resources.refresh.linux;
+
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.refresh.*;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.Platform;
+
+/**
+ * The <code>LinuxRefreshProvider</code> creates monitors that
+ * can monitor local directories on Linux platforms.
+ * <p>
+ * The provider can be turned off with the system property
+ * <code>org.eclipse.core.resources.refresh.linux.disable</code>,
+ * in which case local changes are found by polling.
+ * </p>
+ *
+ * @see RefreshProvider
+ */
+public class LinuxRefreshProvider extends RefreshProvider {
+	private static final boolean DISABLED = Boolean.getBoolean("org.eclipse.core.resources.refresh.linux.disable"); //$NON-NLS-1$
+
+	private LinuxMonitor monitor;
+
+	/**
+	 * Creates a standard Linux monitor if the given resource is local.
+	 *
+	 * @see RefreshProvider#installMonitor(IResource,IRefreshResult, IProgressMonitor)
+	 */
+	@Override
+	public IRefreshMonitor installMonitor(IResource resource, IRefreshResult result, IProgressMonitor progressMonitor) {
+		if (DISABLED || !Platform.OS_LINUX.equals(Platform.getOS()))
+			return null;
+		if (resource.getLocation() == null || !resource.exists() || resource.getType() == IResource.FILE)
+			return null;
+		synchronized (this) {
+			//a monitor that stopped monitoring everything has released its watch service
+			if (monitor == null || monitor.isClosed())
+				monitor = LinuxMonitor.create(result);
+		}
+		if (monitor != null && monitor.monitor(resource, progressMonitor))
+			return monitor;
+		return null;
+	}
+}
@@ -174,12 +174,14 @@ public class Messages extends NLS {
 	public static String resources_copyProblem;
 	public static String resources_couldnotDelete;
 	public static String resources_create;
+	public static String resources_createProjectsProblem;
 	public static String resources_creating;
 	public static String resources_deleteMeta;
 	public static String resources_deleteProblem;
 	public static String resources_deleting;
 	public static String resources_deleting_0;
 	public static String resources_destNotNull;
+	public static String resources_duplicateProjectName;
 	public static String resources_errorContentDescription;
 	public static String resources_errorDeleting;
 	public static String resources_errorMarkersDelete;
@@ -191,6 +193,7 @@ public class Messages extends NLS {
 	public static String resources_errorNature;
 	public static String resources_errorPropertiesMove;
 	public static String resources_errorReadProject;
+	public static String resources_errorReadProjects;
 	public static String resources_errorRefresh;
 	public static String resources_errorValidator;
 	public static String resources_errorVisiting;
@@ -314,7 +317,6 @@ public class Messages extends NLS {
 
 	// utils
 	public static String utils_clone;
-	public static String utils_stringJobName;
 	// watson
 	public static String watson_elementNotFound;
 	public static String watson_illegalSubtree;
@@ -333,6 +335,13 @@ public class Messages extends NLS {
 	public static String WM_nativeErr;
 	public static String WM_mutexAbandoned;
 
+	// auto-refresh linux
+	public static String LM_errCloseService;
+	public static String LM_errCreateService;
+	public static String LM_errors;
+	public static String LM_errWatch;
+	public static String LM_jobName;
+
 	public static String updateUnknownNatureMarkers;
 
 	static {
@@ -15,29 +15,60 @@
  *******************************************************************************/
 package org.eclipse.core.internal.utils;
 
-import java.util.HashMap;
+import java.lang.ref.WeakReference;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * A string pool is used for sharing strings in a way that eliminates duplicate
  * equal strings.  A string pool instance can be maintained over a long period
- * of time, or used as a temporary structure during a string sharing pass over
- * a data structure.
+ * of time, or used as a temporary structure while reading a data structure.
+ * <p>
+ * The pool only holds weak references to its strings, so strings that are no
+ * longer used elsewhere are not kept alive by the pool. It is safe to use from
+ * several threads; the pool is split in stripes that are locked separately.
+ * The {@linkplain #getShared() shared pool} is used for sharing strings
+ * with few distinct values as soon as they are created, such as marker types,
+ * sync partner names and the ids read from project descriptions.
+ * </p>
  * <p>
  * This class is not intended to be subclassed by clients.
  * </p>
  *
- * @see IStringPoolParticipant
  * @since 3.1
  */
 public final class StringPool {
-	private int savings;
-	private final HashMap<String, String> map = new HashMap<>();
+	/** The number of stripes, must be a power of two */
+	private static final int STRIPES = 16;
+
+	private static final StringPool SHARED = new StringPool();
+
+	/**
+	 * A separately locked part of the pool. A named type, so that an array of
+	 * stripes can be created without unchecked conversions.
+	 */
+	private static final class Stripe extends WeakHashMap<String, WeakReference<String>> {
+		// no additional behavior
+	}
+
+	private final LongAdder savings = new LongAdder();
+	private final Stripe[] stripes;
 
 	/**
 	 * Creates a new string pool.
 	 */
 	public StringPool() {
 		super();
+		stripes = new Stripe[STRIPES];
+		for (int i = 0; i < STRIPES; i++)
+			stripes[i] = new Stripe();
+	}
+
+	/**
+	 * Returns the string pool that is shared by the whole workspace.
+	 */
+	public static StringPool getShared() {
+		return SHARED;
 	}
 
 	/**
@@ -49,16 +80,22 @@ public final class StringPool {
 	public String add(String string) {
 		if (string == null)
 			return string;
-		String result = map.putIfAbsent(string, string);
-		if (result != null) {
+		int hash = string.hashCode();
+		Stripe stripe = stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+		synchronized (stripe) {
+			WeakReference<String> reference = stripe.get(string);
+			String result = reference == null ? null : reference.get();
+			if (result == null) {
+				stripe.put(string, new WeakReference<>(string));
+				return string;
+			}
 			if (result != string) {
 				// XXX that number is wrong since String implementation changed to LATIN1
 				// encoding, also interned String may have become externed:
-				savings += 44 + 2 * string.length();
+				savings.add(44 + 2 * string.length());
 			}
 			return result;
 		}
-		return string;
 	}
 
 	/**
@@ -76,6 +113,6 @@ public final class StringPool {
 	 * is only the size of a single copy of S2.
 	 */
 	public int getSavedStringCount() {
-		return savings;
+		return (int) Math.min(Integer.MAX_VALUE, savings.sum());
 	}
 }
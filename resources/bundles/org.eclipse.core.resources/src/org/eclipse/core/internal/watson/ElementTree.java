@@ -19,7 +19,6 @@ import java.util.*;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.eclipse.core.internal.dtree.*;
 import org.eclipse.core.internal.utils.Messages;
-import org.eclipse.core.internal.utils.StringPool;
 import org.eclipse.core.runtime.*;
 import org.eclipse.osgi.util.NLS;
 
@@ -704,13 +703,6 @@ public class ElementTree {
 		userData = data;
 	}
 
-	/* (non-Javadoc)
-	 * Method declared on IStringPoolParticipant
-	 */
-	public void shareStrings(StringPool set) {
-		tree.storeStrings(set);
-	}
-
 	/**
 	 * Returns a string representation of this element tree's
 	 * structure suitable for debug purposes.
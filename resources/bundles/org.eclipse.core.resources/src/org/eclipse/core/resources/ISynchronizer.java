@@ -13,6 +13,7 @@
  *******************************************************************************/
 package org.eclipse.core.resources;
 
+import java.util.Map;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.QualifiedName;
 
@@ -135,4 +136,24 @@ public interface ISynchronizer {
 	 *    </ul>
 	 */
 	void setSyncInfo(QualifiedName partner, IResource resource, byte[] info) throws CoreException;
+
+	/**
+	 * Sets the named sync partner's synchronization information for each of the
+	 * given resources, as if by calling
+	 * {@link #setSyncInfo(QualifiedName, IResource, byte[])} for each of them,
+	 * but in a single workspace operation. This is considerably faster when
+	 * setting the information of many resources, and the resource changes are
+	 * reported in a single resource change event.
+	 *
+	 * @param partner the sync partner name
+	 * @param infos the synchronization information by resource; a
+	 * <code>null</code> value discards the information for that resource
+	 * @exception CoreException if this operation fails. Reasons include:
+	 *    <ul>
+	 *    <li><code>IResourceStatus.PARTNER_NOT_REGISTERED</code>
+	 The sync partner is not registered.</li>
+	 *    </ul>
+	 * @since 3.19
+	 */
+	void setSyncInfo(QualifiedName partner, Map<? extends IResource, byte[]> infos) throws CoreException;
 }
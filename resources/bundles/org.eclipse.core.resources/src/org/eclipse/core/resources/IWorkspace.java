@@ -186,6 +186,42 @@ public interface IWorkspace extends IAdaptable {
 	 */
 	void addResourceChangeListener(IResourceChangeListener listener, int eventMask);
 
+	/**
+	 * Adds the given listener for the specified resource change events to this
+	 * workspace, interested only in changes of the resources in the subtrees
+	 * rooted at the given paths. This behaves like
+	 * {@link #addResourceChangeListener(IResourceChangeListener, int)}, except
+	 * that:
+	 * <ul>
+	 * <li>the listener is not notified of events with a resource delta that has
+	 * no changes in any of the subtrees, unless it is a build event that would be
+	 * sent without changes anyway;</li>
+	 * <li>the resource delta of an event is still rooted at the workspace root,
+	 * but only contains the changes in the subtrees, so visiting it does not
+	 * visit any other changes;</li>
+	 * <li>{@link IResourceChangeEvent#findMarkerDeltas(String, boolean)} only
+	 * returns the marker deltas of the resources in the subtrees;</li>
+	 * <li>the listener is not notified of events without a delta that are about
+	 * a project, unless the project contains one of the subtrees or is contained
+	 * in one of them.</li>
+	 * </ul>
+	 * <p>
+	 * Registering a listener again replaces both the event types and the subtrees
+	 * it was previously registered for.
+	 * </p>
+	 *
+	 * @param listener the listener
+	 * @param eventMask the bit-wise OR of all event types of interest to the
+	 * listener
+	 * @param scope the absolute paths of the subtrees of interest to the
+	 * listener; the resources need not exist
+	 * @see IResourceChangeListener
+	 * @see IResourceChangeEvent
+	 * @see #removeResourceChangeListener(IResourceChangeListener)
+	 * @since 3.19
+	 */
+	void addResourceChangeListener(IResourceChangeListener listener, int eventMask, IPath[] scope);
+
 	/**
 	 * Registers the given plug-in's workspace save participant, and returns an
 	 * object describing the workspace state at the time of the last save in
@@ -591,6 +627,48 @@ public interface IWorkspace extends IAdaptable {
 	 */
 	IStatus copy(IResource[] resources, IPath destination, int updateFlags, IProgressMonitor monitor) throws CoreException;
 
+	/**
+	 * Creates new projects for the given descriptions, in a single workspace
+	 * operation. This is equivalent to calling
+	 * {@link IProject#create(IProjectDescription, IProgressMonitor)} for the
+	 * project named by each description, except that all descriptions are
+	 * validated before any project is created, and that the creation of all
+	 * projects is reported in a single resource change event.
+	 * <p>
+	 * Together with {@link #loadProjectDescriptions(IPath[])}, this is the
+	 * preferred way to import many existing projects into the workspace. The
+	 * created projects are not opened.
+	 * </p>
+	 * <p>
+	 * This method changes resources; these changes will be reported in a
+	 * subsequent resource change event, including an indication that the
+	 * projects have been added to the workspace.
+	 * </p>
+	 * <p>
+	 * This method is long-running; progress and cancellation are provided by
+	 * the given progress monitor.
+	 * </p>
+	 *
+	 * @param descriptions the project descriptions
+	 * @param monitor a progress monitor, or <code>null</code> if progress
+	 *    reporting is not desired
+	 * @return the created projects, in the order of the given descriptions
+	 * @exception CoreException if the projects could not be created. If any of
+	 * the descriptions is invalid, no project is created. Reasons include:
+	 * <ul>
+	 * <li> A description does not name a project, or names it more than once.</li>
+	 * <li> A project with the name of a description already exists in the workspace.</li>
+	 * <li> A project could not be created for any of the reasons listed in
+	 *      {@link IProject#create(IProjectDescription, IProgressMonitor)}.</li>
+	 * </ul>
+	 * @exception OperationCanceledException if the operation is canceled.
+	 * Cancelation can occur even if no progress monitor is provided.
+	 * @see IProject#create(IProjectDescription, IProgressMonitor)
+	 * @see #loadProjectDescriptions(IPath[])
+	 * @since 3.19
+	 */
+	IProject[] createProjects(IProjectDescription[] descriptions, IProgressMonitor monitor) throws CoreException;
+
 	/**
 	 * Deletes the given resources.
 	 * <p>
@@ -872,6 +950,27 @@ public interface IWorkspace extends IAdaptable {
 	 */
 	IProjectDescription loadProjectDescription(InputStream projectDescriptionFile) throws CoreException;
 
+	/**
+	 * Reads the project description files (".project") from the given locations
+	 * in the local file system, as if by calling
+	 * {@link #loadProjectDescription(IPath)} for each of them. The files are read
+	 * in parallel, which is considerably faster when importing many projects.
+	 * <p>
+	 * The returned values are writeable.
+	 * </p>
+	 *
+	 * @param projectDescriptionFiles the paths in the local file system of
+	 * existing project description files
+	 * @return the new project descriptions, in the order of the given paths
+	 * @exception CoreException if any of the files could not be read. The
+	 * status of the exception contains the reasons for each file, which are the
+	 * same as for {@link #loadProjectDescription(IPath)}.
+	 * @see #loadProjectDescription(IPath)
+	 * @see #createProjects(IProjectDescription[], IProgressMonitor)
+	 * @since 3.19
+	 */
+	IProjectDescription[] loadProjectDescriptions(IPath[] projectDescriptionFiles) throws CoreException;
+
 	/**
 	 * Moves the given sibling resources so that they are located as members of
 	 * the resource at the given path; the names of the new members are the
@@ -1420,6 +1519,37 @@ public interface IWorkspace extends IAdaptable {
 	 */
 	void setDescription(IWorkspaceDescription description) throws CoreException;
 
+	/**
+	 * Sets the values of the given persistent properties of the given resources.
+	 * This is equivalent to calling
+	 * {@link IResource#setPersistentProperty(QualifiedName, String)} for each
+	 * resource and property, but writes the properties of resources that are
+	 * stored together only once, which is considerably faster when setting
+	 * properties on many resources.
+	 * <p>
+	 * The properties of each project are checked before any of them is written,
+	 * so if this method fails because of an invalid property or resource, no
+	 * property of that project has been changed. Properties of other projects
+	 * may have been changed.
+	 * </p>
+	 *
+	 * @param properties the properties to set, by resource; a <code>null</code>
+	 *     value removes the property from the resource, while the properties of
+	 *     a resource must not be <code>null</code>
+	 * @exception CoreException if this method fails. Reasons include:
+	 * <ul>
+	 * <li> One of the resources does not exist.</li>
+	 * <li> One of the resources is not local.</li>
+	 * <li> One of the resources is a project that is not open.</li>
+	 * <li> One of the values is longer than 2KB.</li>
+	 * <li> Resource changes are disallowed during certain types of resource change
+	 *       event notification. See <code>IResourceChangeEvent</code> for more details.</li>
+	 * </ul>
+	 * @see IResource#setPersistentProperty(QualifiedName, String)
+	 * @since 3.19
+	 */
+	void setPersistentProperties(Map<? extends IResource, Map<QualifiedName, String>> properties) throws CoreException;
+
 	/**
 	 * Returns a copy of the given set of natures sorted in prerequisite order.
 	 * For each nature, it is guaranteed that all of its prerequisites will
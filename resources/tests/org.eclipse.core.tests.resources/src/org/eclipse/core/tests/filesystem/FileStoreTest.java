@@ -13,11 +13,17 @@
  *******************************************************************************/
 package org.eclipse.core.tests.filesystem;
 
+import static org.junit.Assert.assertArrayEquals;
+
 import java.io.File;
 import java.io.OutputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
@@ -115,6 +121,78 @@ public class FileStoreTest extends LocalStoreTest {
 		return tempDirs;
 	}
 
+	/**
+	 * Tests that overwriting a symbolic link with a copy writes through the link
+	 * instead of replacing the link by a regular file.
+	 */
+	public void testCopyFileToSymLink() throws Throwable {
+		if (!canCreateSymLinks()) {
+			return;
+		}
+		IPath root = getWorkspace().getRoot().getLocation().append("" + new Date().getTime());
+		IFileStore temp = createDir(root.toString(), true);
+		try {
+			IFileStore source = temp.getChild("source");
+			createFile(source, "some content");
+			IFileStore target = temp.getChild("target");
+			createFile(target, "other content that is longer");
+			createSymLink(temp.toLocalFile(EFS.NONE, getMonitor()), "link", "target", false);
+			IFileStore link = temp.getChild("link");
+
+			source.copy(link, EFS.OVERWRITE, null);
+			assertTrue("1.0", link.fetchInfo().getAttribute(EFS.ATTRIBUTE_SYMLINK));
+			assertTrue("1.1", compareContent(getContents("some content"), target.openInputStream(EFS.NONE, null)));
+		} finally {
+			temp.delete(EFS.NONE, null);
+		}
+	}
+
+	/**
+	 * Copying a file that is truncated while it is copied must neither hang
+	 * nor copy anything but a part of the original content.
+	 */
+	public void testCopyFileTruncatedWhileCopying() throws Throwable {
+		IPath root = getWorkspace().getRoot().getLocation().append("" + new Date().getTime());
+		IFileStore temp = createDir(root.toString(), true);
+		try {
+			IFileStore source = temp.getChild("source");
+			byte[] content = new byte[32 * 1024 * 1024];
+			for (int i = 0; i < content.length; i++)
+				content[i] = (byte) i;
+			Files.write(source.toLocalFile(EFS.NONE, getMonitor()).toPath(), content);
+			IFileStore target = temp.getChild("target");
+			File targetFile = target.toLocalFile(EFS.NONE, getMonitor());
+			//truncate the source as soon as the copy has created the target
+			Thread truncater = new Thread(() -> {
+				long end = System.currentTimeMillis() + 10000;
+				while (!targetFile.exists() && System.currentTimeMillis() < end)
+					Thread.onSpinWait();
+				try (FileChannel channel = FileChannel.open(source.toLocalFile(EFS.NONE, null).toPath(), StandardOpenOption.WRITE)) {
+					channel.truncate(1024);
+				} catch (Exception e) {
+					// the copy is checked below
+				}
+			}, "testCopyFileTruncatedWhileCopying");
+			truncater.start();
+			Thread copier = new Thread(() -> {
+				try {
+					source.copy(target, EFS.NONE, null);
+				} catch (CoreException e) {
+					// the content is checked below
+				}
+			}, "testCopyFileTruncatedWhileCopying-copy");
+			copier.start();
+			copier.join(30000);
+			assertFalse("1.0", copier.isAlive());
+			truncater.join();
+			byte[] copied = Files.readAllBytes(targetFile.toPath());
+			assertTrue("2.0", copied.length <= content.length);
+			assertArrayEquals("2.1", Arrays.copyOf(content, copied.length), copied);
+		} finally {
+			temp.delete(EFS.NONE, null);
+		}
+	}
+
 	/**
 	 * Basically this is a test for the Windows Platform.
 	 */
@@ -305,6 +383,54 @@ public class FileStoreTest extends LocalStoreTest {
 		temp.delete(EFS.NONE, null);
 	}
 
+	/**
+	 * Tests that copying a file preserves its attributes and last modified time,
+	 * both for a new destination and when overwriting an existing one.
+	 */
+	public void testCopyFilePreservesAttributes() throws Throwable {
+		IPath root = getWorkspace().getRoot().getLocation().append("" + new Date().getTime());
+		IFileStore temp = createDir(root.toString(), true);
+		try {
+			IFileStore source = temp.getChild("source");
+			createFile(source, "some content");
+			IFileInfo info = source.fetchInfo();
+			info.setLastModified(1_000_000_000_000L);
+			info.setAttribute(EFS.ATTRIBUTE_READ_ONLY, true);
+			source.putInfo(info, EFS.SET_ATTRIBUTES | EFS.SET_LAST_MODIFIED, null);
+			info = source.fetchInfo();
+
+			IFileStore destination = temp.getChild("destination");
+			source.copy(destination, EFS.NONE, null);
+			IFileInfo copied = destination.fetchInfo();
+			assertTrue("1.0", compareContent(getContents("some content"), destination.openInputStream(EFS.NONE, null)));
+			assertEquals("1.1", info.getLastModified(), copied.getLastModified());
+			assertEquals("1.2", info.getAttribute(EFS.ATTRIBUTE_READ_ONLY), copied.getAttribute(EFS.ATTRIBUTE_READ_ONLY));
+
+			IFileStore existing = temp.getChild("existing");
+			createFile(existing, "other content that is longer");
+			source.copy(existing, EFS.OVERWRITE, null);
+			copied = existing.fetchInfo();
+			assertTrue("2.0", compareContent(getContents("some content"), existing.openInputStream(EFS.NONE, null)));
+			assertEquals("2.1", info.getLength(), copied.getLength());
+			assertEquals("2.2", info.getLastModified(), copied.getLastModified());
+
+			// without OVERWRITE the existing file must be left alone
+			try {
+				source.copy(existing, EFS.NONE, null);
+				fail("3.0");
+			} catch (CoreException e) {
+				assertEquals("3.1", EFS.ERROR_EXISTS, e.getStatus().getCode());
+			}
+		} finally {
+			for (IFileStore child : temp.childStores(EFS.NONE, null)) {
+				IFileInfo info = child.fetchInfo();
+				info.setAttribute(EFS.ATTRIBUTE_READ_ONLY, false);
+				child.putInfo(info, EFS.SET_ATTRIBUTES, null);
+			}
+			temp.delete(EFS.NONE, null);
+		}
+	}
+
 	/**
 	 * Basically this is a test for the Windows Platform.
 	 */
@@ -399,6 +525,41 @@ public class FileStoreTest extends LocalStoreTest {
 
 	}
 
+	/**
+	 * Tests that IFileStore#childInfos returns the same information as fetching
+	 * the info of each child separately.
+	 */
+	public void testChildInfos() throws Exception {
+		IPath root = getWorkspace().getRoot().getLocation().append("" + new Date().getTime());
+		IFileStore temp = createDir(root.toString(), true);
+		try {
+			createDir(temp.getChild("folder"), true);
+			try (OutputStream out = temp.getChild("file").openOutputStream(EFS.NONE, null)) {
+				out.write(5);
+			}
+			temp.getChild("empty").openOutputStream(EFS.NONE, null).close();
+
+			IFileInfo[] infos = temp.childInfos(EFS.NONE, null);
+			assertEquals("1.0", 3, infos.length);
+			for (IFileInfo info : infos) {
+				IFileInfo expected = temp.getChild(info.getName()).fetchInfo();
+				assertEquals("2.0." + info.getName(), expected.getName(), info.getName());
+				assertTrue("2.1." + info.getName(), info.exists());
+				assertEquals("2.2." + info.getName(), expected.isDirectory(), info.isDirectory());
+				assertEquals("2.3." + info.getName(), expected.getLength(), info.getLength());
+				assertEquals("2.4." + info.getName(), expected.getLastModified(), info.getLastModified());
+				assertEquals("2.5." + info.getName(), expected.getAttribute(EFS.ATTRIBUTE_READ_ONLY), info.getAttribute(EFS.ATTRIBUTE_READ_ONLY));
+			}
+
+			// a file has no children
+			assertEquals("3.0", 0, temp.getChild("file").childInfos(EFS.NONE, null).length);
+			// neither has a missing directory
+			assertEquals("3.1", 0, temp.getChild("missing").childInfos(EFS.NONE, null).length);
+		} finally {
+			temp.delete(EFS.NONE, null);
+		}
+	}
+
 	public void testGetStat() throws CoreException {
 		/* evaluate test environment */
 		IPath root = getWorkspace().getRoot().getLocation().append("" + new Date().getTime());
@@ -470,6 +470,59 @@ public class BasicAliasTest extends ResourceTest {
 		assertNull("8.0", resources);
 	}
 
+	/**
+	 * Tests that the aliases are updated as projects overlapping a link are
+	 * created, moved and deleted.
+	 */
+	public void testProjectChangesUpdateAliases() throws CoreException {
+		final AliasManager aliasManager = ((Workspace) getWorkspace()).getAliasManager();
+		IFileStore tempStore = getTempStore();
+		tempStore.mkdir(EFS.NONE, getMonitor());
+
+		IWorkspaceRoot root = getWorkspace().getRoot();
+		IProject p1 = root.getProject(getUniqueString());
+		ensureExistsInWorkspace(p1, true);
+		IFolder link = p1.getFolder("link");
+		link.createLink(tempStore.toURI(), IResource.NONE, getMonitor());
+		assertNull("1.0", aliasManager.computeAliases(link, ((Folder) link).getStore()));
+
+		// a project at the location of the link
+		IProject p2 = root.getProject(getUniqueString());
+		IProjectDescription description = getWorkspace().newProjectDescription(p2.getName());
+		description.setLocationURI(tempStore.toURI());
+		p2.create(description, getMonitor());
+		p2.open(getMonitor());
+		IResource[] resources = aliasManager.computeAliases(link, ((Folder) link).getStore());
+		assertNotNull("2.0", resources);
+		assertEquals("2.1", 1, resources.length);
+		assertEquals("2.2", p2, resources[0]);
+
+		// the renamed project is still an alias of the link
+		IProject p3 = root.getProject(getUniqueString());
+		p2.move(p3.getFullPath(), true, getMonitor());
+		resources = aliasManager.computeAliases(link, ((Folder) link).getStore());
+		assertNotNull("3.0", resources);
+		assertEquals("3.1", 1, resources.length);
+		assertEquals("3.2", p3, resources[0]);
+
+		// a link below the location of a project is an alias of its members
+		IFolder child = p3.getFolder("child");
+		ensureExistsInWorkspace(child, true);
+		IFolder childLink = p1.getFolder("childLink");
+		childLink.createLink(tempStore.getChild("child").toURI(), IResource.NONE, getMonitor());
+		resources = aliasManager.computeAliases(childLink, ((Folder) childLink).getStore());
+		assertNotNull("4.0", resources);
+		assertTrue("4.1", Arrays.asList(resources).contains(child));
+
+		// no aliases once the project is gone
+		p3.delete(IResource.NEVER_DELETE_PROJECT_CONTENT, getMonitor());
+		assertNull("5.0", aliasManager.computeAliases(link, ((Folder) link).getStore()));
+		resources = aliasManager.computeAliases(childLink, ((Folder) childLink).getStore());
+		assertNotNull("5.1", resources);
+		assertEquals("5.2", 1, resources.length);
+		assertEquals("5.3", link.getFolder("child"), resources[0]);
+	}
+
 	public void testCloseOpenProject() throws CoreException {
 		// close the project and make sure aliases in that project are no longer updated
 		pOverlap.close(getMonitor());
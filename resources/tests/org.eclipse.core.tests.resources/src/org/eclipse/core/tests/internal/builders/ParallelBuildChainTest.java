@@ -364,4 +364,62 @@ public class ParallelBuildChainTest extends AbstractBuilderTest {
 				TimerBuilder.buildCompleteEvent(allProjects[5])
 			), TimerBuilder.events);
 	}
+
+	/**
+	 * Builds a diamond of build configs: a config is only built once all the
+	 * configs it references have been built, and configs whose references have
+	 * all been built are built in parallel.
+	 */
+	public void testDependentBuildConfigsDiamond() throws Exception {
+		setTimerBuilderSchedulingRuleForAllProjects(RuleType.NO_CONFLICT, getMonitor());
+		IWorkspaceRoot root = getWorkspace().getRoot();
+		IProject top = root.getProject("projectInstantaneousBuild1");
+		IProject left = root.getProject("projectLongBuild1");
+		IProject right = root.getProject("projectLongBuild2");
+		IProject bottom = root.getProject("projectInstantaneousBuild2");
+		setBuildConfigReferences(left, top);
+		setBuildConfigReferences(right, top);
+		setBuildConfigReferences(bottom, left, right);
+		Job job = new Job("Workspace Build") {
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				try {
+					getWorkspace().build(new IBuildConfiguration[] {bottom.getActiveBuildConfig(), right.getActiveBuildConfig(), left.getActiveBuildConfig(), top.getActiveBuildConfig()}, IncrementalProjectBuilder.INCREMENTAL_BUILD, false, getMonitor());
+					return Status.OK_STATUS;
+				} catch (CoreException e) {
+					return new Status(IStatus.ERROR, "org.eclipse.core.tests.resources", e.getMessage(), e);
+				}
+			}
+		};
+		job.schedule();
+		Assert.assertTrue("Timeout, most likely a deadlock", job.join(5000, getMonitor()));
+		assertEquals(4, TimerBuilder.getTotalBuilds());
+		assertEquals(2, TimerBuilder.getMaxSimultaneousBuilds());
+		List<Object> events = new ArrayList<>(TimerBuilder.events);
+		assertBuiltBefore(events, top, left);
+		assertBuiltBefore(events, top, right);
+		assertBuiltBefore(events, left, bottom);
+		assertBuiltBefore(events, right, bottom);
+	}
+
+	private void setBuildConfigReferences(IProject project, IProject... references) throws CoreException {
+		IProjectDescription desc = project.getDescription();
+		desc.setBuildConfigReferences(project.getActiveBuildConfig().getName(), Arrays.stream(references).map(reference -> {
+			try {
+				return reference.getActiveBuildConfig();
+			} catch (CoreException e) {
+				fail(e.getMessage(), e);
+				return null;
+			}
+		}).toArray(IBuildConfiguration[]::new));
+		project.setDescription(desc, getMonitor());
+	}
+
+	private void assertBuiltBefore(List<Object> events, IProject first, IProject second) {
+		int firstComplete = events.indexOf(TimerBuilder.buildCompleteEvent(first));
+		int secondStart = events.indexOf(TimerBuilder.buildStartEvent(second));
+		assertTrue(first.getName() + " not built", firstComplete >= 0);
+		assertTrue(second.getName() + " not built", secondStart >= 0);
+		assertTrue(first.getName() + " must be built before " + second.getName() + ": " + events, firstComplete < secondStart);
+	}
 }
@@ -16,6 +16,7 @@ package org.eclipse.core.tests.internal.localstore;
 import java.io.InputStream;
 import org.eclipse.core.filesystem.*;
 import org.eclipse.core.internal.localstore.BlobStore;
+import org.eclipse.core.internal.localstore.ContentAddressedBlobStore;
 import org.eclipse.core.internal.utils.UniversalUniqueIdentifier;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.Path;
@@ -171,4 +172,62 @@ public class BlobStoreTest extends LocalStoreTest {
 		}
 		assertTrue("2.5", compareContent(getContents(content), input));
 	}
+
+	public void testContentAddressedBlobs() throws CoreException {
+		IFileStore root = createStore();
+		BlobStore store = new ContentAddressedBlobStore(root, 64, false);
+		String content = "nothing important........tnatropmi gnihton";
+
+		/* the same contents are stored once */
+		IFileStore target = root.getChild("target");
+		createFile(target, content);
+		UniversalUniqueIdentifier first = store.addBlob(target, false);
+		assertTrue("1.0", target.fetchInfo().exists());
+		UniversalUniqueIdentifier second = store.addBlob(target, true);
+		assertEquals("1.1", first, second);
+		assertTrue("1.2", !target.fetchInfo().exists());
+		assertTrue("1.3", store.fileFor(first).fetchInfo().exists());
+		assertTrue("1.4", compareContent(getContents(content), store.getBlob(first)));
+
+		/* different contents get a different key */
+		createFile(target, content + "!");
+		UniversalUniqueIdentifier third = store.addBlob(target, true);
+		assertTrue("2.0", !first.equals(third));
+		assertTrue("2.1", compareContent(getContents(content + "!"), store.getBlob(third)));
+
+		/* blobs added by a plain blob store can still be read */
+		createFile(target, content);
+		UniversalUniqueIdentifier uuid = new BlobStore(root, 64).addBlob(target, true);
+		assertTrue("3.0", !first.equals(uuid));
+		assertTrue("3.1", compareContent(getContents(content), store.getBlob(uuid)));
+	}
+
+	public void testCompressedBlobs() throws CoreException {
+		IFileStore root = createStore();
+		BlobStore store = new ContentAddressedBlobStore(root, 64, true);
+		StringBuilder content = new StringBuilder();
+		for (int i = 0; i < 1000; i++)
+			content.append("nothing important........tnatropmi gnihton");
+
+		IFileStore target = root.getChild("target");
+		createFile(target, content.toString());
+		UniversalUniqueIdentifier uuid = store.addBlob(target, true);
+		assertTrue("1.0", !target.fetchInfo().exists());
+		IFileInfo info = store.fileFor(uuid).fetchInfo();
+		assertTrue("1.1", info.exists());
+		assertTrue("1.2", info.getLength() < content.length());
+		assertTrue("1.3", compareContent(getContents(content.toString()), store.getBlob(uuid)));
+
+		/* stored uncompressed, the same contents use a different key */
+		createFile(target, content.toString());
+		UniversalUniqueIdentifier plain = new ContentAddressedBlobStore(root, 64, false).addBlob(target, true);
+		assertTrue("2.0", !uuid.equals(plain));
+		assertEquals("2.1", content.length(), store.fileFor(plain).fetchInfo().getLength());
+		assertTrue("2.2", compareContent(getContents(content.toString()), store.getBlob(plain)));
+
+		/* a plain blob store, as used without deduplication, reads compressed blobs as well */
+		BlobStore plainStore = new BlobStore(root, 64);
+		assertTrue("3.0", compareContent(getContents(content.toString()), plainStore.getBlob(uuid)));
+		assertTrue("3.1", compareContent(getContents(content.toString()), plainStore.getBlob(plain)));
+	}
 }
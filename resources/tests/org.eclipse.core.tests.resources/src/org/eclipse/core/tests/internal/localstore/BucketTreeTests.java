@@ -173,6 +173,44 @@ public class BucketTreeTests extends ResourceTest {
 		}
 	}
 
+	/**
+	 * A bucket loaded from an index file in the sorted format keeps its entries in
+	 * the file until they are modified. Saving it must not leave a cached copy
+	 * without these entries behind for the next load.
+	 */
+	public void testCachedLoadAfterSortedLoad() throws CoreException {
+		IPath baseLocation = getRandomLocation();
+		try {
+			File location1 = baseLocation.append("location1").toFile();
+			File location2 = baseLocation.append("location2").toFile();
+			IPath path1 = new Path("/foo/file1.txt");
+			IPath path2 = new Path("/foo/file2.txt");
+
+			SimpleBucket bucket = new SimpleBucket();
+			bucket.load("foo", location1);
+			bucket.set(path1, "path", path1.toString());
+			bucket.save();
+
+			// load from the index file, then switch to another location, which saves
+			bucket = new SimpleBucket();
+			bucket.load("foo", location1, true);
+			assertEquals("1.0", 1, bucket.getEntryCount());
+			bucket.load("foo", location2);
+
+			// a cached load followed by a change must keep the entries of the index file
+			bucket.load("foo", location1);
+			assertEquals("2.0", 1, bucket.getEntryCount());
+			bucket.set(path2, "path", path2.toString());
+			bucket.save();
+
+			bucket = new SimpleBucket();
+			bucket.load("foo", location1, true);
+			assertEquals("3.0", 2, bucket.getEntryCount());
+		} finally {
+			ensureDoesNotExistInFileSystem(baseLocation.toFile());
+		}
+	}
+
 	public void verify(BucketTree tree, final String tag, IPath root, int depth, final Collection<IPath> expected) {
 		final Set<IPath> visited = new HashSet<>();
 		SimpleBucket.Visitor verifier = new SimpleBucket.Visitor() {
@@ -13,9 +13,13 @@
  *******************************************************************************/
 package org.eclipse.core.tests.internal.localstore;
 
+import java.io.*;
+import java.nio.file.Files;
+import java.util.Arrays;
 import org.eclipse.core.internal.localstore.Bucket.Entry;
 import org.eclipse.core.internal.localstore.HistoryBucket;
 import org.eclipse.core.internal.utils.UniversalUniqueIdentifier;
+import org.eclipse.core.resources.IResourceStatus;
 import org.eclipse.core.runtime.*;
 import org.eclipse.core.tests.resources.ResourceTest;
 
@@ -132,6 +136,96 @@ public class HistoryBucketTest extends ResourceTest {
 		}
 	}
 
+	/**
+	 * Index files in the previous, unsorted format must still be readable and
+	 * are converted to the sorted format when saved.
+	 */
+	public void testOriginalFormat() throws Exception {
+		IPath baseLocation = getRandomLocation();
+		try {
+			File location = baseLocation.append("location").toFile();
+			location.mkdirs();
+			File indexFile = new File(location, "history.index");
+			UniversalUniqueIdentifier[] uuids = new UniversalUniqueIdentifier[20];
+			try (DataOutputStream output = new DataOutputStream(new FileOutputStream(indexFile))) {
+				output.writeByte(HistoryBucket.UNSORTED_VERSION);
+				output.writeInt(uuids.length);
+				// in descending order, the original format was not sorted
+				for (int i = uuids.length - 1; i >= 0; i--) {
+					uuids[i] = new UniversalUniqueIdentifier();
+					output.writeUTF("/file" + i);
+					output.writeShort(1);
+					output.write(uuids[i].toBytes());
+					output.write(new byte[8]);
+				}
+			}
+
+			HistoryBucket index1 = new HistoryBucket();
+			index1.load("foo", location);
+			assertEquals("1.0", uuids.length, index1.getEntryCount());
+			for (int i = 0; i < uuids.length; i++) {
+				HistoryBucket.HistoryEntry entry = index1.getEntry(new Path("/foo/file" + i));
+				assertNotNull("1.1." + i, entry);
+				assertEquals("1.2." + i, uuids[i], entry.getUUID(0));
+			}
+			index1.save();
+			try (DataInputStream input = new DataInputStream(new FileInputStream(indexFile))) {
+				assertEquals("2.0", HistoryBucket.VERSION, input.readByte());
+				assertEquals("2.1", uuids.length, input.readInt());
+			}
+
+			// lookups in the sorted format
+			HistoryBucket index2 = new HistoryBucket();
+			index2.load("foo", location);
+			assertEquals("3.0", uuids.length, index2.getEntryCount());
+			for (int i = 0; i < uuids.length; i++) {
+				HistoryBucket.HistoryEntry entry = index2.getEntry(new Path("/foo/file" + i));
+				assertNotNull("3.1." + i, entry);
+				assertEquals("3.2." + i, uuids[i], entry.getUUID(0));
+			}
+			assertNull("3.3", index2.getEntry(new Path("/foo/file")));
+			assertNull("3.4", index2.getEntry(new Path("/foo/file99")));
+			assertNull("3.5", index2.getEntry(new Path("/foo")));
+		} finally {
+			ensureDoesNotExistInFileSystem(baseLocation.toFile());
+		}
+	}
+
+	/**
+	 * A bucket whose index file turns out to be corrupt when it is modified must
+	 * fail to save, rather than replace the file by the entries that could be read.
+	 */
+	public void testCorruptIndex() throws Exception {
+		IPath baseLocation = getRandomLocation();
+		try {
+			File location = baseLocation.append("location").toFile();
+			HistoryBucket index1 = new HistoryBucket();
+			index1.load("foo", location);
+			for (int i = 0; i < 20; i++)
+				index1.addBlob(new Path("/foo/file" + i), new UniversalUniqueIdentifier(), i);
+			index1.save();
+			File indexFile = new File(location, "history.index");
+			byte[] contents = Files.readAllBytes(indexFile.toPath());
+			// cut into the key of the last entry
+			byte[] truncated = Arrays.copyOf(contents, contents.length - 30);
+			Files.write(indexFile.toPath(), truncated);
+
+			HistoryBucket index2 = new HistoryBucket();
+			index2.load("foo", location);
+			assertNotNull("1.0", index2.getEntry(new Path("/foo/file0")));
+			index2.addBlob(new Path("/foo/file0"), new UniversalUniqueIdentifier(), 99);
+			try {
+				index2.save();
+				fail("2.0");
+			} catch (CoreException e) {
+				assertEquals("2.1", IResourceStatus.FAILED_READ_METADATA, e.getStatus().getCode());
+			}
+			assertTrue("2.2", Arrays.equals(truncated, Files.readAllBytes(indexFile.toPath())));
+		} finally {
+			ensureDoesNotExistInFileSystem(baseLocation.toFile());
+		}
+	}
+
 	/**
 	 * This test does not cause any data to be written.
 	 */
@@ -175,4 +269,51 @@ public class HistoryBucketTest extends ResourceTest {
 		assertEquals("4.6", uuid1, entry.getUUID(2));
 		assertEquals("4.7", timestamp1, entry.getTimestamp(2));
 	}
+
+	/**
+	 * States with the same timestamp are kept in the order they were added, most
+	 * recently added first, whatever their keys look like. Keys of content
+	 * addressed blobs carry no time information.
+	 * This test does not cause any data to be written.
+	 */
+	public void testSortSameTimestamp() {
+		byte[] bytes1 = new byte[UniversalUniqueIdentifier.BYTES_SIZE];
+		byte[] bytes2 = new byte[UniversalUniqueIdentifier.BYTES_SIZE];
+		Arrays.fill(bytes2, (byte) 0x7F);
+		UniversalUniqueIdentifier key1 = new UniversalUniqueIdentifier(bytes1);
+		UniversalUniqueIdentifier key2 = new UniversalUniqueIdentifier(bytes2);
+		UniversalUniqueIdentifier uuid = new UniversalUniqueIdentifier();
+		long timestamp = 10;
+
+		HistoryBucket index = new HistoryBucket();
+		IPath path1 = new Path("/foo/bar1");
+		index.addBlob(path1, key1, timestamp);
+		index.addBlob(path1, uuid, timestamp + 1);
+		index.addBlob(path1, key2, timestamp);
+		index.addBlob(path1, key1, timestamp);
+		HistoryBucket.HistoryEntry entry = index.getEntry(path1);
+		assertEquals("1.0", 3, entry.getOccurrences());
+		assertEquals("1.1", uuid, entry.getUUID(0));
+		assertEquals("1.2", key2, entry.getUUID(1));
+		assertEquals("1.3", key1, entry.getUUID(2));
+
+		IPath path2 = new Path("/foo/bar2");
+		index.addBlob(path2, key2, timestamp);
+		index.addBlob(path2, key1, timestamp);
+		entry = index.getEntry(path2);
+		assertEquals("2.0", 2, entry.getOccurrences());
+		assertEquals("2.1", key1, entry.getUUID(0));
+		assertEquals("2.2", key2, entry.getUUID(1));
+
+		// states merged from another entry are added after the existing ones
+		HistoryBucket other = new HistoryBucket();
+		other.addBlob(path2, key2, timestamp);
+		other.addBlob(path2, uuid, timestamp);
+		index.addBlobs(other.getEntry(path2));
+		entry = index.getEntry(path2);
+		assertEquals("3.0", 3, entry.getOccurrences());
+		assertEquals("3.1", uuid, entry.getUUID(0));
+		assertEquals("3.2", key1, entry.getUUID(1));
+		assertEquals("3.3", key2, entry.getUUID(2));
+	}
 }
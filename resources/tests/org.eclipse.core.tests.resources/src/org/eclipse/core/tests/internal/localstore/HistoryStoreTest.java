@@ -1321,6 +1321,40 @@ public class HistoryStoreTest extends ResourceTest {
 		}
 	}
 
+	/**
+	 * States with identical contents share their blob, which must survive
+	 * as long as any state still refers to it.
+	 */
+	public void testSharedContents() throws Throwable {
+		IProject project = getWorkspace().getRoot().getProject("Project");
+		project.create(getMonitor());
+		project.open(getMonitor());
+		String contents = "This file has some contents in testSharedContents.";
+		IFile file1 = project.getFile("file1.txt");
+		IFile file2 = project.getFile("file2.txt");
+		ensureExistsInWorkspace(file1, contents);
+		ensureExistsInWorkspace(file2, contents);
+		file1.setContents(getRandomContents(), true, true, getMonitor());
+		file2.setContents(getRandomContents(), true, true, getMonitor());
+
+		IFileState[] states1 = file1.getHistory(getMonitor());
+		IFileState[] states2 = file2.getHistory(getMonitor());
+		assertEquals("1.0", 1, states1.length);
+		assertEquals("1.1", 1, states2.length);
+		assertEquals("1.2", ((FileState) states1[0]).getUUID(), ((FileState) states2[0]).getUUID());
+
+		// drop the history of the first file and collect the garbage
+		IHistoryStore store = ((Workspace) getWorkspace()).getFileSystemManager().getHistoryStore();
+		store.remove(file1.getFullPath(), getMonitor());
+		store.clean(getMonitor());
+
+		assertEquals("2.0", 0, file1.getHistory(getMonitor()).length);
+		states2 = file2.getHistory(getMonitor());
+		assertEquals("2.1", 1, states2.length);
+		assertTrue("2.2", states2[0].exists());
+		assertTrue("2.3", compareContent(getContents(contents), states2[0].getContents()));
+	}
+
 	/**
 	 * Test for retrieving contents of files with states logged in the HistoryStore.
 	 */
@@ -16,11 +16,11 @@ package org.eclipse.core.tests.internal.localstore;
 
 import java.io.*;
 import java.net.URI;
-import java.util.Hashtable;
+import java.nio.file.Files;
+import java.util.*;
 import org.eclipse.core.filesystem.EFS;
 import org.eclipse.core.filesystem.IFileStore;
-import org.eclipse.core.internal.localstore.IUnifiedTreeVisitor;
-import org.eclipse.core.internal.localstore.UnifiedTree;
+import org.eclipse.core.internal.localstore.*;
 import org.eclipse.core.internal.resources.Resource;
 import org.eclipse.core.internal.resources.Workspace;
 import org.eclipse.core.resources.*;
@@ -30,6 +30,8 @@ import org.eclipse.core.runtime.Path;
 public class UnifiedTreeTest extends LocalStoreTest {
 	protected static int limit = 10;
 
+	private static final String PROP_PREFETCH_THREADS = "org.eclipse.core.resources.refresh.prefetchThreads";
+
 	protected void createFiles(IFileStore folder, Hashtable<String, String> set) throws Exception {
 		for (int i = 0; i < limit; i++) {
 			IFileStore child = folder.getChild("fsFile" + i);
@@ -231,6 +233,101 @@ public class UnifiedTreeTest extends LocalStoreTest {
 		assertTrue("2.0", set.isEmpty());
 	}
 
+	/**
+	 * Creates a tree of folders and files below the given directory, all with
+	 * the given timestamp.
+	 */
+	private void createTree(File directory, int depth, long timestamp) throws IOException {
+		for (int i = 0; i < 3; i++) {
+			File file = new File(directory, "f" + i);
+			Files.write(file.toPath(), getRandomString().getBytes());
+			assertTrue(file.setLastModified(timestamp));
+			if (depth > 0) {
+				File child = new File(directory, "d" + i);
+				assertTrue(child.mkdir());
+				createTree(child, depth - 1, timestamp);
+			}
+		}
+		//set last, adding members changes the timestamp of a directory
+		assertTrue(directory.setLastModified(timestamp));
+	}
+
+	/**
+	 * Refreshes the given folder after creating a tree below it in the file
+	 * system, with the given number of threads fetching listings ahead. While
+	 * visiting the first child folder, a file is deleted from its sibling,
+	 * whose listing has been requested ahead by then. Returns the resulting
+	 * resources with the timestamps of files, and the reported deltas.
+	 */
+	private Map<String, String> refreshTree(final IFolder folder, int threads, long timestamp) throws Exception {
+		folder.create(true, true, getMonitor());
+		createTree(folder.getLocation().toFile(), 4, timestamp);
+		final File deleted = folder.getFile("d2/f2").getLocation().toFile();
+		final Map<String, String> result = new TreeMap<>();
+		IResourceChangeListener listener = event -> {
+			IResourceDelta delta = event.getDelta().findMember(folder.getFullPath());
+			try {
+				delta.accept(child -> {
+					result.put("delta " + child.getFullPath().makeRelativeTo(folder.getFullPath()), child.getKind() + " " + child.getFlags());
+					return true;
+				});
+			} catch (CoreException e) {
+				fail("0.0", e);
+			}
+		};
+		if (threads > 0)
+			System.setProperty(PROP_PREFETCH_THREADS, Integer.toString(threads));
+		getWorkspace().addResourceChangeListener(listener, IResourceChangeEvent.POST_CHANGE);
+		try {
+			getWorkspace().run(monitor -> {
+				UnifiedTree tree = new UnifiedTree(folder);
+				tree.setPrefetch(true);
+				tree.accept(new RefreshLocalVisitor(monitor) {
+					@Override
+					public boolean visit(UnifiedTreeNode node) throws CoreException {
+						if (node.getResource().equals(folder.getFolder("d0"))) {
+							try {
+								//give the listing of the sibling time to arrive
+								Thread.sleep(200);
+								Files.delete(deleted.toPath());
+							} catch (IOException | InterruptedException e) {
+								fail("0.1", e);
+							}
+						}
+						return super.visit(node);
+					}
+				});
+			}, getMonitor());
+		} finally {
+			getWorkspace().removeResourceChangeListener(listener);
+			System.clearProperty(PROP_PREFETCH_THREADS);
+		}
+		folder.accept(resource -> {
+			//the timestamp of the folder a file was deleted from differs between runs
+			String value = resource.getType() == IResource.FILE ? Long.toString(resource.getLocalTimeStamp()) : "";
+			result.put("resource " + resource.getFullPath().makeRelativeTo(folder.getFullPath()), value);
+			return true;
+		});
+		assertFalse("1.0", folder.getFile("d2/f2").exists());
+		assertTrue("1.1", folder.isSynchronized(IResource.DEPTH_INFINITE));
+		return result;
+	}
+
+	/**
+	 * Refreshing with listings fetched ahead of the visitor must give the same
+	 * result as refreshing sequentially, even if a folder changes after its
+	 * listing has been fetched.
+	 */
+	public void testRefreshWithPrefetch() throws Exception {
+		IProject project = projects[0];
+		//old enough for listings fetched ahead to be trusted, unless changed
+		long timestamp = (System.currentTimeMillis() - 3600 * 1000) / 1000 * 1000;
+		Map<String, String> sequential = refreshTree(project.getFolder("sequential"), 0, timestamp);
+		Map<String, String> prefetched = refreshTree(project.getFolder("prefetched"), 4, timestamp);
+		assertTrue("2.0", sequential.size() > 100);
+		assertEquals("2.1", sequential, prefetched);
+	}
+
 	/**
 	 * Regression test for 342968 - Resource layers asks IFileTree for info of linked resources
 	 */
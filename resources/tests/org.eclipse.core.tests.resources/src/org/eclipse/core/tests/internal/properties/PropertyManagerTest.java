@@ -146,6 +146,55 @@ public class PropertyManagerTest extends LocalStoreTest {
 		}
 	}
 
+	/**
+	 * Tests that properties are read consistently while properties of another
+	 * project are changed concurrently.
+	 */
+	public void testConcurrentReadsAcrossProjects() throws Throwable {
+		final IFile readTarget = projects[0].getFile("read");
+		final IFile writeTarget = projects[1].getFile("write");
+		ensureExistsInWorkspace(readTarget, true);
+		ensureExistsInWorkspace(writeTarget, true);
+		final int N = 20;
+		final QualifiedName[] names = new QualifiedName[N];
+		final String[] values = new String[N];
+		createProperties(readTarget, names, values);
+
+		final Throwable[] errorPointer = new Throwable[1];
+		Thread writer = new Thread(() -> {
+			try {
+				for (int j = 0; j < 20; j++)
+					for (int i = 0; i < N; i++)
+						writeTarget.setPersistentProperty(names[i], values[i] + j);
+			} catch (CoreException e) {
+				errorPointer[0] = e;
+			}
+		}, "PropertyWriter");
+		Thread[] readers = new Thread[3];
+		for (int k = 0; k < readers.length; k++) {
+			readers[k] = new Thread(() -> {
+				try {
+					for (int j = 0; j < 20; j++) {
+						for (int i = 0; i < N; i++)
+							assertEquals("1." + i, values[i], readTarget.getPersistentProperty(names[i]));
+						assertEquals("2.0", N, readTarget.getPersistentProperties().size());
+					}
+				} catch (Throwable e) {
+					errorPointer[0] = e;
+				}
+			}, "PropertyReader" + k);
+		}
+		writer.start();
+		for (Thread reader : readers)
+			reader.start();
+		join(readers);
+		join(new Thread[] {writer});
+		if (errorPointer[0] != null)
+			throw errorPointer[0];
+		for (int i = 0; i < N; i++)
+			assertEquals("3." + i, values[i] + 19, writeTarget.getPersistentProperty(names[i]));
+	}
+
 	/**
 	 * Tests concurrent access to the property store while the project is being
 	 * deleted.
@@ -569,6 +618,89 @@ public class PropertyManagerTest extends LocalStoreTest {
 		target.delete(false, monitor);
 	}
 
+	/**
+	 * Sets properties of many resources in several projects at once.
+	 */
+	public void testSetPersistentProperties() throws Throwable {
+		QualifiedName name1 = new QualifiedName("org.eclipse.core.tests", "prop1");
+		QualifiedName name2 = new QualifiedName("org.eclipse.core.tests", "prop2");
+		List<IResource> resources = new ArrayList<>();
+		for (IProject project : projects) {
+			resources.add(project);
+			for (int i = 0; i < 10; i++) {
+				IFolder folder = project.getFolder("folder" + i);
+				resources.add(folder);
+				for (int j = 0; j < 5; j++)
+					resources.add(folder.getFile("file" + j));
+			}
+		}
+		ensureExistsInWorkspace(resources.toArray(new IResource[resources.size()]), true);
+
+		Map<IResource, Map<QualifiedName, String>> properties = new HashMap<>();
+		for (IResource resource : resources) {
+			Map<QualifiedName, String> values = new HashMap<>();
+			values.put(name1, "1" + resource.getFullPath());
+			values.put(name2, "2" + resource.getFullPath());
+			properties.put(resource, values);
+		}
+		getWorkspace().setPersistentProperties(properties);
+		for (IResource resource : resources) {
+			assertEquals("1.0." + resource, "1" + resource.getFullPath(), resource.getPersistentProperty(name1));
+			assertEquals("1.1." + resource, "2" + resource.getFullPath(), resource.getPersistentProperty(name2));
+		}
+
+		// null values remove properties, other properties are kept
+		for (Map<QualifiedName, String> values : properties.values()) {
+			values.put(name1, null);
+			values.remove(name2);
+		}
+		getWorkspace().setPersistentProperties(properties);
+		for (IResource resource : resources) {
+			assertNull("2.0." + resource, resource.getPersistentProperty(name1));
+			assertEquals("2.1." + resource, "2" + resource.getFullPath(), resource.getPersistentProperty(name2));
+		}
+
+		// the properties survive discarding the cached buckets
+		((Workspace) getWorkspace()).getPropertyManager().shutdown(null);
+		((Workspace) getWorkspace()).getPropertyManager().startup(null);
+		for (IResource resource : resources)
+			assertEquals("3.0." + resource, "2" + resource.getFullPath(), resource.getPersistentProperty(name2));
+
+		// an invalid value fails before anything is written to its project
+		IFile file = projects[0].getFile("file");
+		ensureExistsInWorkspace(file, true);
+		Map<IResource, Map<QualifiedName, String>> invalid = new LinkedHashMap<>();
+		invalid.put(file, Collections.singletonMap(name1, "value"));
+		invalid.put(projects[0], Collections.singletonMap(name1, new String(new char[3000])));
+		try {
+			getWorkspace().setPersistentProperties(invalid);
+			fail("4.0");
+		} catch (CoreException e) {
+			// expected
+		}
+		assertNull("4.1", file.getPersistentProperty(name1));
+
+		// resources must exist
+		try {
+			getWorkspace().setPersistentProperties(Collections.singletonMap(projects[0].getFile("missing"), Collections.singletonMap(name1, "value")));
+			fail("5.0");
+		} catch (CoreException e) {
+			// expected
+		}
+
+		// the properties of a resource must not be null
+		Map<IResource, Map<QualifiedName, String>> missing = new LinkedHashMap<>();
+		missing.put(file, Collections.singletonMap(name1, "value"));
+		missing.put(projects[0], null);
+		try {
+			getWorkspace().setPersistentProperties(missing);
+			fail("6.0");
+		} catch (RuntimeException e) {
+			// expected
+		}
+		assertNull("6.1", file.getPersistentProperty(name1));
+	}
+
 	public void testSimpleUpdate() {
 
 		// create common objects
@@ -0,0 +1,69 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.tests.internal.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import org.eclipse.core.internal.utils.StringPool;
+import org.junit.Test;
+
+public class StringPoolTest {
+	@Test
+	public void testAdd() {
+		StringPool pool = new StringPool();
+		assertNull("1.0", pool.add(null));
+		String first = new String("foo");
+		String second = new String("foo");
+		assertSame("1.1", first, pool.add(first));
+		assertEquals("1.2", 0, pool.getSavedStringCount());
+		assertSame("1.3", first, pool.add(second));
+		assertTrue("1.4", pool.getSavedStringCount() > 0);
+		// adding the pooled string again saves nothing
+		int saved = pool.getSavedStringCount();
+		assertSame("1.5", first, pool.add(first));
+		assertEquals("1.6", saved, pool.getSavedStringCount());
+	}
+
+	@Test
+	public void testConcurrentAdd() throws Exception {
+		StringPool pool = new StringPool();
+		int threads = 4;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<String[]>> results = new ArrayList<>(threads);
+			for (int i = 0; i < threads; i++) {
+				results.add(executor.submit(() -> {
+					String[] shared = new String[1000];
+					for (int j = 0; j < shared.length; j++)
+						shared[j] = pool.add(Integer.toString(j));
+					return shared;
+				}));
+			}
+			String[] expected = results.get(0).get();
+			for (int i = 1; i < threads; i++) {
+				String[] actual = results.get(i).get();
+				for (int j = 0; j < expected.length; j++)
+					assertSame("2." + i + "." + j, expected[j], actual[j]);
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+}
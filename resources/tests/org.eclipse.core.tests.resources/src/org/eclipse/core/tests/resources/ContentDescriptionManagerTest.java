@@ -126,6 +126,62 @@ public class ContentDescriptionManagerTest extends ResourceTest {
 		assertNull("5.4", description2);
 	}
 
+	/**
+	 * Ensures described content descriptions survive a restart, and that changing
+	 * a content type only discards the descriptions it may affect.
+	 */
+	public void testStoredDescriptions() throws CoreException {
+		IWorkspace workspace = getWorkspace();
+		ContentDescriptionManager manager = ((Workspace) workspace).getContentDescriptionManager();
+		IProject project = workspace.getRoot().getProject("MyProject");
+		IContentTypeManager contentTypeManager = Platform.getContentTypeManager();
+		IContentType xml = contentTypeManager.getContentType("org.eclipse.core.runtime.xml");
+		IContentType unrelated = contentTypeManager.getContentType("org.eclipse.core.tests.resources.myContent2");
+		IFile file = project.getFile("file.xml");
+		ensureExistsInWorkspace(file, getContents(CharsetTest.SAMPLE_XML_ISO_8859_1_ENCODING));
+		// ensure we start in a known state
+		manager.invalidateCache(true, null);
+		waitForCacheFlush();
+		assertEquals("1.0", 0, manager.getStoredDescriptionCount());
+
+		IContentDescription description = getDescription("2.0", file);
+		assertEquals("2.1", xml, description.getContentType());
+		assertEquals("2.2", "ISO-8859-1", description.getCharset());
+		assertEquals("2.3", 1, manager.getStoredDescriptionCount());
+
+		// simulate a restart
+		manager.shutdown(getMonitor());
+		manager.startup(getMonitor());
+		assertEquals("3.0", 1, manager.getStoredDescriptionCount());
+		IContentDescription restored = getDescription("3.1", file);
+		assertNotSame("3.2", description, restored);
+		assertEquals("3.3", xml, restored.getContentType());
+		assertEquals("3.4", "ISO-8859-1", restored.getCharset());
+		assertSame("3.5", restored, getDescription("3.6", file));
+
+		// changing an unrelated content type keeps the description
+		String newExtension = "stored_descriptions";
+		unrelated.addFileSpec(newExtension, IContentType.FILE_EXTENSION_SPEC);
+		try {
+			assertEquals("4.0", 1, manager.getStoredDescriptionCount());
+			assertSame("4.1", restored, getDescription("4.2", file));
+		} finally {
+			unrelated.removeFileSpec(newExtension, IContentType.FILE_EXTENSION_SPEC);
+		}
+
+		// changing the content type of the file discards it
+		xml.addFileSpec(newExtension, IContentType.FILE_EXTENSION_SPEC);
+		try {
+			assertEquals("5.0", 0, manager.getStoredDescriptionCount());
+			IContentDescription changed = getDescription("5.1", file);
+			assertNotSame("5.2", restored, changed);
+			assertEquals("5.3", "ISO-8859-1", changed.getCharset());
+		} finally {
+			xml.removeFileSpec(newExtension, IContentType.FILE_EXTENSION_SPEC);
+		}
+		waitForCacheFlush();
+	}
+
 	public void testBug94516() {
 		IContentTypeManager contentTypeManager = Platform.getContentTypeManager();
 		IContentType text = contentTypeManager.getContentType("org.eclipse.core.runtime.text");
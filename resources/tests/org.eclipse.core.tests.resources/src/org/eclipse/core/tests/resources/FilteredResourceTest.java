@@ -1289,6 +1289,100 @@ public class FilteredResourceTest extends ResourceTest {
 		assertEquals("2.2", members[0].getName(), "file.c");
 	}
 
+	/**
+	 * Tests several regular expression filters on the same container, some of
+	 * which are plain names, and that filtering follows changes of the filters.
+	 */
+	public void testMergedRegexFilters() {
+		FileInfoMatcherDescription matcherDescription1 = new FileInfoMatcherDescription(REGEX_FILTER_PROVIDER, "node_modules");
+		FileInfoMatcherDescription matcherDescription2 = new FileInfoMatcherDescription(REGEX_FILTER_PROVIDER, ".*\\.tmp");
+		FileInfoMatcherDescription matcherDescription3 = new FileInfoMatcherDescription(REGEX_FILTER_PROVIDER, "(target|bin)");
+
+		IResourceFilterDescription filter1 = null;
+		try {
+			filter1 = existingProject.createFilter(IResourceFilterDescription.EXCLUDE_ALL | IResourceFilterDescription.INHERITABLE | IResourceFilterDescription.FOLDERS, matcherDescription1, 0, getMonitor());
+			existingProject.createFilter(IResourceFilterDescription.EXCLUDE_ALL | IResourceFilterDescription.INHERITABLE | IResourceFilterDescription.FILES, matcherDescription2, 0, getMonitor());
+			existingFolderInExistingFolder.createFilter(IResourceFilterDescription.EXCLUDE_ALL | IResourceFilterDescription.FOLDERS, matcherDescription3, 0, getMonitor());
+		} catch (CoreException e) {
+			fail("1.0", e);
+		}
+
+		IFolder modules = existingFolderInExistingFolder.getFolder("node_modules");
+		IFolder target = existingFolderInExistingFolder.getFolder("target");
+		IFolder bin = existingFolderInExistingFolder.getFolder("bin");
+		IFile tmp = existingFolderInExistingFolder.getFile("foo.tmp");
+		IFile file = existingFolderInExistingFolder.getFile("foo.c");
+		IFile binFile = existingFolderInExistingFolder.getFile("bin");
+
+		ensureExistsInFileSystem(new IResource[] {modules, target, bin, tmp, file});
+		try {
+			existingProject.refreshLocal(IResource.DEPTH_INFINITE, getMonitor());
+		} catch (CoreException e) {
+			fail("1.1", e);
+		}
+
+		IResource members[] = null;
+		try {
+			members = existingFolderInExistingFolder.members();
+		} catch (CoreException e) {
+			fail("2.0", e);
+		}
+		assertEquals("2.1", 1, members.length);
+		assertEquals("2.2", file, members[0]);
+		assertFalse("2.3", binFile.exists());
+
+		try {
+			filter1.delete(0, getMonitor());
+			existingProject.refreshLocal(IResource.DEPTH_INFINITE, getMonitor());
+		} catch (CoreException e) {
+			fail("3.0", e);
+		}
+		try {
+			members = existingFolderInExistingFolder.members();
+		} catch (CoreException e) {
+			fail("3.1", e);
+		}
+		assertEquals("3.2", 2, members.length);
+		assertTrue("3.3", modules.exists());
+		assertTrue("3.4", file.exists());
+	}
+
+	/**
+	 * Tests regular expression filters on the same container that cannot be
+	 * combined into a single pattern, because they define the same named group.
+	 */
+	public void testRegexFiltersWithSameNamedGroup() {
+		FileInfoMatcherDescription matcherDescription1 = new FileInfoMatcherDescription(REGEX_FILTER_PROVIDER, "(?<name>foo)\\.tmp");
+		FileInfoMatcherDescription matcherDescription2 = new FileInfoMatcherDescription(REGEX_FILTER_PROVIDER, "(?<name>bar)\\.tmp");
+
+		try {
+			existingFolderInExistingFolder.createFilter(IResourceFilterDescription.EXCLUDE_ALL | IResourceFilterDescription.FILES, matcherDescription1, 0, getMonitor());
+			existingFolderInExistingFolder.createFilter(IResourceFilterDescription.EXCLUDE_ALL | IResourceFilterDescription.FILES, matcherDescription2, 0, getMonitor());
+		} catch (CoreException e) {
+			fail("1.0", e);
+		}
+
+		IFile foo = existingFolderInExistingFolder.getFile("foo.tmp");
+		IFile bar = existingFolderInExistingFolder.getFile("bar.tmp");
+		IFile file = existingFolderInExistingFolder.getFile("foo.c");
+
+		ensureExistsInFileSystem(new IResource[] {foo, bar, file});
+		try {
+			existingProject.refreshLocal(IResource.DEPTH_INFINITE, getMonitor());
+		} catch (CoreException e) {
+			fail("1.1", e);
+		}
+
+		IResource members[] = null;
+		try {
+			members = existingFolderInExistingFolder.members();
+		} catch (CoreException e) {
+			fail("2.0", e);
+		}
+		assertEquals("2.1", 1, members.length);
+		assertEquals("2.2", file, members[0]);
+	}
+
 	/**
 	 * Tests the creation of FOLDER filter.
 	 */
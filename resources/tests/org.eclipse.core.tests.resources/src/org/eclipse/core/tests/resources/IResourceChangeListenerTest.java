@@ -16,8 +16,10 @@ package org.eclipse.core.tests.resources;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Dictionary;
 import java.util.Hashtable;
+import java.util.List;
 import java.util.function.BooleanSupplier;
 import org.eclipse.core.internal.resources.Workspace;
 import org.eclipse.core.resources.*;
@@ -1583,6 +1585,44 @@ public class IResourceChangeListenerTest extends ResourceTest {
 		}
 	}
 
+	/**
+	 * Tests listeners that are only interested in the changes of some subtrees.
+	 */
+	public void testScopedListener() {
+		final List<IResourceDelta> deltas = new ArrayList<>();
+		IResourceChangeListener listener = event -> deltas.add(event.getDelta());
+		getWorkspace().addResourceChangeListener(listener, IResourceChangeEvent.POST_CHANGE, new IPath[] {folder2.getFullPath()});
+		try {
+			//changes outside of the scope are not reported
+			file1.setContents(getRandomContents(), true, true, getMonitor());
+			assertEquals("1.0", 0, deltas.size());
+
+			//changes inside of the scope are reported without the changes outside
+			IWorkspaceRunnable body = monitor -> {
+				file1.setContents(getRandomContents(), true, true, getMonitor());
+				folder1.createMarker(IMarker.BOOKMARK);
+				folder2.create(true, true, getMonitor());
+				file3.create(getRandomContents(), true, getMonitor());
+			};
+			getWorkspace().run(body, getMonitor());
+			assertEquals("2.0", 1, deltas.size());
+			IResourceDelta delta = deltas.get(0);
+			assertEquals("2.1", Path.ROOT, delta.getFullPath());
+			assertNotNull("2.2", delta.findMember(folder2.getFullPath()));
+			assertNotNull("2.3", delta.findMember(file3.getFullPath()));
+			assertNull("2.4", delta.findMember(file1.getFullPath()));
+			assertEquals("2.5", 1, delta.findMember(folder1.getFullPath()).getAffectedChildren().length);
+			//the ancestors of the scope don't report their own changes
+			IResourceDelta ancestor = delta.findMember(folder1.getFullPath());
+			assertEquals("2.6", IResourceDelta.CHANGED, ancestor.getKind());
+			assertEquals("2.7", 0, ancestor.getFlags());
+		} catch (CoreException e) {
+			fail("3.0", e);
+		} finally {
+			getWorkspace().removeResourceChangeListener(listener);
+		}
+	}
+
 	public void testSetLocal() {
 		try {
 			verifier.reset();
@@ -127,4 +127,44 @@ public class IResourceDeltaTest extends ResourceTest {
 			getWorkspace().removeResourceChangeListener(listener);
 		}
 	}
+
+	/**
+	 * Tests that the children of a delta are the same for all listeners, and
+	 * that moves are reported no matter which part of the delta is looked at first.
+	 */
+	public void testChildrenSharedByListeners() {
+		IFile destination = folder3.getFile(file2.getName());
+		IResourceDelta[][] seen = new IResourceDelta[2][];
+		IResourceChangeListener first = event -> {
+			//look at the destination of the move before its source
+			IResourceDelta delta = event.getDelta().findMember(destination.getFullPath());
+			assertNotNull("1.0", delta);
+			assertEquals("1.1", IResourceDelta.ADDED, delta.getKind());
+			assertTrue("1.2", (delta.getFlags() & IResourceDelta.MOVED_FROM) != 0);
+			assertEquals("1.3", file2.getFullPath(), delta.getMovedFromPath());
+			seen[0] = event.getDelta().findMember(folder1.getFullPath()).getAffectedChildren();
+		};
+		IResourceChangeListener second = event -> {
+			IResourceDelta delta = event.getDelta().findMember(file2.getFullPath());
+			assertNotNull("2.0", delta);
+			assertEquals("2.1", IResourceDelta.REMOVED, delta.getKind());
+			assertEquals("2.2", destination.getFullPath(), delta.getMovedToPath());
+			seen[1] = event.getDelta().findMember(folder1.getFullPath()).getAffectedChildren();
+		};
+		getWorkspace().addResourceChangeListener(first);
+		getWorkspace().addResourceChangeListener(second);
+		try {
+			file2.move(destination.getFullPath(), true, getMonitor());
+		} catch (CoreException e) {
+			fail("3.0", e);
+		} finally {
+			getWorkspace().removeResourceChangeListener(first);
+			getWorkspace().removeResourceChangeListener(second);
+		}
+		assertNotNull("4.0", seen[0]);
+		assertNotNull("4.1", seen[1]);
+		assertEquals("4.2", seen[0].length, seen[1].length);
+		for (int i = 0; i < seen[0].length; i++)
+			assertSame("4.3." + i, seen[0][i], seen[1][i]);
+	}
 }
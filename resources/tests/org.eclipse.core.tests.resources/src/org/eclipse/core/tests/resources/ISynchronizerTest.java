@@ -894,6 +894,83 @@ public class ISynchronizerTest extends ResourceTest {
 		}
 	}
 
+	/**
+	 * Sets sync info for several resources in one operation and ensures a
+	 * single change event is broadcast, phantoms are created and discarded as
+	 * needed, and unregistered partners are rejected.
+	 */
+	public void testSetSyncInfoBatch() {
+		final QualifiedName partner = new QualifiedName("org.eclipse.core.tests.resources", "myTarget");
+		final IWorkspace workspace = getWorkspace();
+		final ISynchronizer synchronizer = workspace.getSynchronizer();
+		synchronizer.add(partner);
+		IProject project = workspace.getRoot().getProject("MyProject");
+		IFolder folder = project.getFolder("foo");
+		IFile file1 = folder.getFile("file1.txt");
+		IFile file2 = folder.getFile("file2.txt");
+		IFile phantom = folder.getFile("phantom.txt");
+		ensureExistsInWorkspace(new IResource[] {file1, file2}, true);
+
+		// one change event for the whole batch
+		final int[] events = new int[1];
+		IResourceChangeListener listener = event -> events[0]++;
+		workspace.addResourceChangeListener(listener, IResourceChangeEvent.POST_CHANGE);
+		Map<IResource, byte[]> infos = new HashMap<>();
+		infos.put(workspace.getRoot(), getRandomString().getBytes());
+		infos.put(folder, getRandomString().getBytes());
+		infos.put(file1, getRandomString().getBytes());
+		infos.put(file2, getRandomString().getBytes());
+		infos.put(phantom, getRandomString().getBytes());
+		try {
+			synchronizer.setSyncInfo(partner, infos);
+		} catch (CoreException e) {
+			fail("1.0", e);
+		} finally {
+			workspace.removeResourceChangeListener(listener);
+		}
+		assertEquals("1.1", 1, events[0]);
+		try {
+			assertNull("1.2", synchronizer.getSyncInfo(partner, workspace.getRoot()));
+			for (IResource resource : new IResource[] {folder, file1, file2, phantom})
+				assertEquals("1.3." + resource, infos.get(resource), synchronizer.getSyncInfo(partner, resource));
+		} catch (CoreException e) {
+			fail("1.4", e);
+		}
+		assertTrue("1.5", phantom.isPhantom());
+
+		// null values discard the info and remove phantoms
+		infos.clear();
+		infos.put(file1, null);
+		infos.put(phantom, null);
+		try {
+			synchronizer.setSyncInfo(partner, infos);
+			assertNull("2.0", synchronizer.getSyncInfo(partner, file1));
+			assertNotNull("2.1", synchronizer.getSyncInfo(partner, file2));
+		} catch (CoreException e) {
+			fail("2.2", e);
+		}
+		assertTrue("2.3", !phantom.isPhantom());
+		try {
+			synchronizer.setSyncInfo(partner, Collections.emptyMap());
+			assertNotNull("2.4", synchronizer.getSyncInfo(partner, file2));
+		} catch (CoreException e) {
+			fail("2.5", e);
+		}
+
+		// the partner must be registered
+		QualifiedName unknown = new QualifiedName("org.eclipse.core.tests.resources", "unknown");
+		try {
+			synchronizer.setSyncInfo(unknown, Collections.singletonMap(file1, getRandomString().getBytes()));
+			fail("3.0");
+		} catch (CoreException e) {
+			// expected
+		}
+
+		// clean-up
+		synchronizer.remove(partner);
+		ensureDoesNotExistInWorkspace(project);
+	}
+
 	/**
 	 * Removes resources, sets sync info to <code>null</code> and ensures the
 	 * phantoms do not exist any more (see bug 3024)
@@ -14,6 +14,7 @@
  *******************************************************************************/
 package org.eclipse.core.tests.resources;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertThrows;
 
@@ -645,6 +646,78 @@ public class IWorkspaceTest extends ResourceTest {
 		assertEquals("5.2", 1, status.getChildren().length);
 	}
 
+	/**
+	 * Tests importing several existing projects with
+	 * IWorkspace.loadProjectDescriptions and IWorkspace.createProjects.
+	 */
+	public void testImportProjects() throws CoreException {
+		final int PROJECT_COUNT = 10;
+		IProject[] projects = new IProject[PROJECT_COUNT];
+		IPath[] descriptionFiles = new IPath[PROJECT_COUNT];
+		for (int i = 0; i < PROJECT_COUNT; i++) {
+			projects[i] = getWorkspace().getRoot().getProject("Import" + i);
+			IProjectDescription description = getWorkspace().newProjectDescription(projects[i].getName());
+			IPath location = getRandomLocation();
+			deleteOnTearDown(location);
+			description.setLocation(location);
+			description.setComment("comment" + i);
+			projects[i].create(description, getMonitor());
+			projects[i].open(getMonitor());
+			ensureExistsInWorkspace(projects[i].getFile("file"), true);
+			descriptionFiles[i] = projects[i].getLocation().append(IProjectDescription.DESCRIPTION_FILE_NAME);
+		}
+		getWorkspace().delete(projects, IResource.NEVER_DELETE_PROJECT_CONTENT, getMonitor());
+
+		IProjectDescription[] descriptions = getWorkspace().loadProjectDescriptions(descriptionFiles);
+		assertEquals("1.0", PROJECT_COUNT, descriptions.length);
+		for (int i = 0; i < PROJECT_COUNT; i++) {
+			assertEquals("1.1." + i, projects[i].getName(), descriptions[i].getName());
+			assertEquals("1.2." + i, "comment" + i, descriptions[i].getComment());
+		}
+
+		// a single event for all projects
+		final int[] events = new int[1];
+		IResourceChangeListener listener = event -> events[0]++;
+		getWorkspace().addResourceChangeListener(listener, IResourceChangeEvent.POST_CHANGE);
+		IProject[] created;
+		try {
+			created = getWorkspace().createProjects(descriptions, getMonitor());
+		} finally {
+			getWorkspace().removeResourceChangeListener(listener);
+		}
+		assertEquals("2.0", 1, events[0]);
+		assertArrayEquals("2.1", projects, created);
+		for (int i = 0; i < PROJECT_COUNT; i++) {
+			assertTrue("2.2." + i, projects[i].exists());
+			assertEquals("2.3." + i, descriptionFiles[i].removeLastSegments(1), projects[i].getLocation());
+			projects[i].open(getMonitor());
+			assertTrue("2.4." + i, projects[i].getFile("file").exists());
+		}
+
+		// no description can be read if one is missing
+		IPath[] missing = {descriptionFiles[0], descriptionFiles[1].removeLastSegments(1).append("missing")};
+		CoreException e1 = assertThrows(CoreException.class, () -> getWorkspace().loadProjectDescriptions(missing));
+		assertEquals("3.0", 1, e1.getStatus().getChildren().length);
+
+		// no project is created if one of the descriptions is invalid
+		getWorkspace().delete(projects, IResource.NEVER_DELETE_PROJECT_CONTENT, getMonitor());
+		IProjectDescription[] invalid = {descriptions[0], descriptions[1], descriptions[1]};
+		CoreException e2 = assertThrows(CoreException.class, () -> getWorkspace().createProjects(invalid, getMonitor()));
+		assertEquals("4.0", 1, e2.getStatus().getChildren().length);
+		assertFalse("4.1", projects[0].exists());
+		assertFalse("4.2", projects[1].exists());
+
+		// nor if two descriptions of the batch share a location
+		IProjectDescription other = getWorkspace().newProjectDescription("Import" + PROJECT_COUNT);
+		other.setLocationURI(descriptions[1].getLocationURI());
+		IProjectDescription[] overlapping = {descriptions[0], descriptions[1], other};
+		CoreException e3 = assertThrows(CoreException.class, () -> getWorkspace().createProjects(overlapping, getMonitor()));
+		assertEquals("5.0", 1, e3.getStatus().getChildren().length);
+		assertFalse("5.1", projects[0].exists());
+		assertFalse("5.2", projects[1].exists());
+		assertFalse("5.3", getWorkspace().getRoot().getProject(other.getName()).exists());
+	}
+
 	public void testMultiCreation() throws Throwable {
 		final IProject project = getWorkspace().getRoot().getProject("bar");
 		final IResource[] resources = buildResources(project, new String[] {"a/", "a/b"});
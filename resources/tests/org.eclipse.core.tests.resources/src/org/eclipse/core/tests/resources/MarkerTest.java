@@ -17,6 +17,7 @@ package org.eclipse.core.tests.resources;
 import java.io.*;
 import java.io.File;
 import java.util.*;
+import org.eclipse.core.internal.localstore.SafeChunkyInputStream;
 import org.eclipse.core.internal.resources.*;
 import org.eclipse.core.internal.watson.IPathRequestor;
 import org.eclipse.core.resources.*;
@@ -914,6 +915,74 @@ public class MarkerTest extends ResourceTest {
 
 	}
 
+	/**
+	 * Tests that deep marker searches see markers that are changed, moved and
+	 * deleted after an earlier search.
+	 */
+	public void testFindMarkersAfterChanges() throws CoreException {
+		final IWorkspaceRoot root = getWorkspace().getRoot();
+		IProject project = root.getProject("testFindMarkersAfterChanges");
+		IFolder folder = project.getFolder("top");
+		IFolder other = project.getFolder("other");
+		IFile file = folder.getFile("a.txt");
+		ensureExistsInWorkspace(new IResource[] {project, folder, other, file}, true);
+
+		IMarker marker = file.createMarker(IMarker.PROBLEM);
+		marker.setAttribute(IMarker.SEVERITY, IMarker.SEVERITY_INFO);
+		assertEquals("1.0", IMarker.SEVERITY_INFO, project.findMaxProblemSeverity(IMarker.PROBLEM, true, IResource.DEPTH_INFINITE));
+		assertEquals("1.1", 1, folder.findMarkers(IMarker.PROBLEM, true, IResource.DEPTH_INFINITE).length);
+
+		// only the first change in an operation is reported as a delta
+		getWorkspace().run(monitor -> {
+			marker.setAttribute(IMarker.SEVERITY, IMarker.SEVERITY_WARNING);
+			assertEquals("2.0", IMarker.SEVERITY_WARNING, project.findMaxProblemSeverity(IMarker.PROBLEM, true, IResource.DEPTH_INFINITE));
+			marker.setAttribute(IMarker.SEVERITY, IMarker.SEVERITY_ERROR);
+		}, getMonitor());
+		assertEquals("2.1", IMarker.SEVERITY_ERROR, project.findMaxProblemSeverity(IMarker.PROBLEM, true, IResource.DEPTH_INFINITE));
+
+		IFile moved = other.getFile("a.txt");
+		file.move(moved.getFullPath(), true, getMonitor());
+		assertEquals("3.0", -1, folder.findMaxProblemSeverity(IMarker.PROBLEM, true, IResource.DEPTH_INFINITE));
+		assertEquals("3.1", 0, folder.findMarkers(IMarker.PROBLEM, true, IResource.DEPTH_INFINITE).length);
+		assertEquals("3.2", IMarker.SEVERITY_ERROR, other.findMaxProblemSeverity(IMarker.PROBLEM, true, IResource.DEPTH_INFINITE));
+		assertEquals("3.3", 1, other.findMarkers(IMarker.PROBLEM, true, IResource.DEPTH_INFINITE).length);
+
+		moved.delete(true, getMonitor());
+		assertEquals("4.0", -1, project.findMaxProblemSeverity(IMarker.PROBLEM, true, IResource.DEPTH_INFINITE));
+		assertEquals("4.1", 0, project.findMarkers(IMarker.PROBLEM, true, IResource.DEPTH_INFINITE).length);
+	}
+
+	/**
+	 * Tests that deep marker searches in a project only find the markers of
+	 * that project, and searches from the workspace root find all of them.
+	 */
+	public void testFindMarkersInProjects() throws CoreException {
+		final IWorkspaceRoot root = getWorkspace().getRoot();
+		IProject project1 = root.getProject("testFindMarkersInProjects1");
+		IProject project2 = root.getProject("testFindMarkersInProjects2");
+		IFile file1 = project1.getFile("a.txt");
+		IFile file2 = project2.getFile("a.txt");
+		ensureExistsInWorkspace(new IResource[] {project1, project2, file1, file2}, true);
+
+		file1.createMarker(IMarker.PROBLEM);
+		file2.createMarker(IMarker.PROBLEM);
+		file2.createMarker(IMarker.TASK);
+		root.createMarker(IMarker.PROBLEM);
+		assertEquals("1.0", 1, project1.findMarkers(IMarker.PROBLEM, true, IResource.DEPTH_INFINITE).length);
+		assertEquals("1.1", 2, project2.findMarkers(null, true, IResource.DEPTH_INFINITE).length);
+		assertEquals("1.2", 3, root.findMarkers(IMarker.PROBLEM, true, IResource.DEPTH_INFINITE).length);
+
+		IProject renamed = root.getProject("testFindMarkersInProjects3");
+		project1.move(renamed.getFullPath(), true, getMonitor());
+		assertEquals("2.0", 1, renamed.findMarkers(IMarker.PROBLEM, true, IResource.DEPTH_INFINITE).length);
+		assertEquals("2.1", 3, root.findMarkers(IMarker.PROBLEM, true, IResource.DEPTH_INFINITE).length);
+
+		project2.delete(true, getMonitor());
+		assertEquals("3.0", 2, root.findMarkers(IMarker.PROBLEM, true, IResource.DEPTH_INFINITE).length);
+		root.deleteMarkers(null, true, IResource.DEPTH_ZERO);
+		renamed.delete(true, getMonitor());
+	}
+
 	/**
 	 * Tests public API method IMarker#isSubTypeOf
 	 */
@@ -1702,6 +1771,49 @@ public class MarkerTest extends ResourceTest {
 		assertTrue("6.0", file.delete());
 	}
 
+	/**
+	 * Tests that snapshots after the first one pick up marker changes, and only
+	 * append to the marker snapshot when markers have changed.
+	 */
+	public void testMarkerSnapshot() throws Exception {
+		IProject project = getWorkspace().getRoot().getProject("SnapProject");
+		IFile file1 = project.getFile("file1");
+		IFile file2 = project.getFile("file2");
+		ensureExistsInWorkspace(new IResource[] {project, file1, file2}, true);
+		Workspace workspace = (Workspace) getWorkspace();
+		File snapFile = workspace.getMetaArea().getMarkersSnapshotLocationFor(project).toFile();
+
+		IMarker marker1 = file1.createMarker(IMarker.PROBLEM);
+		IMarker marker2 = file2.createMarker(IMarker.BOOKMARK);
+		getWorkspace().save(false, getMonitor());
+		long size = snapFile.length();
+		assertTrue("1.0", size > 0);
+
+		// nothing has changed
+		getWorkspace().save(false, getMonitor());
+		assertEquals("2.0", size, snapFile.length());
+
+		marker2.setAttribute(IMarker.MESSAGE, "changed");
+		getWorkspace().save(false, getMonitor());
+		assertTrue("3.0", snapFile.length() > size);
+
+		// restore the markers from the snapshot
+		getWorkspace().getRoot().deleteMarkers(null, true, IResource.DEPTH_INFINITE);
+		getWorkspace().run((IWorkspaceRunnable) monitor -> {
+			try (DataInputStream input = new DataInputStream(new SafeChunkyInputStream(snapFile))) {
+				MarkerSnapshotReader reader = new MarkerSnapshotReader(workspace);
+				while (true)
+					reader.read(input);
+			} catch (EOFException e) {
+				// all snapshots read
+			} catch (IOException e) {
+				fail("4.0", e);
+			}
+		}, getMonitor());
+		assertExists("4.1", new IMarker[] {marker1, marker2});
+		assertEquals("4.2", "changed", marker2.getAttribute(IMarker.MESSAGE));
+	}
+
 	public void testMarkerSaveTransient() {
 		debug("TestMarkerSaveTransient");
 
@@ -18,7 +18,6 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 import org.eclipse.core.internal.runtime.InternalPlatform;
-import org.eclipse.core.internal.utils.StringPoolJob;
 import org.eclipse.core.runtime.*;
 import org.eclipse.core.runtime.jobs.Job;
 import org.junit.Assert;
@@ -74,10 +73,6 @@ public class TestUtil {
 	}
 
 	static boolean ignoreJob(Job job) {
-		if (job instanceof StringPoolJob) {
-			// reschedules itself
-			return true;
-		}
 		Class<?> clazz = job.getClass();
 		while ((clazz = clazz.getSuperclass()) != null) {
 			if (clazz.getSimpleName().equals("UIJob")) {
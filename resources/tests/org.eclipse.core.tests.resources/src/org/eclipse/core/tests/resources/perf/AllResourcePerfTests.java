@@ -22,7 +22,8 @@ import org.junit.runners.Suite;
 @RunWith(Suite.class)
 @Suite.SuiteClasses({ BenchFileStore.class, BenchWorkspace.class, BenchMiscWorkspace.class,
 		BuilderPerformanceTest.class, MarkerPerformanceTest.class, LocalHistoryPerformanceTest.class,
-		WorkspacePerformanceTest.class, PropertyManagerPerformanceTest.class, FileSystemPerformanceTest.class })
+		WorkspacePerformanceTest.class, PropertyManagerPerformanceTest.class, FileSystemPerformanceTest.class,
+		RefreshLocalPerformanceTest.class })
 public class AllResourcePerfTests {
 	// these tests are flawed - see bug 57137
 	// ContentDescriptionPerformanceTest.class
@@ -15,9 +15,13 @@
 package org.eclipse.core.tests.resources.perf;
 
 import java.util.ArrayList;
+import org.eclipse.core.internal.resources.ICoreConstants;
+import org.eclipse.core.internal.resources.ResourceInfo;
 import org.eclipse.core.internal.watson.ElementTree;
+import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.QualifiedName;
 import org.eclipse.core.tests.harness.PerformanceTestRunner;
 import org.eclipse.core.tests.resources.OldCorePerformanceTest;
 
@@ -141,6 +145,56 @@ public class BenchElementTree extends OldCorePerformanceTest {
 		stopBench("benchRoutineOperations", opCount);
 	}
 
+	/**
+	 * Measures the heap used per resource by a tree of resource infos, for
+	 * resources that only have the state every resource has, and for resources
+	 * that also have a session property.
+	 */
+	public void benchResourceFootprint() {
+		final int folderCount = 100;
+		final int fileCount = 1000;
+		final int resourceCount = folderCount * (fileCount + 1);
+		QualifiedName key = new QualifiedName("org.eclipse.core.tests.resources", "key"); //$NON-NLS-1$ //$NON-NLS-2$
+
+		for (boolean withProperty : new boolean[] {false, true}) {
+			long before = usedMemory();
+			ElementTree tree = new ElementTree();
+			tree.createElement(solution, newResourceInfo(IResource.ROOT));
+			tree.createElement(project, newResourceInfo(IResource.PROJECT));
+			for (int i = 0; i < folderCount; i++) {
+				IPath folderPath = project.append("folder" + i); //$NON-NLS-1$
+				tree.createElement(folderPath, newResourceInfo(IResource.FOLDER));
+				for (int j = 0; j < fileCount; j++) {
+					ResourceInfo info = newResourceInfo(IResource.FILE);
+					if (withProperty)
+						info.setSessionProperty(key, Boolean.TRUE);
+					tree.createElement(folderPath.append("file" + j), info); //$NON-NLS-1$
+				}
+			}
+			tree.immutable();
+			long used = usedMemory() - before;
+			perfLog("benchResourceFootprint " + (withProperty ? "with" : "without") + " session property: " + (used / resourceCount) + " bytes per resource"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+			// keep the tree reachable until it has been measured
+			assertTrue(tree.includes(project));
+		}
+	}
+
+	private static ResourceInfo newResourceInfo(int type) {
+		ResourceInfo info = new ResourceInfo();
+		info.setType(type);
+		info.set(ICoreConstants.M_LOCAL_EXISTS);
+		info.setNodeId(1);
+		return info;
+	}
+
+	private static long usedMemory() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 20; ++i) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
 	/**
 	 * Tests the performance of the setElementData operation.
 	 */
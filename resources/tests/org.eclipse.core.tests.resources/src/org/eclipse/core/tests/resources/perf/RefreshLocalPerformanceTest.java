@@ -0,0 +1,104 @@
+/*******************************************************************************
+ *  Copyright (c) 2023 IBM Corporation and others.
+ *
+ *  This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License 2.0
+ *  which accompanies this distribution, and is available at
+ *  https://www.eclipse.org/legal/epl-2.0/
+ *
+ *  SPDX-License-Identifier: EPL-2.0
+ *
+ *  Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.tests.resources.perf;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.tests.harness.PerformanceTestRunner;
+import org.eclipse.core.tests.resources.ResourceTest;
+
+/**
+ * Benchmarks refreshLocal on a deep tree that was created behind the workspace's
+ * back, with and without directory listings being fetched ahead of the visitor.
+ */
+public class RefreshLocalPerformanceTest extends ResourceTest {
+	private static final String PROP_PREFETCH_THREADS = "org.eclipse.core.resources.refresh.prefetchThreads";
+	private static final int TREE_WIDTH = 8;
+	private static final int TREE_DEPTH = 4;
+	private static final int FILES_PER_FOLDER = 10;
+	private static final int REPEATS = 5;
+
+	private IProject project;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		project = getWorkspace().getRoot().getProject(getUniqueString());
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		System.clearProperty(PROP_PREFETCH_THREADS);
+		super.tearDown();
+	}
+
+	private void createTree(Path directory, int depth) throws IOException {
+		Files.createDirectories(directory);
+		for (int i = 0; i < FILES_PER_FOLDER; i++)
+			Files.write(directory.resolve("file" + i + ".txt"), new byte[] {(byte) i});
+		if (depth == 0)
+			return;
+		for (int i = 0; i < TREE_WIDTH; i++)
+			createTree(directory.resolve("folder" + i), depth - 1);
+	}
+
+	private void runRefresh(String fingerprint) {
+		PerformanceTestRunner runner = new PerformanceTestRunner() {
+			@Override
+			protected void setUp() throws CoreException {
+				project.create(getMonitor());
+				project.open(getMonitor());
+				try {
+					createTree(project.getLocation().toFile().toPath().resolve("tree"), TREE_DEPTH);
+				} catch (IOException e) {
+					fail("Failed to create tree", e);
+				}
+				waitForRefresh();
+				waitForBuild();
+			}
+
+			@Override
+			protected void tearDown() throws CoreException {
+				project.delete(IResource.FORCE | IResource.ALWAYS_DELETE_PROJECT_CONTENT, getMonitor());
+			}
+
+			@Override
+			protected void test() {
+				try {
+					//the first refresh discovers the tree, the second one only compares
+					project.refreshLocal(IResource.DEPTH_INFINITE, getMonitor());
+					project.refreshLocal(IResource.DEPTH_INFINITE, getMonitor());
+				} catch (CoreException e) {
+					fail("Failed to refresh", e);
+				}
+			}
+		};
+		runner.setFingerprintName(fingerprint);
+		runner.run(this, REPEATS, 1);
+	}
+
+	public void testRefresh() {
+		System.clearProperty(PROP_PREFETCH_THREADS);
+		runRefresh("Refresh deep tree");
+	}
+
+	public void testRefreshWithPrefetch() {
+		System.setProperty(PROP_PREFETCH_THREADS, Integer.toString(4));
+		runRefresh("Refresh deep tree with prefetch");
+	}
+}
@@ -0,0 +1,140 @@
+/*******************************************************************************
+ *  Copyright (c) 2023 IBM Corporation and others.
+ *
+ *  This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License 2.0
+ *  which accompanies this distribution, and is available at
+ *  https://www.eclipse.org/legal/epl-2.0/
+ *
+ *  SPDX-License-Identifier: EPL-2.0
+ *
+ *  Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.tests.resources.refresh;
+
+import java.nio.file.Files;
+import java.util.function.BooleanSupplier;
+import org.eclipse.core.resources.*;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.preferences.IEclipsePreferences;
+import org.eclipse.core.runtime.preferences.InstanceScope;
+import org.eclipse.core.tests.resources.ResourceTest;
+
+/**
+ * Tests the native Linux refresh provider by changing files behind the
+ * workspace's back and waiting for the changes to show up.
+ */
+public class LinuxRefreshProviderTest extends ResourceTest {
+	/**
+	 * The maximum time to wait for a change to be picked up. This is well below
+	 * the delay of a polling iteration on the test projects.
+	 */
+	private static final long TIMEOUT = 5000;
+
+	private boolean originalRefreshSetting;
+	private IProject project;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		//turn on autorefresh
+		IEclipsePreferences prefs = InstanceScope.INSTANCE.getNode(ResourcesPlugin.PI_RESOURCES);
+		originalRefreshSetting = prefs.getBoolean(ResourcesPlugin.PREF_AUTO_REFRESH, false);
+		prefs.putBoolean(ResourcesPlugin.PREF_AUTO_REFRESH, true);
+		project = getWorkspace().getRoot().getProject(getUniqueString());
+		ensureExistsInWorkspace(project, true);
+		waitForRefresh();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		super.tearDown();
+		//turn off autorefresh
+		IEclipsePreferences prefs = InstanceScope.INSTANCE.getNode(ResourcesPlugin.PI_RESOURCES);
+		prefs.putBoolean(ResourcesPlugin.PREF_AUTO_REFRESH, originalRefreshSetting);
+	}
+
+	private boolean isLinux() {
+		return Platform.OS_LINUX.equals(Platform.getOS());
+	}
+
+	private void waitUntil(String message, BooleanSupplier condition) throws InterruptedException {
+		long end = System.currentTimeMillis() + TIMEOUT;
+		while (!condition.getAsBoolean()) {
+			if (System.currentTimeMillis() > end)
+				fail(message);
+			Thread.sleep(50);
+		}
+	}
+
+	public void testFileCreatedAndDeleted() throws Exception {
+		if (!isLinux())
+			return;
+		IFile file = project.getFile("file.txt");
+		Files.write(file.getLocation().toFile().toPath(), getRandomString().getBytes());
+		waitUntil("1.0", file::exists);
+		Files.delete(file.getLocation().toFile().toPath());
+		waitUntil("2.0", () -> !file.exists());
+	}
+
+	public void testFileInNewFolder() throws Exception {
+		if (!isLinux())
+			return;
+		IFolder folder = project.getFolder("folder");
+		Files.createDirectory(folder.getLocation().toFile().toPath());
+		waitUntil("1.0", folder::exists);
+		//the new directory must be watched as well
+		IFile file = folder.getFile("file.txt");
+		Files.write(file.getLocation().toFile().toPath(), getRandomString().getBytes());
+		waitUntil("2.0", file::exists);
+	}
+
+	/**
+	 * A renamed directory keeps its watch, which must report the changes below
+	 * the new name, including those in directories created after the rename.
+	 */
+	public void testFolderRenamed() throws Exception {
+		if (!isLinux())
+			return;
+		IFolder folder = project.getFolder("folder");
+		ensureExistsInWorkspace(folder, true);
+		IFolder renamed = project.getFolder("renamed");
+		Files.move(folder.getLocation().toFile().toPath(), renamed.getLocation().toFile().toPath());
+		waitUntil("1.0", () -> renamed.exists() && !folder.exists());
+		IFolder child = renamed.getFolder("child");
+		Files.createDirectory(child.getLocation().toFile().toPath());
+		waitUntil("2.0", child::exists);
+		IFile file = child.getFile("file.txt");
+		Files.write(file.getLocation().toFile().toPath(), getRandomString().getBytes());
+		waitUntil("3.0", file::exists);
+		assertFalse("4.0", folder.getFolder("child").exists());
+	}
+
+	public void testFileModified() throws Exception {
+		if (!isLinux())
+			return;
+		IFile file = project.getFile("file.txt");
+		ensureExistsInWorkspace(file, getRandomString());
+		Files.write(file.getLocation().toFile().toPath(), "changed".getBytes());
+		java.io.File location = file.getLocation().toFile();
+		waitUntil("1.0", () -> file.getLocalTimeStamp() == location.lastModified());
+	}
+
+	/**
+	 * Turning auto-refresh off releases the watch service, turning it on again
+	 * must watch the project with a new one.
+	 */
+	public void testRefreshRestarted() throws Exception {
+		if (!isLinux())
+			return;
+		IEclipsePreferences prefs = InstanceScope.INSTANCE.getNode(ResourcesPlugin.PI_RESOURCES);
+		prefs.putBoolean(ResourcesPlugin.PREF_AUTO_REFRESH, false);
+		waitForRefresh();
+		prefs.putBoolean(ResourcesPlugin.PREF_AUTO_REFRESH, true);
+		waitForRefresh();
+		IFile file = project.getFile("file.txt");
+		Files.write(file.getLocation().toFile().toPath(), getRandomString().getBytes());
+		waitUntil("1.0", file::exists);
+	}
+}
@@ -19,7 +19,8 @@ import org.junit.runners.Suite;
 @RunWith(Suite.class)
 @Suite.SuiteClasses({ SampleSessionTest.class, TestBug93473.class, TestSave.class, Test1G1N9GZ.class,
 		TestCloseNoSave.class, TestMultiSnap.class, TestSaveCreateProject.class, TestSaveSnap.class,
-		TestSaveWithClosedProject.class, TestSnapSaveSnap.class, TestBug6995.class,
+		TestSaveWithClosedProject.class, TestSnapSaveSnap.class, TestCompactSnapshots.class,
+		TestRestoreDescriptions.class, TestBug6995.class,
 		TestInterestingProjectPersistence.class, TestBuilderDeltaSerialization.class, Test1GALH44.class,
 		TestMissingBuilder.class, TestClosedProjectLocation.class, FindDeletedMembersTest.class, TestBug20127.class,
 		TestBug12575.class, WorkspaceDescriptionTest.class, TestBug30015.class,
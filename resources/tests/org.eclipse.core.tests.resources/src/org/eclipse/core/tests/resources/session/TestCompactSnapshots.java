@@ -0,0 +1,80 @@
+/*******************************************************************************
+ *  Copyright (c) 2023 IBM Corporation and others.
+ *
+ *  This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License 2.0
+ *  which accompanies this distribution, and is available at
+ *  https://www.eclipse.org/legal/epl-2.0/
+ *
+ *  SPDX-License-Identifier: EPL-2.0
+ *
+ *  Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.tests.resources.session;
+
+import java.util.Arrays;
+import junit.framework.Test;
+import org.eclipse.core.internal.resources.Workspace;
+import org.eclipse.core.resources.*;
+import org.eclipse.core.runtime.QualifiedName;
+import org.eclipse.core.tests.resources.AutomatedResourceTests;
+import org.eclipse.core.tests.session.WorkspaceSessionTestSuite;
+
+/**
+ * Tests snapshoting markers and sync info until their snapshots are large
+ * enough to be compacted, then crash and recover.
+ */
+public class TestCompactSnapshots extends WorkspaceSerializationTest {
+	private static final QualifiedName PARTNER = new QualifiedName("org.eclipse.core.tests.resources", "compact");
+	/** The snapshots of all rounds together exceed the compaction threshold of 1MB. */
+	private static final int ROUNDS = 25;
+	private static final int MESSAGE_LENGTH = 50000;
+
+	private static String getMessage(int round) {
+		return String.valueOf((char) ('a' + round % 26)).repeat(MESSAGE_LENGTH);
+	}
+
+	private static byte[] getSyncInfo(int round) {
+		byte[] syncInfo = new byte[1000];
+		Arrays.fill(syncInfo, (byte) round);
+		return syncInfo;
+	}
+
+	public void test1() throws Exception {
+		IProject project = getWorkspace().getRoot().getProject(PROJECT);
+		IFile file = project.getFile(FILE);
+		ensureExistsInWorkspace(file, true);
+		ISynchronizer synchronizer = workspace.getSynchronizer();
+		synchronizer.add(PARTNER);
+		IMarker marker = file.createMarker(IMarker.PROBLEM);
+		for (int i = 0; i < ROUNDS; i++) {
+			marker.setAttribute(IMarker.MESSAGE, getMessage(i));
+			synchronizer.setSyncInfo(PARTNER, file, getSyncInfo(i));
+			//snapshot
+			workspace.save(false, getMonitor());
+		}
+		//the snapshots were compacted instead of holding every round
+		long size = ((Workspace) workspace).getMetaArea().getMarkersSnapshotLocationFor(project).toFile().length();
+		assertTrue("1.0", size < (long) ROUNDS * MESSAGE_LENGTH);
+		//exit without saving
+	}
+
+	public void test2() throws Exception {
+		IProject project = getWorkspace().getRoot().getProject(PROJECT);
+		IFile file = project.getFile(FILE);
+		assertExistsInWorkspace("1.0", new IResource[] {project, file});
+
+		/* the markers and sync info of the last round survived */
+		IMarker[] markers = file.findMarkers(IMarker.PROBLEM, false, IResource.DEPTH_ZERO);
+		assertEquals("2.0", 1, markers.length);
+		assertEquals("2.1", getMessage(ROUNDS - 1), markers[0].getAttribute(IMarker.MESSAGE));
+		ISynchronizer synchronizer = workspace.getSynchronizer();
+		synchronizer.add(PARTNER);
+		assertTrue("3.0", Arrays.equals(getSyncInfo(ROUNDS - 1), synchronizer.getSyncInfo(PARTNER, file)));
+	}
+
+	public static Test suite() {
+		return new WorkspaceSessionTestSuite(AutomatedResourceTests.PI_RESOURCES_TESTS, TestCompactSnapshots.class);
+	}
+}
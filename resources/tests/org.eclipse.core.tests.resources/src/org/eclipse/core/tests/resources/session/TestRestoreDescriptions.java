@@ -0,0 +1,88 @@
+/*******************************************************************************
+ *  Copyright (c) 2023 IBM Corporation and others.
+ *
+ *  This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License 2.0
+ *  which accompanies this distribution, and is available at
+ *  https://www.eclipse.org/legal/epl-2.0/
+ *
+ *  SPDX-License-Identifier: EPL-2.0
+ *
+ *  Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.tests.resources.session;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import junit.framework.Test;
+import org.eclipse.core.internal.utils.Messages;
+import org.eclipse.core.resources.*;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.tests.resources.AutomatedResourceTests;
+import org.eclipse.core.tests.session.WorkspaceSessionTestSuite;
+import org.eclipse.osgi.util.NLS;
+
+/**
+ * Tests restoring the descriptions of several projects on startup, which are
+ * read concurrently, when one of them has been corrupted on disk.
+ */
+public class TestRestoreDescriptions extends WorkspaceSerializationTest {
+	private static final int PROJECT_COUNT = 8;
+	private static final int CORRUPT_PROJECT = 3;
+
+	private IProject getProject(int i) {
+		return getWorkspace().getRoot().getProject(PROJECT + i);
+	}
+
+	public void test1() throws Exception {
+		for (int i = 0; i < PROJECT_COUNT; i++) {
+			IProject project = getProject(i);
+			project.create(getMonitor());
+			project.open(getMonitor());
+			IProjectDescription description = project.getDescription();
+			description.setComment("Comment " + i);
+			if (i > 0)
+				description.setReferencedProjects(new IProject[] {getProject(i - 1)});
+			project.setDescription(description, getMonitor());
+		}
+		workspace.save(true, getMonitor());
+
+		//corrupt a description behind the workspace's back
+		IProject corrupt = getProject(CORRUPT_PROJECT);
+		Files.write(corrupt.getFile(IProjectDescription.DESCRIPTION_FILE_NAME).getLocation().toFile().toPath(), "<projectDescription><name>".getBytes(StandardCharsets.UTF_8));
+		//exit without saving
+	}
+
+	public void test2() throws Exception {
+		for (int i = 0; i < PROJECT_COUNT; i++) {
+			if (i == CORRUPT_PROJECT)
+				continue;
+			IProject project = getProject(i);
+			assertTrue("1.0." + i, project.isOpen());
+			IProjectDescription description = project.getDescription();
+			assertEquals("1.1." + i, project.getName(), description.getName());
+			assertEquals("1.2." + i, "Comment " + i, description.getComment());
+			IProject[] expected = i > 0 ? new IProject[] {getProject(i - 1)} : new IProject[0];
+			assertEquals("1.3." + i, expected, description.getReferencedProjects());
+		}
+
+		/* the project with the corrupt description is closed, and the problem reported */
+		IProject corrupt = getProject(CORRUPT_PROJECT);
+		assertTrue("2.0", corrupt.exists());
+		assertTrue("2.1", !corrupt.isOpen());
+		String log = Files.readString(Platform.getLogFileLocation().toFile().toPath());
+		assertTrue("2.2", log.contains(NLS.bind(Messages.resources_readProjectMeta, corrupt.getName())));
+		try {
+			corrupt.open(getMonitor());
+			fail("2.3");
+		} catch (CoreException e) {
+			assertEquals("2.4", IResourceStatus.FAILED_READ_METADATA, e.getStatus().getCode());
+		}
+	}
+
+	public static Test suite() {
+		return new WorkspaceSessionTestSuite(AutomatedResourceTests.PI_RESOURCES_TESTS, TestRestoreDescriptions.class);
+	}
+}
@@ -15,7 +15,7 @@ package org.eclipse.core.internal.jobs;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
-import java.util.ArrayList;
+import java.util.*;
 import org.eclipse.core.internal.runtime.RuntimeLog;
 import org.eclipse.core.runtime.*;
 import org.eclipse.core.runtime.jobs.ILock;
@@ -23,16 +23,18 @@ import org.eclipse.core.runtime.jobs.ISchedulingRule;
 
 /**
  * Stores all the relationships between locks (rules are also considered locks),
- * and the threads that own them. All the relationships are stored in a 2D integer array.
- * The rows in the array are threads, while the columns are locks.
- * Two corresponding arrayLists store the actual threads and locks.
- * The index of a thread in the first arrayList is the index of the row in the graph.
- * The index of a lock in the second arrayList is the index of the column in the graph.
+ * and the threads that own them. The relationships form a matrix whose rows
+ * are threads and whose columns are locks, in the order they were added to the graph.
  * An entry greater than 0 in the graph is the number of times a thread in the entry's row
  * acquired the lock in the entry's column.
  * An entry of -1 means that the thread is waiting to acquire the lock.
  * An entry of 0 means that the thread and the lock have no relationship.
  *
+ * Most entries are 0, so only the other entries are stored. Every thread knows
+ * the entries of its row, and every lock the entries of its column, so that the
+ * threads owning a lock and the locks a thread waits for are found without
+ * walking the whole matrix.
+ *
  * The difference between rules and locks is that locks can be suspended, while
  * rules are implicit locks and as such cannot be suspended.
  * To resolve deadlock, the graph will first try to find a thread that only owns
@@ -72,16 +74,62 @@ public class DeadlockDetector {
 	private static int NO_STATE = 0;
 	//state variables in the graph
 	private static int WAITING_FOR_LOCK = -1;
-	//empty matrix
-	private static final int[][] EMPTY_MATRIX = new int[0][0];
-	//matrix of relationships between threads and locks
-	private int[][] graph = EMPTY_MATRIX;
-	//index is column in adjacency matrix for the lock
-	private final ArrayList<ISchedulingRule> locks = new ArrayList<>();
-	//index is row in adjacency matrix for the thread
-	private final ArrayList<Thread> lockThreads = new ArrayList<>();
-	//whether the graph needs to be resized
-	private boolean resize = false;
+
+	/**
+	 * A column of the graph.
+	 */
+	private static final class LockNode {
+		final ISchedulingRule lock;
+		//position of the column, columns added later have a greater position
+		final long position;
+		//non-empty entries of the column
+		final Map<ThreadNode, Entry> entries = new HashMap<>(4);
+
+		LockNode(ISchedulingRule lock, long position) {
+			this.lock = lock;
+			this.position = position;
+		}
+	}
+
+	/**
+	 * A row of the graph.
+	 */
+	private static final class ThreadNode {
+		final Thread thread;
+		//position of the row, rows added later have a greater position
+		final long position;
+		//non-empty entries of the row
+		final Map<LockNode, Entry> entries = new HashMap<>(4);
+
+		ThreadNode(Thread thread, long position) {
+			this.thread = thread;
+			this.position = position;
+		}
+	}
+
+	/**
+	 * A non-empty entry of the graph, shared by its row and its column.
+	 */
+	private static final class Entry {
+		final ThreadNode thread;
+		final LockNode lock;
+		int state;
+
+		Entry(ThreadNode thread, LockNode lock) {
+			this.thread = thread;
+			this.lock = lock;
+		}
+	}
+
+	private static final Comparator<LockNode> LOCK_ORDER = Comparator.comparingLong(node -> node.position);
+	private static final Comparator<ThreadNode> THREAD_ORDER = Comparator.comparingLong(node -> node.position);
+
+	//columns of the graph, in the order they were added
+	private final LinkedHashMap<ISchedulingRule, LockNode> locks = new LinkedHashMap<>();
+	//rows of the graph, in the order they were added
+	private final LinkedHashMap<Thread, ThreadNode> lockThreads = new LinkedHashMap<>();
+	//position of the next row or column
+	private long nextPosition;
 	private static volatile boolean noDeadlockReport;
 
 	/**
@@ -125,27 +173,32 @@ public class DeadlockDetector {
 	/**
 	 * Check that the addition of a waiting thread did not produce deadlock.
 	 * If deadlock is detected return true, else return false.
+	 * Threads that were already checked without finding a cycle are not
+	 * checked again, because no cycle can be reached from them.
 	 */
-	private boolean checkWaitCycles(int[] waitingThreads, int lockIndex) {
+	private boolean checkWaitCycles(Set<ThreadNode> visiting, Set<ThreadNode> checked, LockNode lock) {
 		/**
 		 * find the lock that this thread is waiting for
 		 * recursively check if this is a cycle (i.e. a thread waiting on itself)
 		 */
-		for (int i = 0; i < graph.length; i++) {
-			if (graph[i][lockIndex] > NO_STATE) {
-				if (waitingThreads[i] > NO_STATE) {
+		for (Entry owner : lock.entries.values()) {
+			if (owner.state > NO_STATE) {
+				ThreadNode thread = owner.thread;
+				if (visiting.contains(thread))
 					return true;
-				}
+				if (checked.contains(thread))
+					continue;
 				//keep track that we already visited this thread
-				waitingThreads[i]++;
-				for (int j = 0; j < graph[i].length; j++) {
-					if (graph[i][j] == WAITING_FOR_LOCK) {
-						if (checkWaitCycles(waitingThreads, j))
+				visiting.add(thread);
+				for (Entry entry : thread.entries.values()) {
+					if (entry.state == WAITING_FOR_LOCK) {
+						if (checkWaitCycles(visiting, checked, entry.lock))
 							return true;
 					}
 				}
 				//this thread is not involved in a cycle yet, so remove the visited flag
-				waitingThreads[i]--;
+				visiting.remove(thread);
+				checked.add(thread);
 			}
 		}
 		return false;
@@ -156,7 +209,7 @@ public class DeadlockDetector {
 	 * (meaning the given thread either owns locks or is waiting for locks)
 	 */
 	boolean contains(Thread t) {
-		return lockThreads.contains(t);
+		return lockThreads.containsKey(t);
 	}
 
 	/**
@@ -164,23 +217,23 @@ public class DeadlockDetector {
 	 * Find a rule it conflicts with and update the new rule with the number of times
 	 * it was acquired implicitly when threads acquired conflicting rule.
 	 */
-	private void fillPresentEntries(ISchedulingRule newLock, int lockIndex) {
+	private void fillPresentEntries(LockNode newLock) {
 		//fill in the entries for the new rule from rules it conflicts with
-		for (int j = 0; j < locks.size(); j++) {
-			if ((j != lockIndex) && (newLock.isConflicting(locks.get(j)))) {
-				for (int[] g : graph) {
-					if ((g[j] > NO_STATE) && (g[lockIndex] == NO_STATE)) {
-						g[lockIndex] = g[j];
+		for (LockNode lock : locks.values()) {
+			if ((lock != newLock) && (newLock.lock.isConflicting(lock.lock))) {
+				for (Entry entry : lock.entries.values()) {
+					if ((entry.state > NO_STATE) && (getState(entry.thread, newLock) == NO_STATE)) {
+						setState(entry.thread, newLock, entry.state);
 					}
 				}
 			}
 		}
 		//now back fill the entries for rules the current rule conflicts with
-		for (int j = 0; j < locks.size(); j++) {
-			if ((j != lockIndex) && (newLock.isConflicting(locks.get(j)))) {
-				for (int[] g : graph) {
-					if ((g[lockIndex] > NO_STATE) && (g[j] == NO_STATE)) {
-						g[j] = g[lockIndex];
+		for (LockNode lock : locks.values()) {
+			if ((lock != newLock) && (newLock.lock.isConflicting(lock.lock))) {
+				for (Entry entry : newLock.entries.values()) {
+					if ((entry.state > NO_STATE) && (getState(entry.thread, lock) == NO_STATE)) {
+						setState(entry.thread, lock, entry.state);
 					}
 				}
 			}
@@ -191,18 +244,25 @@ public class DeadlockDetector {
 	 * Returns all the locks owned by the given thread
 	 */
 	private Object[] getOwnedLocks(Thread current) {
+		ThreadNode thread = lockThreads.get(current);
 		ArrayList<ISchedulingRule> ownedLocks = new ArrayList<>(1);
-		int index = indexOf(current, false);
-
-		for (int j = 0; j < graph[index].length; j++) {
-			if (graph[index][j] > NO_STATE)
-				ownedLocks.add(locks.get(j));
+		for (LockNode lock : sortedLocks(thread)) {
+			if (getState(thread, lock) > NO_STATE)
+				ownedLocks.add(lock.lock);
 		}
 		if (ownedLocks.isEmpty())
 			Assert.isLegal(false, "A thread with no locks is part of a deadlock."); //$NON-NLS-1$
 		return ownedLocks.toArray();
 	}
 
+	/**
+	 * Returns the state of the entry of the given thread and lock.
+	 */
+	private int getState(ThreadNode thread, LockNode lock) {
+		Entry entry = thread.entries.get(lock);
+		return entry == null ? NO_STATE : entry.state;
+	}
+
 	/**
 	 * Returns an array of threads that form the deadlock (usually 2).
 	 */
@@ -224,12 +284,16 @@ public class DeadlockDetector {
 	private Thread[] getThreadsOwningLock(ISchedulingRule rule) {
 		if (rule == null)
 			return new Thread[0];
-		int lockIndex = indexOf(rule, false);
-		ArrayList<Thread> blocking = new ArrayList<>(1);
-		for (int i = 0; i < graph.length; i++) {
-			if (graph[i][lockIndex] > NO_STATE)
-				blocking.add(lockThreads.get(i));
-		}
+		LockNode lock = locks.get(rule);
+		List<ThreadNode> owners = new ArrayList<>(1);
+		for (Entry entry : lock.entries.values()) {
+			if (entry.state > NO_STATE)
+				owners.add(entry.thread);
+		}
+		owners.sort(THREAD_ORDER);
+		ArrayList<Thread> blocking = new ArrayList<>(owners.size());
+		for (ThreadNode owner : owners)
+			blocking.add(owner.thread);
 		if ((blocking.isEmpty()) && (JobManager.DEBUG_LOCKS))
 			System.out.println("Lock " + rule + " is involved in deadlock but is not owned by any thread."); //$NON-NLS-1$ //$NON-NLS-2$
 		if ((blocking.size() > 1) && (rule instanceof ILock) && (JobManager.DEBUG_LOCKS))
@@ -241,61 +305,57 @@ public class DeadlockDetector {
 	 * Returns the lock the given thread is waiting for.
 	 */
 	private Object getWaitingLock(Thread current) {
-		int index = indexOf(current, false);
+		ThreadNode thread = lockThreads.get(current);
 		//find the lock that this thread is waiting for
-		for (int j = 0; j < graph[index].length; j++) {
-			if (graph[index][j] == WAITING_FOR_LOCK)
-				return locks.get(j);
+		for (LockNode lock : sortedLocks(thread)) {
+			if (getState(thread, lock) == WAITING_FOR_LOCK)
+				return lock.lock;
 		}
 		//it can happen that a thread is not waiting for any lock (it is not really part of the deadlock)
 		return null;
 	}
 
 	/**
-	 * Returns the index of the given lock in the lock array. If the lock is
-	 * not present in the array, it is added to the end.
+	 * Returns the column of the given lock. If the lock is not present in the
+	 * graph, it is added as the last column.
 	 */
-	private int indexOf(ISchedulingRule lock, boolean add) {
-		int index = locks.indexOf(lock);
-		if ((index < 0) && add) {
-			locks.add(lock);
-			resize = true;
-			index = locks.size() - 1;
+	private LockNode getNode(ISchedulingRule lock, boolean add) {
+		LockNode node = locks.get(lock);
+		if ((node == null) && add) {
+			node = new LockNode(lock, nextPosition++);
+			locks.put(lock, node);
 		}
-		return index;
+		return node;
 	}
 
 	/**
-	 * Returns the index of the given thread in the thread array. If the thread
-	 * is not present in the array, it is added to the end.
+	 * Returns the row of the given thread. If the thread is not present in the
+	 * graph, it is added as the last row.
 	 */
-	private int indexOf(Thread owner, boolean add) {
-		int index = lockThreads.indexOf(owner);
-		if ((index < 0) && add) {
-			lockThreads.add(owner);
-			resize = true;
-			index = lockThreads.size() - 1;
+	private ThreadNode getNode(Thread owner, boolean add) {
+		ThreadNode node = lockThreads.get(owner);
+		if ((node == null) && add) {
+			node = new ThreadNode(owner, nextPosition++);
+			lockThreads.put(owner, node);
 		}
-		return index;
+		return node;
 	}
 
 	/**
 	 * Returns true IFF the adjacency matrix is empty.
 	 */
 	boolean isEmpty() {
-		return (locks.isEmpty()) && (lockThreads.isEmpty()) && (graph.length == 0);
+		return (locks.isEmpty()) && (lockThreads.isEmpty());
 	}
 
 	/**
 	 * The given lock was acquired by the given thread.
 	 */
 	void lockAcquired(Thread owner, ISchedulingRule lock) {
-		int lockIndex = indexOf(lock, true);
-		int threadIndex = indexOf(owner, true);
-		if (resize)
-			resizeGraph();
-		if (graph[threadIndex][lockIndex] == WAITING_FOR_LOCK)
-			graph[threadIndex][lockIndex] = NO_STATE;
+		LockNode lockNode = getNode(lock, true);
+		ThreadNode threadNode = getNode(owner, true);
+		if (getState(threadNode, lockNode) == WAITING_FOR_LOCK)
+			setState(threadNode, lockNode, NO_STATE);
 		/**
 		 * acquire all locks that conflict with the given lock
 		 * or conflict with a lock the given lock will acquire implicitly
@@ -305,15 +365,14 @@ public class DeadlockDetector {
 		//only need two passes through all the locks to pick up all conflicting rules
 		int NUM_PASSES = 2;
 		conflicting.add(lock);
-		graph[threadIndex][lockIndex]++;
+		setState(threadNode, lockNode, getState(threadNode, lockNode) + 1);
 		for (int i = 0; i < NUM_PASSES; i++) {
 			for (int k = 0; k < conflicting.size(); k++) {
 				ISchedulingRule current = conflicting.get(k);
-				for (int j = 0; j < locks.size(); j++) {
-					ISchedulingRule possible = locks.get(j);
-					if (current.isConflicting(possible) && !conflicting.contains(possible)) {
-						conflicting.add(possible);
-						graph[threadIndex][j]++;
+				for (LockNode possible : locks.values()) {
+					if (current.isConflicting(possible.lock) && !conflicting.contains(possible.lock)) {
+						conflicting.add(possible.lock);
+						setState(threadNode, possible, getState(threadNode, possible) + 1);
 					}
 				}
 			}
@@ -324,39 +383,41 @@ public class DeadlockDetector {
 	 * The given lock was released by the given thread. Update the graph.
 	 */
 	void lockReleased(Thread owner, ISchedulingRule lock) {
-		int lockIndex = indexOf(lock, false);
-		int threadIndex = indexOf(owner, false);
+		LockNode lockNode = getNode(lock, false);
+		ThreadNode threadNode = getNode(owner, false);
 		//make sure the lock and thread exist in the graph
-		if (threadIndex < 0) {
+		if (threadNode == null) {
 			if (JobManager.DEBUG_LOCKS)
 				System.out.println("[lockReleased] Lock " + lock + " was already released by thread " + owner.getName()); //$NON-NLS-1$ //$NON-NLS-2$
 			return;
 		}
-		if (lockIndex < 0) {
+		if (lockNode == null) {
 			if (JobManager.DEBUG_LOCKS)
 				System.out.println("[lockReleased] Thread " + owner.getName() + " already released lock " + lock); //$NON-NLS-1$ //$NON-NLS-2$
 			return;
 		}
 		//if this lock was suspended, set it to NO_STATE
-		if ((lock instanceof ILock) && (graph[threadIndex][lockIndex] == WAITING_FOR_LOCK)) {
-			graph[threadIndex][lockIndex] = NO_STATE;
+		if ((lock instanceof ILock) && (getState(threadNode, lockNode) == WAITING_FOR_LOCK)) {
+			setState(threadNode, lockNode, NO_STATE);
 			return;
 		}
+		if (JobManager.DEBUG_LOCKS) {
+			for (LockNode current : locks.values()) {
+				if ((getState(threadNode, current) == NO_STATE) && (lock.isConflicting(current.lock)))
+					System.out.println("[lockReleased] More releases than acquires for thread " + owner.getName() + " and lock " + lock); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+		}
 		//release all locks that conflict with the given lock
 		//or release all rules that are owned by the given thread, if we are releasing a rule
-		for (int j = 0; j < graph[threadIndex].length; j++) {
-			if ((lock.isConflicting(locks.get(j))) || (!(lock instanceof ILock) && !(locks.get(j) instanceof ILock) && (graph[threadIndex][j] > NO_STATE))) {
-				if (graph[threadIndex][j] == NO_STATE) {
-					if (JobManager.DEBUG_LOCKS)
-						System.out.println("[lockReleased] More releases than acquires for thread " + owner.getName() + " and lock " + lock); //$NON-NLS-1$ //$NON-NLS-2$
-				} else {
-					graph[threadIndex][j]--;
-				}
+		for (Entry entry : new ArrayList<>(threadNode.entries.values())) {
+			ISchedulingRule current = entry.lock.lock;
+			if ((lock.isConflicting(current)) || (!(lock instanceof ILock) && !(current instanceof ILock) && (entry.state > NO_STATE))) {
+				setState(threadNode, entry.lock, entry.state - 1);
 			}
 		}
 		//if this thread just released the given lock, try to simplify the graph
-		if (graph[threadIndex][lockIndex] == NO_STATE)
-			reduceGraph(threadIndex, lock);
+		if (getState(threadNode, lockNode) == NO_STATE)
+			reduceGraph(threadNode, lock);
 	}
 
 	/**
@@ -364,15 +425,15 @@ public class DeadlockDetector {
 	 * Release this rule regardless of how many times it was acquired.
 	 */
 	void lockReleasedCompletely(Thread owner, ISchedulingRule rule) {
-		int ruleIndex = indexOf(rule, false);
-		int threadIndex = indexOf(owner, false);
+		LockNode ruleNode = getNode(rule, false);
+		ThreadNode threadNode = getNode(owner, false);
 		//need to make sure that the given thread and rule were not already removed from the graph
-		if (threadIndex < 0) {
+		if (threadNode == null) {
 			if (JobManager.DEBUG_LOCKS)
 				System.out.println("[lockReleasedCompletely] Lock " + rule + " was already released by thread " + owner.getName()); //$NON-NLS-1$ //$NON-NLS-2$
 			return;
 		}
-		if (ruleIndex < 0) {
+		if (ruleNode == null) {
 			if (JobManager.DEBUG_LOCKS)
 				System.out.println("[lockReleasedCompletely] Thread " + owner.getName() + " already released lock " + rule); //$NON-NLS-1$ //$NON-NLS-2$
 			return;
@@ -382,11 +443,11 @@ public class DeadlockDetector {
 		 * (not just rules that conflict with the rule we are releasing)
 		 * if we are releasing a lock, then only update the one entry for the lock
 		 */
-		for (int j = 0; j < graph[threadIndex].length; j++) {
-			if (!(locks.get(j) instanceof ILock) && (graph[threadIndex][j] > NO_STATE))
-				graph[threadIndex][j] = NO_STATE;
+		for (Entry entry : new ArrayList<>(threadNode.entries.values())) {
+			if (!(entry.lock.lock instanceof ILock) && (entry.state > NO_STATE))
+				setState(threadNode, entry.lock, NO_STATE);
 		}
-		reduceGraph(threadIndex, rule);
+		reduceGraph(threadNode, rule);
 	}
 
 	/**
@@ -395,10 +456,8 @@ public class DeadlockDetector {
 	 */
 	Deadlock lockWaitStart(Thread client, ISchedulingRule lock) {
 		setToWait(client, lock, false);
-		int lockIndex = indexOf(lock, false);
-		int[] temp = new int[lockThreads.size()];
 		//check if the addition of the waiting thread caused deadlock
-		if (!checkWaitCycles(temp, lockIndex))
+		if (!checkWaitCycles(new HashSet<>(), new HashSet<>(), locks.get(lock)))
 			return null;
 		//there is a deadlock in the graph
 		Thread[] threads = getThreadsInDeadlock(client);
@@ -423,36 +482,35 @@ public class DeadlockDetector {
 	 * If the lock has already been granted, then it isn't removed.
 	 */
 	void lockWaitStop(Thread owner, ISchedulingRule lock) {
-		int lockIndex = indexOf(lock, false);
-		int threadIndex = indexOf(owner, false);
+		LockNode lockNode = getNode(lock, false);
+		ThreadNode threadNode = getNode(owner, false);
 		//make sure the thread and lock exist in the graph
-		if (threadIndex < 0) {
+		if (threadNode == null) {
 			if (JobManager.DEBUG_LOCKS)
 				System.out.println("Thread " + owner.getName() + " was already removed."); //$NON-NLS-1$ //$NON-NLS-2$
 			return;
 		}
-		if (lockIndex < 0) {
+		if (lockNode == null) {
 			if (JobManager.DEBUG_LOCKS)
 				System.out.println("Lock " + lock + " was already removed."); //$NON-NLS-1$ //$NON-NLS-2$
 			return;
 		}
-		if (graph[threadIndex][lockIndex] != WAITING_FOR_LOCK) {
+		if (getState(threadNode, lockNode) != WAITING_FOR_LOCK) {
 			// Lock has already been granted, nothing to do...
 			if (JobManager.DEBUG_LOCKS)
-				System.out.println("Lock " + lock + " already granted to depth: " + graph[threadIndex][lockIndex]); //$NON-NLS-1$ //$NON-NLS-2$
+				System.out.println("Lock " + lock + " already granted to depth: " + getState(threadNode, lockNode)); //$NON-NLS-1$ //$NON-NLS-2$
 			return;
 		}
-		graph[threadIndex][lockIndex] = NO_STATE;
-		reduceGraph(threadIndex, lock);
+		setState(threadNode, lockNode, NO_STATE);
+		reduceGraph(threadNode, lock);
 	}
 
 	/**
 	 * Returns true IFF the given thread owns a single lock
 	 */
 	private boolean ownsLocks(Thread cause) {
-		int threadIndex = indexOf(cause, false);
-		for (int j = 0; j < graph[threadIndex].length; j++) {
-			if (graph[threadIndex][j] > NO_STATE)
+		for (Entry entry : lockThreads.get(cause).entries.values()) {
+			if (entry.state > NO_STATE)
 				return true;
 		}
 		return false;
@@ -463,10 +521,9 @@ public class DeadlockDetector {
 	 * A real lock is a lock that can be suspended.
 	 */
 	private boolean ownsRealLocks(Thread owner) {
-		int threadIndex = indexOf(owner, false);
-		for (int j = 0; j < graph[threadIndex].length; j++) {
-			if (graph[threadIndex][j] > NO_STATE) {
-				Object lock = locks.get(j);
+		for (Entry entry : lockThreads.get(owner).entries.values()) {
+			if (entry.state > NO_STATE) {
+				Object lock = entry.lock.lock;
 				if (lock instanceof ILock)
 					return true;
 			}
@@ -479,10 +536,9 @@ public class DeadlockDetector {
 	 * cannot be suspended)
 	 */
 	private boolean ownsRuleLocks(Thread owner) {
-		int threadIndex = indexOf(owner, false);
-		for (int j = 0; j < graph[threadIndex].length; j++) {
-			if (graph[threadIndex][j] > NO_STATE) {
-				Object lock = locks.get(j);
+		for (Entry entry : lockThreads.get(owner).entries.values()) {
+			if (entry.state > NO_STATE) {
+				Object lock = entry.lock.lock;
 				if (!(lock instanceof ILock))
 					return true;
 			}
@@ -495,11 +551,11 @@ public class DeadlockDetector {
 	 * Real locks are locks that implement the ILock interface and can be suspended.
 	 */
 	private ISchedulingRule[] realLocksForThread(Thread owner) {
-		int threadIndex = indexOf(owner, false);
+		ThreadNode thread = lockThreads.get(owner);
 		ArrayList<ISchedulingRule> ownedLocks = new ArrayList<>(1);
-		for (int j = 0; j < graph[threadIndex].length; j++) {
-			if ((graph[threadIndex][j] > NO_STATE) && (locks.get(j) instanceof ILock))
-				ownedLocks.add(locks.get(j));
+		for (LockNode lock : sortedLocks(thread)) {
+			if ((getState(thread, lock) > NO_STATE) && (lock.lock instanceof ILock))
+				ownedLocks.add(lock.lock);
 		}
 		if (ownedLocks.isEmpty())
 			Assert.isLegal(false, "A thread with no real locks was chosen to resolve deadlock."); //$NON-NLS-1$
@@ -510,91 +566,19 @@ public class DeadlockDetector {
 	 * The matrix has been simplified. Check if any unnecessary rows or columns
 	 * can be removed.
 	 */
-	private void reduceGraph(int row, ISchedulingRule lock) {
-		int numLocks = locks.size();
-		boolean[] emptyColumns = new boolean[numLocks];
-
-		/**
-		 * find all columns that could possibly be empty
-		 * (consist of locks which conflict with the given lock, or of locks which are rules)
-		 */
-		for (int j = 0; j < numLocks; j++) {
-			if ((lock.isConflicting(locks.get(j))) || !(locks.get(j) instanceof ILock))
-				emptyColumns[j] = true;
-		}
-
-		boolean rowEmpty = true;
-		int numEmpty = 0;
-		//check if the given row is empty
-		for (int j = 0; j < graph[row].length; j++) {
-			if (graph[row][j] != NO_STATE) {
-				rowEmpty = false;
-				break;
-			}
-		}
+	private void reduceGraph(ThreadNode row, ISchedulingRule lock) {
 		/**
-		 * Check if the possibly empty columns are actually empty.
-		 * If a column is actually empty, remove the corresponding lock from the list of locks
-		 * Start at the last column so that when locks are removed from the list,
-		 * the index of the remaining locks is unchanged. Store the number of empty columns.
+		 * remove all columns that are empty, and that consist of locks which
+		 * conflict with the given lock, or of locks which are rules
 		 */
-		for (int j = emptyColumns.length - 1; j >= 0; j--) {
-			for (int[] element : graph) {
-				if (emptyColumns[j] && (element[j] != NO_STATE)) {
-					emptyColumns[j] = false;
-					break;
-				}
-			}
-			if (emptyColumns[j]) {
-				locks.remove(j);
-				numEmpty++;
-			}
-		}
-		//if no columns or rows are empty, return right away
-		if ((numEmpty == 0) && (!rowEmpty))
-			return;
-
-		if (rowEmpty)
-			lockThreads.remove(row);
-
-		//new graph (the list of locks and the list of threads are already updated)
-		final int numThreads = lockThreads.size();
-		numLocks = locks.size();
-		//optimize empty graph case
-		if (numThreads == 0 && numLocks == 0) {
-			graph = EMPTY_MATRIX;
-			return;
-		}
-		int[][] tempGraph = new int[numThreads][numLocks];
-
-		//the number of rows we need to skip to get the correct entry from the old graph
-		int numRowsSkipped = 0;
-		for (int i = 0; i < graph.length - numRowsSkipped; i++) {
-			if ((i == row) && rowEmpty) {
-				numRowsSkipped++;
-				//check if we need to skip the last row
-				if (i >= graph.length - numRowsSkipped)
-					break;
-			}
-			//the number of columns we need to skip to get the correct entry from the old graph
-			//needs to be reset for every new row
-			int numColsSkipped = 0;
-			for (int j = 0; j < graph[i].length - numColsSkipped; j++) {
-				while (emptyColumns[j + numColsSkipped]) {
-					numColsSkipped++;
-					//check if we need to skip the last column
-					if (j >= graph[i].length - numColsSkipped)
-						break;
-				}
-				//need to break out of the outer loop
-				if (j >= graph[i].length - numColsSkipped)
-					break;
-				tempGraph[i][j] = graph[i + numRowsSkipped][j + numColsSkipped];
-			}
-		}
-		graph = tempGraph;
-		Assert.isTrue(numThreads == graph.length, "Rows and threads don't match."); //$NON-NLS-1$
-		Assert.isTrue(numLocks == ((graph.length > 0) ? graph[0].length : 0), "Columns and locks don't match."); //$NON-NLS-1$
+		for (Iterator<LockNode> it = locks.values().iterator(); it.hasNext();) {
+			LockNode column = it.next();
+			if (column.entries.isEmpty() && ((lock.isConflicting(column.lock)) || !(column.lock instanceof ILock)))
+				it.remove();
+		}
+		//remove the given row if it is empty
+		if (row.entries.isEmpty())
+			lockThreads.remove(row.thread);
 	}
 
 	/**
@@ -647,28 +631,6 @@ public class DeadlockDetector {
 		RuntimeLog.log(main);
 	}
 
-	/**
-	 * The number of threads/locks in the graph has changed. Update the
-	 * underlying matrix.
-	 */
-	private void resizeGraph() {
-		// a new row and/or a new column was added to the graph.
-		// since new rows/columns are always added to the end, just transfer
-		// old entries to the new graph, with the same indices.
-		final int newRows = lockThreads.size();
-		final int newCols = locks.size();
-		//optimize 0x0 and 1x1 matrices
-		if (newRows == 0 && newCols == 0) {
-			graph = EMPTY_MATRIX;
-			return;
-		}
-		int[][] tempGraph = new int[newRows][newCols];
-		for (int i = 0; i < graph.length; i++)
-			System.arraycopy(graph[i], 0, tempGraph[i], 0, graph[i].length);
-		graph = tempGraph;
-		resize = false;
-	}
-
 	/**
 	 * Get the thread whose locks can be suspended. (i.e. all locks it owns are
 	 * actual locks and not rules). Return the first thread in the array by default.
@@ -689,6 +651,26 @@ public class DeadlockDetector {
 		return candidates[0];
 	}
 
+	/**
+	 * Sets the state of the entry of the given thread and lock.
+	 */
+	private void setState(ThreadNode thread, LockNode lock, int state) {
+		Entry entry = thread.entries.get(lock);
+		if (state == NO_STATE) {
+			if (entry != null) {
+				thread.entries.remove(lock);
+				lock.entries.remove(thread);
+			}
+			return;
+		}
+		if (entry == null) {
+			entry = new Entry(thread, lock);
+			thread.entries.put(lock, entry);
+			lock.entries.put(thread, entry);
+		}
+		entry.state = state;
+	}
+
 	/**
 	 * The given thread is waiting for the given lock. Update the graph.
 	 */
@@ -701,14 +683,22 @@ public class DeadlockDetector {
 		 */
 		if (!suspend && !(lock instanceof ILock))
 			needTransfer = true;
-		int lockIndex = indexOf(lock, !suspend);
-		int threadIndex = indexOf(owner, !suspend);
-		if (resize)
-			resizeGraph();
+		LockNode lockNode = getNode(lock, !suspend);
+		ThreadNode threadNode = getNode(owner, !suspend);
 
-		graph[threadIndex][lockIndex] = WAITING_FOR_LOCK;
+		setState(threadNode, lockNode, WAITING_FOR_LOCK);
 		if (needTransfer)
-			fillPresentEntries(lock, lockIndex);
+			fillPresentEntries(lockNode);
+	}
+
+	/**
+	 * Returns the locks of the non-empty entries of the given row, in the
+	 * order of their columns.
+	 */
+	private static List<LockNode> sortedLocks(ThreadNode thread) {
+		List<LockNode> result = new ArrayList<>(thread.entries.keySet());
+		result.sort(LOCK_ORDER);
+		return result;
 	}
 
 	/**
@@ -719,14 +709,14 @@ public class DeadlockDetector {
 		StringWriter sWriter = new StringWriter();
 		PrintWriter out = new PrintWriter(sWriter, true);
 		out.println(" :: "); //$NON-NLS-1$
-		for (ISchedulingRule lock : locks) {
+		for (ISchedulingRule lock : locks.keySet()) {
 			out.print(" " + lock + ','); //$NON-NLS-1$
 		}
 		out.println();
-		for (int i = 0; i < graph.length; i++) {
-			out.print(" " + lockThreads.get(i).getName() + " : "); //$NON-NLS-1$ //$NON-NLS-2$
-			for (int j = 0; j < graph[i].length; j++) {
-				out.print(" " + graph[i][j] + ','); //$NON-NLS-1$
+		for (ThreadNode thread : lockThreads.values()) {
+			out.print(" " + thread.thread.getName() + " : "); //$NON-NLS-1$ //$NON-NLS-2$
+			for (LockNode lock : locks.values()) {
+				out.print(" " + getState(thread, lock) + ','); //$NON-NLS-1$
 			}
 			out.println();
 		}
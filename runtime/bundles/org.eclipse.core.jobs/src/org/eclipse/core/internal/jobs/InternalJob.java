@@ -105,6 +105,11 @@ public abstract class InternalJob extends PlatformObject implements Comparable<I
 	 * @GuardedBy("manager.lock")
 	 */
 	private InternalJob previous;
+	/**
+	 * My node in the tree of the queue I am in, if any.
+	 * @GuardedBy("manager.lock")
+	 */
+	JobQueue.Node queueNode;
 	private int priority = Job.LONG;
 	/**
 	 * Arbitrary properties (key,value) pairs, attached
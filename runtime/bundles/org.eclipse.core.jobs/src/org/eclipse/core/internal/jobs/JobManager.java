@@ -76,6 +76,7 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 	private static final String OPTION_DEBUG_YIELDING = PI_JOBS + "/jobs/yielding"; //$NON-NLS-1$
 	private static final String OPTION_DEBUG_YIELDING_DETAILED = PI_JOBS + "/jobs/yielding/detailed"; //$NON-NLS-1$
 	private static final String OPTION_DEBUG_JOBS = PI_JOBS + "/jobs"; //$NON-NLS-1$
+	private static final String OPTION_CONTENTION = PI_JOBS + "/jobs/contention"; //$NON-NLS-1$
 	private static final String OPTION_LOCKS = PI_JOBS + "/jobs/locks"; //$NON-NLS-1$
 	private static final String OPTION_SHUTDOWN = PI_JOBS + "/jobs/shutdown"; //$NON-NLS-1$
 
@@ -142,6 +143,12 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 	 */
 	final Object lock = new Object();
 
+	/**
+	 * Statistics about acquiring {@link #lock} when scheduling, starting and
+	 * ending jobs.
+	 */
+	private final LockStatistics lockStatistics = new LockStatistics();
+
 	/**
 	 * A job listener to check for the cancellation and completion of the job groups.
 	 */
@@ -164,6 +171,19 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 	 */
 	private final HashSet<InternalJob> running;
 
+	/**
+	 * The rules of the running jobs. Should only be modified from changeState
+	 * @GuardedBy("lock")
+	 */
+	private final RuleIndex runningRules = new RuleIndex();
+
+	/**
+	 * The rules of the jobs that are blocked by running jobs. Should only be
+	 * modified from changeState
+	 * @GuardedBy("lock")
+	 */
+	private final RuleIndex blockedRules = new RuleIndex();
+
 	/**
 	 * Jobs that are currently yielding. Should only be modified from changeState
 	 * @GuardedBy("lock")
@@ -182,9 +202,10 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 	 * starts out not suspended, and becomes suspended when <code>suspend</code>
 	 * is invoked. Once suspended, no jobs will start running until <code>resume</code>
 	 * is called.
+	 * Volatile so that it can be read without holding the lock.
 	 * @GuardedBy("lock")
 	 */
-	private boolean suspended = false;
+	private volatile boolean suspended = false;
 
 	/**
 	 * jobs that are waiting to be run. Should only be modified from changeState
@@ -299,6 +320,8 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 			pool = new WorkerPool(this);
 		}
 		pool.setDaemon(JobOSGiUtils.getDefault().useDaemonThreads());
+		if (JobOSGiUtils.getDefault().useVirtualThreads())
+			pool.setVirtualThreads(true);
 		internalWorker = new InternalWorker(this);
 		internalWorker.setDaemon(JobOSGiUtils.getDefault().useDaemonThreads());
 		internalWorker.start();
@@ -407,6 +430,7 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 			case InternalJob.BLOCKED:
 				// remove this job from the linked list of blocked jobs
 				job.remove();
+				blockedRules.remove(job);
 				break;
 			case Job.WAITING:
 				try {
@@ -425,6 +449,7 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 			case Job.RUNNING:
 			case InternalJob.ABOUT_TO_RUN:
 				running.remove(job);
+				runningRules.remove(job);
 				// add any blocked jobs back to the wait queue
 				InternalJob blocked = job.previous();
 				job.remove();
@@ -444,7 +469,9 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 				job.setStartTime(InternalJob.T_NONE);
 				job.setWaitQueueStamp(InternalJob.T_NONE);
 				job.setRunCanceled(false);
+				break;
 			case InternalJob.BLOCKED:
+				blockedRules.add(job);
 				break;
 			case Job.WAITING:
 				waiting.enqueue(job);
@@ -462,6 +489,7 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 				job.setStartTime(InternalJob.T_NONE);
 				job.setWaitQueueStamp(InternalJob.T_NONE);
 				running.add(job);
+				runningRules.add(job);
 				break;
 			case InternalJob.YIELDING:
 				yielding.add(job);
@@ -510,7 +538,9 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 			// Need to wait till all events for this job are send.
 			jobListeners.waitAndSendEvents(job, false);
 			T result;
+			long start = lockStatistics.beforeLock();
 			synchronized (lock) {
+				lockStatistics.locked(start);
 				// Must not send events while holding lock, because that
 				// could result in a deadlock. see
 				// https://github.com/eclipse-platform/eclipse.platform/issues/193#issuecomment-1286837139
@@ -548,9 +578,10 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 
 	@Override
 	public Job currentJob() {
+		WorkerLoop worker = WorkerLoop.current();
+		if (worker != null)
+			return worker.currentJob();
 		Thread current = Thread.currentThread();
-		if (current instanceof Worker)
-			return ((Worker) current).currentJob();
 		synchronized (lock) {
 			for (InternalJob internalJob : running) {
 				Job job = (Job) internalJob;
@@ -693,6 +724,8 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 			}
 		}
 		internalWorker.cancel();
+		if (lockStatistics.isEnabled())
+			JobManager.debug("Shutdown - " + lockStatistics); //$NON-NLS-1$
 		if (toCancel != null) {
 			for (Job element : toCancel) {
 				String jobName = printJobName(element);
@@ -709,6 +742,8 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 		synchronized (lock) {
 			//discard reference to any jobs still running at this point
 			running.clear();
+			runningRules.clear();
+			blockedRules.clear();
 		}
 
 		pool.shutdown();
@@ -794,46 +829,23 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 		if (waitingJob.getRule() == null)
 			return null;
 		synchronized (lock) {
-			if (running.isEmpty())
-				return null;
 			//check the running jobs
-			boolean hasBlockedJobs = false;
-			for (InternalJob job : running) {
-				if (waitingJob.isConflicting(job))
-					return job;
-				if (!hasBlockedJobs)
-					hasBlockedJobs = job.previous() != null;
-			}
-			//there are no blocked jobs, so we are done
-			if (!hasBlockedJobs)
-				return null;
+			InternalJob job = runningRules.findConflicting(waitingJob);
+			if (job != null)
+				return job;
 			//check all jobs blocked by running jobs
-			for (InternalJob job : running) {
-				while (true) {
-					job = job.previous();
-					if (job == null)
-						break;
-					if (waitingJob.isConflicting(job))
-						return job;
-				}
-			}
+			return blockedRules.findConflicting(waitingJob);
 		}
-		return null;
 	}
 
 	/**
-	 * Returns a job from the given collection whose scheduling rule conflicts
+	 * Returns the first waiting ThreadJob whose scheduling rule conflicts
 	 * with the scheduling rule of the given job.  Returns null if there are no
 	 * conflicting jobs.
 	 */
 	private InternalJob findBlockedJob(InternalJob job) {
 		synchronized (lock) {
-			for (InternalJob waitingJob : waitingThreadJobs) {
-				if (waitingJob.isConflicting(job)) {
-					return waitingJob;
-				}
-			}
-			return null;
+			return waitingThreadJobs.findConflicting(job);
 		}
 	}
 
@@ -853,6 +865,15 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 		return lockManager;
 	}
 
+	/**
+	 * Returns the statistics about acquiring the lock of the job manager.
+	 * Statistics are collected while they are enabled, or when the
+	 * <code>org.eclipse.core.jobs/jobs/contention</code> debug option is set.
+	 */
+	public LockStatistics getLockStatistics() {
+		return lockStatistics;
+	}
+
 	/**
 	 * Returns a translated message indicating we are waiting for the given
 	 * number of jobs to complete.
@@ -911,9 +932,7 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 
 	@Override
 	public boolean isSuspended() {
-		synchronized (lock) {
-			return suspended;
-		}
+		return suspended;
 	}
 
 	protected boolean join(InternalJob job, long timeout, IProgressMonitor monitor) throws InterruptedException {
@@ -1197,7 +1216,16 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 	 * removed from the queue, it is moved to the running jobs list.
 	 */
 	private Job nextJob() {
+		// do nothing if the job manager is suspended, or if no job is waiting
+		// or about to wake up, without contending for the lock with threads
+		// that schedule jobs
+		if (suspended || !isJobReady()) {
+			lockStatistics.avoided();
+			return null;
+		}
+		long start = lockStatistics.beforeLock();
 		synchronized (lock) {
+			lockStatistics.locked(start);
 			// do nothing if the job manager is suspended
 			if (suspended)
 				return null;
@@ -1243,6 +1271,18 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 		}
 	}
 
+	/**
+	 * Returns whether a job may be ready to run, because a job is waiting or a
+	 * sleeping job is due to wake up. Does not hold the lock, so the answer
+	 * reflects the queues as of their last modification.
+	 */
+	private boolean isJobReady() {
+		if (waiting.first() != null)
+			return true;
+		InternalJob next = sleeping.first();
+		return next != null && next.getStartTime() < now();
+	}
+
 	/**
 	 * Calculates some relative time value in milliseconds. This value does not
 	 * represent wall clock time and can only be used to compare it with another
@@ -1280,6 +1320,7 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 		DEBUG_DEADLOCK = options.getBooleanOption(OPTION_DEADLOCK_ERROR, false);
 		DEBUG_LOCKS = options.getBooleanOption(OPTION_LOCKS, false);
 		DEBUG_SHUTDOWN = options.getBooleanOption(OPTION_SHUTDOWN, false);
+		lockStatistics.setEnabled(options.getBooleanOption(OPTION_CONTENTION, false));
 	}
 
 	@Override
@@ -1530,21 +1571,20 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 	/**
 	 * Returns the estimated time in milliseconds before the next job is scheduled
 	 * to wake up. The result may be negative.  Returns InternalJob.T_INFINITE if
-	 * there are no sleeping or waiting jobs.
+	 * there are no sleeping or waiting jobs. Does not hold the lock, because
+	 * it is asked by every worker looking for a job.
 	 */
 	protected long sleepHint() {
-		synchronized (lock) {
-			//wait forever if job manager is suspended
-			if (suspended)
-				return InternalJob.T_INFINITE;
-			if (!waiting.isEmpty())
-				return 0L;
-			//return the anticipated time that the next sleeping job will wake
-			InternalJob next = sleeping.peek();
-			if (next == null)
-				return InternalJob.T_INFINITE;
-			return next.getStartTime() - now();
-		}
+		//wait forever if job manager is suspended
+		if (suspended)
+			return InternalJob.T_INFINITE;
+		if (waiting.first() != null)
+			return 0L;
+		//return the anticipated time that the next sleeping job will wake
+		InternalJob next = sleeping.first();
+		if (next == null)
+			return InternalJob.T_INFINITE;
+		return next.getStartTime() - now();
 	}
 
 	/**
@@ -1737,7 +1777,7 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 	 * Returns the next job to be run, or null if no jobs are waiting to run.
 	 * The worker must call endJob when the job is finished running.
 	 */
-	protected Job startJob(Worker worker) {
+	protected Job startJob(Thread worker) {
 		Job job = null;
 		while (true) {
 			job = nextJob();
@@ -30,6 +30,15 @@ import org.osgi.framework.*;
  * @since org.eclipse.core.jobs 3.2
  */
 class JobOSGiUtils {
+	/**
+	 * The property that selects whether jobs run on virtual threads. Virtual
+	 * threads are only used if the value is "true" and the VM supports them.
+	 * The number of their carrier threads is read by the VM once, so it can
+	 * only be set with the launch option
+	 * <code>-Djdk.virtualThreadScheduler.parallelism</code>.
+	 */
+	static final String PROP_USE_VIRTUAL_THREADS = "eclipse.jobs.virtualThreads"; //$NON-NLS-1$
+
 	private ServiceRegistration<DebugOptionsListener> debugRegistration = null;
 
 	private static final JobOSGiUtils singleton = new JobOSGiUtils();
@@ -108,4 +117,24 @@ class JobOSGiUtils {
 			return false;
 		return "true".equalsIgnoreCase(value); //$NON-NLS-1$
 	}
+
+	/**
+	 * Returns the value of the given property of the framework, or of the
+	 * system if we are running stand-alone.
+	 */
+	private String getProperty(String key) {
+		BundleContext context = JobActivator.getContext();
+		if (context == null)
+			return System.getProperty(key);
+		return context.getProperty(key);
+	}
+
+	/**
+	 * Calculates whether the job plugin should run jobs on virtual threads.
+	 * @return <code>true</code> if worker threads should be virtual threads,
+	 * and <code>false</code> otherwise.
+	 */
+	boolean useVirtualThreads() {
+		return "true".equalsIgnoreCase(getProperty(PROP_USE_VIRTUAL_THREADS)); //$NON-NLS-1$
+	}
 }
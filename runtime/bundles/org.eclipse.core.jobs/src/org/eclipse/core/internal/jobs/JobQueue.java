@@ -14,12 +14,59 @@
 package org.eclipse.core.internal.jobs;
 
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 import org.eclipse.core.runtime.*;
 
 /**
  * A linked list based priority queue.
+ * <p>
+ * Next to the list, the entries are kept in a randomized balanced tree in the
+ * same order, which knows the earliest start time and the smallest wait queue
+ * stamp of each subtree. New entries find the entry they cannot overtake by
+ * descending the tree instead of walking the list, unless they conflict with
+ * an entry they may not overtake, in which case the list is walked as before.
+ * </p><p>
+ * The queue must be modified and traversed while holding the lock of the job
+ * manager, only {@link #first()} may be called without it.
+ * </p>
  */
 public final class JobQueue implements Iterable<InternalJob> {
+	/**
+	 * A node of the tree, whose in-order traversal goes from the head to the
+	 * tail of the queue.
+	 */
+	static final class Node {
+		final InternalJob job;
+		/** The tree is a heap by weight, which keeps it balanced */
+		final int weight = ThreadLocalRandom.current().nextInt();
+		Node parent;
+		Node left;
+		Node right;
+		/** The earliest start time in the subtree of this node */
+		long minStartTime;
+		/** The smallest wait queue stamp in the subtree of this node */
+		long minWaitQueueStamp;
+
+		Node(InternalJob job) {
+			this.job = job;
+		}
+
+		void update() {
+			long startTime = job.getStartTime();
+			long stamp = job.getWaitQueueStamp();
+			if (left != null) {
+				startTime = Math.min(startTime, left.minStartTime);
+				stamp = Math.min(stamp, left.minWaitQueueStamp);
+			}
+			if (right != null) {
+				startTime = Math.min(startTime, right.minStartTime);
+				stamp = Math.min(stamp, right.minWaitQueueStamp);
+			}
+			minStartTime = startTime;
+			minWaitQueueStamp = stamp;
+		}
+	}
+
 	/**
 	 * The dummy entry sits between the head and the tail of the queue.
 	 * dummy.previous() is the head, and dummy.next() is the tail.
@@ -35,6 +82,23 @@ public final class JobQueue implements Iterable<InternalJob> {
 
 	private final boolean allowPriorityOvertaking;
 
+	/**
+	 * The root of the tree of entries, or <code>null</code> if the queue is empty.
+	 */
+	private Node root;
+
+	/**
+	 * The rules of the entries, or <code>null</code> if conflicting jobs may
+	 * overtake each other.
+	 */
+	private final RuleIndex rules;
+
+	/**
+	 * The head of the queue as of its last modification, or <code>null</code>
+	 * if the queue was empty.
+	 */
+	private volatile InternalJob head;
+
 	/**
 	 * Create a new job queue.
 	 */
@@ -57,6 +121,7 @@ public final class JobQueue implements Iterable<InternalJob> {
 		dummy.setNext(dummy);
 		dummy.setPrevious(dummy);
 		this.allowConflictOvertaking = allowConflictOvertaking;
+		this.rules = allowConflictOvertaking ? null : new RuleIndex();
 	}
 
 	/**
@@ -65,6 +130,10 @@ public final class JobQueue implements Iterable<InternalJob> {
 	public void clear() {
 		dummy.setNext(dummy);
 		dummy.setPrevious(dummy);
+		root = null;
+		if (rules != null)
+			rules.clear();
+		head = null;
 	}
 
 	/**
@@ -74,7 +143,8 @@ public final class JobQueue implements Iterable<InternalJob> {
 		InternalJob toRemove = dummy.previous();
 		if (toRemove == dummy)
 			return null;
-		return toRemove.remove();
+		remove(toRemove);
+		return toRemove;
 	}
 
 	/**
@@ -85,15 +155,135 @@ public final class JobQueue implements Iterable<InternalJob> {
 		Assert.isTrue(newEntry.next() == null);
 		Assert.isTrue(newEntry.previous() == null);
 		InternalJob tail = dummy.next();
-		//overtake lower priority jobs. Only overtake conflicting jobs if allowed to
-		while (canOvertake(newEntry, tail))
-			tail = tail.next();
+		if (canOvertake(newEntry, tail)) {
+			if (rules != null && rules.findConflicting(newEntry) != null) {
+				//overtake lower priority jobs, but only walking the queue finds the conflicting job to stop at
+				while (canOvertake(newEntry, tail))
+					tail = tail.next();
+			} else {
+				Node last = allowPriorityOvertaking ? findLast(root, newEntry.getStartTime(), newEntry.getWaitQueueStamp()) : null;
+				tail = last == null ? dummy : last.job;
+			}
+		}
 		//new entry is smaller than tail
 		final InternalJob tailPrevious = tail.previous();
 		newEntry.setNext(tail);
 		newEntry.setPrevious(tailPrevious);
 		tailPrevious.setNext(newEntry);
 		tail.setPrevious(newEntry);
+		Node node = new Node(newEntry);
+		newEntry.queueNode = node;
+		insertAfter(tail == dummy ? null : tail.queueNode, node);
+		if (rules != null)
+			rules.add(newEntry);
+		head = peek();
+	}
+
+	/**
+	 * Returns the node closest to the tail in the given subtree whose entry
+	 * cannot be overtaken by an entry with the given start time and wait queue
+	 * stamp, or <code>null</code> if all entries can be overtaken. This is the
+	 * same decision as {@link #canOvertake(InternalJob, InternalJob)} makes for
+	 * jobs that do not conflict.
+	 */
+	private static Node findLast(Node node, long startTime, long waitQueueStamp) {
+		if (node == null || node.minStartTime > startTime || (waitQueueStamp > 0 && node.minWaitQueueStamp > waitQueueStamp))
+			return null;
+		Node found = findLast(node.right, startTime, waitQueueStamp);
+		if (found != null)
+			return found;
+		InternalJob job = node.job;
+		if (job.getStartTime() <= startTime && (waitQueueStamp <= 0 || job.getWaitQueueStamp() <= waitQueueStamp))
+			return node;
+		return findLast(node.left, startTime, waitQueueStamp);
+	}
+
+	/**
+	 * Adds the given node to the tree right behind the given node, or at the
+	 * head of the queue if it is <code>null</code>.
+	 */
+	private void insertAfter(Node previous, Node node) {
+		node.update();
+		if (root == null) {
+			root = node;
+			return;
+		}
+		Node parent;
+		if (previous == null) {
+			parent = root;
+			while (parent.left != null)
+				parent = parent.left;
+			parent.left = node;
+		} else if (previous.right == null) {
+			parent = previous;
+			parent.right = node;
+		} else {
+			parent = previous.right;
+			while (parent.left != null)
+				parent = parent.left;
+			parent.left = node;
+		}
+		node.parent = parent;
+		for (Node ancestor = parent; ancestor != null; ancestor = ancestor.parent)
+			ancestor.update();
+		while (node.parent != null && node.parent.weight < node.weight)
+			rotateUp(node);
+	}
+
+	/**
+	 * Removes the given node from the tree.
+	 */
+	private void removeNode(Node node) {
+		//rotate the node down until it is a leaf
+		while (node.left != null || node.right != null) {
+			Node child;
+			if (node.left == null)
+				child = node.right;
+			else if (node.right == null)
+				child = node.left;
+			else
+				child = node.left.weight > node.right.weight ? node.left : node.right;
+			rotateUp(child);
+		}
+		Node parent = node.parent;
+		if (parent == null)
+			root = null;
+		else if (parent.left == node)
+			parent.left = null;
+		else
+			parent.right = null;
+		node.parent = null;
+		for (Node ancestor = parent; ancestor != null; ancestor = ancestor.parent)
+			ancestor.update();
+	}
+
+	/**
+	 * Rotates the given node above its parent, keeping the order of the tree.
+	 */
+	private void rotateUp(Node node) {
+		Node parent = node.parent;
+		Node grandParent = parent.parent;
+		if (parent.left == node) {
+			parent.left = node.right;
+			if (node.right != null)
+				node.right.parent = parent;
+			node.right = parent;
+		} else {
+			parent.right = node.left;
+			if (node.left != null)
+				node.left.parent = parent;
+			node.left = parent;
+		}
+		parent.parent = node;
+		node.parent = grandParent;
+		if (grandParent == null)
+			root = node;
+		else if (grandParent.left == parent)
+			grandParent.left = node;
+		else
+			grandParent.right = node;
+		parent.update();
+		node.update();
 	}
 
 	/**
@@ -121,6 +311,75 @@ public final class JobQueue implements Iterable<InternalJob> {
 	public void remove(InternalJob toRemove) {
 		toRemove.remove();
 		//previous of toRemove might now bubble up
+		Node node = toRemove.queueNode;
+		if (node != null && contains(node)) {
+			removeNode(node);
+			toRemove.queueNode = null;
+		}
+		if (rules != null)
+			rules.remove(toRemove);
+		head = peek();
+	}
+
+	/**
+	 * Compares the positions of the given nodes of the tree, the node closer
+	 * to the head of the queue being smaller.
+	 */
+	private static int compareOrder(Node node1, Node node2) {
+		if (node1 == node2)
+			return 0;
+		int depth1 = depth(node1);
+		int depth2 = depth(node2);
+		//climb to the lowest common ancestor, remembering the child each node came from
+		Node child1 = null, child2 = null;
+		for (; depth1 > depth2; depth1--) {
+			child1 = node1;
+			node1 = node1.parent;
+		}
+		for (; depth2 > depth1; depth2--) {
+			child2 = node2;
+			node2 = node2.parent;
+		}
+		while (node1 != node2) {
+			child1 = node1;
+			node1 = node1.parent;
+			child2 = node2;
+			node2 = node2.parent;
+		}
+		//the first node is the ancestor, so the second one is behind it if it is on the right
+		if (child1 == null)
+			return child2 == node1.right ? -1 : 1;
+		return child1 == node1.left ? -1 : 1;
+	}
+
+	private static int depth(Node node) {
+		int depth = 0;
+		for (; node.parent != null; node = node.parent)
+			depth++;
+		return depth;
+	}
+
+	/**
+	 * Returns whether the given node belongs to the tree of this queue.
+	 */
+	private boolean contains(Node node) {
+		while (node.parent != null)
+			node = node.parent;
+		return node == root;
+	}
+
+	/**
+	 * Returns the job closest to the head of this queue among the jobs whose
+	 * scheduling rule conflicts with the rule of the given job, or
+	 * <code>null</code> if there is no such job.
+	 */
+	public InternalJob findConflicting(InternalJob job) {
+		if (rules != null)
+			return rules.findFirstConflicting(job, (job1, job2) -> compareOrder(job1.queueNode, job2.queueNode));
+		for (InternalJob entry : this)
+			if (entry.isConflicting(job))
+				return entry;
+		return null;
 	}
 
 	/**
@@ -146,6 +405,15 @@ public final class JobQueue implements Iterable<InternalJob> {
 		return dummy.previous() == dummy ? null : dummy.previous();
 	}
 
+	/**
+	 * Returns the greatest element as of the last modification of the queue,
+	 * or null if it was empty. Unlike {@link #peek()}, this method may be
+	 * called without holding the lock of the job manager.
+	 */
+	public InternalJob first() {
+		return head;
+	}
+
 	@Override
 	public Iterator<InternalJob> iterator() {
 		return new Iterator<>() {
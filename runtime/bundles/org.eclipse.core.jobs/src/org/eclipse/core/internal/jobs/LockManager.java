@@ -219,8 +219,7 @@ public class LockManager {
 	public boolean isLockOwner() {
 		//all job threads have to be treated as lock owners because UI thread
 		//may try to join a job
-		Thread current = Thread.currentThread();
-		if (current instanceof Worker)
+		if (WorkerLoop.current() != null)
 			return true;
 		DeadlockDetector tempLocks = locks;
 		if (tempLocks == null)
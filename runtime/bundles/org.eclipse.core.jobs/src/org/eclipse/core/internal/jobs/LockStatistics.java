@@ -0,0 +1,140 @@
+/*******************************************************************************
+ *  Copyright (c) 2023 IBM Corporation and others.
+ *
+ *  This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License 2.0
+ *  which accompanies this distribution, and is available at
+ *  https://www.eclipse.org/legal/epl-2.0/
+ *
+ *  SPDX-License-Identifier: EPL-2.0
+ *
+ *  Contributors:
+ *     IBM - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.jobs;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts how often, and how long, threads wait to acquire a lock. Statistics
+ * are only collected while enabled, so that the cost of reading the clock is
+ * not paid otherwise.
+ * <p>
+ * Usage:
+ * <pre>
+ * long start = statistics.beforeLock();
+ * synchronized (lock) {
+ *     statistics.locked(start);
+ *     ...
+ * }
+ * </pre>
+ * An acquisition is counted as contended if it took longer than
+ * {@link #CONTENDED_NANOS}, which an uncontended acquisition does not.
+ * </p>
+ */
+public final class LockStatistics {
+	/**
+	 * The time in nanoseconds after which acquiring the lock is considered to
+	 * have been contended.
+	 */
+	public static final long CONTENDED_NANOS = 5000;
+
+	private volatile boolean enabled;
+	private final LongAdder acquisitions = new LongAdder();
+	private final LongAdder contended = new LongAdder();
+	private final LongAdder waitNanos = new LongAdder();
+	private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0);
+	private final LongAdder avoided = new LongAdder();
+
+	/**
+	 * Returns the start time to pass to {@link #locked(long)}, or zero if
+	 * statistics are not collected.
+	 */
+	long beforeLock() {
+		return enabled ? System.nanoTime() : 0;
+	}
+
+	/**
+	 * Records that the lock was acquired, after trying since the given start time.
+	 */
+	void locked(long start) {
+		if (start == 0)
+			return;
+		long wait = System.nanoTime() - start;
+		acquisitions.increment();
+		waitNanos.add(wait);
+		maxWaitNanos.accumulate(wait);
+		if (wait > CONTENDED_NANOS)
+			contended.increment();
+	}
+
+	/**
+	 * Records that an operation completed without acquiring the lock.
+	 */
+	void avoided() {
+		if (enabled)
+			avoided.increment();
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	/**
+	 * Discards the statistics collected so far.
+	 */
+	public void reset() {
+		acquisitions.reset();
+		contended.reset();
+		waitNanos.reset();
+		maxWaitNanos.reset();
+		avoided.reset();
+	}
+
+	/**
+	 * Returns the number of recorded acquisitions of the lock.
+	 */
+	public long getAcquisitions() {
+		return acquisitions.sum();
+	}
+
+	/**
+	 * Returns the number of recorded acquisitions of the lock that were contended.
+	 */
+	public long getContendedAcquisitions() {
+		return contended.sum();
+	}
+
+	/**
+	 * Returns the number of operations that completed without the lock.
+	 */
+	public long getAvoidedAcquisitions() {
+		return avoided.sum();
+	}
+
+	/**
+	 * Returns the total time in nanoseconds threads waited to acquire the lock.
+	 */
+	public long getWaitNanos() {
+		return waitNanos.sum();
+	}
+
+	/**
+	 * Returns the longest time in nanoseconds a thread waited to acquire the lock.
+	 */
+	public long getMaxWaitNanos() {
+		return maxWaitNanos.get();
+	}
+
+	@Override
+	public String toString() {
+		return "LockStatistics(acquisitions: " + getAcquisitions() + ", contended: " + getContendedAcquisitions() //$NON-NLS-1$ //$NON-NLS-2$
+				+ ", avoided: " + getAvoidedAcquisitions() + ", wait: " + getWaitNanos() / 1000 + "us, max wait: " //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				+ getMaxWaitNanos() / 1000 + "us)"; //$NON-NLS-1$
+	}
+}
@@ -0,0 +1,272 @@
+/*******************************************************************************
+ *  Copyright (c) 2023 IBM Corporation and others.
+ *
+ *  This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License 2.0
+ *  which accompanies this distribution, and is available at
+ *  https://www.eclipse.org/legal/epl-2.0/
+ *
+ *  SPDX-License-Identifier: EPL-2.0
+ *
+ *  Contributors:
+ *     IBM - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.jobs;
+
+import java.util.*;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.jobs.*;
+
+/**
+ * Indexes the scheduling rules of a set of jobs, so that the jobs whose rules
+ * conflict with the rule of another job can be found without asking every job.
+ * <p>
+ * Hierarchical rules, and multi-rules consisting only of hierarchical rules,
+ * are kept in a prefix tree of their paths. The hierarchical rules that
+ * conflict with a hierarchical rule are found by walking its path. All other
+ * rules are opaque, and are asked one by one.
+ * </p><p>
+ * This class is not thread safe, it is guarded by <code>JobManager.lock</code>.
+ * </p>
+ * @see IHierarchicalSchedulingRule
+ */
+final class RuleIndex {
+	private static final class Node {
+		final Object hierarchy;
+		final Node parent;
+		final String segment;
+		Map<String, Node> children;
+		/** The indexed jobs whose rule has the path of this node */
+		List<Entry> entries;
+
+		Node(Object hierarchy, Node parent, String segment) {
+			this.hierarchy = hierarchy;
+			this.parent = parent;
+			this.segment = segment;
+		}
+
+		Node getChild(String name) {
+			return children == null ? null : children.get(name);
+		}
+
+		boolean hasEntries() {
+			return entries != null && !entries.isEmpty();
+		}
+
+		boolean isEmpty() {
+			return !hasEntries() && (children == null || children.isEmpty());
+		}
+	}
+
+	private static final class Entry {
+		final InternalJob job;
+		/** The nodes of the hierarchical rules of the job, or <code>null</code> if its rule is opaque */
+		Node[] nodes;
+
+		Entry(InternalJob job) {
+			this.job = job;
+		}
+	}
+
+	private final Map<InternalJob, Entry> entries = new HashMap<>();
+	private final Set<Entry> opaque = new LinkedHashSet<>();
+	private final Map<Object, Node> roots = new HashMap<>();
+
+	/**
+	 * Returns the hierarchical rules the given rule consists of, or
+	 * <code>null</code> if the rule is opaque.
+	 */
+	private static List<IHierarchicalSchedulingRule> getHierarchicalRules(ISchedulingRule rule) {
+		if (rule instanceof IHierarchicalSchedulingRule)
+			return Collections.singletonList((IHierarchicalSchedulingRule) rule);
+		//only plain multi-rules are known to conflict exactly when one of their children does
+		if (rule.getClass() != MultiRule.class)
+			return null;
+		List<IHierarchicalSchedulingRule> result = new ArrayList<>();
+		for (ISchedulingRule child : ((MultiRule) rule).getChildren()) {
+			List<IHierarchicalSchedulingRule> childRules = getHierarchicalRules(child);
+			if (childRules == null)
+				return null;
+			result.addAll(childRules);
+		}
+		return result;
+	}
+
+	/**
+	 * Adds the given job to the index. Jobs without a rule are not indexed,
+	 * because they never conflict with other jobs.
+	 */
+	void add(InternalJob job) {
+		ISchedulingRule rule = job.getRule();
+		if (rule == null || entries.containsKey(job))
+			return;
+		Entry entry = new Entry(job);
+		entries.put(job, entry);
+		List<IHierarchicalSchedulingRule> rules = getHierarchicalRules(rule);
+		if (rules == null) {
+			opaque.add(entry);
+			return;
+		}
+		List<Node> nodes = new ArrayList<>(rules.size());
+		for (IHierarchicalSchedulingRule hierarchical : rules) {
+			Node node = createNode(hierarchical);
+			if (nodes.contains(node))
+				continue;
+			nodes.add(node);
+			if (node.entries == null)
+				node.entries = new ArrayList<>(2);
+			node.entries.add(entry);
+		}
+		entry.nodes = nodes.toArray(new Node[nodes.size()]);
+	}
+
+	private Node createNode(IHierarchicalSchedulingRule rule) {
+		Object hierarchy = rule.getRuleHierarchy();
+		Node node = roots.computeIfAbsent(hierarchy, h -> new Node(h, null, null));
+		IPath path = rule.getRulePath();
+		for (int i = 0, count = path.segmentCount(); i < count; i++) {
+			Node parent = node;
+			String segment = path.segment(i);
+			if (parent.children == null)
+				parent.children = new HashMap<>(4);
+			node = parent.children.computeIfAbsent(segment, s -> new Node(parent.hierarchy, parent, s));
+		}
+		return node;
+	}
+
+	/**
+	 * Removes the given job from the index. Does nothing if the job is not indexed.
+	 */
+	void remove(InternalJob job) {
+		Entry entry = entries.remove(job);
+		if (entry == null)
+			return;
+		if (entry.nodes == null) {
+			opaque.remove(entry);
+			return;
+		}
+		for (Node node : entry.nodes) {
+			node.entries.remove(entry);
+			//prune the branch so that every remaining leaf has entries
+			while (node != null && node.isEmpty()) {
+				if (node.parent == null)
+					roots.remove(node.hierarchy);
+				else
+					node.parent.children.remove(node.segment);
+				node = node.parent;
+			}
+		}
+	}
+
+	void clear() {
+		entries.clear();
+		opaque.clear();
+		roots.clear();
+	}
+
+	boolean isEmpty() {
+		return entries.isEmpty();
+	}
+
+	/**
+	 * Returns an indexed job whose rule conflicts with the rule of the given
+	 * job, as decided by <code>job.isConflicting(indexedJob)</code>, or
+	 * <code>null</code> if there is no such job.
+	 */
+	InternalJob findConflicting(InternalJob job) {
+		return find(job, null);
+	}
+
+	/**
+	 * Returns the first job in the given order whose rule conflicts with the
+	 * rule of the given job, as decided by
+	 * <code>indexedJob.isConflicting(job)</code>, or <code>null</code> if
+	 * there is no such job.
+	 */
+	InternalJob findFirstConflicting(InternalJob job, Comparator<InternalJob> order) {
+		return find(job, order);
+	}
+
+	/**
+	 * Returns a conflicting job, or the first one in the given order if it is
+	 * not <code>null</code>.
+	 */
+	private InternalJob find(InternalJob job, Comparator<InternalJob> order) {
+		boolean ordered = order != null;
+		ISchedulingRule rule = job.getRule();
+		if (rule == null || entries.isEmpty())
+			return null;
+		List<IHierarchicalSchedulingRule> rules = getHierarchicalRules(rule);
+		//an opaque rule has to be asked about all rules
+		Collection<Entry> candidates = rules == null ? entries.values() : opaque;
+		Entry found = null;
+		for (Entry candidate : candidates) {
+			if (ordered ? candidate.job.isConflicting(job) : job.isConflicting(candidate.job)) {
+				if (!ordered)
+					return candidate.job;
+				found = first(found, candidate, order);
+			}
+		}
+		if (rules != null) {
+			for (IHierarchicalSchedulingRule hierarchical : rules) {
+				found = findInTree(hierarchical, found, order);
+				if (found != null && !ordered)
+					break;
+			}
+		}
+		return found == null ? null : found.job;
+	}
+
+	/**
+	 * Returns the indexed job whose rule is a prefix of, or below the path of
+	 * the given rule. When an order is given, returns the first job in that
+	 * order among the found job and the jobs in the tree.
+	 */
+	private Entry findInTree(IHierarchicalSchedulingRule rule, Entry found, Comparator<InternalJob> order) {
+		Node node = roots.get(rule.getRuleHierarchy());
+		IPath path = rule.getRulePath();
+		int count = path.segmentCount();
+		for (int i = 0; node != null; i++) {
+			//rules on the path to the given rule conflict with it
+			if (node.hasEntries()) {
+				found = first(found, node.entries, order);
+				if (order == null)
+					return found;
+			}
+			//as do all rules below it
+			if (i == count)
+				return findBelow(node, found, order);
+			node = node.getChild(path.segment(i));
+		}
+		return found;
+	}
+
+	private Entry findBelow(Node node, Entry found, Comparator<InternalJob> order) {
+		if (node.children == null)
+			return found;
+		for (Node child : node.children.values()) {
+			//every leaf has entries, so any path down leads to a job
+			if (child.hasEntries()) {
+				found = first(found, child.entries, order);
+				if (order == null)
+					return found;
+			}
+			found = findBelow(child, found, order);
+			if (found != null && order == null)
+				return found;
+		}
+		return found;
+	}
+
+	private static Entry first(Entry found, List<Entry> candidates, Comparator<InternalJob> order) {
+		if (order == null)
+			return candidates.get(0);
+		for (Entry candidate : candidates)
+			found = first(found, candidate, order);
+		return found;
+	}
+
+	private static Entry first(Entry found, Entry candidate, Comparator<InternalJob> order) {
+		return found == null || (order != null && order.compare(candidate.job, found.job) < 0) ? candidate : found;
+	}
+}
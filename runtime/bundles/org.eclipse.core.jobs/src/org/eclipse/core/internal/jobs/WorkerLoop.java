@@ -0,0 +1,131 @@
+/*******************************************************************************
+ *  Copyright (c) 2023 IBM Corporation and others.
+ *
+ *  This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License 2.0
+ *  which accompanies this distribution, and is available at
+ *  https://www.eclipse.org/legal/epl-2.0/
+ *
+ *  SPDX-License-Identifier: EPL-2.0
+ *
+ *  Contributors:
+ *     IBM - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.jobs;
+
+import org.eclipse.core.internal.runtime.RuntimeLog;
+import org.eclipse.core.runtime.*;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.osgi.util.NLS;
+
+/**
+ * Processes the jobs supplied by the worker pool on the current thread. When
+ * the worker pool gives it a null job, the loop ends. Platform worker threads
+ * run their loop as a {@link Worker}, virtual worker threads run it directly.
+ */
+class WorkerLoop implements Runnable {
+	/**
+	 * The loop of the current virtual worker thread.
+	 */
+	private static final ThreadLocal<WorkerLoop> currentLoop = new ThreadLocal<>();
+
+	private volatile InternalJob currentJob;
+	private final WorkerPool pool;
+	private final String generalName;
+
+	WorkerLoop(WorkerPool pool, String name) {
+		this.pool = pool;
+		this.generalName = name;
+	}
+
+	/**
+	 * Returns the loop running on the current thread, or null if the current
+	 * thread is not a worker thread.
+	 */
+	static WorkerLoop current() {
+		Thread current = Thread.currentThread();
+		if (current instanceof Worker)
+			return ((Worker) current).loop;
+		return currentLoop.get();
+	}
+
+	/**
+	 * Returns the currently running job, or null if none.
+	 */
+	Job currentJob() {
+		return (Job) currentJob;
+	}
+
+	private IStatus handleException(InternalJob job, Throwable t) {
+		String message = NLS.bind(JobMessages.jobs_internalError, job.getName());
+		return new Status(IStatus.ERROR, JobManager.PI_JOBS, JobManager.PLUGIN_ERROR, message, t);
+	}
+
+	@Override
+	public void run() {
+		Thread thread = Thread.currentThread();
+		if (!(thread instanceof Worker))
+			currentLoop.set(this);
+		setNormPriority(thread);
+		try {
+			while ((currentJob = pool.startJob(this)) != null) {
+				IStatus result = Status.OK_STATUS;
+				IProgressMonitor monitor = currentJob.getProgressMonitor();
+				try {
+					thread.setName(getJobName());
+					result = currentJob.run(monitor);
+				} catch (OperationCanceledException e) {
+					result = Status.CANCEL_STATUS;
+				} catch (ThreadDeath e) {
+					// must not consume thread death
+					result = handleException(currentJob, e);
+					throw e;
+				} catch (Exception | Error e) {
+					result = handleException(currentJob, e);
+				} finally {
+					if (result != Job.ASYNC_FINISH && monitor != null) {
+						monitor.done();
+					}
+					// clear interrupted state for this thread
+					Thread.interrupted();
+					// result must not be null
+					if (result == null) {
+						String message = NLS.bind(JobMessages.jobs_returnNoStatus, currentJob.getClass().getName());
+						result = handleException(currentJob, new NullPointerException(message));
+					}
+					pool.endJob(currentJob, result);
+					currentJob = null;
+					thread.setName(generalName);
+					// reset thread priority in case job changed it
+					setNormPriority(thread);
+				}
+			}
+		} catch (Throwable t) {
+			RuntimeLog.log(new Status(IStatus.ERROR, JobManager.PI_JOBS, JobManager.PLUGIN_ERROR, "Unhandled error", t)); //$NON-NLS-1$
+		} finally {
+			currentJob = null;
+			currentLoop.remove();
+			pool.endWorker(this);
+		}
+	}
+
+	private void setNormPriority(Thread thread) {
+		if (thread.getPriority() != Thread.NORM_PRIORITY) {
+			// Setting priority on some platforms may cause high overhead
+			thread.setPriority(Thread.NORM_PRIORITY);
+		}
+	}
+
+	private String getJobName() {
+		String name = currentJob.getName();
+		if (name == null || name.trim().isEmpty()) {
+			name = "<unnamed job: " + currentJob.getClass().getName() + ">"; //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		return generalName + ": " + name; //$NON-NLS-1$
+	}
+
+	@Override
+	public String toString() {
+		return generalName;
+	}
+}
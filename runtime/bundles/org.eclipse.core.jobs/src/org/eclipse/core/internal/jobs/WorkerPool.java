@@ -14,8 +14,11 @@
  *******************************************************************************/
 package org.eclipse.core.internal.jobs;
 
-import org.eclipse.core.runtime.Assert;
-import org.eclipse.core.runtime.IStatus;
+import java.util.ArrayDeque;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.locks.LockSupport;
+import org.eclipse.core.internal.runtime.RuntimeLog;
+import org.eclipse.core.runtime.*;
 import org.eclipse.core.runtime.jobs.Job;
 
 /**
@@ -27,6 +30,11 @@ import org.eclipse.core.runtime.jobs.Job;
  * by the instance's object monitor.  To avoid deadlock with third party code,
  * this lock is never held when calling methods outside this class that may in
  * turn use locks.
+ *
+ * Workers are platform threads by default. In virtual thread mode every worker
+ * is a virtual thread instead, so that jobs blocked on I/O do not hold on to
+ * an operating system thread. Idle virtual workers park rather than wait on
+ * the monitor of the pool, because waiting on a monitor pins the carrier thread.
  */
 class WorkerPool {
 	/**
@@ -61,6 +69,17 @@ class WorkerPool {
 	 */
 	private boolean isDaemon = false;
 
+	/**
+	 * Creates virtual worker threads, or <code>null</code> if workers are
+	 * platform threads.
+	 */
+	private ThreadFactory virtualThreadFactory;
+
+	/**
+	 * The idle virtual worker threads, in the order they were parked.
+	 */
+	private final ArrayDeque<Thread> parkedThreads = new ArrayDeque<>();
+
 	private final JobManager manager;
 	/**
 	 * The number of workers in the threads array
@@ -73,7 +92,7 @@ class WorkerPool {
 	/**
 	 * The living set of workers in this pool.
 	 */
-	private Worker[] threads = new Worker[10];
+	private WorkerLoop[] threads = new WorkerLoop[10];
 
 	protected WorkerPool(JobManager manager) {
 		this.manager = manager;
@@ -83,10 +102,10 @@ class WorkerPool {
 	/**
 	 * Adds a worker to the list of workers.
 	 */
-	private synchronized void add(Worker worker) {
+	private synchronized void add(WorkerLoop worker) {
 		int size = threads.length;
 		if (numThreads + 1 > size) {
-			Worker[] newThreads = new Worker[2 * size];
+			WorkerLoop[] newThreads = new WorkerLoop[2 * size];
 			System.arraycopy(threads, 0, newThreads, 0, size);
 			threads = newThreads;
 		}
@@ -126,7 +145,7 @@ class WorkerPool {
 	 * Signals the death of a worker thread.  Note that this method can be called under
 	 * OutOfMemoryError conditions and thus must be paranoid about allocating objects.
 	 */
-	protected synchronized void endWorker(Worker worker) {
+	protected synchronized void endWorker(WorkerLoop worker) {
 		if (remove(worker) && JobManager.DEBUG)
 			JobManager.debug("worker removed from pool: " + worker); //$NON-NLS-1$
 	}
@@ -147,17 +166,32 @@ class WorkerPool {
 	protected synchronized void jobQueued() {
 		//if there is a sleeping thread, wake it up
 		if (sleepingThreads > 0) {
-			notify();
+			Thread parked = parkedThreads.poll();
+			if (parked != null)
+				LockSupport.unpark(parked);
+			else
+				notify();
 			return;
 		}
 		//create a thread if all threads are busy
 		if (busyThreads >= numThreads) {
-			Worker worker = new Worker(this);
-			worker.setDaemon(isDaemon);
+			Thread thread;
+			WorkerLoop worker;
+			if (virtualThreadFactory != null) {
+				worker = new WorkerLoop(this, Worker.nextWorkerName());
+				thread = virtualThreadFactory.newThread(worker);
+				thread.setName(worker.toString());
+				thread.setContextClassLoader(defaultContextLoader);
+			} else {
+				Worker platformWorker = new Worker(this);
+				platformWorker.setDaemon(isDaemon);
+				worker = platformWorker.loop;
+				thread = platformWorker;
+			}
 			add(worker);
 			if (JobManager.DEBUG)
 				JobManager.debug("worker added to pool: " + worker); //$NON-NLS-1$
-			worker.start();
+			thread.start();
 			return;
 		}
 	}
@@ -166,7 +200,7 @@ class WorkerPool {
 	 * Remove a worker thread from our list.
 	 * @return true if a worker was removed, and false otherwise.
 	 */
-	private synchronized boolean remove(Worker worker) {
+	private synchronized boolean remove(WorkerLoop worker) {
 		for (int i = 0; i < threads.length; i++) {
 			if (threads[i] == worker) {
 				System.arraycopy(threads, i + 1, threads, i, numThreads - i - 1);
@@ -184,14 +218,47 @@ class WorkerPool {
 		this.isDaemon = value;
 	}
 
+	/**
+	 * Sets whether workers created in the worker pool should be virtual
+	 * threads. Workers remain platform threads if virtual threads are not
+	 * supported by the running VM.
+	 */
+	synchronized void setVirtualThreads(boolean value) {
+		if (!value) {
+			virtualThreadFactory = null;
+			return;
+		}
+		try {
+			//virtual threads are only available in Java 21 and above
+			Object builder = Thread.class.getMethod("ofVirtual").invoke(null); //$NON-NLS-1$
+			virtualThreadFactory = (ThreadFactory) Class.forName("java.lang.Thread$Builder").getMethod("factory").invoke(builder); //$NON-NLS-1$ //$NON-NLS-2$
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			virtualThreadFactory = null;
+			RuntimeLog.log(new Status(IStatus.WARNING, JobManager.PI_JOBS, JobManager.PLUGIN_ERROR, "Virtual threads are not supported, using platform threads for jobs", e)); //$NON-NLS-1$
+		}
+	}
+
 	protected synchronized void shutdown() {
 		notifyAll();
+		Thread parked;
+		while ((parked = parkedThreads.poll()) != null)
+			LockSupport.unpark(parked);
 	}
 
 	/**
 	 * Sleep for the given duration or until woken.
 	 */
-	private synchronized void sleep(long duration) {
+	private void sleep(long duration) {
+		if (Thread.currentThread() instanceof Worker)
+			waitForJob(duration);
+		else
+			parkForJob(duration);
+	}
+
+	/**
+	 * Waits on the monitor of the pool for the given duration or until woken.
+	 */
+	private synchronized void waitForJob(long duration) {
 		sleepingThreads++;
 		busyThreads--;
 		if (JobManager.DEBUG)
@@ -207,10 +274,37 @@ class WorkerPool {
 		}
 	}
 
+	/**
+	 * Parks the current virtual thread for the given duration or until woken.
+	 */
+	private void parkForJob(long duration) {
+		Thread current = Thread.currentThread();
+		synchronized (this) {
+			if (!manager.isActive())
+				return;
+			sleepingThreads++;
+			busyThreads--;
+			parkedThreads.add(current);
+			if (JobManager.DEBUG)
+				JobManager.debug("worker parking for: " + duration + "ms"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		try {
+			LockSupport.parkNanos(this, duration * 1000000L);
+		} finally {
+			synchronized (this) {
+				parkedThreads.remove(current);
+				sleepingThreads--;
+				busyThreads++;
+			}
+			// clear interrupted state, as waiting does
+			Thread.interrupted();
+		}
+	}
+
 	/**
 	 * Returns a new job to run. Returns null if the thread should die.
 	 */
-	protected InternalJob startJob(Worker worker) {
+	protected InternalJob startJob(WorkerLoop worker) {
 		// must endWorker and decrementBusyThreads from the same synchronized block
 		boolean busy;
 		synchronized (this) {
@@ -225,7 +319,7 @@ class WorkerPool {
 		}
 		Job job = null;
 		try {
-			job = manager.startJob(worker);
+			job = manager.startJob(Thread.currentThread());
 			//spin until a job is found or until we have been idle for too long
 			long idleStart = manager.now();
 			while (manager.isActive() && job == null) {
@@ -241,7 +335,7 @@ class WorkerPool {
 					}
 					sleep(Math.min(hint, BEST_BEFORE));
 				}
-				job = manager.startJob(worker);
+				job = manager.startJob(Thread.currentThread());
 				//if we were already idle, and there are still no new jobs, then
 				// the thread can expire
 				synchronized (this) {
@@ -0,0 +1,53 @@
+/*******************************************************************************
+ *  Copyright (c) 2023 IBM Corporation and others.
+ *
+ *  This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License 2.0
+ *  which accompanies this distribution, and is available at
+ *  https://www.eclipse.org/legal/epl-2.0/
+ *
+ *  SPDX-License-Identifier: EPL-2.0
+ *
+ *  Contributors:
+ *     IBM - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.runtime.jobs;
+
+import org.eclipse.core.runtime.IPath;
+
+/**
+ * A scheduling rule that occupies a position in a hierarchy, such as a file
+ * system or workspace path. The job manager indexes such rules by their path,
+ * so that the jobs whose rules conflict with a hierarchical rule can be found
+ * without asking every other rule.
+ * <p>
+ * Implementations must ensure that a hierarchical rule conflicts with
+ * another hierarchical rule if and only if both rules belong to equal
+ * hierarchies and the path of one rule is a prefix of the path of the other.
+ * Conflicts with rules that are not hierarchical are still decided by
+ * {@link #isConflicting(ISchedulingRule)}.
+ * </p><p>
+ * Clients may implement this interface.
+ * </p>
+ *
+ * @see MultiRule
+ * @since 3.14
+ */
+public interface IHierarchicalSchedulingRule extends ISchedulingRule {
+	/**
+	 * Returns the hierarchy this rule belongs to. Rules of different
+	 * hierarchies never conflict with each other.
+	 *
+	 * @return the hierarchy of this rule, never <code>null</code>
+	 */
+	Object getRuleHierarchy();
+
+	/**
+	 * Returns the path of this rule in its hierarchy. A rule conflicts with
+	 * all rules of the same hierarchy whose path is a prefix of this path, or
+	 * whose path this path is a prefix of.
+	 *
+	 * @return the path of this rule, never <code>null</code>
+	 */
+	IPath getRulePath();
+}
@@ -19,6 +19,8 @@ import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicIntegerArray;
 import junit.framework.AssertionFailedError;
+import org.eclipse.core.internal.jobs.JobManager;
+import org.eclipse.core.internal.jobs.LockStatistics;
 import org.eclipse.core.runtime.*;
 import org.eclipse.core.runtime.jobs.*;
 import org.eclipse.core.tests.harness.*;
@@ -1714,6 +1716,75 @@ public class IJobManagerTest extends AbstractJobManagerTest {
 		jobs[JOB_COUNT - 1].cancel();
 	}
 
+	/**
+	 * Tests that jobs with conflicting hierarchical, multi and opaque rules never
+	 * run at the same time.
+	 */
+	public void testMixedRules() throws InterruptedException {
+		ISchedulingRule mutex = new IdentityRule();
+		ISchedulingRule[] rules = new ISchedulingRule[] {new PathRule("/"), new PathRule("/a"), new PathRule("/a/b"), new PathRule("/a/c"), new PathRule("/b"), new PathRule("/b/c/d"), MultiRule.combine(new PathRule("/a/b"), new PathRule("/b")), MultiRule.combine(new PathRule("/a/c"), mutex), mutex};
+		final List<ISchedulingRule> active = new ArrayList<>();
+		final List<String> errors = Collections.synchronizedList(new ArrayList<>());
+		final int JOB_COUNT = 100;
+		for (int i = 0; i < JOB_COUNT; i++) {
+			final ISchedulingRule rule = rules[i % rules.length];
+			Job job = new Job("testMixedRules(" + i + ")") {
+				@Override
+				protected IStatus run(IProgressMonitor monitor) {
+					synchronized (active) {
+						for (ISchedulingRule other : active) {
+							if (rule.isConflicting(other) || other.isConflicting(rule))
+								errors.add(rule + " ran at the same time as " + other);
+						}
+						active.add(rule);
+					}
+					Thread.yield();
+					synchronized (active) {
+						active.remove(rule);
+					}
+					return Status.OK_STATUS;
+				}
+
+				@Override
+				public boolean belongsTo(Object family) {
+					return family == active;
+				}
+			};
+			job.setRule(rule);
+			job.schedule();
+		}
+		Job.getJobManager().join(active, null);
+		assertEquals("1.0", Collections.emptyList(), errors);
+	}
+
+	/**
+	 * Tests that acquisitions of the job manager lock are only counted while
+	 * lock statistics are enabled.
+	 */
+	public void testLockStatistics() throws InterruptedException {
+		LockStatistics statistics = ((JobManager) manager).getLockStatistics();
+		boolean wasEnabled = statistics.isEnabled();
+		try {
+			statistics.setEnabled(false);
+			statistics.reset();
+			Job job = new TestJob("testLockStatistics", 1, 1);
+			job.schedule();
+			job.join();
+			assertEquals("1.0", 0, statistics.getAcquisitions());
+			statistics.setEnabled(true);
+			job.schedule();
+			job.join();
+			assertTrue("2.0", statistics.getAcquisitions() > 0);
+			assertTrue("2.1", statistics.getContendedAcquisitions() <= statistics.getAcquisitions());
+			assertTrue("2.2", statistics.getMaxWaitNanos() <= statistics.getWaitNanos());
+			statistics.reset();
+			assertEquals("3.0", 0, statistics.getAcquisitions());
+			assertEquals("3.1", 0, statistics.getWaitNanos());
+		} finally {
+			statistics.setEnabled(wasEnabled);
+		}
+	}
+
 	public void testOrder() {
 		//ensure jobs are run in order from lowest to highest sleep time.
 		final Queue<Job> done = new ConcurrentLinkedQueue<>();
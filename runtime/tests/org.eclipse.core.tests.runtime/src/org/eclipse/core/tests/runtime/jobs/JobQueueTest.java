@@ -18,10 +18,13 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.lang.reflect.Method;
 import org.eclipse.core.internal.jobs.InternalJob;
 import org.eclipse.core.internal.jobs.JobQueue;
 import org.eclipse.core.runtime.*;
+import org.eclipse.core.runtime.jobs.ISchedulingRule;
 import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.jobs.MultiRule;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -33,6 +36,18 @@ public class JobQueueTest {
 			setPriority(value);
 		}
 
+		Entry(int value, ISchedulingRule rule) {
+			this(value);
+			setRule(rule);
+		}
+
+		Entry(int value, ISchedulingRule rule, long startTime) throws ReflectiveOperationException {
+			this(value, rule);
+			Method setStartTime = InternalJob.class.getDeclaredMethod("setStartTime", long.class);
+			setStartTime.setAccessible(true);
+			setStartTime.invoke(this, startTime);
+		}
+
 		@Override
 		protected IStatus run(IProgressMonitor monitor) {
 			return Status.OK_STATUS;
@@ -93,6 +108,53 @@ public class JobQueueTest {
 		assertEquals("3.1", 0, count);
 	}
 
+	@Test
+	public void testConflictOvertaking() {
+		//without priorities, entries overtake all entries they do not conflict with
+		queue = new JobQueue(false, false);
+		Entry a = new Entry(Job.LONG, new PathRule("/a"));
+		Entry b = new Entry(Job.LONG, new PathRule("/b"));
+		Entry c = new Entry(Job.LONG, new PathRule("/a/c"));
+		Entry d = new Entry(Job.LONG);
+		queue.enqueue(a);
+		queue.enqueue(b);
+		queue.enqueue(c);
+		queue.enqueue(d);
+		assertEquals("1.0", a, queue.findConflicting(new Entry(Job.LONG, new PathRule("/a/c/d"))));
+		assertEquals("1.1", b, queue.findConflicting(new Entry(Job.LONG, new PathRule("/b"))));
+		assertNull("1.2", queue.findConflicting(new Entry(Job.LONG, new PathRule("/c"))));
+		assertEquals("2.0", d, queue.dequeue());
+		assertEquals("2.1", b, queue.dequeue());
+		assertEquals("2.2", a, queue.dequeue());
+		assertEquals("2.3", c, queue.dequeue());
+		assertTrue("2.4", queue.isEmpty());
+	}
+
+	@Test
+	public void testFindConflictingInQueueOrder() throws ReflectiveOperationException {
+		//the conflicting entry closest to the head is found, not the one added first
+		Entry a = new Entry(Job.LONG, new PathRule("/a/x"), 10);
+		Entry b = new Entry(Job.LONG, new PathRule("/b"), 10);
+		Entry c = new Entry(Job.LONG, new PathRule("/a/y"), 5);
+		Entry d = new Entry(Job.LONG, new PathRule("/a/z"), 7);
+		queue.enqueue(a);
+		queue.enqueue(b);
+		queue.enqueue(c);
+		queue.enqueue(d);
+		assertEquals("1.0", c, queue.peek());
+		assertEquals("1.1", c, queue.findConflicting(new Entry(Job.LONG, new PathRule("/a"))));
+		assertEquals("1.2", a, queue.findConflicting(new Entry(Job.LONG, new PathRule("/a/x/w"))));
+		queue.remove(c);
+		assertEquals("2.0", d, queue.findConflicting(new Entry(Job.LONG, new PathRule("/a"))));
+		queue.remove(d);
+		assertEquals("2.1", a, queue.findConflicting(new Entry(Job.LONG, new PathRule("/a"))));
+		//opaque rules are ordered the same way
+		Entry e = new Entry(Job.LONG, MultiRule.combine(new PathRule("/a/q"), new IdentityRule()), 1);
+		queue.enqueue(e);
+		assertEquals("3.0", e, queue.findConflicting(new Entry(Job.LONG, new PathRule("/a"))));
+		assertEquals("3.1", a, queue.findConflicting(new Entry(Job.LONG, new PathRule("/a/x"))));
+	}
+
 	private Entry[] createEntries() {
 		return new Entry[] {new Entry(Job.INTERACTIVE), new Entry(Job.BUILD), new Entry(Job.INTERACTIVE), new Entry(Job.SHORT), new Entry(Job.DECORATE), new Entry(Job.LONG), new Entry(Job.SHORT), new Entry(Job.BUILD), new Entry(Job.LONG), new Entry(Job.DECORATE),};
 	}
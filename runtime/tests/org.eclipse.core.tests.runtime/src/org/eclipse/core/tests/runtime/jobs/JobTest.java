@@ -105,6 +105,23 @@ public class JobTest extends AbstractJobTest {
 		waitForState(longJob, Job.NONE);
 	}
 
+	/**
+	 * Returns whether the given thread is a worker of the job manager, which
+	 * is a virtual thread when jobs run on virtual threads.
+	 */
+	private static boolean isWorker(Thread thread) {
+		if (thread instanceof Worker)
+			return true;
+		if (!Boolean.getBoolean("eclipse.jobs.virtualThreads"))
+			return false;
+		try {
+			//virtual threads are only available in Java 21 and above
+			return (Boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+		} catch (ReflectiveOperationException e) {
+			return false;
+		}
+	}
+
 	//see bug #43566
 	public void testAsynchJob() {
 		final AtomicIntegerArray status = new AtomicIntegerArray(new int[] { TestBarrier2.STATUS_WAIT_FOR_START });
@@ -120,13 +137,13 @@ public class JobTest extends AbstractJobTest {
 		assertEquals("3.0", Job.RUNNING, main.getState());
 		//the asynchronous process that assigns the thread the job is going to run in has not been started yet
 		//the job is running in the thread provided to it by the manager
-		assertTrue("3.1" + main.getThread().getName(), main.getThread() instanceof Worker);
+		assertTrue("3.1" + main.getThread().getName(), isWorker(main.getThread()));
 
 		status.set(0, TestBarrier2.STATUS_START);
 		TestBarrier2.waitForStatus(status, 0, TestBarrier2.STATUS_WAIT_FOR_START);
 
 		//the asynchronous process has been started, but the set thread method has not been called yet
-		assertTrue("3.2", main.getThread() instanceof Worker);
+		assertTrue("3.2", isWorker(main.getThread()));
 
 		status.set(0, TestBarrier2.STATUS_WAIT_FOR_RUN);
 
@@ -156,13 +173,13 @@ public class JobTest extends AbstractJobTest {
 
 		//the asynchronous process that assigns the thread the job is going to run in has not been started yet
 		//job is running in the thread provided by the manager
-		assertTrue("5.1", main.getThread() instanceof Worker);
+		assertTrue("5.1", isWorker(main.getThread()));
 
 		status.set(0, TestBarrier2.STATUS_START);
 		TestBarrier2.waitForStatus(status, 0, TestBarrier2.STATUS_WAIT_FOR_START);
 
 		//the asynchronous process has been started, but the set thread method has not been called yet
-		assertTrue("5.2", main.getThread() instanceof Worker);
+		assertTrue("5.2", isWorker(main.getThread()));
 
 		status.set(0, TestBarrier2.STATUS_WAIT_FOR_RUN);
 
@@ -205,7 +222,7 @@ public class JobTest extends AbstractJobTest {
 		//every job should now be waiting for the STATUS_START flag
 		for (int i = 0; i < status.length(); i++) {
 			assertEquals("3." + i, Job.RUNNING, jobs[i].getState());
-			assertTrue("4." + i, jobs[i].getThread() instanceof Worker);
+			assertTrue("4." + i, isWorker(jobs[i].getThread()));
 			status.set(i, TestBarrier2.STATUS_START);
 		}
 
@@ -215,7 +232,7 @@ public class JobTest extends AbstractJobTest {
 
 		//every job should now be waiting for the STATUS_WAIT_FOR_RUN flag
 		for (int i = 0; i < status.length(); i++) {
-			assertTrue("5. " + i, jobs[i].getThread() instanceof Worker);
+			assertTrue("5. " + i, isWorker(jobs[i].getThread()));
 			status.set(i, TestBarrier2.STATUS_WAIT_FOR_RUN);
 		}
 
@@ -280,7 +297,7 @@ public class JobTest extends AbstractJobTest {
 		for (int i = 0; i < 3; i++) {
 			TestBarrier2.waitForStatus(status, i, TestBarrier2.STATUS_RUNNING);
 			assertEquals("3." + i, Job.RUNNING, jobs[i].getState());
-			assertTrue("4." + i, jobs[i].getThread() instanceof Worker);
+			assertTrue("4." + i, isWorker(jobs[i].getThread()));
 			status.set(i, TestBarrier2.STATUS_START);
 		}
 
@@ -291,7 +308,7 @@ public class JobTest extends AbstractJobTest {
 
 		//the 3 jobs should now be waiting for the STATUS_WAIT_FOR_RUN flag
 		for (int i = 0; i < 3; i++) {
-			assertTrue("5. " + i, jobs[i].getThread() instanceof Worker);
+			assertTrue("5. " + i, isWorker(jobs[i].getThread()));
 			status.set(i, TestBarrier2.STATUS_WAIT_FOR_RUN);
 		}
 
@@ -15,6 +15,7 @@ package org.eclipse.core.tests.runtime.jobs;
 
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.jobs.IHierarchicalSchedulingRule;
 import org.eclipse.core.runtime.jobs.ISchedulingRule;
 
 /**
@@ -22,7 +23,7 @@ import org.eclipse.core.runtime.jobs.ISchedulingRule;
  * rule if its path is a prefix of the other rule's path.  A path rule is conflicting
  * with another rule if either one is a prefix of the other.
  */
-public class PathRule implements ISchedulingRule {
+public class PathRule implements IHierarchicalSchedulingRule {
 	private IPath path;
 
 	public PathRule(IPath path) {
@@ -54,6 +55,16 @@ public class PathRule implements ISchedulingRule {
 		return path;
 	}
 
+	@Override
+	public Object getRuleHierarchy() {
+		return PathRule.class;
+	}
+
+	@Override
+	public IPath getRulePath() {
+		return path;
+	}
+
 	@Override
 	public String toString() {
 		return "PathRule(" + path + ")";
@@ -47,6 +47,9 @@ public class AllPerfTests extends TestCase {
 		suite.addTestSuite(BenchPath.class);
 		suite.addTest(ContentTypePerformanceTest.suite());
 		suite.addTestSuite(PreferencePerformanceTest.class);
+		suite.addTestSuite(SchedulingRulePerformanceTest.class);
+		suite.addTestSuite(JobManagerPerformanceTest.class);
+		suite.addTestSuite(DeadlockDetectorPerformanceTest.class);
 		return suite;
 	}
 }
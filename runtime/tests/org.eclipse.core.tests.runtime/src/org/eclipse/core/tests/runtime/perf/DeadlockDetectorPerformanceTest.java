@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.tests.runtime.perf;
+
+import java.util.Random;
+import org.eclipse.core.internal.jobs.DeadlockDetector;
+import org.eclipse.core.runtime.jobs.ILock;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.tests.harness.PerformanceTestRunner;
+import org.eclipse.core.tests.runtime.RuntimeTest;
+
+/**
+ * Measures how long it takes to acquire and release many locks from many
+ * threads, while every thread holds a number of other locks, so that the
+ * deadlock detector has to track many threads and locks. Threads acquire
+ * shared locks in random order, so deadlocks are detected and resolved too.
+ */
+@SuppressWarnings("restriction")
+public class DeadlockDetectorPerformanceTest extends RuntimeTest {
+	private static final int THREAD_COUNT = 16;
+	private static final int HELD_LOCKS_PER_THREAD = 20;
+	private static final int SHARED_LOCK_COUNT = 50;
+	private static final int ITERATIONS = 2000;
+
+	public DeadlockDetectorPerformanceTest() {
+		super();
+	}
+
+	public DeadlockDetectorPerformanceTest(String testName) {
+		super(testName);
+	}
+
+	public void testAcquireManyLocks() {
+		final ILock[] shared = new ILock[SHARED_LOCK_COUNT];
+		for (int i = 0; i < shared.length; i++)
+			shared[i] = Job.getJobManager().newLock();
+		new PerformanceTestRunner() {
+			@Override
+			protected void test() {
+				DeadlockDetector.runSilent(() -> {
+					Thread[] threads = new Thread[THREAD_COUNT];
+					for (int t = 0; t < THREAD_COUNT; t++) {
+						final long seed = t;
+						threads[t] = new Thread(() -> {
+							Random random = new Random(seed);
+							ILock[] held = new ILock[HELD_LOCKS_PER_THREAD];
+							for (int i = 0; i < held.length; i++) {
+								held[i] = Job.getJobManager().newLock();
+								held[i].acquire();
+							}
+							for (int i = 0; i < ITERATIONS; i++) {
+								ILock first = shared[random.nextInt(shared.length)];
+								ILock second = shared[random.nextInt(shared.length)];
+								first.acquire();
+								second.acquire();
+								second.release();
+								first.release();
+							}
+							for (int i = held.length - 1; i >= 0; i--)
+								held[i].release();
+						}, "testAcquireManyLocks-" + t);
+						threads[t].start();
+					}
+					try {
+						for (Thread thread : threads)
+							thread.join();
+					} catch (InterruptedException e) {
+						fail("1.0", e);
+					}
+				});
+			}
+		}.run(this, 10, 1);
+	}
+}
@@ -0,0 +1,43 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.tests.runtime.perf;
+
+import org.eclipse.core.runtime.*;
+import org.eclipse.core.runtime.jobs.ISchedulingRule;
+import org.eclipse.core.runtime.jobs.Job;
+
+/**
+ * A system job that does nothing, and belongs to a given family so that the
+ * jobs of a measurement can be joined.
+ */
+class FamilyJob extends Job {
+	private final Object family;
+
+	FamilyJob(String name, ISchedulingRule rule, Object family) {
+		super(name);
+		this.family = family;
+		setSystem(true);
+		setRule(rule);
+	}
+
+	@Override
+	protected IStatus run(IProgressMonitor monitor) {
+		return Status.OK_STATUS;
+	}
+
+	@Override
+	public boolean belongsTo(Object jobFamily) {
+		return jobFamily == family;
+	}
+}
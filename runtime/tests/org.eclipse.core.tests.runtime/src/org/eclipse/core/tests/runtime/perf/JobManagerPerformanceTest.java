@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.tests.runtime.perf;
+
+import java.util.concurrent.CyclicBarrier;
+import org.eclipse.core.internal.jobs.JobManager;
+import org.eclipse.core.internal.jobs.LockStatistics;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.tests.harness.PerformanceTestRunner;
+import org.eclipse.core.tests.runtime.RuntimeTest;
+import org.eclipse.core.tests.runtime.jobs.PathRule;
+
+/**
+ * Measures how long it takes to schedule many short jobs from many threads at
+ * once, and checks the contention statistics of the lock of the job manager.
+ */
+@SuppressWarnings("restriction")
+public class JobManagerPerformanceTest extends RuntimeTest {
+	private static final int JOBS_PER_THREAD = 2000;
+	private static final int THREAD_COUNT = Math.max(8, Runtime.getRuntime().availableProcessors());
+
+	public JobManagerPerformanceTest() {
+		super();
+	}
+
+	public JobManagerPerformanceTest(String testName) {
+		super(testName);
+	}
+
+	/**
+	 * Every thread schedules jobs whose rules do not conflict with the jobs of
+	 * other threads.
+	 */
+	public void testScheduleConcurrently() {
+		final JobManager manager = (JobManager) Job.getJobManager();
+		final LockStatistics statistics = manager.getLockStatistics();
+		boolean wasEnabled = statistics.isEnabled();
+		statistics.setEnabled(true);
+		statistics.reset();
+		try {
+			new PerformanceTestRunner() {
+				@Override
+				protected void test() {
+					final Object family = new Object();
+					final CyclicBarrier barrier = new CyclicBarrier(THREAD_COUNT);
+					Thread[] threads = new Thread[THREAD_COUNT];
+					for (int t = 0; t < THREAD_COUNT; t++) {
+						final int thread = t;
+						threads[t] = new Thread(() -> {
+							try {
+								barrier.await();
+							} catch (Exception e) {
+								return;
+							}
+							for (int i = 0; i < JOBS_PER_THREAD; i++)
+								new FamilyJob("job" + i, new PathRule("/thread" + thread + "/file" + i), family).schedule();
+						}, "testScheduleConcurrently-" + t);
+						threads[t].start();
+					}
+					try {
+						for (Thread thread : threads)
+							thread.join();
+						manager.join(family, null);
+					} catch (InterruptedException e) {
+						fail("1.0", e);
+					}
+				}
+			}.run(this, 10, 1);
+			//every job is scheduled under the lock
+			assertTrue("2.0", statistics.getAcquisitions() >= THREAD_COUNT * JOBS_PER_THREAD);
+			assertTrue("2.1", statistics.getContendedAcquisitions() <= statistics.getAcquisitions());
+			assertTrue("2.2", statistics.getMaxWaitNanos() <= statistics.getWaitNanos());
+		} finally {
+			statistics.setEnabled(wasEnabled);
+		}
+	}
+}
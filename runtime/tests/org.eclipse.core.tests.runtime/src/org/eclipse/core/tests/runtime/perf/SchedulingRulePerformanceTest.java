@@ -0,0 +1,102 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.tests.runtime.perf;
+
+import java.util.concurrent.CountDownLatch;
+import org.eclipse.core.runtime.*;
+import org.eclipse.core.runtime.jobs.*;
+import org.eclipse.core.tests.harness.PerformanceTestRunner;
+import org.eclipse.core.tests.runtime.RuntimeTest;
+import org.eclipse.core.tests.runtime.jobs.PathRule;
+
+/**
+ * Measures how long it takes to schedule and run many jobs with hierarchical
+ * scheduling rules, when many of them are blocked by a running job.
+ */
+public class SchedulingRulePerformanceTest extends RuntimeTest {
+	private static final int JOB_COUNT = 5000;
+	private static final int PROJECT_COUNT = 50;
+
+	public SchedulingRulePerformanceTest() {
+		super();
+	}
+
+	public SchedulingRulePerformanceTest(String testName) {
+		super(testName);
+	}
+
+	/**
+	 * Half of the jobs are blocked behind a long running job, so every other
+	 * job has to be checked against the blocked ones before it can run.
+	 */
+	public void testScheduleBlockedJobs() {
+		final IJobManager manager = Job.getJobManager();
+		new PerformanceTestRunner() {
+			@Override
+			protected void test() {
+				final Object family = new Object();
+				final CountDownLatch release = new CountDownLatch(1);
+				Job blocker = new Job("blocker") {
+					@Override
+					protected IStatus run(IProgressMonitor monitor) {
+						try {
+							release.await();
+						} catch (InterruptedException e) {
+							return Status.CANCEL_STATUS;
+						}
+						return Status.OK_STATUS;
+					}
+				};
+				blocker.setSystem(true);
+				blocker.setRule(new PathRule("/blocked"));
+				blocker.schedule();
+				for (int i = 0; i < JOB_COUNT; i++) {
+					String path = (i % 2 == 0 ? "/blocked/" : "/project" + (i % PROJECT_COUNT) + '/') + "folder" + (i % 100) + "/file" + i;
+					new FamilyJob("job" + i, new PathRule(path), family).schedule();
+				}
+				release.countDown();
+				try {
+					manager.join(family, null);
+					blocker.join();
+				} catch (InterruptedException e) {
+					fail("1.0", e);
+				}
+			}
+		}.run(this, 10, 1);
+	}
+
+	/**
+	 * Jobs with rules in many projects, none of which conflict with each other.
+	 */
+	public void testScheduleIndependentJobs() {
+		final IJobManager manager = Job.getJobManager();
+		new PerformanceTestRunner() {
+			@Override
+			protected void test() {
+				final Object family = new Object();
+				for (int i = 0; i < JOB_COUNT; i++) {
+					ISchedulingRule rule = new PathRule("/project" + (i % PROJECT_COUNT) + "/folder" + i);
+					if (i % 10 == 0)
+						rule = MultiRule.combine(rule, new PathRule("/project" + (i % PROJECT_COUNT) + "/file" + i));
+					new FamilyJob("job" + i, rule, family).schedule();
+				}
+				try {
+					manager.join(family, null);
+				} catch (InterruptedException e) {
+					fail("1.0", e);
+				}
+			}
+		}.run(this, 10, 1);
+	}
+}